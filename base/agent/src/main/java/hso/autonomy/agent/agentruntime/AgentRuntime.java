@@ -110,6 +110,12 @@ public abstract class AgentRuntime implements IObserver<IPerceptorMap>, Serializ
 				printExceptionOnce = true;
 			}
 		}
+
+		// the cycle has ended, pooled perceptors may be reused by the channels
+		perception.releasePerceptors();
+		if (content != null) {
+			content.release();
+		}
 	}
 
 	protected void onPrepareAction()
@@ -152,14 +158,7 @@ public abstract class AgentRuntime implements IObserver<IPerceptorMap>, Serializ
 
 		while (channelManager.isConnected()) {
 			try {
-				synchronized (channelManager)
-				{
-					channelManager.wait();
-				}
-				IPerceptorMap nextMap;
-				while ((nextMap = channelManager.getNextPerceptorMap()) != null) {
-					update(nextMap);
-				}
+				channelManager.dispatchPerceptors(this);
 			} catch (InterruptedException | RuntimeException e) {
 				e.printStackTrace();
 			}
@@ -8,6 +8,7 @@ package hso.autonomy.agent.communication.channel;
 import hso.autonomy.agent.communication.action.IActionPerformer;
 import hso.autonomy.agent.communication.perception.IPerceptionLogger;
 import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import hso.autonomy.util.observer.IObserver;
 
 /**
  *
@@ -22,6 +23,19 @@ public interface IChannelManager extends IActionPerformer {
 		LOST_MAIN_CONNECTION
 	}
 
+	/** how received perceptions are passed to the agent */
+	enum DispatchMode
+	{
+		/** perceptions are queued and the waiting agent thread is notified */
+		QUEUE,
+		/** the receive thread of the channel runs the agent cycle itself */
+		RECEIVE_THREAD,
+		/** perceptions are passed through a lock free ring, the agent busy spins */
+		RING_SPIN,
+		/** perceptions are passed through a lock free ring, the agent parks */
+		RING_PARK
+	}
+
 	void addPerceptors(IPerceptorMap newPerceptors);
 
 	void addInputChannel(IInputChannel channel, boolean isMainChannel);
@@ -39,6 +53,22 @@ public interface IChannelManager extends IActionPerformer {
 	 */
 	IPerceptorMap getNextPerceptorMap();
 
+	/**
+	 * Waits for new perceptions and passes them to the observer. Returns after
+	 * all available perceptions are passed or if the manager is stopped. In
+	 * {@link DispatchMode#RECEIVE_THREAD} mode the observer is called by the
+	 * receive thread and this method only returns if the manager is stopped.
+	 *
+	 * @param observer the agent cycle to run for each perception
+	 */
+	void dispatchPerceptors(IObserver<IPerceptorMap> observer) throws InterruptedException;
+
+	/**
+	 * @return the number of cycles that were not processed separately since
+	 *         their perceptions were merged into a later cycle
+	 */
+	int getDroppedCycles();
+
 	/**
 	 * Called if a connection of an input channel is lost
 	 */
@@ -11,9 +11,15 @@ import hso.autonomy.agent.communication.channel.IChannelManager;
 import hso.autonomy.agent.communication.channel.IInputChannel;
 import hso.autonomy.agent.communication.channel.IOutputChannel;
 import hso.autonomy.agent.communication.perception.IPerceptionLogger;
+import hso.autonomy.agent.communication.perception.IPerceptorCoalescer;
 import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import hso.autonomy.util.misc.SPSCRingBuffer;
+import hso.autonomy.util.observer.IObserver;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  *
@@ -21,9 +27,36 @@ import java.util.List;
  */
 public class ChannelManager implements IChannelManager
 {
+	/** the maximum number of perceptions in the ring of the ring modes */
+	private static final int RING_CAPACITY = 64;
+
+	/** the maximum time to park before checking the connection again */
+	private static final long PARK_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(100);
+
+	/** how received perceptions are passed to the agent */
+	private final DispatchMode dispatchMode;
+
 	/** the container for incoming perceptions */
 	private List<IPerceptorMap> perceptors;
 
+	/** the container for incoming perceptions in the ring modes */
+	private final SPSCRingBuffer<IPerceptorMap> ring;
+
+	/** the agent thread parked in {@link DispatchMode#RING_PARK} mode */
+	private final AtomicReference<Thread> parkedThread;
+
+	/** the agent cycle run by the receive thread, null before dispatching */
+	private IObserver<IPerceptorMap> receiveThreadObserver;
+
+	/** merges pending perceptions into one cycle, null to process each */
+	private IPerceptorCoalescer coalescer;
+
+	/** the perceptions merged into the next cycle */
+	private final List<IPerceptorMap> pending;
+
+	/** the number of cycles merged into a later cycle */
+	private volatile int droppedCycles;
+
 	/** the single main channel */
 	private IInputChannel mainChannel;
 
@@ -33,7 +66,7 @@ public class ChannelManager implements IChannelManager
 	/** channels for sending sensor information */
 	protected List<IOutputChannel> outChannels;
 
-	private ChannelManagerStatus status;
+	private volatile ChannelManagerStatus status;
 
 	private boolean hadConnection;
 
@@ -42,7 +75,20 @@ public class ChannelManager implements IChannelManager
 
 	public ChannelManager()
 	{
+		this(DispatchMode.QUEUE);
+	}
+
+	/**
+	 * @param dispatchMode how received perceptions are passed to the agent
+	 */
+	public ChannelManager(DispatchMode dispatchMode)
+	{
+		this.dispatchMode = dispatchMode;
 		perceptors = new ArrayList<>();
+		boolean ringMode = dispatchMode == DispatchMode.RING_SPIN || dispatchMode == DispatchMode.RING_PARK;
+		ring = ringMode ? new SPSCRingBuffer<>(RING_CAPACITY) : null;
+		parkedThread = new AtomicReference<>();
+		pending = new ArrayList<>();
 		this.inChannels = new ArrayList<>();
 		this.outChannels = new ArrayList<>();
 		status = ChannelManagerStatus.CREATED;
@@ -55,6 +101,18 @@ public class ChannelManager implements IChannelManager
 			return;
 		}
 
+		switch (dispatchMode) {
+		case RECEIVE_THREAD:
+			updateOnReceiveThread(newPerceptors);
+			return;
+		case RING_SPIN:
+		case RING_PARK:
+			offerPerceptors(newPerceptors);
+			return;
+		default:
+			break;
+		}
+
 		synchronized (perceptors)
 		{
 			perceptors.add(newPerceptors);
@@ -67,9 +125,51 @@ public class ChannelManager implements IChannelManager
 		}
 	}
 
+	/**
+	 * Runs the agent cycle in the calling receive thread. Perceptions received
+	 * before the agent started dispatching are queued.
+	 */
+	private void updateOnReceiveThread(IPerceptorMap newPerceptors)
+	{
+		// only contended if there is more than one input channel
+		synchronized (perceptors)
+		{
+			if (receiveThreadObserver == null) {
+				perceptors.add(newPerceptors);
+			} else {
+				receiveThreadObserver.update(newPerceptors);
+			}
+		}
+	}
+
+	private void offerPerceptors(IPerceptorMap newPerceptors)
+	{
+		boolean added;
+		if (inChannels.size() == 1) {
+			added = ring.offer(newPerceptors);
+		} else {
+			// the ring supports a single producer only
+			synchronized (ring)
+			{
+				added = ring.offer(newPerceptors);
+			}
+		}
+
+		if (!added) {
+			// the agent is far behind, we drop the perception
+			newPerceptors.release();
+		}
+
+		wakeUpParked();
+	}
+
 	@Override
 	public IPerceptorMap getNextPerceptorMap()
 	{
+		if (ring != null) {
+			return ring.poll();
+		}
+
 		synchronized (perceptors)
 		{
 			if (perceptors.isEmpty()) {
@@ -79,6 +179,132 @@ public class ChannelManager implements IChannelManager
 		}
 	}
 
+	@Override
+	public void dispatchPerceptors(IObserver<IPerceptorMap> observer) throws InterruptedException
+	{
+		switch (dispatchMode) {
+		case RECEIVE_THREAD:
+			synchronized (perceptors)
+			{
+				// perceptions received before we were ready
+				while (!perceptors.isEmpty()) {
+					observer.update(perceptors.remove(0));
+				}
+				receiveThreadObserver = observer;
+			}
+			waitForNotify();
+			return;
+
+		case RING_SPIN:
+		case RING_PARK:
+			if (!awaitRing()) {
+				return;
+			}
+			break;
+
+		default:
+			waitForNotify();
+		}
+
+		IPerceptorMap nextMap;
+		if (coalescer == null) {
+			while ((nextMap = getNextPerceptorMap()) != null) {
+				observer.update(nextMap);
+			}
+			return;
+		}
+
+		nextMap = getNextPerceptorMap();
+		while (nextMap != null) {
+			// collect the perceptions that can be processed in one cycle
+			pending.add(nextMap);
+			nextMap = getNextPerceptorMap();
+			while (nextMap != null && coalescer.canMerge(pending.get(pending.size() - 1), nextMap)) {
+				pending.add(nextMap);
+				nextMap = getNextPerceptorMap();
+			}
+			processPending(observer);
+		}
+	}
+
+	/**
+	 * Runs a single cycle for all pending perceptions
+	 */
+	private void processPending(IObserver<IPerceptorMap> observer)
+	{
+		if (pending.size() == 1) {
+			observer.update(pending.get(0));
+			pending.clear();
+			return;
+		}
+
+		IPerceptorMap merged = coalescer.merge(pending);
+		droppedCycles += pending.size() - 1;
+		observer.update(merged);
+
+		// the merged map refers to perceptors of the other maps, so we release
+		// them after the cycle only
+		for (IPerceptorMap map : pending) {
+			if (map != merged) {
+				map.release();
+			}
+		}
+		pending.clear();
+	}
+
+	/**
+	 * Sets the catch up policy used if the agent falls behind the received
+	 * perceptions. Has no effect in {@link DispatchMode#RECEIVE_THREAD} mode
+	 * where perceptions are never pending.
+	 *
+	 * @param coalescer merges all pending perceptions into a single cycle, null
+	 *        to process each perception in its own cycle
+	 */
+	public void setCoalescer(IPerceptorCoalescer coalescer)
+	{
+		this.coalescer = coalescer;
+	}
+
+	@Override
+	public int getDroppedCycles()
+	{
+		return droppedCycles;
+	}
+
+	private synchronized void waitForNotify() throws InterruptedException
+	{
+		if (dispatchMode != DispatchMode.RECEIVE_THREAD || status == ChannelManagerStatus.STARTED) {
+			wait();
+		}
+	}
+
+	/**
+	 * Waits until the ring contains perceptions by busy spinning or parking
+	 *
+	 * @return true if perceptions are available, false if the manager was
+	 *         stopped
+	 */
+	private boolean awaitRing() throws InterruptedException
+	{
+		while (ring.isEmpty()) {
+			if (status != ChannelManagerStatus.STARTED) {
+				return false;
+			}
+			if (dispatchMode == DispatchMode.RING_PARK) {
+				parkedThread.set(Thread.currentThread());
+				// check again, the producer might not have seen us parking
+				if (ring.isEmpty()) {
+					LockSupport.parkNanos(this, PARK_TIMEOUT);
+				}
+				parkedThread.set(null);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public void performAction(IEffectorMap effectors)
 	{
@@ -128,12 +354,25 @@ public class ChannelManager implements IChannelManager
 		inChannels.forEach(IChannel::stopChannel);
 		outChannels.forEach(IChannel::stopChannel);
 
+		status = ChannelManagerStatus.STOPPED;
 		synchronized (this)
 		{
 			notify();
 		}
+		wakeUpParked();
+	}
 
-		status = ChannelManagerStatus.STOPPED;
+	private void wakeUpParked()
+	{
+		Thread parked = parkedThread.getAndSet(null);
+		if (parked != null) {
+			LockSupport.unpark(parked);
+		}
+	}
+
+	public DispatchMode getDispatchMode()
+	{
+		return dispatchMode;
 	}
 
 	@Override
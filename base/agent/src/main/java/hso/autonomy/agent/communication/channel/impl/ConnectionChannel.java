@@ -11,14 +11,17 @@ import hso.autonomy.agent.communication.channel.IChannelState.DataState;
 import hso.autonomy.agent.communication.channel.IInputChannel;
 import hso.autonomy.util.connection.ConnectionException;
 import hso.autonomy.util.connection.IServerConnection;
+import hso.autonomy.util.connection.impl.IByteBufferReceiver;
 import hso.autonomy.util.observer.IObserver;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
  *
  * @author kdorer
  */
-public abstract class ConnectionChannel extends ChannelBase implements IInputChannel, IObserver<byte[]>
+public abstract class ConnectionChannel extends ChannelBase
+		implements IInputChannel, IObserver<byte[]>, IByteBufferReceiver
 {
 	/** the connection to the server */
 	protected final IServerConnection connection;
@@ -110,6 +113,42 @@ public abstract class ConnectionChannel extends ChannelBase implements IInputCha
 		}
 	}
 
+	/**
+	 * Called by connections that pass messages as views on their receive
+	 * buffer. The buffer is only valid during this call.
+	 */
+	@Override
+	public void update(ByteBuffer message)
+	{
+		int start = message.position();
+		try {
+			if (numberOfReceivedMessages == 0) {
+				onFirstMessage(toBytes(message, start));
+				message.position(start);
+			}
+			onEachMessage(message);
+			numberOfReceivedMessages++;
+
+		} catch (ConnectionException e) {
+			System.err.println("ConnectionChannel::update(): " + e);
+			state.setConnectionState(ConnectionState.DISCONNECTED);
+
+		} catch (RuntimeException e) {
+			onInvalidData(Arrays.toString(toBytes(message, start)));
+		}
+	}
+
+	/**
+	 * @return a copy of the bytes of the buffer from start to its limit
+	 */
+	protected static byte[] toBytes(ByteBuffer message, int start)
+	{
+		byte[] result = new byte[message.limit() - start];
+		message.position(start);
+		message.get(result);
+		return result;
+	}
+
 	protected void onInvalidData(String message)
 	{
 		System.err.println("Error parsing message:\n" + message);
@@ -131,6 +170,16 @@ public abstract class ConnectionChannel extends ChannelBase implements IInputCha
 	{
 	}
 
+	/**
+	 * Notification for each message that was received as buffer on this
+	 * channel. The default implementation passes a copy of the message to
+	 * {@link #onEachMessage(byte[])}.
+	 */
+	protected void onEachMessage(ByteBuffer message) throws ConnectionException
+	{
+		onEachMessage(toBytes(message, message.position()));
+	}
+
 	public int getNumberOfReceivedMessages()
 	{
 		return numberOfReceivedMessages;
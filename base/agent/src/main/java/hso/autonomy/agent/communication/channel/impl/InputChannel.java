@@ -11,6 +11,7 @@ import hso.autonomy.agent.communication.perception.IPerceptorMap;
 import hso.autonomy.agent.communication.perception.PerceptorConversionException;
 import hso.autonomy.util.connection.ConnectionException;
 import hso.autonomy.util.connection.IServerConnection;
+import java.nio.ByteBuffer;
 
 /**
  *
@@ -42,6 +43,21 @@ public abstract class InputChannel extends ConnectionChannel
 		}
 	}
 
+	/**
+	 * Notification for each message that was received as buffer on this
+	 * channel, the message is parsed without copying it
+	 */
+	@Override
+	protected void onEachMessage(ByteBuffer message) throws ConnectionException
+	{
+		int start = message.position();
+		try {
+			publishPerceptors(parser.parseMessage(message));
+		} catch (PerceptorConversionException | RuntimeException e) {
+			onInvalidData(parser.getErrorString(toBytes(message, start)) + "\nDetails: " + e.getMessage());
+		}
+	}
+
 	protected void publishPerceptors(IPerceptorMap rawPerceptors)
 	{
 		getManager().addPerceptors(rawPerceptors);
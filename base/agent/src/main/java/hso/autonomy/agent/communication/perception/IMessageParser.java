@@ -5,6 +5,8 @@
 
 package hso.autonomy.agent.communication.perception;
 
+import java.nio.ByteBuffer;
+
 /**
  * A Server Message Parser receives a String from some interface layer, parses
  * it into a list of Perceptors and returns them.
@@ -20,6 +22,21 @@ public interface IMessageParser {
 	 */
 	IPerceptorMap parseMessage(byte[] message) throws PerceptorConversionException;
 
+	/**
+	 * Parses the bytes between position and limit of the passed buffer into
+	 * IPerceptor objects. The buffer is only valid during this call. The default
+	 * implementation copies the bytes into an array.
+	 * @param message the buffer containing the message to parse
+	 * @return a map of IPerceptor objects created during parsing
+	 * @throws PerceptorConversionException
+	 */
+	default IPerceptorMap parseMessage(ByteBuffer message) throws PerceptorConversionException
+	{
+		byte[] bytes = new byte[message.remaining()];
+		message.get(bytes);
+		return parseMessage(bytes);
+	}
+
 	/**
 	 * How to output <code>message</code> in case parsing fails.
 	 */
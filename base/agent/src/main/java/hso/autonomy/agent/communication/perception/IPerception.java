@@ -109,6 +109,13 @@ public interface IPerception {
 
 	void updatePerceptors(IPerceptorMap perceptor);
 
+	/**
+	 * Drops the perceptors of the current cycle before their map is released,
+	 * since released maps are reused by the channels. Until the next update the
+	 * perception contains no perceptors.
+	 */
+	void releasePerceptors();
+
 	/**
 	 * Generic method for fetching typed perceptors.
 	 *
@@ -0,0 +1,33 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.communication.perception;
+
+import java.util.List;
+
+/**
+ * Merges the perceptor maps of several cycles into one if the agent falls
+ * behind, so that only a single cycle has to be processed.
+ *
+ * @author kdorer
+ */
+public interface IPerceptorCoalescer {
+	/**
+	 * @param older the perceptor map of the earlier cycle
+	 * @param newer the perceptor map of the following cycle
+	 * @return true if both maps may be processed in a single cycle
+	 */
+	boolean canMerge(IPerceptorMap older, IPerceptorMap newer);
+
+	/**
+	 * Merges the perceptors of the older maps into the newest map. The older maps
+	 * must not be released before the newest map is processed, since it may
+	 * refer to their perceptors.
+	 *
+	 * @param maps the maps to merge ordered from oldest to newest
+	 * @return the newest map containing the merged perceptors
+	 */
+	IPerceptorMap merge(List<IPerceptorMap> maps);
+}
@@ -35,4 +35,14 @@ public interface IPerceptorMap extends Map<String, IPerceptor> {
 	 * @return a perceptor of the specified class with the given name if such a perceptor exists, or null otherwise
 	 */
 	public <T extends IPerceptor> T get(String name, Class<T> clazz);
+
+	/**
+	 * Hands this map back for reuse once the cycle processing it has ended.
+	 * Afterwards neither the map nor its perceptors may be accessed any more.
+	 * The default implementation does nothing since only pooled maps are
+	 * reused.
+	 */
+	default void release()
+	{
+	}
 }
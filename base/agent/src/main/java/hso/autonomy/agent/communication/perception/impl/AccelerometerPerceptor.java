@@ -33,6 +33,11 @@ public class AccelerometerPerceptor extends Perceptor implements IAccelerometerP
 		this.vector = new Vector3D(accelX, accelY, accelZ);
 	}
 
+	public void setAcceleration(float accelX, float accelY, float accelZ)
+	{
+		this.vector = new Vector3D(accelX, accelY, accelZ);
+	}
+
 	@Override
 	public Vector3D getAcceleration()
 	{
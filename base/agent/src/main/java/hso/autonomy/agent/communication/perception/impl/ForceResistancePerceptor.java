@@ -44,7 +44,19 @@ public class ForceResistancePerceptor extends Perceptor implements IForceResista
 	public ForceResistancePerceptor(String name, float fox, float foy, float foz, float fx, float fy, float fz)
 	{
 		super(name);
+		setForce(fox, foy, foz, fx, fy, fz);
+	}
 
+	/**
+	 * @param fox Force Origin - X
+	 * @param foy Force Origin - Y
+	 * @param foz Force Origin - Z
+	 * @param fx Force - X
+	 * @param fy Force - Y
+	 * @param fz Force - Z
+	 */
+	public void setForce(float fox, float foy, float foz, float fx, float fy, float fz)
+	{
 		forceOrigin = new Vector3D(fox, foy, foz);
 		force = new Vector3D(fx, fy, fz);
 	}
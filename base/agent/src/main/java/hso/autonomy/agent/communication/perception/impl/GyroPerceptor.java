@@ -33,6 +33,11 @@ public class GyroPerceptor extends Perceptor implements IGyroPerceptor
 		this.vector = new Vector3D(rotationX, rotationY, rotationZ);
 	}
 
+	public void setGyro(float rotationX, float rotationY, float rotationZ)
+	{
+		this.vector = new Vector3D(rotationX, rotationY, rotationZ);
+	}
+
 	@Override
 	public Vector3D getGyro()
 	{
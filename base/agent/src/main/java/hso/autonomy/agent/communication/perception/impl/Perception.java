@@ -41,9 +41,13 @@ public class Perception implements IPerception
 	// Flag - if the current perception contains motor information
 	protected boolean containsMotion;
 
+	/** the map used while there are no perceptors of a cycle, never modified */
+	private final IPerceptorMap noPerceptors;
+
 	public Perception()
 	{
-		perceptors = new PerceptorMap();
+		noPerceptors = new PerceptorMap();
+		perceptors = noPerceptors;
 	}
 
 	@Override
@@ -168,6 +172,15 @@ public class Perception implements IPerception
 		perceptors.values().forEach(this::processInputPerceptor);
 	}
 
+	@Override
+	public void releasePerceptors()
+	{
+		// the released map is refilled by the channel thread, so it must not be read any more
+		perceptors = noPerceptors;
+		containsVision = false;
+		containsMotion = false;
+	}
+
 	protected void processInputPerceptor(IPerceptor perceptor)
 	{
 		// Handle sensor perceptors
@@ -0,0 +1,79 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.communication.perception.impl;
+
+import hso.autonomy.agent.communication.perception.ILinePerceptor;
+import hso.autonomy.agent.communication.perception.IPerceptor;
+import hso.autonomy.agent.communication.perception.IPerceptorCoalescer;
+import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import hso.autonomy.agent.communication.perception.IVisibleObjectPerceptor;
+import java.util.List;
+
+/**
+ * Keeps the state perceptors (joints, IMU, time etc.) of the newest map. If
+ * the newest map does not contain vision, the complete vision of the latest
+ * older map that has vision is added. Event perceptors of older maps that are
+ * not contained in the newest map are added.
+ *
+ * @author kdorer
+ */
+public class PerceptorCoalescer implements IPerceptorCoalescer
+{
+	@Override
+	public boolean canMerge(IPerceptorMap older, IPerceptorMap newer)
+	{
+		return true;
+	}
+
+	@Override
+	public IPerceptorMap merge(List<IPerceptorMap> maps)
+	{
+		IPerceptorMap newest = maps.get(maps.size() - 1);
+		boolean hasVision = containsVision(newest);
+		for (int i = maps.size() - 2; i >= 0; i--) {
+			IPerceptorMap older = maps.get(i);
+			boolean takeVision = !hasVision && containsVision(older);
+			for (IPerceptor perceptor : older.values()) {
+				if (takeVision && isVision(perceptor)) {
+					newest.put(perceptor);
+				} else if (isEvent(perceptor) && !newest.containsKey(perceptor.getName())) {
+					newest.put(perceptor);
+				}
+			}
+			hasVision |= takeVision;
+		}
+		return newest;
+	}
+
+	private boolean containsVision(IPerceptorMap map)
+	{
+		for (IPerceptor perceptor : map.values()) {
+			if (isVision(perceptor)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the perceptor is part of the vision, which is only taken
+	 *         as a whole
+	 */
+	protected boolean isVision(IPerceptor perceptor)
+	{
+		return perceptor instanceof IVisibleObjectPerceptor || perceptor instanceof ILinePerceptor;
+	}
+
+	/**
+	 * @return true if the perceptor reports a single event that must not be lost
+	 *         (like a message), false if it reports a state that is replaced by
+	 *         newer perceptions
+	 */
+	protected boolean isEvent(IPerceptor perceptor)
+	{
+		return false;
+	}
+}
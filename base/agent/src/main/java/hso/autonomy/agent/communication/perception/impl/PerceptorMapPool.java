@@ -0,0 +1,71 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.communication.perception.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of perceptor maps that are reused across cycles to avoid creating new
+ * maps and perceptors for each message. Maps are acquired by the receiving
+ * thread and released by the agent thread once the cycle processing them has
+ * ended. The pool only grows to the number of maps that are in use at the same
+ * time.
+ *
+ * @author kdorer
+ */
+public class PerceptorMapPool
+{
+	/** the maps that are currently not in use */
+	private final Deque<PooledPerceptorMap> freeMaps;
+
+	/** the number of maps created by this pool */
+	private int size;
+
+	public PerceptorMapPool()
+	{
+		freeMaps = new ArrayDeque<>();
+		size = 0;
+	}
+
+	/**
+	 * @return an empty map that may contain recyclable perceptors from earlier
+	 *         cycles
+	 */
+	public PooledPerceptorMap acquire()
+	{
+		PooledPerceptorMap map;
+		synchronized (freeMaps)
+		{
+			map = freeMaps.poll();
+			if (map == null) {
+				map = new PooledPerceptorMap(this);
+				size++;
+			}
+		}
+		map.acquire();
+		return map;
+	}
+
+	void release(PooledPerceptorMap map)
+	{
+		synchronized (freeMaps)
+		{
+			freeMaps.push(map);
+		}
+	}
+
+	/**
+	 * @return the number of maps created by this pool
+	 */
+	public int getSize()
+	{
+		synchronized (freeMaps)
+		{
+			return size;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.communication.perception.impl;
+
+import hso.autonomy.agent.communication.perception.IPerceptor;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Perceptor map that is reused across cycles. Besides the perceptors of the
+ * current cycle, it keeps the mutable perceptor instances that were put into it
+ * in earlier cycles, so that parsers can update them instead of creating new
+ * ones. Each map owns its instances, so a map that is still processed is never
+ * modified by the parser.
+ *
+ * @author kdorer
+ */
+public class PooledPerceptorMap extends PerceptorMap
+{
+	/** the pool this map is returned to on release */
+	private final transient PerceptorMapPool pool;
+
+	/** the perceptor instances that can be reused by name */
+	private final transient Map<String, IPerceptor> recyclable;
+
+	/** true while the map is handed out by the pool */
+	private transient boolean inUse;
+
+	PooledPerceptorMap(PerceptorMapPool pool)
+	{
+		this.pool = pool;
+		recyclable = new HashMap<>();
+	}
+
+	/**
+	 * @param name the name of the perceptor
+	 * @param clazz the class of the perceptor
+	 * @return the perceptor instance of the specified class that was put into
+	 *         this map with {@link #putRecyclable(IPerceptor)} in an earlier
+	 *         cycle, null if there is none
+	 */
+	public <T extends IPerceptor> T getRecyclable(String name, Class<T> clazz)
+	{
+		IPerceptor perceptor = recyclable.get(name);
+		if (clazz.isInstance(perceptor)) {
+			return clazz.cast(perceptor);
+		}
+		return null;
+	}
+
+	/**
+	 * Puts the perceptor into this map and keeps it for reuse in later cycles.
+	 * Only perceptors with a fixed set of names should be put with this method.
+	 *
+	 * @param perceptor the perceptor instance to add
+	 */
+	public void putRecyclable(IPerceptor perceptor)
+	{
+		put(perceptor);
+		recyclable.put(perceptor.getName(), perceptor);
+	}
+
+	void acquire()
+	{
+		clear();
+		inUse = true;
+	}
+
+	@Override
+	public void release()
+	{
+		if (inUse) {
+			inUse = false;
+			pool.release(this);
+		}
+	}
+}
@@ -19,6 +19,8 @@ import hso.autonomy.agent.model.agentmodel.impl.ik.IAgentIKSolver;
 import hso.autonomy.util.function.FunctionUtil;
 import hso.autonomy.util.geometry.Pose3D;
 import hso.autonomy.util.geometry.Pose6D;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,7 +44,11 @@ public class BodyModel implements Serializable, IBodyModel
 	/** a cache for all actuators excluding joints for faster access */
 	private Map<String, IActuator> actuatorCache;
 
-	private boolean centerOfMassValid;
+	/** the joint transformations of all body parts, recreated after deserialization */
+	private transient ForwardKinematicsCache kinematics;
+
+	/** the version of the joint transformations the center of mass was calculated with */
+	private long centerOfMassVersion;
 
 	private Vector3D centerOfMass;
 
@@ -71,7 +77,7 @@ public class BodyModel implements Serializable, IBodyModel
 		rootBodyPart = connectBodyParts(metaModel, bodyParts);
 		sensorCache = collectAllSensors();
 		actuatorCache = collectAllActuators();
-		centerOfMassValid = false;
+		kinematics = new ForwardKinematicsCache(rootBodyPart);
 	}
 
 	/**
@@ -84,6 +90,13 @@ public class BodyModel implements Serializable, IBodyModel
 		rootBodyPart = new BodyPart((BodyPart) source.rootBodyPart, null);
 		sensorCache = collectAllSensors();
 		actuatorCache = collectAllActuators();
+		kinematics = new ForwardKinematicsCache(rootBodyPart);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		kinematics = new ForwardKinematicsCache(rootBodyPart);
 	}
 
 	private Map<String, IBodyPart> createBodyParts(IAgentMetaModel metaModel, ISensorFactory sensorFactory)
@@ -151,7 +164,6 @@ public class BodyModel implements Serializable, IBodyModel
 	protected void updateFromPerception(IPerception perception)
 	{
 		rootBodyPart.updateFromPerception(perception);
-		centerOfMassValid = false;
 	}
 
 	/**
@@ -160,7 +172,6 @@ public class BodyModel implements Serializable, IBodyModel
 	protected void updateNoPerception()
 	{
 		rootBodyPart.updateNoPerception();
-		centerOfMassValid = false;
 	}
 
 	/**
@@ -208,8 +219,10 @@ public class BodyModel implements Serializable, IBodyModel
 	@Override
 	public Vector3D getCenterOfMass()
 	{
-		if (!centerOfMassValid) {
+		// joint changes invalidate the joint transformations and with it the center of mass
+		if (centerOfMass == null || centerOfMassVersion != kinematics.getVersion()) {
 			centerOfMass = rootBodyPart.getCenterOfMass();
+			centerOfMassVersion = kinematics.getVersion();
 		}
 		return centerOfMass;
 	}
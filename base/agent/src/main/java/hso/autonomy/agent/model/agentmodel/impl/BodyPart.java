@@ -81,6 +81,12 @@ public class BodyPart implements IBodyPart, Serializable
 
 	private Vector3D[] corners;
 
+	/** the joint transformations of the body model, null if not part of a body model */
+	private transient ForwardKinematicsCache kinematicsCache;
+
+	/** the index of this body part in the kinematics cache */
+	private transient int kinematicsIndex;
+
 	/**
 	 * Constructor for this bodypart
 	 *
@@ -262,6 +268,10 @@ public class BodyPart implements IBodyPart, Serializable
 	@Override
 	public Rotation getOrientation()
 	{
+		if (kinematicsCache != null) {
+			return kinematicsCache.getJointOrientation(kinematicsIndex);
+		}
+
 		Rotation orientation;
 
 		if (parent != null) {
@@ -299,10 +309,11 @@ public class BodyPart implements IBodyPart, Serializable
 	@Override
 	public Pose3D getJointTransformation()
 	{
-		// TODO kdo: we might want to calculate this information once
-		// that would require that the object is immutable and created each time
-		// we have updates on the joints. In that case it should be calculated top
-		// down starting with the root parent.
+		if (kinematicsCache != null) {
+			// calculated once top down starting with the root parent
+			return kinematicsCache.getJointTransformation(kinematicsIndex);
+		}
+
 		Pose3D parentPose;
 		Rotation orientation;
 		Vector3D jointPosition;
@@ -342,6 +353,27 @@ public class BodyPart implements IBodyPart, Serializable
 		setDistanceToParentJoint();
 	}
 
+	/**
+	 * Sets the cache to get the joint transformation from
+	 * @param cache the joint transformations of the body model
+	 * @param index the index of this body part in the cache
+	 */
+	void setKinematicsCache(ForwardKinematicsCache cache, int index)
+	{
+		kinematicsCache = cache;
+		kinematicsIndex = index;
+	}
+
+	Vector3D getDistanceToParentJoint()
+	{
+		return distanceToParentJoint;
+	}
+
+	Collection<BodyPart> getChildParts()
+	{
+		return children.values();
+	}
+
 	private void setDistanceToParentJoint()
 	{
 		if (parent == null) {
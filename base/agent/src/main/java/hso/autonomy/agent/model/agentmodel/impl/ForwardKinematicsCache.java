@@ -0,0 +1,153 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.agentmodel.impl;
+
+import hso.autonomy.agent.model.agentmodel.IHingeJoint;
+import hso.autonomy.util.geometry.Pose3D;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * Caches the joint transformations of all body parts of a body model. The
+ * transformations are calculated top down in one pass starting with the root
+ * body part the first time they are needed after a joint of the model changed.
+ * Not thread safe.
+ *
+ * @author kdorer
+ */
+class ForwardKinematicsCache
+{
+	/** the body parts ordered such that each parent is before its children */
+	private final BodyPart[] parts;
+
+	/** the index of the parent of each body part, -1 for the root */
+	private final int[] parentIndex;
+
+	/** the global joint position of each body part */
+	private final Vector3D[] positions;
+
+	/** the global joint orientation of each body part */
+	private final Rotation[] orientations;
+
+	/** true if the cached transformations match the current joint angles */
+	private boolean valid;
+
+	/** counts the changes of joint angles */
+	private long version;
+
+	/**
+	 * Creates the cache and registers it at all body parts and joints below the
+	 * passed root. Should only be called once the body model is fully connected.
+	 *
+	 * @param root the root body part of the model
+	 */
+	ForwardKinematicsCache(BodyPart root)
+	{
+		// breadth first, so parents are always before their children
+		List<BodyPart> ordered = new ArrayList<>();
+		List<Integer> parents = new ArrayList<>();
+		ordered.add(root);
+		parents.add(-1);
+		for (int i = 0; i < ordered.size(); i++) {
+			for (BodyPart child : ordered.get(i).getChildParts()) {
+				ordered.add(child);
+				parents.add(i);
+			}
+		}
+
+		parts = ordered.toArray(new BodyPart[0]);
+		parentIndex = new int[parts.length];
+		positions = new Vector3D[parts.length];
+		orientations = new Rotation[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			parentIndex[i] = parents.get(i);
+			parts[i].setKinematicsCache(this, i);
+			IHingeJoint joint = parts[i].getJoint();
+			if (joint instanceof HingeJoint) {
+				((HingeJoint) joint).setKinematicsCache(this);
+			}
+		}
+		valid = false;
+	}
+
+	/**
+	 * Called whenever a joint angle of the model changed
+	 */
+	void invalidate()
+	{
+		if (valid) {
+			valid = false;
+			version++;
+		}
+	}
+
+	/**
+	 * @return a number that changes whenever a joint angle of the model changed
+	 */
+	long getVersion()
+	{
+		return version;
+	}
+
+	/**
+	 * @param index the index of the body part
+	 * @return the global position of the joint of the body part
+	 */
+	Vector3D getJointPosition(int index)
+	{
+		update();
+		return positions[index];
+	}
+
+	/**
+	 * @param index the index of the body part
+	 * @return the global orientation of the joint of the body part
+	 */
+	Rotation getJointOrientation(int index)
+	{
+		update();
+		return orientations[index];
+	}
+
+	/**
+	 * @param index the index of the body part
+	 * @return a new pose of the joint of the body part that may be changed by the caller
+	 */
+	Pose3D getJointTransformation(int index)
+	{
+		update();
+		return new Pose3D(positions[index], orientations[index]);
+	}
+
+	private void update()
+	{
+		if (valid) {
+			return;
+		}
+
+		for (int i = 0; i < parts.length; i++) {
+			int parent = parentIndex[i];
+			if (parent < 0) {
+				positions[i] = Vector3D.ZERO;
+				orientations[i] = Rotation.IDENTITY;
+				continue;
+			}
+
+			Rotation orientation = orientations[parent];
+			Vector3D jointPosition = positions[parent].add(orientation.applyTo(parts[i].getDistanceToParentJoint()));
+			IHingeJoint joint = parts[i].getJoint();
+			if (joint != null) {
+				jointPosition = jointPosition.add(joint.getTranslation());
+				orientation = orientation.applyTo(joint.getRotation());
+			}
+			positions[i] = jointPosition;
+			orientations[i] = orientation;
+		}
+		valid = true;
+	}
+}
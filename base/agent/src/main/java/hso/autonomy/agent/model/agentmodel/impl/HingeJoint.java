@@ -82,6 +82,9 @@ public class HingeJoint extends Sensor implements IHingeJoint
 	/** whether the joint was moved this cycle */
 	private boolean performed;
 
+	/** the joint transformations of the body model to invalidate, null if none */
+	private transient ForwardKinematicsCache kinematicsCache;
+
 	/**
 	 * Instantiates a new HingeJoint sensor
 	 *
@@ -195,8 +198,7 @@ public class HingeJoint extends Sensor implements IHingeJoint
 
 		performed = true;
 
-		// Reset rotation matrix
-		rotation = null;
+		resetRotation();
 	}
 
 	@Override
@@ -250,6 +252,25 @@ public class HingeJoint extends Sensor implements IHingeJoint
 		return rotation;
 	}
 
+	/**
+	 * Resets the rotation matrix after the angle changed
+	 */
+	private void resetRotation()
+	{
+		rotation = null;
+		if (kinematicsCache != null) {
+			kinematicsCache.invalidate();
+		}
+	}
+
+	/**
+	 * @param cache the joint transformations to invalidate if the angle changes
+	 */
+	void setKinematicsCache(ForwardKinematicsCache cache)
+	{
+		kinematicsCache = cache;
+	}
+
 	@Override
 	public Vector3D getTranslation()
 	{
@@ -303,8 +324,7 @@ public class HingeJoint extends Sensor implements IHingeJoint
 		originalAngle = axis;
 		angle = originalAngle + delta;
 
-		// Reset rotation matrix
-		rotation = null;
+		resetRotation();
 	}
 
 	@Override
@@ -321,8 +341,7 @@ public class HingeJoint extends Sensor implements IHingeJoint
 	{
 		angle = ((HingeJoint) joint).angle;
 
-		// Reset rotation matrix
-		rotation = null;
+		resetRotation();
 	}
 
 	@Override
@@ -45,6 +45,21 @@ public abstract class OdometryErrorModel implements IOdometryErrorModel
 		return Angle.deg(applyNoise(stdDeviationTheta, deltaZAngle.degrees()));
 	}
 
+	public double getStdDeviationX()
+	{
+		return stdDeviationX;
+	}
+
+	public double getStdDeviationY()
+	{
+		return stdDeviationY;
+	}
+
+	public double getStdDeviationTheta()
+	{
+		return stdDeviationTheta;
+	}
+
 	protected double applyNoise(double stdDeviation, double input)
 	{
 		return random.nextGaussian() * stdDeviation + input;
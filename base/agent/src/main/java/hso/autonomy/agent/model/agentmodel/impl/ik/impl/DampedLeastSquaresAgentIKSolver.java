@@ -0,0 +1,505 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.agentmodel.impl.ik.impl;
+
+import hso.autonomy.agent.model.agentmodel.IBodyPart;
+import hso.autonomy.agent.model.agentmodel.IHingeJoint;
+import hso.autonomy.agent.model.agentmodel.impl.ik.IAgentIKSolver;
+import hso.autonomy.util.geometry.Pose3D;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationConvention;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationOrder;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * Damped least squares inverse kinematics working directly on the joint chain
+ * from the target body part back to the first body part without joint. The
+ * forward kinematics of the chain is calculated on primitive arrays that are
+ * kept between calls, so iterations do neither allocate memory nor change the
+ * body model. Only the resulting angles are applied to the joints.<br>
+ * Target angles are in degrees and describe the orientation of the target body
+ * part by a rotation around z, x and y axis in this order. Not thread safe.
+ *
+ * @author kdorer
+ */
+public class DampedLeastSquaresAgentIKSolver implements IAgentIKSolver
+{
+	/** the number of joints the arrays are initially created for */
+	private static final int INITIAL_CHAIN_SIZE = 6;
+
+	private final int iterations;
+
+	/** squared damping factor that keeps steps small close to singularities */
+	private final double damping2;
+
+	/** the position distance (in m) at which the target is reached */
+	private final double positionTolerance;
+
+	/** the orientation difference (in rad) at which the target is reached */
+	private final double angleTolerance;
+
+	/** the maximum position change (in m) per iteration */
+	private final double maxStep;
+
+	/** the weight of orientation errors relative to position errors (m per rad) */
+	private final double orientationWeight;
+
+	/** the joints of the chain starting next to the root */
+	private IHingeJoint[] joints;
+
+	/** the current angle of each joint during iterations (in rad) */
+	private double[] theta;
+
+	/** the joint limits (in rad) */
+	private double[] minTheta;
+
+	private double[] maxTheta;
+
+	/** the translation from the parent joint to each joint (3 per joint) */
+	private double[] offsets;
+
+	/** the local axis of each joint (3 per joint) */
+	private double[] axes;
+
+	/** the global position of each joint (3 per joint) */
+	private double[] jointPositions;
+
+	/** the global axis of each joint (3 per joint) */
+	private double[] jointAxes;
+
+	/** the jacobian with up to 6 rows, row major with one column per joint */
+	private double[] jacobian;
+
+	/** the joint changes of one iteration */
+	private double[] dTheta;
+
+	/** the global pose of the joint of the first chain element's parent */
+	private final double[] baseRotation = new double[9];
+
+	private final double[] basePosition = new double[3];
+
+	/** the global orientation of the end effector */
+	private final double[] rotation = new double[9];
+
+	/** the global position of the end effector */
+	private final double[] position = new double[3];
+
+	/** the vector from the last joint to the center of the target body */
+	private final double[] effectorOffset = new double[3];
+
+	private final double[] targetRotation = new double[9];
+
+	private final double[] target = new double[3];
+
+	/** the weighted error vector */
+	private final double[] error = new double[6];
+
+	/** J*J^T + damping, later its Cholesky decomposition */
+	private final double[] system = new double[36];
+
+	private final double[] solution = new double[6];
+
+	private final double[] temp = new double[9];
+
+	/** the number of joints of the current chain */
+	private int size;
+
+	/** the number of rows of the current problem, 3 or 6 */
+	private int rows;
+
+	public DampedLeastSquaresAgentIKSolver()
+	{
+		this(30, 0.005, 0.0001, 0.001, 0.03, 0.2);
+	}
+
+	/**
+	 * @param iterations the maximum number of iterations per call
+	 * @param damping the damping factor (in m)
+	 * @param positionTolerance the position distance (in m) at which the target is reached
+	 * @param angleTolerance the orientation difference (in rad) at which the target is reached
+	 * @param maxStep the maximum position change (in m) per iteration
+	 * @param orientationWeight the weight of orientation errors relative to position errors (m per rad)
+	 */
+	public DampedLeastSquaresAgentIKSolver(int iterations, double damping, double positionTolerance,
+			double angleTolerance, double maxStep, double orientationWeight)
+	{
+		this.iterations = iterations;
+		this.damping2 = damping * damping;
+		this.positionTolerance = positionTolerance;
+		this.angleTolerance = angleTolerance;
+		this.maxStep = maxStep;
+		this.orientationWeight = orientationWeight;
+		createArrays(INITIAL_CHAIN_SIZE);
+	}
+
+	@Override
+	public boolean solve(IBodyPart targetBody, Vector3D targetPosition, Vector3D targetAngles)
+	{
+		if (!iterate(targetBody, targetPosition, targetAngles)) {
+			return false;
+		}
+
+		// apply from the target back to the root like the other solvers
+		for (int i = size - 1; i >= 0; i--) {
+			joints[i].adjustAxisPosition(Math.toDegrees(theta[i]) - joints[i].getAngle());
+		}
+		return true;
+	}
+
+	@Override
+	public double[] calculateDeltaAngles(IBodyPart targetBody, Vector3D targetPosition, Vector3D targetAngles)
+	{
+		if (!iterate(targetBody, targetPosition, targetAngles)) {
+			return null;
+		}
+
+		// ordered from the root to the target body
+		double[] result = new double[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = Math.toDegrees(theta[i]) - joints[i].getAngle();
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates the joint angles reaching the target as good as possible
+	 * without changing the body model. The result is in theta.
+	 *
+	 * @return false if the target body has no joint
+	 */
+	private boolean iterate(IBodyPart targetBody, Vector3D targetPosition, Vector3D targetAngles)
+	{
+		if (!initChain(targetBody)) {
+			return false;
+		}
+
+		target[0] = targetPosition.getX();
+		target[1] = targetPosition.getY();
+		target[2] = targetPosition.getZ();
+		rows = 3;
+		if (targetAngles != null) {
+			rows = 6;
+			Rotation orientation = new Rotation(RotationOrder.ZXY, RotationConvention.VECTOR_OPERATOR,
+					Math.toRadians(targetAngles.getZ()), Math.toRadians(targetAngles.getX()),
+					Math.toRadians(targetAngles.getY()));
+			toMatrix(orientation, targetRotation);
+		}
+
+		for (int i = 0; i < iterations; i++) {
+			forwardKinematics();
+			if (calculateError()) {
+				return true;
+			}
+			calculateJacobian();
+			if (!calculateStep()) {
+				return true;
+			}
+			for (int j = 0; j < size; j++) {
+				theta[j] = Math.max(minTheta[j], Math.min(maxTheta[j], theta[j] + dTheta[j]));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collects the joints and constant geometry of the chain ending at the
+	 * passed body part
+	 *
+	 * @return false if the body part has no joint
+	 */
+	private boolean initChain(IBodyPart targetBody)
+	{
+		size = 0;
+		IBodyPart part = targetBody;
+		while (part.getJoint() != null && part.getParent() != null) {
+			size++;
+			part = part.getParent();
+		}
+		if (size == 0) {
+			return false;
+		}
+		if (size > joints.length) {
+			createArrays(size);
+		}
+
+		IBodyPart current = targetBody;
+		for (int i = size - 1; i >= 0; i--) {
+			IHingeJoint joint = (IHingeJoint) current.getJoint();
+			joints[i] = joint;
+			theta[i] = Math.toRadians(joint.getAngle());
+			minTheta[i] = Math.toRadians(joint.getMinAngle());
+			maxTheta[i] = Math.toRadians(joint.getMaxAngle());
+
+			// see BodyPart.setDistanceToParentJoint()
+			Vector3D translation = current.getTranslation();
+			Vector3D anchor = current.getAnchor();
+			Vector3D parentAnchor = current.getParent().getAnchor();
+			Vector3D jointTranslation = joint.getTranslation();
+			offsets[3 * i] = translation.getX() + anchor.getX() - parentAnchor.getX() + jointTranslation.getX();
+			offsets[3 * i + 1] = translation.getY() + anchor.getY() - parentAnchor.getY() + jointTranslation.getY();
+			offsets[3 * i + 2] = translation.getZ() + anchor.getZ() - parentAnchor.getZ() + jointTranslation.getZ();
+
+			Vector3D axis = joint.getJointAxis();
+			axes[3 * i] = axis.getX();
+			axes[3 * i + 1] = axis.getY();
+			axes[3 * i + 2] = axis.getZ();
+			current = current.getParent();
+		}
+
+		Pose3D basePose = current.getJointTransformation();
+		toMatrix(basePose.getOrientation(), baseRotation);
+		basePosition[0] = basePose.getX();
+		basePosition[1] = basePose.getY();
+		basePosition[2] = basePose.getZ();
+
+		Vector3D anchor = targetBody.getAnchor();
+		effectorOffset[0] = -anchor.getX();
+		effectorOffset[1] = -anchor.getY();
+		effectorOffset[2] = -anchor.getZ();
+		return true;
+	}
+
+	/**
+	 * Calculates global joint positions and axes and the pose of the end
+	 * effector for the current theta
+	 */
+	private void forwardKinematics()
+	{
+		System.arraycopy(baseRotation, 0, rotation, 0, 9);
+		System.arraycopy(basePosition, 0, position, 0, 3);
+
+		for (int i = 0; i < size; i++) {
+			int k = 3 * i;
+			addRotated(rotation, offsets, k, position, 0);
+			jointPositions[k] = position[0];
+			jointPositions[k + 1] = position[1];
+			jointPositions[k + 2] = position[2];
+
+			// the axis does not change by rotating around itself
+			jointAxes[k] = 0;
+			jointAxes[k + 1] = 0;
+			jointAxes[k + 2] = 0;
+			addRotated(rotation, axes, k, jointAxes, k);
+
+			rotate(rotation, axes[k], axes[k + 1], axes[k + 2], theta[i]);
+		}
+
+		addRotated(rotation, effectorOffset, 0, position, 0);
+	}
+
+	/**
+	 * Calculates the weighted error between the end effector and the target
+	 *
+	 * @return true if the target is reached
+	 */
+	private boolean calculateError()
+	{
+		double dx = target[0] - position[0];
+		double dy = target[1] - position[1];
+		double dz = target[2] - position[2];
+		double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+		boolean reached = distance < positionTolerance;
+
+		double scale = distance > maxStep ? maxStep / distance : 1;
+		error[0] = dx * scale;
+		error[1] = dy * scale;
+		error[2] = dz * scale;
+
+		if (rows == 6) {
+			// rotation vector of targetRotation * rotation^T
+			for (int r = 0; r < 3; r++) {
+				for (int c = 0; c < 3; c++) {
+					temp[3 * r + c] = targetRotation[3 * r] * rotation[3 * c] +
+									  targetRotation[3 * r + 1] * rotation[3 * c + 1] +
+									  targetRotation[3 * r + 2] * rotation[3 * c + 2];
+				}
+			}
+			double ex = 0.5 * (temp[7] - temp[5]);
+			double ey = 0.5 * (temp[2] - temp[6]);
+			double ez = 0.5 * (temp[3] - temp[1]);
+			double sin = Math.sqrt(ex * ex + ey * ey + ez * ez);
+			double cos = 0.5 * (temp[0] + temp[4] + temp[8] - 1);
+			double angle = Math.atan2(sin, cos);
+			reached = reached && angle < angleTolerance;
+
+			double factor = sin > 1e-9 ? angle / sin : 1;
+			if (angle * orientationWeight > maxStep) {
+				factor *= maxStep / (angle * orientationWeight);
+			}
+			factor *= orientationWeight;
+			error[3] = ex * factor;
+			error[4] = ey * factor;
+			error[5] = ez * factor;
+		}
+		return reached;
+	}
+
+	/**
+	 * Calculates the jacobian of the weighted end effector pose with respect to
+	 * the joint angles
+	 */
+	private void calculateJacobian()
+	{
+		for (int i = 0; i < size; i++) {
+			int k = 3 * i;
+			double ax = jointAxes[k];
+			double ay = jointAxes[k + 1];
+			double az = jointAxes[k + 2];
+			double nx = position[0] - jointPositions[k];
+			double ny = position[1] - jointPositions[k + 1];
+			double nz = position[2] - jointPositions[k + 2];
+
+			jacobian[i] = ay * nz - az * ny;
+			jacobian[size + i] = az * nx - ax * nz;
+			jacobian[2 * size + i] = ax * ny - ay * nx;
+			if (rows == 6) {
+				jacobian[3 * size + i] = ax * orientationWeight;
+				jacobian[4 * size + i] = ay * orientationWeight;
+				jacobian[5 * size + i] = az * orientationWeight;
+			}
+		}
+	}
+
+	/**
+	 * Calculates dTheta = J^T (J J^T + damping^2 I)^-1 error
+	 *
+	 * @return false if no step could be calculated
+	 */
+	private boolean calculateStep()
+	{
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c <= r; c++) {
+				double sum = 0;
+				for (int i = 0; i < size; i++) {
+					sum += jacobian[r * size + i] * jacobian[c * size + i];
+				}
+				system[r * rows + c] = sum;
+			}
+			system[r * rows + r] += damping2;
+		}
+
+		// Cholesky decomposition into the lower triangle
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c <= r; c++) {
+				double sum = system[r * rows + c];
+				for (int i = 0; i < c; i++) {
+					sum -= system[r * rows + i] * system[c * rows + i];
+				}
+				if (r == c) {
+					if (sum <= 0) {
+						return false;
+					}
+					system[r * rows + r] = Math.sqrt(sum);
+				} else {
+					system[r * rows + c] = sum / system[c * rows + c];
+				}
+			}
+		}
+
+		// forward and backward substitution
+		for (int r = 0; r < rows; r++) {
+			double sum = error[r];
+			for (int i = 0; i < r; i++) {
+				sum -= system[r * rows + i] * solution[i];
+			}
+			solution[r] = sum / system[r * rows + r];
+		}
+		for (int r = rows - 1; r >= 0; r--) {
+			double sum = solution[r];
+			for (int i = r + 1; i < rows; i++) {
+				sum -= system[i * rows + r] * solution[i];
+			}
+			solution[r] = sum / system[r * rows + r];
+		}
+
+		for (int i = 0; i < size; i++) {
+			double sum = 0;
+			for (int r = 0; r < rows; r++) {
+				sum += jacobian[r * size + i] * solution[r];
+			}
+			dTheta[i] = sum;
+		}
+		return true;
+	}
+
+	private void createArrays(int chainSize)
+	{
+		joints = new IHingeJoint[chainSize];
+		theta = new double[chainSize];
+		minTheta = new double[chainSize];
+		maxTheta = new double[chainSize];
+		offsets = new double[3 * chainSize];
+		axes = new double[3 * chainSize];
+		jointPositions = new double[3 * chainSize];
+		jointAxes = new double[3 * chainSize];
+		jacobian = new double[6 * chainSize];
+		dTheta = new double[chainSize];
+	}
+
+	/**
+	 * Adds the vector at the offset of source rotated by the matrix to the
+	 * vector at the offset of result
+	 */
+	private static void addRotated(double[] matrix, double[] source, int sourceOffset, double[] result, int offset)
+	{
+		double x = source[sourceOffset];
+		double y = source[sourceOffset + 1];
+		double z = source[sourceOffset + 2];
+		result[offset] += matrix[0] * x + matrix[1] * y + matrix[2] * z;
+		result[offset + 1] += matrix[3] * x + matrix[4] * y + matrix[5] * z;
+		result[offset + 2] += matrix[6] * x + matrix[7] * y + matrix[8] * z;
+	}
+
+	/**
+	 * Multiplies the matrix from the right with a rotation around the passed
+	 * unit axis
+	 */
+	private void rotate(double[] matrix, double x, double y, double z, double angle)
+	{
+		double cos = Math.cos(angle);
+		double sin = Math.sin(angle);
+		double t = 1 - cos;
+		temp[0] = t * x * x + cos;
+		temp[1] = t * x * y - sin * z;
+		temp[2] = t * x * z + sin * y;
+		temp[3] = t * x * y + sin * z;
+		temp[4] = t * y * y + cos;
+		temp[5] = t * y * z - sin * x;
+		temp[6] = t * x * z - sin * y;
+		temp[7] = t * y * z + sin * x;
+		temp[8] = t * z * z + cos;
+
+		for (int r = 0; r < 3; r++) {
+			double m0 = matrix[3 * r];
+			double m1 = matrix[3 * r + 1];
+			double m2 = matrix[3 * r + 2];
+			matrix[3 * r] = m0 * temp[0] + m1 * temp[3] + m2 * temp[6];
+			matrix[3 * r + 1] = m0 * temp[1] + m1 * temp[4] + m2 * temp[7];
+			matrix[3 * r + 2] = m0 * temp[2] + m1 * temp[5] + m2 * temp[8];
+		}
+	}
+
+	/**
+	 * Writes the row major matrix of the rotation as vector operator
+	 */
+	private static void toMatrix(Rotation rotation, double[] result)
+	{
+		double q0 = rotation.getQ0();
+		double q1 = rotation.getQ1();
+		double q2 = rotation.getQ2();
+		double q3 = rotation.getQ3();
+		// commons math stores the quaternion of the frame transform
+		result[0] = 2 * (q0 * q0 + q1 * q1) - 1;
+		result[1] = 2 * (q1 * q2 + q0 * q3);
+		result[2] = 2 * (q1 * q3 - q0 * q2);
+		result[3] = 2 * (q1 * q2 - q0 * q3);
+		result[4] = 2 * (q0 * q0 + q2 * q2) - 1;
+		result[5] = 2 * (q2 * q3 + q0 * q1);
+		result[6] = 2 * (q1 * q3 + q0 * q2);
+		result[7] = 2 * (q2 * q3 - q0 * q1);
+		result[8] = 2 * (q0 * q0 + q3 * q3) - 1;
+	}
+}
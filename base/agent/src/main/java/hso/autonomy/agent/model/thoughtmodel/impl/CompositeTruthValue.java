@@ -32,15 +32,16 @@ public class CompositeTruthValue extends TruthValue
 	@Override
 	public void update(IThoughtModel thoughtModel)
 	{
-		boolean combinedValidity = logicalAnd;
-
 		for (ITruthValue tv : truthValues) {
 			tv.update(thoughtModel);
+		}
 
-			if (logicalAnd) {
-				combinedValidity = combinedValidity && tv.isValid();
-			} else {
-				combinedValidity = combinedValidity || tv.isValid();
+		// short cut evaluation so that lazy truth values are only evaluated if needed
+		boolean combinedValidity = logicalAnd;
+		for (ITruthValue tv : truthValues) {
+			if (tv.isValid() != logicalAnd) {
+				combinedValidity = !logicalAnd;
+				break;
 			}
 		}
 
@@ -0,0 +1,147 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.thoughtmodel.impl;
+
+import hso.autonomy.agent.model.thoughtmodel.IThoughtModel;
+import hso.autonomy.agent.model.thoughtmodel.ITruthValue;
+
+/**
+ * Decorator that evaluates a truth value only when it is read. An update just
+ * marks the value as outdated, the first call to {@link #isValid()} after that
+ * updates the decorated truth value and the result is kept until the next
+ * update. Truth values with memory (like {@link ConsecutiveTruthValue}) then
+ * only see the cycles in which they were read.<br>
+ * Counts how often the truth value was evaluated and how long that took.
+ * @author kdorer
+ */
+public class LazyTruthValue implements ITruthValue
+{
+	private final ITruthValue decoratee;
+
+	/** the thought model of the last update, null if not yet updated */
+	private IThoughtModel thoughtModel;
+
+	/** true if the decoratee has not been updated since the last update call */
+	private boolean outdated;
+
+	/** the number of update calls */
+	private long updateCount;
+
+	/** the number of evaluations of the decoratee */
+	private long evaluationCount;
+
+	/** the sum of the evaluation times in ns */
+	private long evaluationTime;
+
+	/** the longest evaluation time in ns */
+	private long maxEvaluationTime;
+
+	public LazyTruthValue(ITruthValue decoratee)
+	{
+		this.decoratee = decoratee;
+	}
+
+	@Override
+	public void update(IThoughtModel thoughtModel)
+	{
+		this.thoughtModel = thoughtModel;
+		outdated = true;
+		updateCount++;
+	}
+
+	@Override
+	public boolean isValid()
+	{
+		evaluate();
+		return decoratee.isValid();
+	}
+
+	/**
+	 * @return the decorated truth value, evaluated for the current cycle
+	 */
+	public ITruthValue getDecoratee()
+	{
+		evaluate();
+		return decoratee;
+	}
+
+	private void evaluate()
+	{
+		if (!outdated) {
+			return;
+		}
+		// reset before updating to avoid endless recursion on cyclic dependencies
+		outdated = false;
+
+		long start = System.nanoTime();
+		decoratee.update(thoughtModel);
+		long duration = System.nanoTime() - start;
+
+		evaluationCount++;
+		evaluationTime += duration;
+		if (duration > maxEvaluationTime) {
+			maxEvaluationTime = duration;
+		}
+	}
+
+	/**
+	 * @return the number of cycles this truth value was updated
+	 */
+	public long getUpdateCount()
+	{
+		return updateCount;
+	}
+
+	/**
+	 * @return the number of cycles the decoratee was actually evaluated
+	 */
+	public long getEvaluationCount()
+	{
+		return evaluationCount;
+	}
+
+	/**
+	 * @return the sum of all evaluation times in ns
+	 */
+	public long getEvaluationTime()
+	{
+		return evaluationTime;
+	}
+
+	/**
+	 * @return the average evaluation time in ns, 0 if never evaluated
+	 */
+	public double getAverageEvaluationTime()
+	{
+		return evaluationCount == 0 ? 0 : evaluationTime / (double) evaluationCount;
+	}
+
+	/**
+	 * @return the longest evaluation time in ns
+	 */
+	public long getMaxEvaluationTime()
+	{
+		return maxEvaluationTime;
+	}
+
+	/**
+	 * Restarts counting of updates, evaluations and times
+	 */
+	public void resetStatistics()
+	{
+		updateCount = 0;
+		evaluationCount = 0;
+		evaluationTime = 0;
+		maxEvaluationTime = 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("evaluated %d of %d cycles, avg: %.1fus, max: %.1fus", evaluationCount, updateCount,
+				getAverageEvaluationTime() / 1000.0, maxEvaluationTime / 1000.0);
+	}
+}
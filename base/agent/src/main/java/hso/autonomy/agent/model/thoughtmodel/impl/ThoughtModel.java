@@ -13,6 +13,7 @@ import hso.autonomy.agent.model.worldmodel.IWorldModel;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * @author Stefan Glaser
@@ -56,6 +57,36 @@ public abstract class ThoughtModel implements IThoughtModel, Serializable
 		return truthValues.get(name);
 	}
 
+	/**
+	 * Registers a truth value that is only evaluated in cycles in which it is
+	 * read.
+	 *
+	 * @param name the name of the truth value
+	 * @param value the truth value to register
+	 * @return the registered lazy truth value
+	 */
+	protected LazyTruthValue addLazyTruthValue(String name, ITruthValue value)
+	{
+		LazyTruthValue lazyValue = new LazyTruthValue(value);
+		truthValues.put(name, lazyValue);
+		return lazyValue;
+	}
+
+	/**
+	 * @return the evaluation statistics of all lazy truth values, one line per
+	 *         truth value
+	 */
+	public String getTruthValueStatistics()
+	{
+		StringBuilder result = new StringBuilder();
+		new TreeMap<>(truthValues).forEach((name, value) -> {
+			if (value instanceof LazyTruthValue) {
+				result.append(name).append(": ").append(value).append("\n");
+			}
+		});
+		return result.toString();
+	}
+
 	/**
 	 * Check if the truth value with the given name is valid.
 	 *
@@ -79,12 +110,20 @@ public abstract class ThoughtModel implements IThoughtModel, Serializable
 			// Trigger world model to process vision information
 			result = worldModel.update(perception) || result;
 
-			// update all truth values with state
-			for (ITruthValue value : truthValues.values()) {
-				value.update(this);
-			}
+			updateTruthValues();
 		}
 
 		return result;
 	}
+
+	/**
+	 * Updates all truth values with the new state. Lazy truth values are just
+	 * marked to be evaluated when read.
+	 */
+	protected void updateTruthValues()
+	{
+		for (ITruthValue value : truthValues.values()) {
+			value.update(this);
+		}
+	}
 }
@@ -7,7 +7,9 @@ package hso.autonomy.agent.model.worldmodel.localizer;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
 /**
  * A model for describing the environment via various geometric features. It provides maps for point and line features.
@@ -29,6 +31,16 @@ public interface IFeatureMap extends Serializable {
 	 */
 	Collection<IPointFeature> getPointFeatures(String type);
 
+	/**
+	 * Retrieve the known point features of the given type closest to a global position in the xy plane.
+	 *
+	 * @param position the global position
+	 * @param type the type of the point features
+	 * @param k the maximum number of point features to return
+	 * @return at most k point features of the given type, the closest first
+	 */
+	List<IPointFeature> getNearestPointFeatures(Vector3D position, String type, int k);
+
 	/**
 	 * Retrieve the point feature with the given name.
 	 *
@@ -0,0 +1,606 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.worldmodel.localizer.impl;
+
+import hso.autonomy.agent.model.agentmodel.IOdometryErrorModel;
+import hso.autonomy.agent.model.agentmodel.ISensor;
+import hso.autonomy.agent.model.agentmodel.impl.Odometry;
+import hso.autonomy.agent.model.agentmodel.impl.OdometryErrorModel;
+import hso.autonomy.agent.model.worldmodel.localizer.IFeatureMap;
+import hso.autonomy.agent.model.worldmodel.localizer.ILineFeatureObservation;
+import hso.autonomy.agent.model.worldmodel.localizer.ILocalizationInfo;
+import hso.autonomy.agent.model.worldmodel.localizer.IParticleFilterLocalizer;
+import hso.autonomy.agent.model.worldmodel.localizer.IPointFeature;
+import hso.autonomy.agent.model.worldmodel.localizer.IPointFeatureObservation;
+import hso.autonomy.agent.model.worldmodel.localizer.IWeightedParticle;
+import hso.autonomy.util.geometry.Angle;
+import hso.autonomy.util.geometry.Geometry;
+import hso.autonomy.util.geometry.IPose3D;
+import hso.autonomy.util.geometry.Pose3D;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationConvention;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationOrder;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+
+/**
+ * Particle filter localizer keeping the particles in primitive arrays (x, y,
+ * horizontal angle and probability) instead of particle objects. Prediction,
+ * weighting and resampling work in place, so the number of particles does not
+ * influence the number of allocated objects. All particles share the camera
+ * height and the orientation estimation without z rotation. Weighting can be
+ * split across a fork join pool for large particle counts.
+ *
+ * @author kdorer
+ */
+public class ArrayParticleFilterLocalizer implements IParticleFilterLocalizer
+{
+	/** the number of particles weighted by one task of the pool */
+	private static final int PARTICLES_PER_TASK = 256;
+
+	/** The internal state of the localizer. */
+	protected LocalizationInfo state;
+
+	/** The number of random particles to use for this localizer */
+	protected final int nrOfParticles;
+
+	private final Map<String, ISensor> sensors;
+
+	private IOdometryErrorModel odometryErrorModel;
+
+	/** the pool to weight particles with, null to weight in the calling thread */
+	private final ForkJoinPool pool;
+
+	/** allowed standard deviation for observations (degrees) */
+	private final double observationsSigma;
+
+	/** percentage of how many "plausible" particles should be at less inside the container */
+	protected double resamplingThreshold;
+
+	private final Random random;
+
+	/** the number of particles */
+	private int size;
+
+	private double[] x;
+
+	private double[] y;
+
+	/** the horizontal angle of each particle (in rad) */
+	private double[] theta;
+
+	private double[] probabilities;
+
+	/** the particles during resampling, swapped with the particles afterwards */
+	private double[] nextX;
+
+	private double[] nextY;
+
+	private double[] nextTheta;
+
+	private double[] nextProbabilities;
+
+	/** the height of all particles */
+	private double z;
+
+	/** the orientation of all particles without z rotation */
+	private Rotation tilt;
+
+	/** the matrix of the inverse tilt, row major */
+	private final double[] inverseTilt;
+
+	private double lastReceivedZAngle;
+
+	/** the index of the current best particle */
+	protected int indexOfBestCandidate;
+
+	/** current maximal probability from the "best" particle */
+	private double curMaxProb;
+
+	/** current standard deviation of the probabilities */
+	private double curSigma;
+
+	/** the number of observations of the current weighting */
+	private int observationCount;
+
+	/** the observed horizontal and vertical angle of each observation */
+	private double[] seenAlpha;
+
+	private double[] seenDelta;
+
+	/** the index of the first known feature of each observation's type, one more entry for the end */
+	private int[] featureStart;
+
+	/** the known feature positions of all observations, 3 per feature */
+	private double[] featurePositions;
+
+	public ArrayParticleFilterLocalizer(Map<String, ISensor> sensors, int nrOfParticles)
+	{
+		this(sensors, nrOfParticles, null);
+	}
+
+	/**
+	 * @param sensors the sensors of the agent
+	 * @param nrOfParticles the number of random particles
+	 * @param pool the pool to weight particles in parallel, null to weight in the calling thread
+	 */
+	public ArrayParticleFilterLocalizer(Map<String, ISensor> sensors, int nrOfParticles, ForkJoinPool pool)
+	{
+		this.sensors = sensors;
+		this.nrOfParticles = nrOfParticles;
+		this.pool = pool;
+		this.observationsSigma = 5;
+		this.resamplingThreshold = 0.98;
+		random = new Random();
+		state = new LocalizationInfo();
+		tilt = Rotation.IDENTITY;
+		inverseTilt = new double[] {1, 0, 0, 0, 1, 0, 0, 0, 1};
+		seenAlpha = new double[8];
+		seenDelta = new double[8];
+		featureStart = new int[9];
+		featurePositions = new double[3 * 32];
+		createArrays(0);
+
+		if (sensors.containsKey("Odometry")) {
+			odometryErrorModel = ((Odometry) sensors.get("Odometry")).getErrorModel();
+		}
+	}
+
+	@Override
+	public ILocalizationInfo getState()
+	{
+		return state;
+	}
+
+	@Override
+	public Map<String, ISensor> getSensors()
+	{
+		return sensors;
+	}
+
+	@Override
+	public void reset(float globalTime, IPose3D initialPoseEstimation)
+	{
+		state.set(globalTime, initialPoseEstimation);
+		initializeParticles(nrOfParticles, initialPoseEstimation);
+	}
+
+	@Override
+	public void initializeParticles(int nrOfParticles, IPose3D initialPoseEstimation)
+	{
+		createArrays(nrOfParticles + 1);
+		double posX = initialPoseEstimation.getX();
+		double posY = initialPoseEstimation.getY();
+		double angle = initialPoseEstimation.getHorizontalAngle().radians();
+		z = initialPoseEstimation.getZ();
+		setTilt(Rotation.IDENTITY);
+
+		// the pose estimation itself is the first particle
+		x[0] = posX;
+		y[0] = posY;
+		theta[0] = angle;
+		for (int i = 1; i < size; i++) {
+			x[i] = random.nextGaussian() + posX;
+			y[i] = random.nextGaussian() + posY;
+			theta[i] = normalize(random.nextGaussian() * Math.PI / 2 + angle);
+		}
+		indexOfBestCandidate = 0;
+	}
+
+	@Override
+	public boolean predict(float globalTime, IPose3D odometry, Rotation orientationEstimation, double cameraHeight)
+	{
+		if (size == 0) {
+			return false;
+		}
+
+		if (odometry != null) {
+			double currentZAngle = Geometry.getHorizontalAngle(orientationEstimation).radians();
+			double deltaZAngle = normalize(currentZAngle - lastReceivedZAngle);
+			lastReceivedZAngle = currentZAngle;
+
+			// remove z rotation from orientation estimation, since this is represented by the particles
+			double[] angles = orientationEstimation.getAngles(RotationOrder.ZYX, RotationConvention.VECTOR_OPERATOR);
+			setTilt(new Rotation(RotationOrder.ZYX, RotationConvention.VECTOR_OPERATOR, 0, angles[1], angles[2]));
+			z = cameraHeight;
+
+			moveParticles(odometry.getX(), odometry.getY(), deltaZAngle);
+
+		} else if (orientationEstimation == null) {
+			return false;
+		}
+
+		// use the pose of the best candidate since the last correction step
+		state.set(globalTime, getParticlePose(indexOfBestCandidate));
+		return true;
+	}
+
+	/**
+	 * Moves all particles by the local odometry translation and rotation, each
+	 * with its own noise if an error model is available
+	 */
+	private void moveParticles(double deltaX, double deltaY, double deltaZAngle)
+	{
+		double sigmaX = 0;
+		double sigmaY = 0;
+		double sigmaTheta = 0;
+		boolean objectNoise = false;
+		if (odometryErrorModel instanceof OdometryErrorModel) {
+			OdometryErrorModel errorModel = (OdometryErrorModel) odometryErrorModel;
+			sigmaX = errorModel.getStdDeviationX();
+			sigmaY = errorModel.getStdDeviationY();
+			sigmaTheta = Math.toRadians(errorModel.getStdDeviationTheta());
+		} else {
+			objectNoise = odometryErrorModel != null;
+		}
+
+		for (int i = 0; i < size; i++) {
+			double dx = deltaX;
+			double dy = deltaY;
+			double dTheta = deltaZAngle;
+			if (objectNoise) {
+				// unknown error models only provide noise on objects
+				Vector2D noisy = odometryErrorModel.applyNoiseToTrans(new Vector2D(dx, dy));
+				dx = noisy.getX();
+				dy = noisy.getY();
+				dTheta = odometryErrorModel.applyNoiseToRotation(Angle.rad(dTheta)).radians();
+			} else {
+				dx += random.nextGaussian() * sigmaX;
+				dy += random.nextGaussian() * sigmaY;
+				dTheta += random.nextGaussian() * sigmaTheta;
+			}
+
+			double angle = normalize(theta[i] + dTheta);
+			double cos = Math.cos(angle);
+			double sin = Math.sin(angle);
+			x[i] += cos * dx - sin * dy;
+			y[i] += sin * dx + cos * dy;
+			theta[i] = angle;
+		}
+	}
+
+	@Override
+	public boolean correct(float globalTime, IFeatureMap map, List<IPointFeatureObservation> pointObservations,
+			List<ILineFeatureObservation> lineObservations, Rotation orientationEstimation, double cameraHeight)
+	{
+		if (size == 0) {
+			return false;
+		}
+
+		double normFactor = 0.0;
+		if (!pointObservations.isEmpty()) {
+			normFactor = sampleImportanceFromObservations(pointObservations, map);
+		}
+
+		double mapNormFactor = sampleImportanceFromMap(map);
+		if (!Double.isNaN(mapNormFactor)) {
+			normFactor = mapNormFactor;
+		}
+		normalizeImportance(normFactor);
+
+		// only execute resampling when it contains less then threshold "good" particles
+		if (PFImportanceEvaluator.isResamplingRequired(probabilities, resamplingThreshold)) {
+			resampleParticles();
+		}
+
+		updateBestCandidate();
+		state.set(globalTime, getParticlePose(indexOfBestCandidate));
+		return true;
+	}
+
+	@Override
+	public double sampleImportanceFromObservations(List<IPointFeatureObservation> pointObservations, IFeatureMap map)
+	{
+		collectObservations(pointObservations, map);
+
+		if (pool != null && size > PARTICLES_PER_TASK) {
+			return pool.invoke(new WeightingTask(0, size));
+		}
+		return weightParticles(0, size);
+	}
+
+	/**
+	 * Copies the observed angles and the positions of the known features of
+	 * each observation's type into arrays shared by all particles
+	 */
+	private void collectObservations(List<IPointFeatureObservation> pointObservations, IFeatureMap map)
+	{
+		observationCount = pointObservations.size();
+		if (seenAlpha.length < observationCount) {
+			seenAlpha = new double[observationCount];
+			seenDelta = new double[observationCount];
+			featureStart = new int[observationCount + 1];
+		}
+
+		PointFeatureIndex index = map instanceof FeatureMap ? ((FeatureMap) map).getPointFeatureIndex() : null;
+		int featureCount = 0;
+		for (int o = 0; o < observationCount; o++) {
+			IPointFeatureObservation observation = pointObservations.get(o);
+			Vector3D observed = observation.getObservedPosition();
+			seenAlpha[o] = observed.getAlpha();
+			seenDelta[o] = observed.getDelta();
+			featureStart[o] = featureCount;
+
+			if (index != null) {
+				PointFeatureIndex.Entry entry = index.get(observation.getType());
+				ensureFeatureCapacity(featureCount + entry.size());
+				entry.copyPositions(featurePositions, 3 * featureCount);
+				featureCount += entry.size();
+				continue;
+			}
+
+			Collection<IPointFeature> knownFeatures = map.getPointFeatures(observation.getType());
+			ensureFeatureCapacity(featureCount + knownFeatures.size());
+			for (IPointFeature feature : knownFeatures) {
+				Vector3D known = feature.getKnownPosition();
+				featurePositions[3 * featureCount] = known.getX();
+				featurePositions[3 * featureCount + 1] = known.getY();
+				featurePositions[3 * featureCount + 2] = known.getZ();
+				featureCount++;
+			}
+		}
+		featureStart[observationCount] = featureCount;
+	}
+
+	private void ensureFeatureCapacity(int featureCount)
+	{
+		if (featurePositions.length < 3 * featureCount) {
+			featurePositions = Arrays.copyOf(featurePositions, 2 * 3 * featureCount);
+		}
+	}
+
+	/**
+	 * Weights the particles in the passed range by matching each observation
+	 * to the known feature with the closest angles
+	 *
+	 * @return the sum of the probabilities of the particles in the range
+	 */
+	private double weightParticles(int from, int to)
+	{
+		double maxDiff = Math.toRadians(179);
+		double probabilitySum = 0;
+		for (int i = from; i < to; i++) {
+			double cos = Math.cos(theta[i]);
+			double sin = Math.sin(theta[i]);
+			double alphaImportance = 1;
+			double deltaImportance = 1;
+			boolean matched = false;
+
+			for (int o = 0; o < observationCount; o++) {
+				double closestAlphaDiff = maxDiff;
+				double closestDeltaDiff = maxDiff;
+				boolean found = false;
+				for (int f = featureStart[o]; f < featureStart[o + 1]; f++) {
+					// known position in the local system of the particle
+					double dx = featurePositions[3 * f] - x[i];
+					double dy = featurePositions[3 * f + 1] - y[i];
+					double dz = featurePositions[3 * f + 2] - z;
+					double rx = cos * dx + sin * dy;
+					double ry = -sin * dx + cos * dy;
+					double lx = inverseTilt[0] * rx + inverseTilt[1] * ry + inverseTilt[2] * dz;
+					double ly = inverseTilt[3] * rx + inverseTilt[4] * ry + inverseTilt[5] * dz;
+					double lz = inverseTilt[6] * rx + inverseTilt[7] * ry + inverseTilt[8] * dz;
+
+					double knownAlpha = Math.atan2(ly, lx);
+					double knownDelta = Math.asin(lz / Math.sqrt(lx * lx + ly * ly + lz * lz));
+					double alphaDiff = Math.abs(normalize(seenAlpha[o] - knownAlpha));
+					double deltaDiff = Math.abs(normalize(seenDelta[o] - knownDelta));
+					if (alphaDiff <= closestAlphaDiff && deltaDiff <= closestDeltaDiff) {
+						closestAlphaDiff = alphaDiff;
+						closestDeltaDiff = deltaDiff;
+						found = true;
+					}
+				}
+
+				if (found) {
+					alphaImportance *=
+							PFImportanceEvaluator.gauss(Math.toDegrees(closestAlphaDiff), 0, observationsSigma);
+					deltaImportance *=
+							PFImportanceEvaluator.gauss(Math.toDegrees(closestDeltaDiff), 0, observationsSigma);
+					matched = true;
+				}
+			}
+
+			if (matched) {
+				probabilities[i] = alphaImportance + deltaImportance;
+			}
+			probabilitySum += probabilities[i];
+		}
+		return probabilitySum;
+	}
+
+	@Override
+	public double sampleImportanceFromMap(IFeatureMap map)
+	{
+		// calculating weights based on map needs domain-specific information, so this base localizer doesn't support it
+		return Double.NaN;
+	}
+
+	@Override
+	public void normalizeImportance(double normFactor)
+	{
+		curMaxProb = 0.0;
+		double sum = 0;
+		for (int i = 0; i < size; i++) {
+			probabilities[i] /= normFactor;
+			if (probabilities[i] > curMaxProb) {
+				curMaxProb = probabilities[i];
+			}
+			sum += probabilities[i];
+		}
+
+		// bias corrected like commons math's StandardDeviation
+		double mean = sum / size;
+		double squares = 0;
+		for (int i = 0; i < size; i++) {
+			double diff = probabilities[i] - mean;
+			squares += diff * diff;
+		}
+		curSigma = size > 1 ? Math.sqrt(squares / (size - 1)) : 0;
+	}
+
+	@Override
+	public void resampleParticles()
+	{
+		if (Double.isNaN(curSigma) || curSigma <= 1.0 / size) {
+			return;
+		}
+
+		// implementation of the "Low-Variance-Resampling-Algorithm"
+		double inverseSize = 1.0 / size;
+		double r = random.nextDouble() * inverseSize;
+		double c = probabilities[0];
+		int i = 0;
+		for (int m = 0; m < size; m++) {
+			double u = r + m * inverseSize;
+			while (u > c && i < size - 1) {
+				i++;
+				c += probabilities[i];
+			}
+			nextX[m] = x[i];
+			nextY[m] = y[i];
+			nextTheta[m] = theta[i];
+			nextProbabilities[m] = probabilities[i];
+		}
+
+		double[] swap = x;
+		x = nextX;
+		nextX = swap;
+		swap = y;
+		y = nextY;
+		nextY = swap;
+		swap = theta;
+		theta = nextTheta;
+		nextTheta = swap;
+		swap = probabilities;
+		probabilities = nextProbabilities;
+		nextProbabilities = swap;
+	}
+
+	@Override
+	public void updateBestCandidate()
+	{
+		double maxProb = -1;
+		for (int i = 0; i < size; i++) {
+			if (probabilities[i] > maxProb) {
+				maxProb = probabilities[i];
+				indexOfBestCandidate = i;
+			}
+		}
+	}
+
+	@Override
+	public IWeightedParticle addRandomParticle(IWeightedParticle particle)
+	{
+		IPose3D particlePose = particle.getPose();
+		double newX = random.nextDouble() * 0.5 + particlePose.getX();
+		double newY = random.nextDouble() * 0.5 + particlePose.getY();
+		IPose3D newPose = new Pose3D(newX, newY, particlePose.getHorizontalAngle());
+		return new WeightedParticle(newPose, particle.getProbability());
+	}
+
+	/**
+	 * @return the number of particles
+	 */
+	public int getParticleCount()
+	{
+		return size;
+	}
+
+	/**
+	 * @param index the index of the particle
+	 * @return a new pose object of the particle
+	 */
+	public IPose3D getParticlePose(int index)
+	{
+		Rotation orientation = Geometry.createZRotation(theta[index]).applyTo(tilt);
+		return new Pose3D(new Vector3D(x[index], y[index], z), orientation);
+	}
+
+	/**
+	 * @param index the index of the particle
+	 * @return the normalized probability of the particle
+	 */
+	public double getProbability(int index)
+	{
+		return probabilities[index];
+	}
+
+	public double getCurMaxProb()
+	{
+		return curMaxProb;
+	}
+
+	private void createArrays(int particles)
+	{
+		size = particles;
+		x = new double[particles];
+		y = new double[particles];
+		theta = new double[particles];
+		probabilities = new double[particles];
+		nextX = new double[particles];
+		nextY = new double[particles];
+		nextTheta = new double[particles];
+		nextProbabilities = new double[particles];
+	}
+
+	private void setTilt(Rotation tilt)
+	{
+		this.tilt = tilt;
+		Vector3D[] columns = {tilt.applyInverseTo(Vector3D.PLUS_I), tilt.applyInverseTo(Vector3D.PLUS_J),
+				tilt.applyInverseTo(Vector3D.PLUS_K)};
+		for (int c = 0; c < 3; c++) {
+			inverseTilt[c] = columns[c].getX();
+			inverseTilt[3 + c] = columns[c].getY();
+			inverseTilt[6 + c] = columns[c].getZ();
+		}
+	}
+
+	/**
+	 * @return the passed angle normalized to -PI to PI
+	 */
+	private static double normalize(double radians)
+	{
+		return Math.IEEEremainder(radians, 2 * Math.PI);
+	}
+
+	/**
+	 * Weights a range of particles, splitting it for the pool if too big
+	 */
+	private class WeightingTask extends RecursiveTask<Double>
+	{
+		private final int from;
+
+		private final int to;
+
+		WeightingTask(int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Double compute()
+		{
+			if (to - from <= PARTICLES_PER_TASK) {
+				return weightParticles(from, to);
+			}
+
+			int middle = (from + to) >>> 1;
+			WeightingTask left = new WeightingTask(from, middle);
+			left.fork();
+			double right = new WeightingTask(middle, to).compute();
+			return left.join() + right;
+		}
+	}
+}
@@ -10,8 +10,10 @@ import hso.autonomy.agent.model.worldmodel.localizer.ILineFeature;
 import hso.autonomy.agent.model.worldmodel.localizer.IPointFeature;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
 /**
  * Implements a simple map of geometric features.
@@ -27,6 +29,9 @@ public class FeatureMap implements IFeatureMap
 	/** The map of line features in the environment. */
 	protected Map<String, ILineFeature> lineFeatures;
 
+	/** index of the point features by type, null if not yet created */
+	private transient volatile PointFeatureIndex pointFeatureIndex;
+
 	/**
 	 * Construct a new feature map with no initial features.
 	 */
@@ -53,13 +58,37 @@ public class FeatureMap implements IFeatureMap
 		return pointFeatures;
 	}
 
+	/**
+	 * The returned collection is shared and must not be modified.
+	 */
 	@Override
 	public Collection<IPointFeature> getPointFeatures(String type)
 	{
-		return pointFeatures.values()
-				.stream()
-				.filter(f -> type == f.getType() || type.equals(f.getType()) || f.getType().contains(type))
-				.collect(Collectors.toList());
+		return getPointFeatureIndex().get(type).getFeatures();
+	}
+
+	@Override
+	public List<IPointFeature> getNearestPointFeatures(Vector3D position, String type, int k)
+	{
+		return getPointFeatureIndex().getNearest(position, type, k);
+	}
+
+	/**
+	 * Returns the index of the point features by type. The index is created on
+	 * first access and recreated after the point features have been changed
+	 * through this map. Changes to the map returned by
+	 * {@link #getPointFeatures()} are not noticed.
+	 *
+	 * @return the index of the point features
+	 */
+	public PointFeatureIndex getPointFeatureIndex()
+	{
+		PointFeatureIndex index = pointFeatureIndex;
+		if (index == null) {
+			index = new PointFeatureIndex(pointFeatures.values());
+			pointFeatureIndex = index;
+		}
+		return index;
 	}
 
 	@Override
@@ -76,6 +105,7 @@ public class FeatureMap implements IFeatureMap
 		} else {
 			this.pointFeatures.clear();
 		}
+		pointFeatureIndex = null;
 	}
 
 	@Override
@@ -83,6 +113,7 @@ public class FeatureMap implements IFeatureMap
 	{
 		if (pointFeature != null) {
 			pointFeatures.put(pointFeature.getName(), pointFeature);
+			pointFeatureIndex = null;
 		}
 	}
 
@@ -90,6 +121,7 @@ public class FeatureMap implements IFeatureMap
 	public void clearPointFeatures()
 	{
 		pointFeatures.clear();
+		pointFeatureIndex = null;
 	}
 
 	@Override
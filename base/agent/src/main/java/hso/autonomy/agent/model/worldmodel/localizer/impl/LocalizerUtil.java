@@ -314,22 +314,15 @@ public class LocalizerUtil
 				continue;
 			}
 
-			// compare each seen point feature observation...
+			// assign the closest known point feature of the corresponding type
 			Vector3D globalObservedPos = estimatedPose.applyTo(o.getObservedPosition());
-			double shortestDistance = Double.MAX_VALUE;
-			IPointFeature nearestPointFeature = null;
-			Collection<IPointFeature> candidateFeatures = map.getPointFeatures(o.getType());
-
-			// with each known point feature of the corresponding type to assign the closest one
-			for (IPointFeature feature : candidateFeatures) {
-				double distanceSeenKnown =
-						VectorUtils.getDistanceBetweenXY(feature.getKnownPosition(), globalObservedPos);
-
-				if (distanceSeenKnown < shortestDistance) {
-					nearestPointFeature = feature;
-					shortestDistance = distanceSeenKnown;
-				}
+			List<IPointFeature> nearest = map.getNearestPointFeatures(globalObservedPos, o.getType(), 1);
+			if (nearest.isEmpty()) {
+				continue;
 			}
+			IPointFeature nearestPointFeature = nearest.get(0);
+			double shortestDistance =
+					VectorUtils.getDistanceBetweenXY(nearestPointFeature.getKnownPosition(), globalObservedPos);
 
 			// only assign point feature if the distance is closer than deviation
 			double deviation = 1.0;
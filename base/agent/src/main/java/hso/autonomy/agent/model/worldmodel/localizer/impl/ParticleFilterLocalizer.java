@@ -262,7 +262,6 @@ public class ParticleFilterLocalizer implements IParticleFilterLocalizer
 				if (closestFeature != null) {
 					alphaDiffs.add(closestAlphaDiff.degrees());
 					deltaDiffs.add(closestDeltaDiff.degrees());
-					knownFeaturesByType.remove(closestFeature);
 				}
 			}
 
@@ -0,0 +1,202 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.worldmodel.localizer.impl;
+
+import hso.autonomy.agent.model.worldmodel.localizer.IPointFeature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * Immutable index of point features by type. For each type the matching
+ * features and their known positions are kept in arrays, so that landmark
+ * association does not have to filter the features of a map again and again. A
+ * feature matches a type if its own type contains the type, like in
+ * {@link FeatureMap#getPointFeatures(String)}. The entries of all feature types
+ * are created on construction, entries of other types on first request.
+ *
+ * @author kdorer
+ */
+public class PointFeatureIndex
+{
+	/** all indexed features */
+	private final IPointFeature[] features;
+
+	/** the entries by requested type */
+	private final Map<String, Entry> entries;
+
+	/**
+	 * @param pointFeatures the features to index, their known positions must not
+	 *        change
+	 */
+	public PointFeatureIndex(Collection<? extends IPointFeature> pointFeatures)
+	{
+		features = pointFeatures.toArray(new IPointFeature[pointFeatures.size()]);
+		entries = new ConcurrentHashMap<>();
+		for (IPointFeature feature : features) {
+			entries.computeIfAbsent(feature.getType(), this::createEntry);
+		}
+	}
+
+	/**
+	 * @param type the type of features
+	 * @return the entry with all features matching the passed type
+	 */
+	public Entry get(String type)
+	{
+		Entry entry = entries.get(type);
+		if (entry == null) {
+			entry = entries.computeIfAbsent(type, this::createEntry);
+		}
+		return entry;
+	}
+
+	/**
+	 * @param position the global position to search around
+	 * @param type the type of features
+	 * @param k the maximum number of features to return
+	 * @return the at most k features of the passed type closest to the position
+	 *         in the xy plane, closest first
+	 */
+	public List<IPointFeature> getNearest(Vector3D position, String type, int k)
+	{
+		Entry entry = get(type);
+		int[] indices = new int[Math.min(k, entry.size())];
+		int count = entry.findNearest(position.getX(), position.getY(), indices);
+		List<IPointFeature> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(entry.getFeature(indices[i]));
+		}
+		return result;
+	}
+
+	private Entry createEntry(String type)
+	{
+		List<IPointFeature> matching = new ArrayList<>();
+		for (IPointFeature feature : features) {
+			if (feature.getType().contains(type)) {
+				matching.add(feature);
+			}
+		}
+		return new Entry(matching);
+	}
+
+	/**
+	 * The features matching one type with their known positions
+	 */
+	public static class Entry
+	{
+		private final IPointFeature[] features;
+
+		private final List<IPointFeature> featureList;
+
+		/** the known positions as x, y, z triples in the order of the features */
+		private final double[] positions;
+
+		private Entry(List<IPointFeature> matching)
+		{
+			features = matching.toArray(new IPointFeature[matching.size()]);
+			featureList = Collections.unmodifiableList(Arrays.asList(features));
+			positions = new double[3 * features.length];
+			for (int i = 0; i < features.length; i++) {
+				Vector3D known = features[i].getKnownPosition();
+				positions[3 * i] = known.getX();
+				positions[3 * i + 1] = known.getY();
+				positions[3 * i + 2] = known.getZ();
+			}
+		}
+
+		public int size()
+		{
+			return features.length;
+		}
+
+		public IPointFeature getFeature(int index)
+		{
+			return features[index];
+		}
+
+		/**
+		 * @return an unmodifiable list of the features of this entry
+		 */
+		public List<IPointFeature> getFeatures()
+		{
+			return featureList;
+		}
+
+		public double getX(int index)
+		{
+			return positions[3 * index];
+		}
+
+		public double getY(int index)
+		{
+			return positions[3 * index + 1];
+		}
+
+		public double getZ(int index)
+		{
+			return positions[3 * index + 2];
+		}
+
+		/**
+		 * Copies the known positions as x, y, z triples into the passed array
+		 *
+		 * @param destination the array to copy to
+		 * @param offset the index in the destination of the first x coordinate
+		 */
+		public void copyPositions(double[] destination, int offset)
+		{
+			System.arraycopy(positions, 0, destination, offset, positions.length);
+		}
+
+		/**
+		 * Finds the features closest to the passed global position in the xy
+		 * plane without allocating memory. Of features with equal distance the one
+		 * first in this entry comes first.
+		 *
+		 * @param indices receives the indices of the closest features, closest
+		 *        first, its length is the maximum number of features to find
+		 * @return the number of features found
+		 */
+		public int findNearest(double x, double y, int[] indices)
+		{
+			int k = Math.min(indices.length, features.length);
+			if (k == 0) {
+				return 0;
+			}
+
+			int count = 0;
+			for (int i = 0; i < features.length; i++) {
+				double distance = distanceSq(i, x, y);
+				if (count == k && distance >= distanceSq(indices[k - 1], x, y)) {
+					continue;
+				}
+
+				// insertion into the sorted list of the closest features
+				int slot = count < k ? count++ : k - 1;
+				while (slot > 0 && distance < distanceSq(indices[slot - 1], x, y)) {
+					indices[slot] = indices[slot - 1];
+					slot--;
+				}
+				indices[slot] = i;
+			}
+			return count;
+		}
+
+		private double distanceSq(int index, double x, double y)
+		{
+			double dx = positions[3 * index] - x;
+			double dy = positions[3 * index + 1] - y;
+			return dx * dx + dy * dy;
+		}
+	}
+}
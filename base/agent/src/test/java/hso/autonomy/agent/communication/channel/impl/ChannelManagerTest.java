@@ -0,0 +1,186 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.communication.channel.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hso.autonomy.agent.communication.channel.IChannelManager.DispatchMode;
+import hso.autonomy.agent.communication.channel.IInputChannel;
+import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import hso.autonomy.agent.communication.perception.impl.PerceptorCoalescer;
+import hso.autonomy.agent.communication.perception.impl.PerceptorMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ChannelManagerTest
+{
+	private ChannelManager testee;
+
+	private final List<IPerceptorMap> received = Collections.synchronizedList(new ArrayList<>());
+
+	private final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+	private void start(DispatchMode mode)
+	{
+		testee = new ChannelManager(mode);
+		IInputChannel channel = mock(IInputChannel.class);
+		when(channel.startChannel()).thenReturn(true);
+		when(channel.isConnected()).thenReturn(true);
+		testee.addInputChannel(channel, true);
+		assertTrue(testee.start());
+	}
+
+	private void update(IPerceptorMap map)
+	{
+		received.add(map);
+		threads.add(Thread.currentThread());
+	}
+
+	private Thread dispatchInBackground()
+	{
+		Thread thread = new Thread(() -> {
+			try {
+				testee.dispatchPerceptors(this::update);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private void waitForReceived(int count) throws InterruptedException
+	{
+		for (int i = 0; i < 500 && received.size() < count; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(count, received.size());
+	}
+
+	@Test
+	public void testRingDispatch() throws Exception
+	{
+		for (DispatchMode mode : new DispatchMode[] {DispatchMode.RING_SPIN, DispatchMode.RING_PARK}) {
+			received.clear();
+			start(mode);
+			IPerceptorMap map1 = mock(IPerceptorMap.class);
+			IPerceptorMap map2 = mock(IPerceptorMap.class);
+			testee.addPerceptors(map1);
+			testee.addPerceptors(map2);
+
+			testee.dispatchPerceptors(this::update);
+			assertEquals(2, received.size());
+			assertSame(map1, received.get(0));
+			assertSame(map2, received.get(1));
+		}
+	}
+
+	@Test
+	public void testRingParkWakeUp() throws Exception
+	{
+		start(DispatchMode.RING_PARK);
+		Thread dispatcher = dispatchInBackground();
+		Thread.sleep(50);
+
+		testee.addPerceptors(mock(IPerceptorMap.class));
+		waitForReceived(1);
+		dispatcher.join(1000);
+		assertFalse(dispatcher.isAlive());
+		assertSame(dispatcher, threads.get(0));
+	}
+
+	@Test
+	public void testRingStop() throws Exception
+	{
+		start(DispatchMode.RING_PARK);
+		Thread dispatcher = dispatchInBackground();
+		Thread.sleep(50);
+
+		testee.stop();
+		dispatcher.join(1000);
+		assertFalse(dispatcher.isAlive());
+		assertTrue(received.isEmpty());
+	}
+
+	@Test
+	public void testRingFullDropsPerception() throws Exception
+	{
+		start(DispatchMode.RING_SPIN);
+		IPerceptorMap first = mock(IPerceptorMap.class);
+		testee.addPerceptors(first);
+		IPerceptorMap last = null;
+		for (int i = 0; i < 64; i++) {
+			last = mock(IPerceptorMap.class);
+			testee.addPerceptors(last);
+		}
+
+		verify(first, never()).release();
+		verify(last).release();
+	}
+
+	@Test
+	public void testCoalescePendingPerceptions() throws Exception
+	{
+		start(DispatchMode.RING_SPIN);
+		testee.setCoalescer(new PerceptorCoalescer() {
+			@Override
+			public boolean canMerge(IPerceptorMap older, IPerceptorMap newer)
+			{
+				// the empty map marks a transition
+				return !newer.isEmpty();
+			}
+		});
+		IPerceptorMap map1 = mock(IPerceptorMap.class);
+		IPerceptorMap map2 = mock(IPerceptorMap.class);
+		IPerceptorMap transition = new PerceptorMap();
+		IPerceptorMap map3 = mock(IPerceptorMap.class);
+		testee.addPerceptors(map1);
+		testee.addPerceptors(map2);
+		testee.addPerceptors(transition);
+		testee.addPerceptors(map3);
+
+		testee.dispatchPerceptors(this::update);
+		assertEquals(2, received.size());
+		assertSame(map2, received.get(0));
+		assertSame(map3, received.get(1));
+		assertEquals(2, testee.getDroppedCycles());
+		verify(map1).release();
+		verify(map2, never()).release();
+		verify(map3, never()).release();
+	}
+
+	@Test
+	public void testReceiveThreadDispatch() throws Exception
+	{
+		start(DispatchMode.RECEIVE_THREAD);
+		IPerceptorMap early = mock(IPerceptorMap.class);
+		testee.addPerceptors(early);
+
+		Thread dispatcher = dispatchInBackground();
+		waitForReceived(1);
+		assertSame(early, received.get(0));
+
+		// the agent cycle now runs in the thread that adds the perceptions
+		IPerceptorMap map = mock(IPerceptorMap.class);
+		testee.addPerceptors(map);
+		assertSame(map, received.get(1));
+		assertSame(Thread.currentThread(), threads.get(1));
+		assertTrue(dispatcher.isAlive());
+
+		testee.stop();
+		dispatcher.join(1000);
+		assertFalse(dispatcher.isAlive());
+	}
+}
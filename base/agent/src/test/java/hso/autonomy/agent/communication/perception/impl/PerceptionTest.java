@@ -0,0 +1,46 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.communication.perception.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link Perception} class
+ */
+public class PerceptionTest
+{
+	private final Perception testee = new Perception();
+
+	@Test
+	public void testReleasedPooledMapIsNotRead()
+	{
+		PerceptorMapPool pool = new PerceptorMapPool();
+		PooledPerceptorMap map = pool.acquire();
+		map.putRecyclable(new HingeJointPerceptor("hj1", 1.5f));
+		testee.updatePerceptors(map);
+		assertEquals(1.5f, testee.getHingeJointPerceptor("hj1").getAxis(), 0.0001);
+		assertTrue(testee.containsMotion());
+
+		testee.releasePerceptors();
+		map.release();
+		assertNull(testee.getHingeJointPerceptor("hj1"));
+		assertFalse(testee.containsMotion());
+
+		// the channel refills the released map while the next message is empty
+		PooledPerceptorMap refilled = pool.acquire();
+		assertSame(map, refilled);
+		refilled.putRecyclable(new TimePerceptor(2.0f));
+		testee.updatePerceptors(new PerceptorMap());
+		assertNull(testee.getTime());
+		assertNull(testee.getHingeJointPerceptor("hj1"));
+	}
+}
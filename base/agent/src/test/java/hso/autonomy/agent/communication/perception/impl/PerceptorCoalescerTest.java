@@ -0,0 +1,67 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.communication.perception.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import java.util.Arrays;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.Test;
+
+public class PerceptorCoalescerTest
+{
+	private final PerceptorCoalescer testee = new PerceptorCoalescer();
+
+	@Test
+	public void testMergeKeepsNewestState()
+	{
+		IPerceptorMap map1 = new PerceptorMap(new GyroPerceptor("gyro", 1, 1, 1));
+		IPerceptorMap map2 = new PerceptorMap(new GyroPerceptor("gyro", 2, 2, 2));
+
+		IPerceptorMap merged = testee.merge(Arrays.asList(map1, map2));
+		assertSame(map2, merged);
+		assertEquals(1, merged.size());
+		assertEquals(2, merged.get("gyro", GyroPerceptor.class).getGyro().getX(), 0.0001);
+	}
+
+	@Test
+	public void testMergeTakesLatestVision()
+	{
+		IPerceptorMap map1 = new PerceptorMap(new GyroPerceptor("gyro", 1, 1, 1), visible("F1L"), visible("F2L"));
+		VisibleObjectPerceptor flag = visible("F1L");
+		IPerceptorMap map2 = new PerceptorMap(new GyroPerceptor("gyro", 2, 2, 2), flag);
+		IPerceptorMap map3 = new PerceptorMap(new GyroPerceptor("gyro", 3, 3, 3));
+
+		IPerceptorMap merged = testee.merge(Arrays.asList(map1, map2, map3));
+		assertSame(map3, merged);
+		assertSame(flag, merged.get("F1L"));
+		// vision is taken from a single cycle only
+		assertFalse(merged.containsKey("F2L"));
+		assertEquals(3, merged.get("gyro", GyroPerceptor.class).getGyro().getX(), 0.0001);
+	}
+
+	@Test
+	public void testMergeKeepsNewestVision()
+	{
+		IPerceptorMap map1 = new PerceptorMap(visible("F1L"), visible("F2L"));
+		VisibleObjectPerceptor flag = visible("F1L");
+		IPerceptorMap map2 = new PerceptorMap(flag);
+
+		IPerceptorMap merged = testee.merge(Arrays.asList(map1, map2));
+		assertSame(flag, merged.get("F1L"));
+		assertFalse(merged.containsKey("F2L"));
+		assertTrue(testee.canMerge(map1, map2));
+	}
+
+	private static VisibleObjectPerceptor visible(String name)
+	{
+		return new VisibleObjectPerceptor(name, new Vector3D(1, 0, 0), true, 1, name);
+	}
+}
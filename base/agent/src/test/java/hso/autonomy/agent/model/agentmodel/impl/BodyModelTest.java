@@ -25,6 +25,8 @@ import hso.autonomy.agent.model.agentmeta.impl.BodyPartConfiguration;
 import hso.autonomy.agent.model.agentmeta.impl.HingeJointConfiguration;
 import hso.autonomy.agent.model.agentmeta.impl.SensorConfiguration;
 import hso.autonomy.agent.model.agentmodel.IBodyModel;
+import hso.autonomy.agent.model.agentmodel.IBodyPart;
+import hso.autonomy.util.file.SerializationUtil;
 import hso.autonomy.util.geometry.Pose3D;
 import java.util.ArrayList;
 import java.util.List;
@@ -141,6 +143,52 @@ public class BodyModelTest
 		// assertEquals(5.0f, hingeJoint.getNextAxisSpeed(), 0.0001);
 	}
 
+	@Test
+	public void testJointTransformationFollowsJointChanges()
+	{
+		IPerception perception = mock(IPerception.class);
+		IHingeJointPerceptor hingePerceptor = mock(IHingeJointPerceptor.class);
+		when(perception.getHingeJointPerceptor("hj1")).thenReturn(hingePerceptor);
+		IBodyPart neck = testee.getBodyPart("neck");
+
+		when(hingePerceptor.getAxis()).thenReturn(20.0f);
+		testee.updateFromPerception(perception);
+		assertEquals(20, Math.toDegrees(neck.getOrientation().getAngle()), 0.0001);
+		assertEquals(new Vector3D(0, 0, 0.09), neck.getJointTransformation().getPosition());
+		Vector3D centerOfMass = testee.getCenterOfMass();
+
+		when(hingePerceptor.getAxis()).thenReturn(40.0f);
+		testee.updateFromPerception(perception);
+		assertEquals(40, Math.toDegrees(neck.getJointTransformation().getOrientation().getAngle()), 0.0001);
+		assertEquals(centerOfMass, testee.getCenterOfMass());
+
+		// changing the returned pose must not change the cached transformation
+		neck.getJointTransformation().position = Vector3D.ZERO;
+		assertEquals(new Vector3D(0, 0, 0.09), neck.getPose().getPosition());
+	}
+
+	@Test
+	public void testSerializationRestoresJointTransformations() throws Exception
+	{
+		IPerception perception = mock(IPerception.class);
+		IHingeJointPerceptor hingePerceptor = mock(IHingeJointPerceptor.class);
+		when(perception.getHingeJointPerceptor("hj1")).thenReturn(hingePerceptor);
+		when(hingePerceptor.getAxis()).thenReturn(20.0f);
+		testee.updateFromPerception(perception);
+		Vector3D centerOfMass = testee.getCenterOfMass();
+
+		BodyModel copy = (BodyModel) SerializationUtil.doubleSerialize(testee);
+
+		assertEquals(centerOfMass, copy.getCenterOfMass());
+		IBodyPart neck = copy.getBodyPart("neck");
+		assertEquals(20, Math.toDegrees(neck.getJointTransformation().getOrientation().getAngle()), 0.0001);
+
+		// joint changes of the copy still invalidate its transformations
+		when(hingePerceptor.getAxis()).thenReturn(40.0f);
+		copy.updateFromPerception(perception);
+		assertEquals(40, Math.toDegrees(neck.getJointTransformation().getOrientation().getAngle()), 0.0001);
+	}
+
 	private List<IBodyPartConfiguration> getTestBodyPartConfig()
 	{
 		List<IBodyPartConfiguration> configs = new ArrayList<>();
@@ -0,0 +1,100 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.thoughtmodel.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hso.autonomy.agent.model.thoughtmodel.IThoughtModel;
+import hso.autonomy.agent.model.worldmodel.IWorldModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LazyTruthValueTest
+{
+	private IThoughtModel thoughtModel;
+
+	private CountingTruthValue decoratee;
+
+	private LazyTruthValue testee;
+
+	@BeforeEach
+	public void setUp()
+	{
+		thoughtModel = mock(IThoughtModel.class);
+		IWorldModel worldModel = mock(IWorldModel.class);
+		when(thoughtModel.getWorldModel()).thenReturn(worldModel);
+		decoratee = new CountingTruthValue(true);
+		testee = new LazyTruthValue(decoratee);
+	}
+
+	@Test
+	public void testEvaluatesOnlyWhenRead()
+	{
+		testee.update(thoughtModel);
+		testee.update(thoughtModel);
+		assertEquals(0, decoratee.updates);
+
+		assertTrue(testee.isValid());
+		assertTrue(testee.isValid());
+		assertEquals(1, decoratee.updates);
+
+		testee.update(thoughtModel);
+		assertTrue(testee.isValid());
+		assertEquals(2, decoratee.updates);
+		assertEquals(3, testee.getUpdateCount());
+		assertEquals(2, testee.getEvaluationCount());
+		assertTrue(testee.getMaxEvaluationTime() <= testee.getEvaluationTime());
+
+		testee.resetStatistics();
+		assertEquals(0, testee.getEvaluationCount());
+	}
+
+	@Test
+	public void testCompositeEvaluatesOnlyNeededValues()
+	{
+		CountingTruthValue second = new CountingTruthValue(true);
+		CompositeTruthValue or = new CompositeTruthValue(false, testee, new LazyTruthValue(second));
+
+		or.update(thoughtModel);
+		assertTrue(or.isValid());
+		assertEquals(1, decoratee.updates);
+		assertEquals(0, second.updates);
+
+		decoratee.truth = false;
+		or.update(thoughtModel);
+		assertTrue(or.isValid());
+		assertEquals(1, second.updates);
+
+		second.truth = false;
+		CompositeTruthValue and = new CompositeTruthValue(true, new LazyTruthValue(second), testee);
+		and.update(thoughtModel);
+		assertFalse(and.isValid());
+		assertEquals(2, decoratee.updates);
+	}
+
+	private static class CountingTruthValue extends TruthValue
+	{
+		boolean truth;
+
+		int updates;
+
+		public CountingTruthValue(boolean truth)
+		{
+			this.truth = truth;
+		}
+
+		@Override
+		public void update(IThoughtModel thoughtModel)
+		{
+			updates++;
+			setValidity(truth, 0);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.worldmodel.localizer.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hso.autonomy.agent.model.worldmodel.localizer.IPointFeature;
+import hso.autonomy.agent.model.worldmodel.localizer.IPointFeatureObservation;
+import hso.autonomy.util.geometry.Angle;
+import hso.autonomy.util.geometry.IPose3D;
+import hso.autonomy.util.geometry.Pose3D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the particle filter working on arrays
+ */
+public class ArrayParticleFilterLocalizerTest
+{
+	private FeatureMap map;
+
+	private IPose3D truePose;
+
+	private List<IPointFeatureObservation> observations;
+
+	@BeforeEach
+	public void setUp()
+	{
+		Map<String, IPointFeature> features = new HashMap<>();
+		features.put("G1L", createFeature("G1L", "goalpost", new Vector3D(-15, 1.05, 0.8)));
+		features.put("G1R", createFeature("G1R", "goalpost", new Vector3D(-15, -1.05, 0.8)));
+		features.put("F1L", createFeature("F1L", "corner", new Vector3D(-15, 10, 0)));
+		features.put("F2L", createFeature("F2L", "corner", new Vector3D(15, 10, 0)));
+		map = new FeatureMap(features, null);
+
+		truePose = new Pose3D(new Vector3D(-5, 2, 0.5), Angle.deg(150));
+		observations = new ArrayList<>();
+		for (IPointFeature feature : features.values()) {
+			Vector3D observed = truePose.applyInverseTo(feature.getKnownPosition());
+			observations.add(new PointFeatureObservation(0, feature.getType(), observed, true));
+		}
+	}
+
+	@Test
+	public void testCorrectFindsMatchingParticle()
+	{
+		ArrayParticleFilterLocalizer testee = new ArrayParticleFilterLocalizer(new HashMap<>(), 200);
+		testee.reset(0, truePose);
+		assertEquals(201, testee.getParticleCount());
+
+		assertTrue(testee.correct(0.02f, map, observations, Collections.emptyList(), null, 0.5));
+
+		IPose3D localized = testee.getState().getLocalizedPose();
+		assertEquals(0, localized.getPosition().distance(truePose.getPosition()), 0.00001);
+		assertEquals(150, localized.getHorizontalAngle().degrees(), 0.0001);
+	}
+
+	@Test
+	public void testParallelWeighting()
+	{
+		ArrayParticleFilterLocalizer testee =
+				new ArrayParticleFilterLocalizer(new HashMap<>(), 2000, new ForkJoinPool(4));
+		testee.reset(0, truePose);
+
+		double sum = testee.sampleImportanceFromObservations(observations, map);
+
+		double expected = 0;
+		for (int i = 0; i < testee.getParticleCount(); i++) {
+			expected += testee.getProbability(i);
+		}
+		assertEquals(expected, sum, 1e-12);
+
+		assertTrue(testee.correct(0.02f, map, observations, Collections.emptyList(), null, 0.5));
+		assertEquals(0, testee.getState().getLocalizedPosition().distance(truePose.getPosition()), 0.00001);
+	}
+
+	@Test
+	public void testPredictMovesParticles()
+	{
+		ArrayParticleFilterLocalizer testee = new ArrayParticleFilterLocalizer(new HashMap<>(), 10);
+		testee.reset(0, new Pose3D(new Vector3D(1, 1, 0.5), Angle.deg(90)));
+
+		assertTrue(testee.predict(0.02f, new Pose3D(0.1, 0), Rotation.IDENTITY, 0.45));
+
+		IPose3D particle = testee.getParticlePose(0);
+		assertEquals(1, particle.getX(), 0.00001);
+		assertEquals(1.1, particle.getY(), 0.00001);
+		assertEquals(0.45, particle.getZ(), 0.00001);
+		assertEquals(90, particle.getHorizontalAngle().degrees(), 0.0001);
+	}
+
+	private static IPointFeature createFeature(String name, String type, Vector3D position)
+	{
+		IPointFeature feature = mock(IPointFeature.class);
+		when(feature.getName()).thenReturn(name);
+		when(feature.getType()).thenReturn(type);
+		when(feature.getKnownPosition()).thenReturn(position);
+		return feature;
+	}
+}
@@ -0,0 +1,122 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.agent.model.worldmodel.localizer.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hso.autonomy.agent.model.worldmodel.localizer.IPointFeature;
+import java.util.Collection;
+import java.util.List;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the type index of the feature map
+ */
+public class FeatureMapTest
+{
+	private FeatureMap testee;
+
+	private IPointFeature g1l;
+
+	private IPointFeature g1r;
+
+	private IPointFeature f1l;
+
+	private IPointFeature f2l;
+
+	@BeforeEach
+	public void setUp()
+	{
+		g1l = createFeature("G1L", "goalpostLeft", new Vector3D(-15, 1.05, 0.8));
+		g1r = createFeature("G1R", "goalpostRight", new Vector3D(-15, -1.05, 0.8));
+		f1l = createFeature("F1L", "corner", new Vector3D(-15, 10, 0));
+		f2l = createFeature("F2L", "corner", new Vector3D(15, 10, 0));
+		testee = new FeatureMap();
+		testee.addPointFeature(g1l);
+		testee.addPointFeature(g1r);
+		testee.addPointFeature(f1l);
+		testee.addPointFeature(f2l);
+	}
+
+	@Test
+	public void testGetPointFeaturesByType()
+	{
+		Collection<IPointFeature> corners = testee.getPointFeatures("corner");
+		assertEquals(2, corners.size());
+		assertTrue(corners.contains(f1l));
+		assertTrue(corners.contains(f2l));
+
+		// types containing the requested type match as well
+		Collection<IPointFeature> goalposts = testee.getPointFeatures("goalpost");
+		assertEquals(2, goalposts.size());
+		assertTrue(goalposts.contains(g1l));
+		assertTrue(goalposts.contains(g1r));
+
+		assertEquals(1, testee.getPointFeatures("goalpostLeft").size());
+		assertEquals(0, testee.getPointFeatures("flag").size());
+		assertSame(corners, testee.getPointFeatures("corner"));
+	}
+
+	@Test
+	public void testIndexRecreatedOnChange()
+	{
+		PointFeatureIndex index = testee.getPointFeatureIndex();
+		assertSame(index, testee.getPointFeatureIndex());
+
+		IPointFeature f1r = createFeature("F1R", "corner", new Vector3D(-15, -10, 0));
+		testee.addPointFeature(f1r);
+		assertNotSame(index, testee.getPointFeatureIndex());
+		assertEquals(3, testee.getPointFeatures("corner").size());
+
+		testee.clearPointFeatures();
+		assertEquals(0, testee.getPointFeatures("corner").size());
+	}
+
+	@Test
+	public void testGetNearestPointFeatures()
+	{
+		List<IPointFeature> nearest = testee.getNearestPointFeatures(new Vector3D(-14, 0.5, 0), "goalpost", 1);
+		assertEquals(1, nearest.size());
+		assertSame(g1l, nearest.get(0));
+
+		nearest = testee.getNearestPointFeatures(new Vector3D(10, 9, 0), "", 3);
+		assertEquals(3, nearest.size());
+		assertSame(f2l, nearest.get(0));
+		assertSame(f1l, nearest.get(1));
+		assertSame(g1l, nearest.get(2));
+
+		assertEquals(2, testee.getNearestPointFeatures(Vector3D.ZERO, "corner", 5).size());
+		assertEquals(0, testee.getNearestPointFeatures(Vector3D.ZERO, "corner", 0).size());
+	}
+
+	@Test
+	public void testFindNearestIndices()
+	{
+		PointFeatureIndex.Entry corners = testee.getPointFeatureIndex().get("corner");
+		int[] indices = new int[2];
+		assertEquals(2, corners.findNearest(-14, 9, indices));
+		assertSame(f1l, corners.getFeature(indices[0]));
+		assertSame(f2l, corners.getFeature(indices[1]));
+		assertEquals(-15, corners.getX(indices[0]), 0.0001);
+		assertEquals(10, corners.getY(indices[0]), 0.0001);
+	}
+
+	private static IPointFeature createFeature(String name, String type, Vector3D position)
+	{
+		IPointFeature feature = mock(IPointFeature.class);
+		when(feature.getName()).thenReturn(name);
+		when(feature.getType()).thenReturn(type);
+		when(feature.getKnownPosition()).thenReturn(position);
+		return feature;
+	}
+}
@@ -0,0 +1,241 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.connection.impl;
+
+import hso.autonomy.util.connection.ConnectionException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+
+/**
+ * Server connection based on a {@link SocketChannel}. Messages are framed by a
+ * 4 byte length prefix like in {@link ServerConnection}. Received bytes are
+ * collected in a single direct buffer and messages are framed in place, so no
+ * memory is allocated per message if a {@link IByteBufferReceiver} is set.
+ * Otherwise the observers are notified with a copy of each message.
+ *
+ * @author kdorer
+ */
+public class NIOServerConnection extends SocketConnection
+{
+	/** the size of the length prefix of each message */
+	private static final int HEADER_SIZE = 4;
+
+	/** the initial size of the receive buffer, grows if messages are bigger */
+	private static final int INITIAL_BUFFER_SIZE = 16384;
+
+	/** the byte order of the length prefix */
+	private final ByteOrder byteOrder;
+
+	/** the length prefix of sent messages */
+	private final ByteBuffer sendHeader;
+
+	/** header and body of the message to send */
+	private final ByteBuffer[] sendBuffers;
+
+	/** the channel to the server */
+	private SocketChannel channel;
+
+	/** the received bytes starting with the header of the current message */
+	private ByteBuffer receiveBuffer;
+
+	/** the number of valid bytes in the receive buffer */
+	private int filled;
+
+	/** the number of bytes in the receive buffer that belong to the last message */
+	private int consumed;
+
+	/** the receiver of messages, null if observers are notified */
+	private IByteBufferReceiver receiver;
+
+	public NIOServerConnection(String host, int port)
+	{
+		this(host, port, ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * @param byteOrder the byte order of the length prefix of messages
+	 */
+	public NIOServerConnection(String host, int port, ByteOrder byteOrder)
+	{
+		super(host, port);
+		this.byteOrder = byteOrder;
+		sendHeader = ByteBuffer.allocateDirect(HEADER_SIZE).order(byteOrder);
+		sendBuffers = new ByteBuffer[2];
+		receiveBuffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE).order(byteOrder);
+	}
+
+	/**
+	 * Sets the receiver that gets each message as view on the receive buffer.
+	 * If a receiver is set, observers are no longer notified.
+	 *
+	 * @param receiver the receiver of messages, null to notify observers
+	 */
+	public void setReceiver(IByteBufferReceiver receiver)
+	{
+		this.receiver = receiver;
+	}
+
+	@Override
+	public void establishConnection() throws ConnectionException
+	{
+		try {
+			channel = SocketChannel.open(new InetSocketAddress(host, port));
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+			filled = 0;
+			consumed = 0;
+			connected = true;
+
+		} catch (UnresolvedAddressException e) {
+			throw new ConnectionException("Unknown host: " + host, e);
+		} catch (ConnectException e) {
+			String message = host + ":" + port + " refused the connection. Is the server running?";
+			throw new ConnectionException(message, e);
+		} catch (IOException e) {
+			e.printStackTrace();
+			throw new ConnectionException("IO problems", e);
+		}
+	}
+
+	/**
+	 * Sends header and body of the message in a single gathering write. The
+	 * send buffers are shared, so concurrent calls are serialized.
+	 *
+	 * @param msg Message in ASCII form
+	 */
+	@Override
+	public synchronized void sendMessage(byte[] msg) throws ConnectionException
+	{
+		sendHeader.clear();
+		sendHeader.putInt(msg.length);
+		sendHeader.flip();
+		sendBuffers[0] = sendHeader;
+		sendBuffers[1] = ByteBuffer.wrap(msg);
+
+		try {
+			while (sendHeader.hasRemaining() || sendBuffers[1].hasRemaining()) {
+				channel.write(sendBuffers);
+			}
+		} catch (IOException e) {
+			shutDown = true;
+			throw new ConnectionException("Error writing to socket, shutting down...", e);
+		} finally {
+			sendBuffers[1] = null;
+		}
+	}
+
+	/**
+	 * Starts the endless loop of receiving messages and notifying the receiver
+	 * or observers
+	 */
+	@Override
+	public void startReceiveLoop() throws ConnectionException
+	{
+		try {
+			while (!shutDown) {
+				ByteBuffer currentMessage = receiveMessage();
+
+				// trigger main update cycle
+				if (receiver != null) {
+					receiver.update(currentMessage);
+				} else {
+					byte[] message = new byte[currentMessage.remaining()];
+					currentMessage.get(message);
+					observer.onStateChange(message);
+				}
+			}
+		} finally {
+			closeConnection();
+			shutDown = false;
+		}
+	}
+
+	/**
+	 * Receives the next message. The returned buffer is a view on the receive
+	 * buffer with the message body between position and limit. It is only valid
+	 * until the next message is received.
+	 *
+	 * @return the body of the received message
+	 */
+	protected ByteBuffer receiveMessage() throws ConnectionException
+	{
+		try {
+			// remove the previous message, usually there are no bytes left
+			if (consumed > 0) {
+				receiveBuffer.limit(filled).position(consumed);
+				receiveBuffer.compact();
+				filled -= consumed;
+				consumed = 0;
+			}
+
+			fill(HEADER_SIZE);
+			int length = receiveBuffer.getInt(0);
+			if (length < 0) {
+				// server was shutdown
+				shutDown = true;
+				throw new ConnectionException("Server shut down");
+			}
+
+			consumed = HEADER_SIZE + length;
+			fill(consumed);
+			receiveBuffer.limit(consumed).position(HEADER_SIZE);
+			return receiveBuffer;
+
+		} catch (IOException e) {
+			shutDown = true;
+			throw new ConnectionException("Error when reading from socket, closing down...", e);
+		}
+	}
+
+	/**
+	 * Reads from the channel until the receive buffer contains at least the
+	 * specified number of bytes
+	 */
+	private void fill(int size) throws IOException, ConnectionException
+	{
+		if (size > receiveBuffer.capacity()) {
+			grow(size);
+		}
+
+		receiveBuffer.limit(receiveBuffer.capacity()).position(filled);
+		while (filled < size) {
+			int read = channel.read(receiveBuffer);
+			if (read < 0) {
+				// server was shutdown
+				shutDown = true;
+				throw new ConnectionException("Server shut down");
+			}
+			filled += read;
+		}
+	}
+
+	private void grow(int size)
+	{
+		int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(size, 2L * receiveBuffer.capacity()));
+		ByteBuffer bigger = ByteBuffer.allocateDirect(capacity).order(byteOrder);
+		receiveBuffer.limit(filled).position(0);
+		bigger.put(receiveBuffer);
+		receiveBuffer = bigger;
+	}
+
+	/**
+	 * Close server connection
+	 */
+	public void closeConnection()
+	{
+		try {
+			connected = false;
+			channel.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
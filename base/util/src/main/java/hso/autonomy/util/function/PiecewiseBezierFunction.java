@@ -75,13 +75,9 @@ public class PiecewiseBezierFunction extends SupportPointFunction
 			return supportPoints.get(supportPoints.size() - 1).y;
 		}
 
-		int index = 1;
-
 		// Find index after the SupportPoint that is closest, but smaller or equal
 		// to t
-		while (index < (supportPoints.size() - 1) && t >= supportPoints.get(index).x) {
-			index++;
-		}
+		int index = getSegmentIndex(t);
 
 		SupportPoint sPointBefore = supportPoints.get(index - 1);
 		SupportPoint sPointAfter = supportPoints.get(index);
@@ -71,30 +71,23 @@ public class PiecewiseLinearFunction extends SupportPointFunction
 	public double value(double t)
 	{
 		// Special condition for logging use
-		if (supportPoints.size() == 0) {
+		if (yValues.length == 0) {
 			return 0;
 		}
 
 		// Catch border conditions
 		if (t <= getMinX()) {
-			return supportPoints.get(0).y;
+			return yValues[0];
 		} else if (t >= getMaxX()) {
-			return supportPoints.get(supportPoints.size() - 1).y;
+			return yValues[yValues.length - 1];
 		}
 
-		int index = 1;
-
 		// Find index after the SupportPoint that is closest, but smaller or equal
 		// to t
-		while (index < (supportPoints.size() - 1) && t >= supportPoints.get(index).x) {
-			index++;
-		}
-
-		SupportPoint sPointBefore = supportPoints.get(index - 1);
-		SupportPoint sPointAfter = supportPoints.get(index);
+		int index = getSegmentIndex(t);
 
 		// linear interpolation
-		return Geometry.linearInterpolation(sPointBefore.x, sPointBefore.y, sPointAfter.x, sPointAfter.y, t);
+		return Geometry.linearInterpolation(xValues[index - 1], yValues[index - 1], xValues[index], yValues[index], t);
 	}
 
 	/**
@@ -53,34 +53,29 @@ public class PiecewiseSineSquare extends SupportPointFunction
 	public double value(double x)
 	{
 		// Special condition for logging use
-		if (supportPoints.size() == 0) {
+		if (yValues.length == 0) {
 			return 0;
 		}
 
 		// Catch border conditions
 		if (x <= getMinX()) {
-			return supportPoints.get(0).y;
+			return yValues[0];
 		} else if (x >= getMaxX()) {
-			return supportPoints.get(supportPoints.size() - 1).y;
+			return yValues[yValues.length - 1];
 		}
 
-		int index = 1;
-
 		// Find index after the SupportPoint that is closest, but smaller or equal
 		// to t
-		while (index < (supportPoints.size() - 1) && x >= supportPoints.get(index).x) {
-			index++;
-		}
-
-		SupportPoint sPointBefore = supportPoints.get(index - 1);
-		SupportPoint sPointAfter = supportPoints.get(index);
+		int index = getSegmentIndex(x);
+		double xBefore = xValues[index - 1];
+		double yBefore = yValues[index - 1];
 
 		// sine square interpolation
-		double deltay = sPointAfter.y - sPointBefore.y;
-		double deltax = sPointAfter.x - sPointBefore.x;
-		double sinsquare = Math.sin((x - sPointBefore.x) / deltax * (Math.PI / 2));
+		double deltay = yValues[index] - yBefore;
+		double deltax = xValues[index] - xBefore;
+		double sinsquare = Math.sin((x - xBefore) / deltax * (Math.PI / 2));
 
-		return sPointBefore.y + deltay * sinsquare * sinsquare;
+		return yBefore + deltay * sinsquare * sinsquare;
 	}
 
 	@Override
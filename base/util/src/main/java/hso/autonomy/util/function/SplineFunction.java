@@ -7,8 +7,8 @@ package hso.autonomy.util.function;
 
 import java.util.ArrayList;
 import org.apache.commons.math3.analysis.interpolation.SplineInterpolator;
+import org.apache.commons.math3.analysis.polynomials.PolynomialFunction;
 import org.apache.commons.math3.analysis.polynomials.PolynomialSplineFunction;
-import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 
 /**
@@ -21,7 +21,8 @@ public class SplineFunction extends SupportPointFunction
 	/** name identifying a spline */
 	public static final String NAME = "spline";
 
-	private PolynomialSplineFunction spline;
+	/** the polynomial coefficients of each segment of the spline */
+	private double[][] coefficients;
 
 	/**
 	 * Creates a Spline Function with the given SupportPoints.
@@ -113,16 +114,14 @@ public class SplineFunction extends SupportPointFunction
 	{
 		super.initialize();
 
-		double[] xValues = new double[supportPoints.size()];
-		double[] yValues = new double[supportPoints.size()];
+		SplineInterpolator interpolator = new SplineInterpolator();
+		PolynomialSplineFunction spline = interpolator.interpolate(xValues, yValues);
 
-		for (int i = 0; i < supportPoints.size(); i++) {
-			xValues[i] = supportPoints.get(i).x;
-			yValues[i] = supportPoints.get(i).y;
+		PolynomialFunction[] polynomials = spline.getPolynomials();
+		coefficients = new double[polynomials.length][];
+		for (int i = 0; i < polynomials.length; i++) {
+			coefficients[i] = polynomials[i].getCoefficients();
 		}
-
-		SplineInterpolator interpolator = new SplineInterpolator();
-		spline = interpolator.interpolate(xValues, yValues);
 	}
 
 	/**
@@ -136,18 +135,20 @@ public class SplineFunction extends SupportPointFunction
 	{
 		// Catch border conditions
 		if (t <= minXValue) {
-			return supportPoints.get(0).y;
+			return yValues[0];
 		} else if (t >= maxXValue) {
-			return supportPoints.get(supportPoints.size() - 1).y;
+			return yValues[yValues.length - 1];
 		}
 
-		// Try to interpolate
-		try {
-			return spline.value(t);
-		} catch (OutOfRangeException e) {
-			e.printStackTrace();
-			return 0.0;
+		// evaluate the polynomial of the segment like PolynomialSplineFunction
+		int segment = getSegmentIndex(t) - 1;
+		double[] c = coefficients[segment];
+		double x = t - xValues[segment];
+		double result = c[c.length - 1];
+		for (int i = c.length - 2; i >= 0; i--) {
+			result = x * result + c[i];
 		}
+		return result;
 	}
 
 	@Override
@@ -45,6 +45,18 @@ public abstract class SupportPointFunction implements IFunction
 	/** The maximum y value of all SupportPoints */
 	protected float maxYValue;
 
+	/** The x values of all SupportPoints, updated in {@link #initialize()} */
+	protected double[] xValues;
+
+	/** The y values of all SupportPoints, updated in {@link #initialize()} */
+	protected double[] yValues;
+
+	/**
+	 * The segment found in the last search. It is only used as a hint where to
+	 * start the next search, so concurrent callers still get correct results.
+	 */
+	private transient int cursor;
+
 	protected SupportPointFunction(float stiffness)
 	{
 		supportPoints = new ArrayList<>();
@@ -488,7 +500,15 @@ public abstract class SupportPointFunction implements IFunction
 	 */
 	public void initialize()
 	{
-		if (supportPoints.size() == 0) {
+		int size = supportPoints.size();
+		xValues = new double[size];
+		yValues = new double[size];
+		for (int i = 0; i < size; i++) {
+			xValues[i] = supportPoints.get(i).x;
+			yValues[i] = supportPoints.get(i).y;
+		}
+
+		if (size == 0) {
 			minXValue = 0;
 			maxXValue = 0;
 
@@ -515,6 +535,46 @@ public abstract class SupportPointFunction implements IFunction
 		}
 	}
 
+	/**
+	 * Finds the segment of the function containing t. Functions are usually
+	 * evaluated with increasing t, so the search first checks the segment of
+	 * the last search and its successor before doing a binary search.
+	 * @param t the coordinate to search, has to be between minX and maxX
+	 * @return the index of the first support point with an x value greater
+	 *         than t, at least 1 and at most the index of the last support point
+	 */
+	protected int getSegmentIndex(double t)
+	{
+		double[] x = xValues;
+		int last = x.length - 1;
+		int hint = cursor;
+		if (isSegmentIndex(x, last, hint, t)) {
+			return hint;
+		}
+		if (isSegmentIndex(x, last, hint + 1, t)) {
+			cursor = hint + 1;
+			return hint + 1;
+		}
+
+		int low = 1;
+		int high = last;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (t < x[middle]) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		cursor = low;
+		return low;
+	}
+
+	private static boolean isSegmentIndex(double[] x, int last, int index, double t)
+	{
+		return index >= 1 && index <= last && (index == 1 || t >= x[index - 1]) && (index == last || t < x[index]);
+	}
+
 	protected float truncateX(float x)
 	{
 		return (int) (x * SUBSTEPS_PER_CYCLE) / SUBSTEPS_PER_CYCLE;
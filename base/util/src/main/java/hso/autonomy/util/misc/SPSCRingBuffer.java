@@ -0,0 +1,105 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.misc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock free queue for exactly one producer thread and one consumer
+ * thread. The producer only writes the tail and the consumer only writes the
+ * head, so no locks or compare and set operations are needed.
+ *
+ * @author kdorer
+ * @param <T> the type of the queued elements
+ */
+public class SPSCRingBuffer<T>
+{
+	private final Object[] elements;
+
+	private final int mask;
+
+	/** the index of the next element to take, written by the consumer only */
+	private final AtomicLong head;
+
+	/** the index of the next element to add, written by the producer only */
+	private final AtomicLong tail;
+
+	/**
+	 * @param capacity the maximum number of queued elements, will be rounded up
+	 *        to a power of 2
+	 */
+	public SPSCRingBuffer(int capacity)
+	{
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		elements = new Object[size];
+		mask = size - 1;
+		head = new AtomicLong();
+		tail = new AtomicLong();
+	}
+
+	/**
+	 * Adds an element, may only be called by the producer thread
+	 *
+	 * @param element the element to add, not null
+	 * @return true if the element was added, false if the buffer is full
+	 */
+	public boolean offer(T element)
+	{
+		long currentTail = tail.get();
+		if (currentTail - head.get() >= elements.length) {
+			return false;
+		}
+		elements[(int) currentTail & mask] = element;
+		// publishes the element to the consumer
+		tail.lazySet(currentTail + 1);
+		return true;
+	}
+
+	/**
+	 * Removes the oldest element, may only be called by the consumer thread
+	 *
+	 * @return the oldest element, null if the buffer is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public T poll()
+	{
+		long currentHead = head.get();
+		if (currentHead >= tail.get()) {
+			return null;
+		}
+		int index = (int) currentHead & mask;
+		T element = (T) elements[index];
+		elements[index] = null;
+		// frees the slot for the producer
+		head.lazySet(currentHead + 1);
+		return element;
+	}
+
+	/**
+	 * @return true if there is no element to take
+	 */
+	public boolean isEmpty()
+	{
+		return head.get() >= tail.get();
+	}
+
+	/**
+	 * @return the number of queued elements
+	 */
+	public int size()
+	{
+		long currentHead = head.get();
+		return (int) (tail.get() - currentHead);
+	}
+
+	/**
+	 * @return the maximum number of queued elements
+	 */
+	public int capacity()
+	{
+		return elements.length;
+	}
+}
@@ -0,0 +1,169 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.symboltreeparser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses numbers directly from ASCII characters without creating intermediate
+ * objects. Plain decimal numbers like the ones sent by the server (e.g.
+ * "-115.78") are converted on a fast path, everything else (exponents, NaN,
+ * too many digits) is delegated to the Java parsing methods. The results are
+ * identical to {@link Float#parseFloat(String)} and
+ * {@link Integer#parseInt(String)}.
+ *
+ * @author kdorer
+ */
+public class NumberParser
+{
+	/** the largest mantissa that can be represented exactly as float */
+	private static final int MAX_EXACT_MANTISSA = 1 << 24;
+
+	/** powers of ten that can be represented exactly as float */
+	private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+	private NumberParser()
+	{
+	}
+
+	/**
+	 * @param buffer the buffer containing the number
+	 * @param start the index of the first character of the number
+	 * @param end the index after the last character of the number
+	 * @return the float value of the specified characters
+	 * @throws NumberFormatException if the characters do not contain a parsable
+	 *         float
+	 */
+	public static float parseFloat(byte[] buffer, int start, int end) throws NumberFormatException
+	{
+		int index = start;
+		boolean negative = false;
+		if (index < end && (buffer[index] == '-' || buffer[index] == '+')) {
+			negative = buffer[index] == '-';
+			index++;
+		}
+
+		int mantissa = 0;
+		int digits = 0;
+		int fractionDigits = -1;
+		for (; index < end; index++) {
+			int c = buffer[index];
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if (fractionDigits >= 0) {
+					fractionDigits++;
+				}
+				if (mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+					return Float.parseFloat(toString(buffer, start, end));
+				}
+			} else if (c == '.' && fractionDigits < 0) {
+				fractionDigits = 0;
+			} else {
+				return Float.parseFloat(toString(buffer, start, end));
+			}
+		}
+
+		if (digits == 0) {
+			return Float.parseFloat(toString(buffer, start, end));
+		}
+		return toFloat(negative, mantissa, fractionDigits);
+	}
+
+	/**
+	 * @param value the string containing the number
+	 * @return the float value of the string
+	 * @throws NumberFormatException if the string does not contain a parsable
+	 *         float
+	 */
+	public static float parseFloat(String value) throws NumberFormatException
+	{
+		int length = value.length();
+		int index = 0;
+		boolean negative = false;
+		if (index < length && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+			negative = value.charAt(index) == '-';
+			index++;
+		}
+
+		int mantissa = 0;
+		int digits = 0;
+		int fractionDigits = -1;
+		for (; index < length; index++) {
+			char c = value.charAt(index);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				digits++;
+				if (fractionDigits >= 0) {
+					fractionDigits++;
+				}
+				if (mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+					return Float.parseFloat(value);
+				}
+			} else if (c == '.' && fractionDigits < 0) {
+				fractionDigits = 0;
+			} else {
+				return Float.parseFloat(value);
+			}
+		}
+
+		if (digits == 0) {
+			return Float.parseFloat(value);
+		}
+		return toFloat(negative, mantissa, fractionDigits);
+	}
+
+	/**
+	 * @param buffer the buffer containing the number
+	 * @param start the index of the first character of the number
+	 * @param end the index after the last character of the number
+	 * @return the int value of the specified characters
+	 * @throws NumberFormatException if the characters do not contain a parsable
+	 *         int
+	 */
+	public static int parseInt(byte[] buffer, int start, int end) throws NumberFormatException
+	{
+		int index = start;
+		boolean negative = false;
+		if (index < end && (buffer[index] == '-' || buffer[index] == '+')) {
+			negative = buffer[index] == '-';
+			index++;
+		}
+
+		// 9 digits can not overflow
+		if (index == end || end - index > 9) {
+			return Integer.parseInt(toString(buffer, start, end));
+		}
+
+		int value = 0;
+		for (; index < end; index++) {
+			int c = buffer[index];
+			if (c < '0' || c > '9') {
+				return Integer.parseInt(toString(buffer, start, end));
+			}
+			value = value * 10 + (c - '0');
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Mantissa and power of ten are exact floats, so the division is correctly
+	 * rounded just like the result of {@link Float#parseFloat(String)}.
+	 */
+	private static float toFloat(boolean negative, int mantissa, int fractionDigits)
+	{
+		float value = mantissa;
+		if (fractionDigits > 0) {
+			value /= POWERS_OF_TEN[fractionDigits];
+		}
+		return negative ? -value : value;
+	}
+
+	private static String toString(byte[] buffer, int start, int end)
+	{
+		return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+	}
+}
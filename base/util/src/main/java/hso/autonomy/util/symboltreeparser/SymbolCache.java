@@ -0,0 +1,69 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.symboltreeparser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct mapped cache of the strings of recurring symbols like perceptor or
+ * joint names. Looking up a symbol that was seen before does not create a new
+ * string. Colliding symbols simply replace each other. Not thread safe.
+ *
+ * @author kdorer
+ */
+public class SymbolCache
+{
+	private final String[] symbols;
+
+	private final int mask;
+
+	/**
+	 * @param size the number of cache slots, will be rounded up to a power of 2
+	 */
+	public SymbolCache(int size)
+	{
+		int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+		symbols = new String[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * @param buffer the buffer containing the symbol
+	 * @param start the index of the first character of the symbol
+	 * @param end the index after the last character of the symbol
+	 * @return the string for the specified symbol
+	 */
+	public String get(byte[] buffer, int start, int end)
+	{
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + buffer[i];
+		}
+
+		int index = (hash ^ (hash >>> 16)) & mask;
+		String symbol = symbols[index];
+		if (symbol == null || !matches(symbol, buffer, start, end)) {
+			symbol = new String(buffer, start, end - start, StandardCharsets.UTF_8);
+			symbols[index] = symbol;
+		}
+		return symbol;
+	}
+
+	private static boolean matches(String symbol, byte[] buffer, int start, int end)
+	{
+		if (symbol.length() != end - start) {
+			return false;
+		}
+
+		for (int i = start; i < end; i++) {
+			// symbols with non ascii characters are never matched
+			if (buffer[i] < 0 || symbol.charAt(i - start) != buffer[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -5,6 +5,7 @@
 
 package hso.autonomy.util.symboltreeparser;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +36,49 @@ public class SymbolTreeParser
 		return parseReal(input);
 	}
 
+	/**
+	 * Parse an s-expression byte array into a Symbol tree.
+	 *
+	 * @param input bytes to parse
+	 * @return Generated Symbol tree
+	 * @throws IllegalSymbolInputException if illegal symbols are found in the
+	 *         input stream
+	 */
+	public SymbolNode parse(byte[] input) throws IllegalSymbolInputException
+	{
+		if (input == null)
+			throw new IllegalSymbolInputException("Empty string");
+
+		return parse(input, 0, input.length);
+	}
+
+	/**
+	 * Parse the s-expression contained in the specified range of a byte array
+	 * into a Symbol tree. The resulting tree is identical to the one
+	 * {@link #parse(String)} produces for the decoded input, but the bytes are
+	 * tokenized in one single pass and only the leaf symbols are converted into
+	 * strings. No intermediate copies of nested lists are created.
+	 *
+	 * @param input the buffer containing the bytes to parse
+	 * @param offset the index of the first byte to parse
+	 * @param length the number of bytes to parse
+	 * @return Generated Symbol tree
+	 * @throws IllegalSymbolInputException if illegal symbols are found in the
+	 *         input stream
+	 */
+	public SymbolNode parse(byte[] input, int offset, int length) throws IllegalSymbolInputException
+	{
+		/* Check input rules */
+		if (input == null || length == 0)
+			throw new IllegalSymbolInputException("Empty string");
+
+		int end = offset + length;
+		if (input[offset] != '(' || input[end - 1] != ')')
+			throw new IllegalSymbolInputException("Input not embedded in braces: " + toString(input, offset, end));
+
+		return parseReal(input, offset, end);
+	}
+
 	/**
 	 * Parse a string into a symbol tree. This routine fetches the
 	 * top-level-tokens from the string, converts them to SymbolLeaf entries and
@@ -143,4 +187,80 @@ public class SymbolTreeParser
 
 		return new SymbolNode(tmpchildren);
 	}
+
+	/**
+	 * Single pass counterpart of {@link #parseReal(String)}. Instead of
+	 * recursing on copies of the nested lists, the lists that are currently open
+	 * are kept on a stack. A leaf symbol is created from its index range as soon
+	 * as a separator or brace terminates it.
+	 *
+	 * @param input the buffer to parse
+	 * @param start the index of the first byte to parse
+	 * @param end the index after the last byte to parse
+	 * @return Generated Symbol tree
+	 * @throws IllegalSymbolInputException if illegal symbols are found in the
+	 *         input stream
+	 */
+	private static SymbolNode parseReal(byte[] input, int start, int end) throws IllegalSymbolInputException
+	{
+		/* The lists that are currently open, the root list at index 0 */
+		List<List<Object>> stack = new ArrayList<>(8);
+		List<Object> current = new ArrayList<>(5);
+		stack.add(current);
+
+		/* Start index of the leaf symbol currently read */
+		int startIndex = start;
+
+		for (int index = start; index < end; index++) {
+			switch (input[index]) {
+			case '(':
+				addLeaf(current, input, startIndex, index);
+				current = new ArrayList<>(5);
+				stack.add(current);
+				startIndex = index + 1;
+				break;
+
+			case ')':
+				addLeaf(current, input, startIndex, index);
+				if (stack.size() == 1) {
+					throw new IllegalSymbolInputException("Missing brackets in input: " + toString(input, start, end));
+				}
+				stack.remove(stack.size() - 1);
+				SymbolNode node = new SymbolNode(current);
+				current = stack.get(stack.size() - 1);
+				current.add(node);
+				startIndex = index + 1;
+				break;
+
+			case ' ':
+				addLeaf(current, input, startIndex, index);
+				startIndex = index + 1;
+				break;
+			}
+		}
+
+		/* Check error conditions */
+		if (stack.size() != 1) {
+			throw new IllegalSymbolInputException("Missing brackets in input: " + toString(input, start, end));
+		}
+
+		addLeaf(current, input, startIndex, end);
+		return new SymbolNode(current);
+	}
+
+	/**
+	 * Adds the leaf symbol in the specified index range to the children, if the
+	 * range is not empty
+	 */
+	private static void addLeaf(List<Object> children, byte[] input, int start, int end)
+	{
+		if (end > start) {
+			children.add(new String(input, start, end - start, StandardCharsets.UTF_8));
+		}
+	}
+
+	private static String toString(byte[] input, int start, int end)
+	{
+		return new String(input, start, end - start, StandardCharsets.UTF_8);
+	}
 }
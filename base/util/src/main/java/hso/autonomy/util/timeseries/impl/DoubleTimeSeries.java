@@ -0,0 +1,122 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.timeseries.impl;
+
+/**
+ * Bounded timeseries of primitive double values. Values are linearly
+ * interpolated like with {@link DoubleInterpolator}, but without boxing. Adding
+ * and looking up values does not allocate memory.
+ *
+ * @author kdorer
+ */
+public class DoubleTimeSeries extends RingBufferSeriesBase
+{
+	/** the values of the entries by slot */
+	private final double[] values;
+
+	/**
+	 * @param capacity the maximum number of entries
+	 */
+	public DoubleTimeSeries(int capacity)
+	{
+		this(capacity, false);
+	}
+
+	/**
+	 * @param capacity the maximum number of entries
+	 * @param concurrent true if the timeseries is read by other threads than
+	 *        the one writing
+	 */
+	public DoubleTimeSeries(int capacity, boolean concurrent)
+	{
+		super(capacity, concurrent);
+		values = new double[getArrayLength()];
+	}
+
+	/**
+	 * Adds a value. If the capacity is reached the oldest entry is dropped.
+	 *
+	 * @param time the time associated to the value
+	 * @param value the value to store
+	 */
+	public void add(double time, double value)
+	{
+		long stamp = beginWrite();
+		int slot = insert(time);
+		if (slot >= 0) {
+			values[slot] = value;
+		}
+		endWrite(stamp);
+	}
+
+	/**
+	 * Interpolates the value for the passed time. Times before the oldest or
+	 * after the most recent entry get the value of that entry.
+	 *
+	 * @param time the time for which a value should be interpolated
+	 * @param defaultValue the value to return in case the timeseries is empty
+	 * @return the interpolated value
+	 */
+	public double interpolate(double time, double defaultValue)
+	{
+		double result;
+		long stamp;
+		do {
+			stamp = beginRead();
+			int size = currentSize();
+			if (size == 0) {
+				result = defaultValue;
+				continue;
+			}
+
+			int index = lowerBound(time);
+			if (index == 0) {
+				result = values[slot(0)];
+			} else if (index == size) {
+				result = values[slot(size - 1)];
+			} else {
+				int before = slot(index - 1);
+				int after = slot(index);
+				double ratio = (time - times[before]) / (times[after] - times[before]);
+				result = values[before] + (values[after] - values[before]) * ratio;
+			}
+		} while (!validate(stamp));
+		return result;
+	}
+
+	/**
+	 * @param defaultValue the value to return in case the timeseries is empty
+	 * @return the value of the most recent entry
+	 */
+	public double getMostRecent(double defaultValue)
+	{
+		double result;
+		long stamp;
+		do {
+			stamp = beginRead();
+			int size = currentSize();
+			result = size > 0 ? values[slot(size - 1)] : defaultValue;
+		} while (!validate(stamp));
+		return result;
+	}
+
+	/**
+	 * Not guarded against concurrent writes, so only for the writing thread.
+	 *
+	 * @param index the index of the entry, 0 is the oldest
+	 * @return the value of the entry
+	 */
+	public double getValue(int index)
+	{
+		return values[slot(index)];
+	}
+
+	@Override
+	protected void moveValue(int fromSlot, int toSlot)
+	{
+		values[toSlot] = values[fromSlot];
+	}
+}
@@ -0,0 +1,288 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.timeseries.impl;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Base class of bounded timeseries that keep the times of their entries sorted
+ * in a ring buffer. Lookups use binary search, adding an entry that is newer
+ * than all others is constant time. If the capacity is reached, the oldest
+ * entry is dropped. Subclasses keep their values in parallel arrays indexed by
+ * the same slots.
+ * <p>
+ * A timeseries created for concurrent use may be read by any number of
+ * threads while one thread writes. Readers do not lock, they use optimistic
+ * reads of a {@link StampedLock} and retry if a write intervened. Otherwise the
+ * timeseries must only be used by a single thread.
+ *
+ * @author kdorer
+ */
+abstract class RingBufferSeriesBase implements Serializable
+{
+	/** the times of the entries by slot */
+	protected final double[] times;
+
+	/** the maximum number of entries */
+	private final int capacity;
+
+	/** the array length minus one to calculate slots */
+	private final int mask;
+
+	/** guards concurrent reads, null if not used concurrently */
+	private final StampedLock lock;
+
+	/** the slot of the oldest entry */
+	private int head;
+
+	/** the number of entries */
+	private int size;
+
+	/**
+	 * @param capacity the maximum number of entries
+	 * @param concurrent true if the timeseries is read by other threads than
+	 *        the one writing
+	 */
+	protected RingBufferSeriesBase(int capacity, boolean concurrent)
+	{
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity has to be positive: " + capacity);
+		}
+		int length = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.times = new double[length];
+		this.capacity = capacity;
+		this.mask = length - 1;
+		this.lock = concurrent ? new StampedLock() : null;
+	}
+
+	/**
+	 * @return the length of the value arrays of subclasses
+	 */
+	protected int getArrayLength()
+	{
+		return times.length;
+	}
+
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	public int size()
+	{
+		if (lock == null) {
+			return size;
+		}
+		long stamp = lock.tryOptimisticRead();
+		int result = size;
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			result = size;
+			lock.unlockRead(stamp);
+		}
+		return result;
+	}
+
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Not guarded against concurrent writes, so only for the writing thread.
+	 *
+	 * @param index the index of the entry, 0 is the oldest
+	 * @return the time of the entry
+	 */
+	public double getTime(int index)
+	{
+		return times[slot(index)];
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	public void clear()
+	{
+		long stamp = beginWrite();
+		head = 0;
+		size = 0;
+		clearValues();
+		endWrite(stamp);
+	}
+
+	/**
+	 * @param index the index of an entry, 0 is the oldest
+	 * @return the slot in the arrays of the entry
+	 */
+	protected int slot(int index)
+	{
+		return (head + index) & mask;
+	}
+
+	/**
+	 * @return the number of entries, to be called within a read
+	 */
+	protected int currentSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Finds the first entry not older than the passed time, to be called within a
+	 * read or write
+	 *
+	 * @return the index of the first entry with a time greater or equal to the
+	 *         passed time, the number of entries if there is none
+	 */
+	protected int lowerBound(double time)
+	{
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (times[(head + middle) & mask] < time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the first entry newer than the passed time, to be called within a
+	 * read or write
+	 *
+	 * @return the index of the first entry with a time greater than the passed
+	 *         time, the number of entries if there is none
+	 */
+	protected int upperBound(double time)
+	{
+		if (size == 0 || times[(head + size - 1) & mask] <= time) {
+			// the usual case of adding the most recent entry
+			return size;
+		}
+
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (times[(head + middle) & mask] <= time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Makes room for an entry with the passed time behind all entries with the
+	 * same or an older time, to be called within a write. If the capacity is
+	 * reached the oldest entry is dropped, which is the new entry itself if it is
+	 * older than all others.
+	 *
+	 * @return the slot to store the value of the new entry, -1 if the new entry
+	 *         was dropped
+	 */
+	protected int insert(double time)
+	{
+		int index = upperBound(time);
+		if (size == capacity) {
+			if (index == 0) {
+				return -1;
+			}
+			// drop the oldest entry
+			head = (head + 1) & mask;
+			size--;
+			index--;
+		}
+
+		// move newer entries one slot towards the end
+		for (int i = size; i > index; i--) {
+			int to = slot(i);
+			int from = slot(i - 1);
+			times[to] = times[from];
+			moveValue(from, to);
+		}
+
+		int slot = slot(index);
+		times[slot] = time;
+		size++;
+		return slot;
+	}
+
+	/**
+	 * Removes the entry with the passed index, to be called within a write
+	 */
+	protected void removeAt(int index)
+	{
+		for (int i = index; i < size - 1; i++) {
+			int to = slot(i);
+			int from = slot(i + 1);
+			times[to] = times[from];
+			moveValue(from, to);
+		}
+		size--;
+		clearValue(slot(size));
+	}
+
+	/**
+	 * @return the stamp to pass to {@link #endWrite(long)}
+	 */
+	protected long beginWrite()
+	{
+		return lock != null ? lock.writeLock() : 0;
+	}
+
+	protected void endWrite(long stamp)
+	{
+		if (lock != null) {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Starts an optimistic read. All fields have to be copied to local
+	 * variables and only be used after {@link #validate(long)} succeeded.
+	 *
+	 * @return the stamp to pass to {@link #validate(long)}, it fails validation
+	 *         if a write is in progress
+	 */
+	protected long beginRead()
+	{
+		return lock != null ? lock.tryOptimisticRead() : 0;
+	}
+
+	/**
+	 * @return true if no write happened since the passed stamp was obtained
+	 */
+	protected boolean validate(long stamp)
+	{
+		return lock == null || lock.validate(stamp);
+	}
+
+	/**
+	 * Moves the value of an entry to another slot
+	 */
+	protected abstract void moveValue(int fromSlot, int toSlot);
+
+	/**
+	 * Releases the value of a slot that is no longer used
+	 */
+	protected void clearValue(int slot)
+	{
+	}
+
+	/**
+	 * Releases the values of all slots
+	 */
+	protected void clearValues()
+	{
+	}
+}
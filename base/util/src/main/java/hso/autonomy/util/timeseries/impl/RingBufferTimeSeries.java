@@ -0,0 +1,264 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.timeseries.impl;
+
+import hso.autonomy.util.timeseries.IDataInterpolator;
+import hso.autonomy.util.timeseries.ITimeSeries;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bounded timeseries keeping its entries in a ring buffer. Compared to
+ * {@link TimeSeries} entries are found by binary search and adding the most
+ * recent entry does not move other entries. For double values and rotations
+ * prefer {@link DoubleTimeSeries} and {@link RotationTimeSeries}, which avoid
+ * boxing.
+ *
+ * @author kdorer
+ *
+ * @param <D> The data type of the timeseries values.
+ */
+public class RingBufferTimeSeries<D> extends RingBufferSeriesBase implements ITimeSeries<D>
+{
+	/** the values of the entries by slot */
+	private final Object[] values;
+
+	/** The data interpolator instance. */
+	private IDataInterpolator<D> dataInterpolator;
+
+	/**
+	 * @param capacity the maximum number of entries
+	 * @param interpolator the data interpolator instance, null to return the
+	 *        closest entry
+	 */
+	public RingBufferTimeSeries(int capacity, IDataInterpolator<D> interpolator)
+	{
+		this(capacity, interpolator, false);
+	}
+
+	/**
+	 * @param capacity the maximum number of entries
+	 * @param interpolator the data interpolator instance, null to return the
+	 *        closest entry
+	 * @param concurrent true if the timeseries is read by other threads than
+	 *        the one writing
+	 */
+	public RingBufferTimeSeries(int capacity, IDataInterpolator<D> interpolator, boolean concurrent)
+	{
+		super(capacity, concurrent);
+		values = new Object[getArrayLength()];
+		dataInterpolator = interpolator;
+	}
+
+	@Override
+	public void setDataInterpolator(IDataInterpolator<D> interpolator)
+	{
+		this.dataInterpolator = interpolator;
+	}
+
+	@Override
+	public IDataInterpolator<D> getDataInterpolator()
+	{
+		return dataInterpolator;
+	}
+
+	@Override
+	public D interpolateData(double time)
+	{
+		return interpolateData(time, null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public D interpolateData(double time, D defaultValue)
+	{
+		Object before;
+		Object after;
+		double ratio;
+		long stamp;
+		do {
+			stamp = beginRead();
+			int size = currentSize();
+			if (size == 0) {
+				before = defaultValue;
+				after = defaultValue;
+				ratio = 0;
+				continue;
+			}
+
+			int index = lowerBound(time);
+			if (index == 0 || index == size) {
+				before = values[slot(index == 0 ? 0 : size - 1)];
+				after = before;
+				ratio = 0;
+			} else {
+				int beforeSlot = slot(index - 1);
+				int afterSlot = slot(index);
+				before = values[beforeSlot];
+				after = values[afterSlot];
+				ratio = (time - times[beforeSlot]) / (times[afterSlot] - times[beforeSlot]);
+			}
+		} while (!validate(stamp));
+
+		if (before == after) {
+			return (D) before;
+		}
+
+		// try to interpolate the data value, or return closest entry with respect to time
+		IDataInterpolator<D> interpolator = dataInterpolator;
+		if (interpolator != null) {
+			return interpolator.interpolateData((D) before, (D) after, ratio);
+		}
+		return (D) (ratio < 0.5 ? before : after);
+	}
+
+	/**
+	 * @return a copy of the entries, oldest first
+	 */
+	@Override
+	public List<ITSEntry<D>> getEntries()
+	{
+		List<ITSEntry<D>> result;
+		long stamp;
+		do {
+			stamp = beginRead();
+			int size = currentSize();
+			result = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				int slot = slot(i);
+				result.add(createEntry(slot));
+			}
+		} while (!validate(stamp));
+		return Collections.unmodifiableList(result);
+	}
+
+	@Override
+	public D getMostRecentData()
+	{
+		return getMostRecentData(null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public D getMostRecentData(D defaultValue)
+	{
+		Object result;
+		long stamp;
+		do {
+			stamp = beginRead();
+			int size = currentSize();
+			result = size > 0 ? values[slot(size - 1)] : defaultValue;
+		} while (!validate(stamp));
+		return (D) result;
+	}
+
+	@Override
+	public ITSEntry<D> add(double time, D value)
+	{
+		long stamp = beginWrite();
+		int slot = insert(time);
+		if (slot >= 0) {
+			values[slot] = value;
+		}
+		endWrite(stamp);
+		return new TSEntry<>(time, value);
+	}
+
+	@Override
+	public ITSEntry<D> remove(double time)
+	{
+		long stamp = beginWrite();
+		try {
+			int index = lowerBound(time);
+			if (index == currentSize() || times[slot(index)] != time) {
+				return null;
+			}
+			ITSEntry<D> removed = createEntry(slot(index));
+			removeAt(index);
+			return removed;
+		} finally {
+			endWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean remove(ITSEntry<D> entry)
+	{
+		long stamp = beginWrite();
+		try {
+			int size = currentSize();
+			for (int index = lowerBound(entry.getTime()); index < size; index++) {
+				int slot = slot(index);
+				if (times[slot] != entry.getTime()) {
+					break;
+				}
+				if (values[slot] == entry.getData()) {
+					removeAt(index);
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			endWrite(stamp);
+		}
+	}
+
+	@Override
+	protected void moveValue(int fromSlot, int toSlot)
+	{
+		values[toSlot] = values[fromSlot];
+	}
+
+	@Override
+	protected void clearValue(int slot)
+	{
+		values[slot] = null;
+	}
+
+	@Override
+	protected void clearValues()
+	{
+		Arrays.fill(values, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ITSEntry<D> createEntry(int slot)
+	{
+		return new TSEntry<>(times[slot], (D) values[slot]);
+	}
+
+	/**
+	 * Immutable timeseries entry
+	 *
+	 * @param <T> Data type of the entry value.
+	 */
+	private static class TSEntry<T> implements ITSEntry<T>
+	{
+		private final double time;
+
+		private final T value;
+
+		public TSEntry(double time, T value)
+		{
+			this.time = time;
+			this.value = value;
+		}
+
+		@Override
+		public double getTime()
+		{
+			return time;
+		}
+
+		@Override
+		public T getData()
+		{
+			return value;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.timeseries.impl;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+
+/**
+ * Bounded timeseries of rotations stored as quaternion components in primitive
+ * arrays. Rotations are interpolated by spherical linear interpolation, which
+ * gives the same result as {@link RotationInterpolator}. Adding values and
+ * interpolating into a passed array does not allocate memory.
+ *
+ * @author kdorer
+ */
+public class RotationTimeSeries extends RingBufferSeriesBase
+{
+	/** below this angle between two quaternions they are interpolated linearly */
+	private static final double MIN_SLERP_ANGLE = 1e-6;
+
+	private final double[] q0;
+
+	private final double[] q1;
+
+	private final double[] q2;
+
+	private final double[] q3;
+
+	/**
+	 * @param capacity the maximum number of entries
+	 */
+	public RotationTimeSeries(int capacity)
+	{
+		this(capacity, false);
+	}
+
+	/**
+	 * @param capacity the maximum number of entries
+	 * @param concurrent true if the timeseries is read by other threads than
+	 *        the one writing
+	 */
+	public RotationTimeSeries(int capacity, boolean concurrent)
+	{
+		super(capacity, concurrent);
+		int length = getArrayLength();
+		q0 = new double[length];
+		q1 = new double[length];
+		q2 = new double[length];
+		q3 = new double[length];
+	}
+
+	/**
+	 * Adds a rotation. If the capacity is reached the oldest entry is dropped.
+	 *
+	 * @param time the time associated to the rotation
+	 * @param rotation the rotation to store
+	 */
+	public void add(double time, Rotation rotation)
+	{
+		add(time, rotation.getQ0(), rotation.getQ1(), rotation.getQ2(), rotation.getQ3());
+	}
+
+	/**
+	 * Adds a rotation given by its normalized quaternion components as returned
+	 * by {@link Rotation#getQ0()} to {@link Rotation#getQ3()}.
+	 */
+	public void add(double time, double q0, double q1, double q2, double q3)
+	{
+		long stamp = beginWrite();
+		int slot = insert(time);
+		if (slot >= 0) {
+			this.q0[slot] = q0;
+			this.q1[slot] = q1;
+			this.q2[slot] = q2;
+			this.q3[slot] = q3;
+		}
+		endWrite(stamp);
+	}
+
+	/**
+	 * Interpolates the rotation for the passed time. Times before the oldest or
+	 * after the most recent entry get the rotation of that entry.
+	 *
+	 * @param time the time for which a rotation should be interpolated
+	 * @param defaultValue the rotation to return in case the timeseries is empty
+	 * @return the interpolated rotation
+	 */
+	public Rotation interpolate(double time, Rotation defaultValue)
+	{
+		double[] quaternion = new double[4];
+		if (!interpolate(time, quaternion)) {
+			return defaultValue;
+		}
+		return new Rotation(quaternion[0], quaternion[1], quaternion[2], quaternion[3], false);
+	}
+
+	/**
+	 * Interpolates the rotation for the passed time without allocating memory.
+	 * Times before the oldest or after the most recent entry get the rotation of
+	 * that entry.
+	 *
+	 * @param time the time for which a rotation should be interpolated
+	 * @param result receives the quaternion components q0 to q3 of the
+	 *        interpolated rotation
+	 * @return false if the timeseries is empty and the result was not set
+	 */
+	public boolean interpolate(double time, double[] result)
+	{
+		boolean found;
+		long stamp;
+		do {
+			stamp = beginRead();
+			int size = currentSize();
+			found = size > 0;
+			if (!found) {
+				continue;
+			}
+
+			int index = lowerBound(time);
+			if (index == 0 || index == size) {
+				copy(slot(index == 0 ? 0 : size - 1), result);
+			} else {
+				int before = slot(index - 1);
+				int after = slot(index);
+				double ratio = (time - times[before]) / (times[after] - times[before]);
+				slerp(before, after, ratio, result);
+			}
+		} while (!validate(stamp));
+		return found;
+	}
+
+	/**
+	 * @param defaultValue the rotation to return in case the timeseries is empty
+	 * @return the rotation of the most recent entry
+	 */
+	public Rotation getMostRecent(Rotation defaultValue)
+	{
+		double[] quaternion = new double[4];
+		boolean found;
+		long stamp;
+		do {
+			stamp = beginRead();
+			int size = currentSize();
+			found = size > 0;
+			if (found) {
+				copy(slot(size - 1), quaternion);
+			}
+		} while (!validate(stamp));
+
+		if (!found) {
+			return defaultValue;
+		}
+		return new Rotation(quaternion[0], quaternion[1], quaternion[2], quaternion[3], false);
+	}
+
+	private void copy(int slot, double[] result)
+	{
+		result[0] = q0[slot];
+		result[1] = q1[slot];
+		result[2] = q2[slot];
+		result[3] = q3[slot];
+	}
+
+	/**
+	 * Spherical linear interpolation along the shorter arc between the
+	 * quaternions of two slots
+	 */
+	private void slerp(int from, int to, double ratio, double[] result)
+	{
+		double dot = q0[from] * q0[to] + q1[from] * q1[to] + q2[from] * q2[to] + q3[from] * q3[to];
+		// q and -q are the same rotation, take the closer one
+		double sign = 1;
+		if (dot < 0) {
+			dot = -dot;
+			sign = -1;
+		}
+
+		double fromWeight;
+		double toWeight;
+		double angle = Math.acos(Math.min(1, dot));
+		if (angle < MIN_SLERP_ANGLE) {
+			fromWeight = 1 - ratio;
+			toWeight = ratio;
+		} else {
+			double sin = Math.sin(angle);
+			fromWeight = Math.sin((1 - ratio) * angle) / sin;
+			toWeight = Math.sin(ratio * angle) / sin;
+		}
+		toWeight *= sign;
+
+		double r0 = fromWeight * q0[from] + toWeight * q0[to];
+		double r1 = fromWeight * q1[from] + toWeight * q1[to];
+		double r2 = fromWeight * q2[from] + toWeight * q2[to];
+		double r3 = fromWeight * q3[from] + toWeight * q3[to];
+
+		double norm = Math.sqrt(r0 * r0 + r1 * r1 + r2 * r2 + r3 * r3);
+		result[0] = r0 / norm;
+		result[1] = r1 / norm;
+		result[2] = r2 / norm;
+		result[3] = r3 / norm;
+	}
+
+	@Override
+	protected void moveValue(int fromSlot, int toSlot)
+	{
+		q0[toSlot] = q0[fromSlot];
+		q1[toSlot] = q1[fromSlot];
+		q2[toSlot] = q2[fromSlot];
+		q3[toSlot] = q3[fromSlot];
+	}
+}
@@ -0,0 +1,121 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.connection.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import hso.autonomy.util.connection.ConnectionException;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the socket channel based server connection
+ */
+public class NIOServerConnectionTest
+{
+	private ServerSocket serverSocket;
+
+	private Socket server;
+
+	private NIOServerConnection testee;
+
+	@BeforeEach
+	public void setUp() throws Exception
+	{
+		serverSocket = new ServerSocket(0);
+		testee = new NIOServerConnection("localhost", serverSocket.getLocalPort());
+		testee.establishConnection();
+		server = serverSocket.accept();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception
+	{
+		server.close();
+		serverSocket.close();
+	}
+
+	@Test
+	public void testReceiveFramedMessages() throws Exception
+	{
+		byte[] big = new byte[40000];
+		Arrays.fill(big, (byte) 'x');
+
+		// all messages in one write to check framing of several messages
+		DataOutputStream out = new DataOutputStream(server.getOutputStream());
+		out.write(frame("(time (now 1.0))".getBytes(), "".getBytes(), big, "(GS (t 0.00))".getBytes()));
+		out.flush();
+		server.shutdownOutput();
+
+		List<String> received = new ArrayList<>();
+		testee.setReceiver(buffer -> {
+			byte[] message = new byte[buffer.remaining()];
+			buffer.get(message);
+			received.add(new String(message, StandardCharsets.US_ASCII));
+		});
+
+		assertThrows(ConnectionException.class, () -> testee.startReceiveLoop());
+		assertEquals(4, received.size());
+		assertEquals("(time (now 1.0))", received.get(0));
+		assertEquals("", received.get(1));
+		assertEquals(new String(big, StandardCharsets.US_ASCII), received.get(2));
+		assertEquals("(GS (t 0.00))", received.get(3));
+	}
+
+	@Test
+	public void testReceiveObserver() throws Exception
+	{
+		DataOutputStream out = new DataOutputStream(server.getOutputStream());
+		out.write(frame("(hear 1.0 self test)".getBytes()));
+		out.flush();
+		server.shutdownOutput();
+
+		List<byte[]> received = new ArrayList<>();
+		testee.attach(received::add);
+
+		assertThrows(ConnectionException.class, () -> testee.startReceiveLoop());
+		assertEquals(1, received.size());
+		assertArrayEquals("(hear 1.0 self test)".getBytes(), received.get(0));
+	}
+
+	@Test
+	public void testSendMessage() throws Exception
+	{
+		testee.sendMessage("(scene rsg/agent/nao/nao.rsg)".getBytes());
+		testee.sendMessage(new byte[0]);
+
+		DataInputStream in = new DataInputStream(server.getInputStream());
+		byte[] message = new byte[in.readInt()];
+		in.readFully(message);
+		assertEquals("(scene rsg/agent/nao/nao.rsg)", new String(message, StandardCharsets.US_ASCII));
+		assertEquals(0, in.readInt());
+		testee.closeConnection();
+	}
+
+	private static byte[] frame(byte[]... messages) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (byte[] message : messages) {
+			out.writeInt(message.length);
+			out.write(message);
+		}
+		return bytes.toByteArray();
+	}
+}
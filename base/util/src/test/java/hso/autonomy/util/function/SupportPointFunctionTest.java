@@ -0,0 +1,121 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.apache.commons.math3.analysis.interpolation.SplineInterpolator;
+import org.apache.commons.math3.analysis.polynomials.PolynomialSplineFunction;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the segment search of {@link SupportPointFunction} for all function
+ * types
+ */
+public class SupportPointFunctionTest
+{
+	private static final String POINTS = "(0.0 0.0),(8.0 -50.0),(16.0 0.0),(32.0 0.0),(40.0 -50.0),(48.0 0.0),"
+										 + "(80.0 10.0),(88.0 -50.0),(96.0 0.0),(128.0 0.0)";
+
+	private static final String[] FUNCTIONS = {PiecewiseLinearFunction.NAME + ",1.0," + POINTS,
+			SplineFunction.NAME + ",1.0," + POINTS, PiecewiseBezierFunction.NAME + ",1.0," + POINTS,
+			PiecewiseSineSquare.NAME + ",1.0," + POINTS,
+			SinFunction.NAME + ",1.0,(10.43 34.2),(29.2 40.2),(47.96 34.2)"};
+
+	@Test
+	public void testSegmentIndexMatchesLinearSearch()
+	{
+		SupportPointFunction testee = (SupportPointFunction) FunctionLoader.INSTANCE.fromCSVString(FUNCTIONS[0]);
+		Random random = new Random(5);
+		for (int i = 0; i < 2000; i++) {
+			// mix of sequential and random access
+			double t = i < 1000 ? i * 0.128 : random.nextDouble() * 128;
+			if (t <= testee.getMinX() || t >= testee.getMaxX()) {
+				continue;
+			}
+			assertEquals(linearSearch(testee, t), testee.getSegmentIndex(t), "t: " + t);
+		}
+
+		// exactly on support points
+		assertEquals(2, testee.getSegmentIndex(8));
+		assertEquals(9, testee.getSegmentIndex(96));
+		assertEquals(1, testee.getSegmentIndex(0.001));
+	}
+
+	@Test
+	public void testValueIndependentOfAccessOrder()
+	{
+		for (String csv : FUNCTIONS) {
+			IFunction sequential = FunctionLoader.INSTANCE.fromCSVString(csv);
+			double[] expected = new double[1400];
+			for (int i = 0; i < expected.length; i++) {
+				expected[i] = sequential.value(i * 0.1 - 5);
+			}
+
+			IFunction testee = FunctionLoader.INSTANCE.fromCSVString(csv);
+			Random random = new Random(3);
+			for (int n = 0; n < 5000; n++) {
+				int i = random.nextInt(expected.length);
+				assertEquals(expected[i], testee.value(i * 0.1 - 5), 0, csv);
+			}
+			for (int i = expected.length - 1; i >= 0; i--) {
+				assertEquals(expected[i], testee.value(i * 0.1 - 5), 0, csv);
+			}
+		}
+	}
+
+	@Test
+	public void testSplineMatchesPolynomialSpline()
+	{
+		SupportPointFunction testee = (SupportPointFunction) FunctionLoader.INSTANCE.fromCSVString(FUNCTIONS[1]);
+		PolynomialSplineFunction spline = new SplineInterpolator().interpolate(testee.xValues, testee.yValues);
+		for (double t = 0.05; t < 128; t += 0.25) {
+			assertEquals(spline.value(t), testee.value(t), 0);
+		}
+	}
+
+	@Test
+	@Disabled("benchmark")
+	public void benchmark()
+	{
+		for (String csv : FUNCTIONS) {
+			IFunction[] functions = new IFunction[22];
+			for (int i = 0; i < functions.length; i++) {
+				functions[i] = FunctionLoader.INSTANCE.fromCSVString(csv);
+			}
+
+			double sum = 0;
+			for (int round = 0; round < 5; round++) {
+				long start = System.nanoTime();
+				for (int repeat = 0; repeat < 100; repeat++) {
+					// playback of a 128 cycle motion as done by function behaviors
+					for (int step = 0; step < 128; step++) {
+						for (IFunction function : functions) {
+							sum += function.value(step) + function.derivative(step) + function.derivative2(step);
+						}
+					}
+				}
+				long duration = (System.nanoTime() - start) / (100 * 128);
+				System.out.println(csv.substring(0, csv.indexOf(',')) + ": " + duration + " ns per cycle");
+			}
+			System.out.println(sum);
+		}
+	}
+
+	/**
+	 * The search as done before the segment cursor
+	 */
+	private static int linearSearch(SupportPointFunction function, double t)
+	{
+		int index = 1;
+		while (index < (function.getSupportPointSize() - 1) && t >= function.getSupportPoint(index).x) {
+			index++;
+		}
+		return index;
+	}
+}
@@ -0,0 +1,63 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class SPSCRingBufferTest
+{
+	@Test
+	public void testOfferPoll()
+	{
+		SPSCRingBuffer<Integer> testee = new SPSCRingBuffer<>(3);
+		assertEquals(4, testee.capacity());
+		assertTrue(testee.isEmpty());
+		assertNull(testee.poll());
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(testee.offer(i));
+		}
+		assertFalse(testee.offer(4));
+		assertEquals(4, testee.size());
+
+		assertEquals(0, (int) testee.poll());
+		assertTrue(testee.offer(4));
+		for (int i = 1; i < 5; i++) {
+			assertEquals(i, (int) testee.poll());
+		}
+		assertTrue(testee.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentOrder() throws Exception
+	{
+		SPSCRingBuffer<Integer> testee = new SPSCRingBuffer<>(16);
+		int count = 100000;
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < count; i++) {
+				while (!testee.offer(i)) {
+					Thread.yield();
+				}
+			}
+		});
+		producer.start();
+
+		for (int i = 0; i < count; i++) {
+			Integer value;
+			while ((value = testee.poll()) == null) {
+				Thread.yield();
+			}
+			assertEquals(i, (int) value);
+		}
+		producer.join();
+		assertTrue(testee.isEmpty());
+	}
+}
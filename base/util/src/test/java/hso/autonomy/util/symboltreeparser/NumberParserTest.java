@@ -0,0 +1,70 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.symboltreeparser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class NumberParserTest
+{
+	private static float parseFloat(String value)
+	{
+		byte[] buffer = ("(" + value + ")").getBytes();
+		float result = NumberParser.parseFloat(buffer, 1, buffer.length - 1);
+		assertEquals(Float.floatToIntBits(result), Float.floatToIntBits(NumberParser.parseFloat(value)), value);
+		return result;
+	}
+
+	@Test
+	public void testParseFloat()
+	{
+		String[] values = {"0", "0.00", "-0.00", "+1.5", "12.09", "-115.78", "37.50", "1.", ".5", "16777216",
+				"16777217", "0.1234567890123", "1e3", "-2.5E-2", "NaN", "-Infinity", "123456789.123"};
+
+		for (String value : values) {
+			assertEquals(Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(parseFloat(value)), value);
+		}
+	}
+
+	@Test
+	public void testParseFloatRandom()
+	{
+		Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			String value = String.format("%.2f", (random.nextDouble() - 0.5) * 1000);
+			assertEquals(Float.parseFloat(value), parseFloat(value), 0.0f, value);
+		}
+	}
+
+	@Test
+	public void testParseFloatIllegal()
+	{
+		String[] values = {"", "-", ".", "1.2.3", "abc", "1-2"};
+
+		for (String value : values) {
+			assertThrows(NumberFormatException.class, () -> parseFloat(value), value);
+		}
+	}
+
+	@Test
+	public void testParseInt()
+	{
+		String[] values = {"0", "7", "-12", "+42", "123456789", "2147483647", "-2147483648"};
+
+		for (String value : values) {
+			byte[] buffer = value.getBytes();
+			assertEquals(Integer.parseInt(value), NumberParser.parseInt(buffer, 0, buffer.length), value);
+		}
+
+		for (String value : new String[] {"", "-", "1.5", "2147483648"}) {
+			byte[] buffer = value.getBytes();
+			assertThrows(NumberFormatException.class, () -> NumberParser.parseInt(buffer, 0, buffer.length), value);
+		}
+	}
+}
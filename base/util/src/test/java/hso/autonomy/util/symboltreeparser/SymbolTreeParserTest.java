@@ -32,7 +32,7 @@ public class SymbolTreeParserTest
 	public void testNullInput()
 	{
 		try {
-			testee.parse(null);
+			testee.parse((String) null);
 			fail("Exception expected");
 		} catch (IllegalSymbolInputException e) {
 		}
@@ -164,4 +164,51 @@ public class SymbolTreeParserTest
 		assertEquals(gameStateSubNode.children.get(0), "t");
 		assertEquals(gameStateSubNode.children.get(1), "0.00");
 	}
+
+	/**
+	 * Test that parsing bytes results in the same tree as parsing strings
+	 */
+	@Test
+	public void testByteInputEqualsStringInput()
+	{
+		String[] inputs = {"(A A)", "(A (B B))", "(time (now 2.h18))", "(A (B B (C C C)))", "(A (B B (C (D) C) B) A A)",
+				"(A (B B) (C C C))", "(A(B)C)", "(See)", "()", "(A)B(C)",
+				"(hear magma 12.3 self \"Hello RoboCup World\")"};
+
+		for (String input : inputs) {
+			assertEquals(testee.parse(input).toString(), testee.parse(input.getBytes()).toString(), input);
+		}
+	}
+
+	/**
+	 * Test parsing a range of a byte array
+	 */
+	@Test
+	public void testByteInputRange()
+	{
+		byte[] buffer = "xx(time (now 51.82))(GS (t 0.00))yy".getBytes();
+
+		SymbolNode list = testee.parse(buffer, 2, buffer.length - 4);
+
+		assertEquals("(time (now 51.82)) (GS (t 0.00))", list.toString());
+		SymbolNode timeSubNode = (SymbolNode) ((SymbolNode) list.children.get(0)).children.get(1);
+		assertEquals("51.82", timeSubNode.children.get(1));
+	}
+
+	/**
+	 * Test corner cases of byte input (should throw exceptions)
+	 */
+	@Test
+	public void testByteInputCornerCases()
+	{
+		String[] inputs = {"", "(A A", "(A (B B)", "(A (B B) (C C C)", "(A))", "(A) B) (C)"};
+
+		for (String input : inputs) {
+			try {
+				testee.parse(input.getBytes());
+				fail("Exception expected: " + input);
+			} catch (IllegalSymbolInputException e) {
+			}
+		}
+	}
 }
@@ -0,0 +1,164 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package hso.autonomy.util.timeseries.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hso.autonomy.util.timeseries.ITimeSeries.ITSEntry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationConvention;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationOrder;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the ring buffer based timeseries
+ */
+public class RingBufferTimeSeriesTest
+{
+	@Test
+	public void testInterpolateData()
+	{
+		RingBufferTimeSeries<Double> testee = new RingBufferTimeSeries<>(10, new DoubleInterpolator());
+		assertNull(testee.interpolateData(1.0));
+		assertEquals(5.0, testee.interpolateData(1.0, 5.0), 0.0001);
+
+		testee.add(1.0, 10.0);
+		testee.add(3.0, 30.0);
+		testee.add(2.0, 20.0);
+
+		assertEquals(3, testee.size());
+		assertEquals(10.0, testee.interpolateData(0.0), 0.0001);
+		assertEquals(10.0, testee.interpolateData(1.0), 0.0001);
+		assertEquals(15.0, testee.interpolateData(1.5), 0.0001);
+		assertEquals(20.0, testee.interpolateData(2.0), 0.0001);
+		assertEquals(27.5, testee.interpolateData(2.75), 0.0001);
+		assertEquals(30.0, testee.interpolateData(4.0), 0.0001);
+		assertEquals(30.0, testee.getMostRecentData(), 0.0001);
+
+		testee.setDataInterpolator(null);
+		assertEquals(10.0, testee.interpolateData(1.4), 0.0001);
+		assertEquals(20.0, testee.interpolateData(1.5), 0.0001);
+	}
+
+	@Test
+	public void testCapacityDropsOldest()
+	{
+		RingBufferTimeSeries<Integer> testee = new RingBufferTimeSeries<>(3, null);
+		for (int i = 0; i < 10; i++) {
+			testee.add(i, i);
+		}
+		// older than all entries of a full timeseries
+		testee.add(-1, -1);
+		// inserted between the entries
+		testee.add(8.5, 85);
+
+		List<ITSEntry<Integer>> entries = testee.getEntries();
+		assertEquals(3, entries.size());
+		assertEquals(8.0, entries.get(0).getTime(), 0.0001);
+		assertEquals(85, entries.get(1).getData().intValue());
+		assertEquals(9, entries.get(2).getData().intValue());
+	}
+
+	@Test
+	public void testRemove()
+	{
+		RingBufferTimeSeries<String> testee = new RingBufferTimeSeries<>(4, null);
+		testee.add(1, "a");
+		ITSEntry<String> b = testee.add(2, "b");
+		testee.add(3, "c");
+
+		assertNull(testee.remove(2.5));
+		assertEquals("c", testee.remove(3.0).getData());
+		assertTrue(testee.remove(b));
+		assertFalse(testee.remove(b));
+		assertEquals(1, testee.size());
+		assertEquals("a", testee.getMostRecentData());
+
+		testee.clear();
+		assertTrue(testee.isEmpty());
+	}
+
+	@Test
+	public void testDoubleTimeSeries()
+	{
+		DoubleTimeSeries testee = new DoubleTimeSeries(5);
+		assertEquals(-1.0, testee.interpolate(1.0, -1.0), 0.0001);
+
+		// wraps around the ring several times
+		for (int i = 0; i < 23; i++) {
+			testee.add(i * 0.02, i);
+		}
+		testee.add(0.415, 99);
+
+		assertEquals(5, testee.size());
+		assertEquals(19, testee.getValue(0), 0.0001);
+		assertEquals(0.38, testee.getTime(0), 0.0001);
+		assertEquals(19, testee.interpolate(0.1, 0), 0.0001);
+		assertEquals(19.5, testee.interpolate(0.39, 0), 0.0001);
+		assertEquals(59.5, testee.interpolate(0.4075, 0), 0.0001);
+		assertEquals(22, testee.interpolate(1.0, 0), 0.0001);
+		assertEquals(22, testee.getMostRecent(0), 0.0001);
+	}
+
+	@Test
+	public void testRotationTimeSeriesMatchesInterpolator()
+	{
+		Rotation r1 = new Rotation(RotationOrder.XYZ, RotationConvention.VECTOR_OPERATOR, 0.3, -0.5, 2.0);
+		Rotation r2 = new Rotation(RotationOrder.XYZ, RotationConvention.VECTOR_OPERATOR, -0.2, 0.4, -2.5);
+		RotationTimeSeries testee = new RotationTimeSeries(4);
+		assertSame(Rotation.IDENTITY, testee.interpolate(0.5, Rotation.IDENTITY));
+		testee.add(0, r1);
+		testee.add(1, r2);
+
+		RotationInterpolator interpolator = new RotationInterpolator();
+		double[] quaternion = new double[4];
+		for (double t = 0; t <= 1; t += 0.125) {
+			Rotation expected = interpolator.interpolateData(r1, r2, t);
+			assertTrue(testee.interpolate(t, quaternion));
+			Rotation actual = new Rotation(quaternion[0], quaternion[1], quaternion[2], quaternion[3], false);
+			assertEquals(0, Rotation.distance(expected, actual), 0.000001, "at " + t);
+		}
+		assertEquals(0, Rotation.distance(r2, testee.getMostRecent(null)), 0.000001);
+	}
+
+	@Test
+	public void testConcurrentReadDuringWrites() throws Exception
+	{
+		DoubleTimeSeries testee = new DoubleTimeSeries(16, true);
+		testee.add(0, 0);
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<String> failure = new AtomicReference<>();
+
+		// values are always twice the time, so each interpolation has to be as well unless the time is already
+		// older than the oldest entry
+		Thread reader = new Thread(() -> {
+			while (running.get()) {
+				double time = testee.getMostRecent(0) / 2 - 0.25;
+				double value = testee.interpolate(time, 0);
+				boolean interpolated = Math.abs(value - 2 * time) < 0.000001;
+				boolean oldest = value > 2 * time && value == Math.rint(value);
+				if (time > 0 && !interpolated && !oldest) {
+					failure.set("time " + time + " value " + value);
+				}
+			}
+		});
+		reader.start();
+		for (int i = 1; i < 200000; i++) {
+			testee.add(i * 0.5, i);
+		}
+		running.set(false);
+		reader.join();
+
+		assertNull(failure.get());
+	}
+}
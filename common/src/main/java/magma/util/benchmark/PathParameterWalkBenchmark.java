@@ -11,7 +11,10 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
@@ -30,19 +33,55 @@ public class PathParameterWalkBenchmark
 
 	private static double maxSpeed = 0.841;
 
+	/** the read-only benchmarks by file name, shared by all agents of a process */
+	private static final Map<String, PathParameterWalkBenchmark> SHARED = new ConcurrentHashMap<>();
+
 	private List<PathParameterWalkBenchmarkItem> benchmarkItems;
 
 	public PathParameterWalkBenchmark()
+	{
+		this("benchmark");
+	}
+
+	/**
+	 * @param filename the xml-file to load without extension
+	 */
+	public PathParameterWalkBenchmark(String filename)
 	{
 		benchmarkItems = new ArrayList<>();
 
 		try {
-			this.loadFromXML();
+			this.loadFromXML(filename);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * @return the read-only benchmark of the standard xml-file "benchmark"
+	 *         shared by all agents of this process
+	 */
+	public static PathParameterWalkBenchmark getShared()
+	{
+		return getShared("benchmark");
+	}
+
+	/**
+	 * Loads the passed xml-file only once per process, since agents running in
+	 * the same process would otherwise parse it in each path calculation. The
+	 * items of the returned benchmark must not be changed.
+	 * @param filename the xml-file to load without extension
+	 * @return the read-only benchmark shared by all agents of this process
+	 */
+	public static PathParameterWalkBenchmark getShared(String filename)
+	{
+		return SHARED.computeIfAbsent(filename, name -> {
+			PathParameterWalkBenchmark result = new PathParameterWalkBenchmark(name);
+			result.benchmarkItems = Collections.unmodifiableList(result.benchmarkItems);
+			return result;
+		});
+	}
+
 	/**
 	 * loads XML benchmark file with given filename
 	 * @param filename of the xml-file
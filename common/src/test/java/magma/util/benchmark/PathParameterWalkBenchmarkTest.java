@@ -0,0 +1,45 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.util.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for the {@link PathParameterWalkBenchmark} class
+ */
+public class PathParameterWalkBenchmarkTest
+{
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testSharedBenchmarkIsLoadedOnce() throws Exception
+	{
+		String filename = tempDir.resolve("benchmark").toString();
+		PathParameterWalkBenchmark benchmark = new PathParameterWalkBenchmark(filename);
+		benchmark.addBenchmarkItem(new PathParameterWalkBenchmarkItem(1, 0, 10, 0.99, 0.5, 1.0));
+		benchmark.saveToXML(filename);
+
+		PathParameterWalkBenchmark testee = PathParameterWalkBenchmark.getShared(filename);
+		assertEquals(1, testee.getBenchmarkItems().size());
+		assertEquals(1, testee.getCirclesAll().size());
+
+		// later changes of the file are not read again
+		benchmark.addBenchmarkItem(new PathParameterWalkBenchmarkItem(0.5, 0, 10, 0.99, 0.3, 1.0));
+		benchmark.saveToXML(filename);
+		assertSame(testee, PathParameterWalkBenchmark.getShared(filename));
+		assertEquals(1, testee.getBenchmarkItems().size());
+
+		assertThrows(UnsupportedOperationException.class,
+				() -> testee.addBenchmarkItem(new PathParameterWalkBenchmarkItem(0, 1, 10, 0.99, 0.3, 1.0)));
+	}
+}
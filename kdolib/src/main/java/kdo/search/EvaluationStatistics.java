@@ -0,0 +1,88 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search;
+
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of the evaluations run by an {@link IEvaluationService}.
+ * @author kdorer
+ */
+public class EvaluationStatistics
+{
+	/** the number of evaluations that finished normally */
+	private final long evaluations;
+
+	/** the number of evaluations that threw an exception */
+	private final long failed;
+
+	/** the number of evaluations that were cancelled before they finished */
+	private final long cancelled;
+
+	/** the summed duration of finished evaluations in ns */
+	private final long totalNanos;
+
+	/** the duration of the longest evaluation in ns */
+	private final long maxNanos;
+
+	public EvaluationStatistics(long evaluations, long failed, long cancelled, long totalNanos, long maxNanos)
+	{
+		this.evaluations = evaluations;
+		this.failed = failed;
+		this.cancelled = cancelled;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+	}
+
+	public long getEvaluations()
+	{
+		return evaluations;
+	}
+
+	public long getFailed()
+	{
+		return failed;
+	}
+
+	public long getCancelled()
+	{
+		return cancelled;
+	}
+
+	/**
+	 * @return the summed duration of all finished evaluations in ms
+	 */
+	public double getTotalMillis()
+	{
+		return totalNanos / 1000000.0;
+	}
+
+	/**
+	 * @return the average duration of a finished evaluation in ms
+	 */
+	public double getAverageMillis()
+	{
+		if (evaluations == 0) {
+			return 0;
+		}
+		return totalNanos / 1000000.0 / evaluations;
+	}
+
+	/**
+	 * @return the duration of the longest evaluation in ms
+	 */
+	public double getMaxMillis()
+	{
+		return maxNanos / 1000000.0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(Locale.US, "evaluations: %d failed: %d cancelled: %d average: %.3fms max: %.3fms",
+				evaluations, failed, cancelled, getAverageMillis(), getMaxMillis());
+	}
+}
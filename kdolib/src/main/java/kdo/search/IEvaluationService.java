@@ -0,0 +1,55 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Long living service to run utility evaluations in parallel. Shared by all
+ * search strategies that evaluate several states at once, so that threads are
+ * not created per generation or neighborhood.
+ * @author kdorer
+ */
+public interface IEvaluationService {
+	/** deadline to pass if evaluations should never be cancelled */
+	long NO_DEADLINE = Long.MAX_VALUE;
+
+	/**
+	 * Runs the passed evaluations and waits until all of them are finished.
+	 * Evaluations that did not finish at the deadline are cancelled.
+	 * @param evaluations the evaluations to run
+	 * @param maxConcurrent the maximal number of the passed evaluations running
+	 *        at the same time, 0 for no limit besides the one of this service
+	 * @param deadline the time (as System.currentTimeMillis()) at which
+	 *        unfinished evaluations are cancelled, NO_DEADLINE for no limit
+	 * @return true if all evaluations finished, false if some were cancelled
+	 */
+	boolean evaluateAll(Collection<? extends Runnable> evaluations, int maxConcurrent, long deadline);
+
+	/**
+	 * Runs a single evaluation asynchronously.
+	 * @param evaluation the evaluation to run
+	 * @return the future providing the result of the evaluation
+	 */
+	<T> Future<T> submit(Callable<T> evaluation);
+
+	/**
+	 * @return the number of evaluations this service runs at the same time
+	 */
+	int getParallelism();
+
+	/**
+	 * @return a snapshot of the number and durations of evaluations so far
+	 */
+	EvaluationStatistics getStatistics();
+
+	/**
+	 * Stops the threads of this service once running evaluations are finished.
+	 */
+	void shutdown();
+}
@@ -8,10 +8,12 @@
  */
 package kdo.search;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import kdo.search.impl.EvaluationService;
 import kdo.search.impl.SearchParameters;
 import kdo.search.runs.averageOutStrategies.IAverageOutStrategy;
 import kdo.search.runs.averageOutStrategies.IDomainVisitor;
@@ -36,6 +38,8 @@ import kdo.search.strategy.local.annealing.LinearTemperatureReduction;
 import kdo.search.strategy.local.annealing.SigmoidalTemperatureReduction;
 import kdo.search.strategy.local.annealing.SimulatedAnnealing;
 import kdo.search.strategy.local.cmaes.impl.CMAESOptimizerAdapter;
+import kdo.search.strategy.local.cmaes.impl.ParallelCMAES;
+import kdo.search.strategy.local.cmaes.impl.ParallelCMAES.RestartStrategy;
 import kdo.search.strategy.local.genetic.impl.GeneticSearch;
 import kdo.search.strategy.local.genetic.impl.GeneticSearchParameter;
 import kdo.search.strategy.local.genetic.impl.PSOSearch;
@@ -53,6 +57,7 @@ public class LearningConfigurationHelper
 		FULLSEARCH,
 		GENETIC,
 		CMAES,
+		PARALLELCMAES,
 		PSO,
 		VNS,
 		TABUSEARCH,
@@ -186,6 +191,27 @@ public class LearningConfigurationHelper
 			double stopFitness = params.getStrategyParameter("StopFitness", 100);
 			double sigmaSpread = params.getStrategyParameter("Sigma", 0.1);
 			return CMAESOptimizerAdapter.getInstance(populationSize, generations, stopFitness, sigmaSpread);
+		case PARALLELCMAES:
+			populationSize = (int) params.getStrategyParameter("PopulationSize", 50);
+			generations = (int) params.getStrategyParameter("Generations", 70);
+			stopFitness = params.getStrategyParameter("StopFitness", 100);
+			sigmaSpread = params.getStrategyParameter("Sigma", 0.1);
+			int restartIndex = (int) params.getStrategyParameter("RestartStrategy", 0);
+			RestartStrategy[] restartStrategies = RestartStrategy.values();
+			if (restartIndex < 0 || restartIndex >= restartStrategies.length) {
+				throw new IllegalArgumentException(
+						"Invalid RestartStrategy [0.." + (restartStrategies.length - 1) + "]: " + restartIndex);
+			}
+			int maxRestarts = (int) params.getStrategyParameter("Restarts", 0);
+			ParallelCMAES parallelCMAES = ParallelCMAES.getInstance(populationSize, generations, stopFitness,
+					sigmaSpread, restartStrategies[restartIndex], maxRestarts);
+			parallelCMAES.setEvaluationService(EvaluationService.getShared(threads), threads);
+			parallelCMAES.setMaxRuntime(maxRuntime);
+			String checkpoint = params.getStrategyTextParameter("Checkpoint", null);
+			if (checkpoint != null) {
+				parallelCMAES.setCheckpointFile(new File(checkpoint));
+			}
+			return parallelCMAES;
 		case GENETIC:
 			GeneticSearchParameter geneticParams = new GeneticSearchParameter(params.getRandomSource());
 			geneticParams.setPopulationSize((int) params.getStrategyParameter("PopulationSize", 200));
@@ -0,0 +1,367 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import kdo.search.EvaluationStatistics;
+import kdo.search.IEvaluationService;
+
+/**
+ * Evaluation service running evaluations on one of several thread backends.
+ * The threads live as long as the service, so strategies can submit each
+ * generation or neighborhood without creating a new pool. Evaluations are run
+ * as FutureTask on all backends, so cancelling them interrupts the thread
+ * running them also on the fork join pool.
+ * @author kdorer
+ */
+public class EvaluationService implements IEvaluationService
+{
+	/** the thread backends to run evaluations on */
+	public enum Backend {
+		/** work stealing pool with one thread per core, for cpu bound utilities */
+		FORK_JOIN,
+		/** fixed number of threads, for utilities waiting for a limited resource like a simulator */
+		FIXED_THREADS,
+		/** one thread per running evaluation, for utilities that mostly wait */
+		THREAD_PER_TASK
+	}
+
+	/** the service used by strategies that are not passed a service */
+	private static IEvaluationService shared;
+
+	private final Backend backend;
+
+	private final ExecutorService executor;
+
+	private int parallelism;
+
+	/** limits the evaluations running at the same time, null if not limited */
+	private final Semaphore permits;
+
+	private final LongAdder evaluations;
+
+	private final LongAdder failed;
+
+	private final LongAdder cancelled;
+
+	private final LongAdder totalNanos;
+
+	private final AtomicLong maxNanos;
+
+	/**
+	 * @param backend the thread backend to run evaluations on
+	 * @param parallelism the number of evaluations running at the same time
+	 */
+	public EvaluationService(Backend backend, int parallelism)
+	{
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Invalid parallelism [1..]: " + parallelism);
+		}
+		this.backend = backend;
+		this.parallelism = parallelism;
+		evaluations = new LongAdder();
+		failed = new LongAdder();
+		cancelled = new LongAdder();
+		totalNanos = new LongAdder();
+		maxNanos = new AtomicLong();
+
+		switch (backend) {
+		case FORK_JOIN:
+			executor = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+			permits = null;
+			break;
+		case FIXED_THREADS:
+			executor = Executors.newFixedThreadPool(parallelism, new EvaluationThreadFactory());
+			permits = null;
+			break;
+		default:
+			executor = Executors.newCachedThreadPool(new EvaluationThreadFactory());
+			permits = new Semaphore(parallelism);
+		}
+	}
+
+	/**
+	 * @return the service shared by all strategies, a service with one thread
+	 *         per running evaluation and one evaluation per core unless set
+	 *         differently
+	 */
+	public static synchronized IEvaluationService getShared()
+	{
+		if (shared == null) {
+			shared = new EvaluationService(Backend.THREAD_PER_TASK, Runtime.getRuntime().availableProcessors());
+		}
+		return shared;
+	}
+
+	/**
+	 * Returns the shared service making sure it runs at least the passed number
+	 * of evaluations at the same time, since utilities waiting for a simulator
+	 * are usually run with more threads than cores. A shared service set by
+	 * setShared() with a different backend is returned unchanged, since its
+	 * limit was chosen explicitly.
+	 * @param parallelism the number of evaluations the caller runs at the same
+	 *        time
+	 * @return the service shared by all strategies
+	 */
+	public static synchronized IEvaluationService getShared(int parallelism)
+	{
+		IEvaluationService result = getShared();
+		if (result instanceof EvaluationService) {
+			((EvaluationService) result).increaseParallelism(parallelism);
+		}
+		return result;
+	}
+
+	/**
+	 * Replaces the shared service, e.g. to limit evaluations to the number of
+	 * available simulators. The previous service is shut down.
+	 * @param service the new service shared by all strategies
+	 */
+	public static synchronized void setShared(IEvaluationService service)
+	{
+		if (shared != null && shared != service) {
+			shared.shutdown();
+		}
+		shared = service;
+	}
+
+	@Override
+	public boolean evaluateAll(Collection<? extends Runnable> evaluations, int maxConcurrent, long deadline)
+	{
+		Semaphore callPermits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+		List<Future<?>> futures = new ArrayList<>(evaluations.size());
+		boolean completed = true;
+		try {
+			for (Runnable evaluation : evaluations) {
+				if (callPermits != null &&
+						!callPermits.tryAcquire(getRemainingMillis(deadline), TimeUnit.MILLISECONDS)) {
+					completed = false;
+					break;
+				}
+				FutureTask<?> task = new EvaluationTask<>(Executors.callable(() -> {
+					try {
+						evaluation.run();
+					} finally {
+						if (callPermits != null) {
+							callPermits.release();
+						}
+					}
+				}));
+				executor.execute(task);
+				futures.add(task);
+			}
+
+			for (Future<?> future : futures) {
+				try {
+					future.get(getRemainingMillis(deadline), TimeUnit.MILLISECONDS);
+				} catch (ExecutionException | CancellationException e) {
+					e.printStackTrace();
+				}
+			}
+
+		} catch (TimeoutException e) {
+			completed = false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			completed = false;
+		}
+
+		if (!completed) {
+			cancelled.add(evaluations.size() - futures.size());
+			for (Future<?> future : futures) {
+				// interrupts running evaluations
+				if (future.cancel(true)) {
+					cancelled.increment();
+				}
+			}
+		}
+		return completed;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> evaluation)
+	{
+		FutureTask<T> task = new EvaluationTask<>(evaluation);
+		executor.execute(task);
+		return task;
+	}
+
+	private void acquirePermit() throws InterruptedException
+	{
+		if (permits != null) {
+			permits.acquire();
+		}
+	}
+
+	private void releasePermit()
+	{
+		if (permits != null) {
+			permits.release();
+		}
+	}
+
+	private void addDuration(long nanos)
+	{
+		evaluations.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	private static long getRemainingMillis(long deadline)
+	{
+		if (deadline == NO_DEADLINE) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, deadline - System.currentTimeMillis());
+	}
+
+	/**
+	 * Increases the number of evaluations running at the same time. Only the
+	 * thread per task backend can grow, the others keep their parallelism.
+	 * @param newParallelism the number of evaluations to run at the same time
+	 */
+	public synchronized void increaseParallelism(int newParallelism)
+	{
+		if (backend != Backend.THREAD_PER_TASK || newParallelism <= parallelism) {
+			return;
+		}
+		permits.release(newParallelism - parallelism);
+		parallelism = newParallelism;
+	}
+
+	/**
+	 * @return the thread backend evaluations are run on
+	 */
+	public Backend getBackend()
+	{
+		return backend;
+	}
+
+	@Override
+	public synchronized int getParallelism()
+	{
+		return parallelism;
+	}
+
+	@Override
+	public EvaluationStatistics getStatistics()
+	{
+		return new EvaluationStatistics(
+				evaluations.sum(), failed.sum(), cancelled.sum(), totalNanos.sum(), maxNanos.get());
+	}
+
+	@Override
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EvaluationService " + backend + " parallelism: " + getParallelism() + " " + getStatistics();
+	}
+
+	/**
+	 * Task running a measured evaluation. The interrupt of a cancellation is
+	 * cleared after running, since the fork join pool does not clear it before
+	 * running the next task.
+	 */
+	private class EvaluationTask<T> extends FutureTask<T>
+	{
+		EvaluationTask(Callable<T> evaluation)
+		{
+			this(new MeasuredEvaluation<>(evaluation));
+		}
+
+		private EvaluationTask(MeasuredEvaluation<T> evaluation)
+		{
+			super(evaluation);
+			evaluation.task = this;
+		}
+
+		@Override
+		public void run()
+		{
+			super.run();
+			if (isCancelled()) {
+				Thread.interrupted();
+			}
+		}
+	}
+
+	/**
+	 * Runs an evaluation holding a permit of this service and counts it unless
+	 * its task was cancelled. The task is checked instead of the interrupt flag,
+	 * since evaluations catching the interrupt usually clear it.
+	 */
+	private class MeasuredEvaluation<T> implements Callable<T>
+	{
+		private final Callable<T> evaluation;
+
+		/** the task running this evaluation */
+		private Future<T> task;
+
+		MeasuredEvaluation(Callable<T> evaluation)
+		{
+			this.evaluation = evaluation;
+		}
+
+		@Override
+		public T call() throws Exception
+		{
+			acquirePermit();
+			long start = System.nanoTime();
+			try {
+				T result = evaluation.call();
+				if (!task.isCancelled()) {
+					addDuration(System.nanoTime() - start);
+				}
+				return result;
+			} catch (Exception | Error e) {
+				if (!task.isCancelled()) {
+					failed.increment();
+				}
+				throw e;
+			} finally {
+				releasePermit();
+			}
+		}
+	}
+
+	/**
+	 * Creates daemon threads, so that a service does not keep the process alive
+	 */
+	private static class EvaluationThreadFactory implements ThreadFactory
+	{
+		private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable)
+		{
+			Thread thread = new Thread(runnable, "evaluation-" + THREAD_COUNT.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
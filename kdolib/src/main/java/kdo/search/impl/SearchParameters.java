@@ -22,6 +22,8 @@ public class SearchParameters
 
 	private Map<String, Double> strategyParameter;
 
+	private Map<String, String> strategyTextParameter;
+
 	private long maxRuntime;
 
 	private IRandomSource randomSource;
@@ -36,6 +38,7 @@ public class SearchParameters
 		randomSource = random;
 		domain = null;
 		strategyParameter = new HashMap<>();
+		strategyTextParameter = new HashMap<>();
 	}
 
 	public void setRandomSource(IRandomSource randomSource)
@@ -109,6 +112,24 @@ public class SearchParameters
 		return result.doubleValue();
 	}
 
+	/**
+	 * @param name the name of the parameter
+	 * @param value the text to use, e.g. a file name
+	 */
+	public void setStrategyTextParameter(String name, String value)
+	{
+		strategyTextParameter.put(name, value);
+	}
+
+	/**
+	 * @return the text strategy parameter specified, defaultValue if not
+	 *         existing
+	 */
+	public String getStrategyTextParameter(String name, String defaultValue)
+	{
+		return strategyTextParameter.getOrDefault(name, defaultValue);
+	}
+
 	/**
 	 * @param maxRuntime the maxRuntime to set
 	 */
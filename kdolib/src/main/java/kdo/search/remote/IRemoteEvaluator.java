@@ -0,0 +1,26 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.remote;
+
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates chromosoms outside of the calling process, e.g. on worker processes
+ * each connected to its own simulator.
+ * @author kdorer
+ */
+public interface IRemoteEvaluator {
+	/**
+	 * Queues the passed chromosom for evaluation. Results are cached, so a
+	 * chromosom that has been evaluated before for the same run is not
+	 * evaluated again.
+	 * @param chromosom the values to evaluate, copied before returning
+	 * @param run the index of the run, different runs of the same chromosom are
+	 *        evaluated separately, e.g. to average out noise
+	 * @return the future utility of the chromosom
+	 */
+	Future<Double> submit(float[] chromosom, int run);
+}
@@ -0,0 +1,41 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.remote;
+
+import java.util.function.ToDoubleFunction;
+import kdo.util.learningParameter.LearningParameterMap;
+
+/**
+ * The utility function run by a worker process for each chromosom it
+ * receives.
+ * @author kdorer
+ */
+public interface IRemoteUtility {
+	/**
+	 * @param chromosom the values to evaluate
+	 * @param run the index of the run of this chromosom
+	 * @return the utility of the chromosom
+	 * @throws Exception if the utility can not be calculated
+	 */
+	double calculateUtility(float[] chromosom, int run) throws Exception;
+
+	/**
+	 * Creates a utility for learning parameters. The chromosom received is
+	 * written into the passed parameters before calling the utility, so the
+	 * worker needs to create the parameters the same way as the coordinator.
+	 * @param parameters the learning parameters of the worker
+	 * @param utility the utility function using the parameters
+	 * @return the utility to run on a worker
+	 */
+	static IRemoteUtility ofLearningParameters(
+			LearningParameterMap parameters, ToDoubleFunction<LearningParameterMap> utility)
+	{
+		return (chromosom, run) -> {
+			parameters.getParameter().fromChromosom(chromosom);
+			return utility.applyAsDouble(parameters);
+		};
+	}
+}
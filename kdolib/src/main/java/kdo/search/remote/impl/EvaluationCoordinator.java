@@ -0,0 +1,446 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.remote.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import kdo.search.remote.IRemoteEvaluator;
+
+/**
+ * Distributes evaluations of chromosoms to worker processes connecting via
+ * TCP. Each worker evaluates one chromosom at a time and sends heartbeats
+ * while evaluating. An evaluation of a worker that disconnects or misses its
+ * heartbeats is queued again for another worker. Results are cached by
+ * chromosom and run.
+ * @author kdorer
+ */
+public class EvaluationCoordinator implements IRemoteEvaluator, Closeable
+{
+	/** default time in ms without message after which a worker is considered dead */
+	public static final long DEFAULT_HEARTBEAT_TIMEOUT = 10000;
+
+	/** default number of workers an evaluation may kill before it fails */
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private final ServerSocket serverSocket;
+
+	private final long heartbeatTimeout;
+
+	private final int maxAttempts;
+
+	/** evaluations not yet sent to a worker */
+	private final BlockingDeque<Job> jobs;
+
+	/** the results of all evaluations submitted, including the running ones */
+	private final Map<ChromosomKey, CompletableFuture<Double>> results;
+
+	private final List<Socket> connections;
+
+	private final AtomicLong nextID;
+
+	private final AtomicInteger workers;
+
+	private final LongAdder evaluations;
+
+	private final LongAdder cacheHits;
+
+	private final LongAdder requeued;
+
+	private volatile boolean closed;
+
+	/**
+	 * @param port the port workers connect to, 0 for any free port
+	 */
+	public EvaluationCoordinator(int port) throws IOException
+	{
+		this(port, DEFAULT_HEARTBEAT_TIMEOUT, DEFAULT_MAX_ATTEMPTS);
+	}
+
+	/**
+	 * @param port the port workers connect to, 0 for any free port
+	 * @param heartbeatTimeout time in ms without message after which a worker
+	 *        is considered dead
+	 * @param maxAttempts the number of workers an evaluation may lose before it
+	 *        fails
+	 */
+	public EvaluationCoordinator(int port, long heartbeatTimeout, int maxAttempts) throws IOException
+	{
+		if (heartbeatTimeout < 1 || heartbeatTimeout > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid heartbeat timeout: " + heartbeatTimeout);
+		}
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("Invalid number of attempts [1..]: " + maxAttempts);
+		}
+		this.heartbeatTimeout = heartbeatTimeout;
+		this.maxAttempts = maxAttempts;
+		jobs = new LinkedBlockingDeque<>();
+		results = new ConcurrentHashMap<>();
+		connections = new ArrayList<>();
+		nextID = new AtomicLong();
+		workers = new AtomicInteger();
+		evaluations = new LongAdder();
+		cacheHits = new LongAdder();
+		requeued = new LongAdder();
+		serverSocket = new ServerSocket(port);
+
+		Thread acceptor = new Thread(this::acceptWorkers, "evaluation-coordinator");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	@Override
+	public Future<Double> submit(float[] chromosom, int run)
+	{
+		if (closed) {
+			throw new IllegalStateException("Coordinator is closed");
+		}
+		ChromosomKey key = new ChromosomKey(chromosom.clone(), run);
+		CompletableFuture<Double> result = new CompletableFuture<>();
+		CompletableFuture<Double> cached = results.putIfAbsent(key, result);
+		if (cached != null && cached.isCancelled() && results.replace(key, cached, result)) {
+			// evaluate again if an earlier caller was no longer interested
+			cached = null;
+		}
+		if (cached != null) {
+			cacheHits.increment();
+			return cached;
+		}
+		jobs.add(new Job(key, result));
+		return result;
+	}
+
+	/**
+	 * Evaluates the passed chromosom waiting for the result
+	 * @param chromosom the values to evaluate
+	 * @param run the index of the run
+	 * @return the utility of the chromosom
+	 */
+	public double calculateUtility(float[] chromosom, int run)
+	{
+		try {
+			return submit(chromosom, run).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for evaluation", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Remote evaluation failed", e.getCause());
+		}
+	}
+
+	private void acceptWorkers()
+	{
+		while (!closed) {
+			try {
+				Socket socket = serverSocket.accept();
+				synchronized (connections) {
+					if (closed) {
+						socket.close();
+						return;
+					}
+					connections.add(socket);
+				}
+				String name = "remote-worker-" + THREAD_COUNT.incrementAndGet();
+				Thread handler = new Thread(() -> serveWorker(socket), name);
+				handler.setDaemon(true);
+				handler.start();
+			} catch (IOException e) {
+				if (!closed) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sends queued evaluations to the worker connected by the passed socket
+	 * until the connection is lost.
+	 */
+	private void serveWorker(Socket socket)
+	{
+		workers.incrementAndGet();
+		Job job = null;
+		try {
+			socket.setSoTimeout((int) heartbeatTimeout);
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+			while (!closed) {
+				job = jobs.poll(heartbeatTimeout, TimeUnit.MILLISECONDS);
+				if (job == null) {
+					continue;
+				}
+				if (job.result.isDone()) {
+					// cancelled by the caller
+					results.remove(job.key, job.result);
+					job = null;
+					continue;
+				}
+				long id = nextID.incrementAndGet();
+				RemoteProtocol.writeEvaluate(out, id, job.key.run, job.key.chromosom);
+				receiveResult(in, id, job);
+				job = null;
+			}
+
+		} catch (IOException e) {
+			if (!closed) {
+				System.out.println("Lost worker " + socket.getRemoteSocketAddress() + ": " + e);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			workers.decrementAndGet();
+			if (job != null) {
+				requeue(job);
+			}
+			closeQuietly(socket);
+			synchronized (connections) {
+				connections.remove(socket);
+			}
+		}
+	}
+
+	/**
+	 * Waits for the result of the evaluation with the passed id, skipping
+	 * heartbeats. Throws a SocketTimeoutException if the worker is silent
+	 * longer than the heartbeat timeout.
+	 */
+	private void receiveResult(DataInputStream in, long id, Job job) throws IOException
+	{
+		while (true) {
+			byte type = in.readByte();
+			long messageID = in.readLong();
+			switch (type) {
+			case RemoteProtocol.HEARTBEAT:
+				break;
+			case RemoteProtocol.RESULT:
+				double utility = in.readDouble();
+				checkID(id, messageID);
+				evaluations.increment();
+				if (!job.result.complete(utility)) {
+					// cancelled while running
+					results.remove(job.key, job.result);
+				}
+				return;
+			case RemoteProtocol.FAILED:
+				String message = in.readUTF();
+				checkID(id, messageID);
+				evaluations.increment();
+				fail(job, new IOException("Evaluation failed on worker: " + message));
+				return;
+			default:
+				throw new IOException("Unknown message type: " + type);
+			}
+		}
+	}
+
+	private static void checkID(long expected, long received) throws IOException
+	{
+		if (expected != received) {
+			throw new IOException("Received result " + received + " but expected " + expected);
+		}
+	}
+
+	/**
+	 * Queues an evaluation of a lost worker again, or fails it if it has been
+	 * tried too often, e.g. because it kills each worker.
+	 */
+	private void requeue(Job job)
+	{
+		job.attempts++;
+		if (closed) {
+			fail(job, new IOException("Coordinator closed"));
+		} else if (job.attempts >= maxAttempts) {
+			fail(job, new IOException("Evaluation lost " + job.attempts + " workers"));
+		} else {
+			requeued.increment();
+			jobs.addFirst(job);
+		}
+	}
+
+	private void fail(Job job, Throwable cause)
+	{
+		results.remove(job.key, job.result);
+		job.result.completeExceptionally(cause);
+	}
+
+	/**
+	 * Removes all cached results, e.g. if the utility function has changed
+	 */
+	public void clearCache()
+	{
+		results.values().removeIf(CompletableFuture::isDone);
+	}
+
+	/**
+	 * @return the port workers connect to
+	 */
+	public int getPort()
+	{
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return the address workers connect to
+	 */
+	public InetAddress getAddress()
+	{
+		return serverSocket.getInetAddress();
+	}
+
+	/**
+	 * @return the number of workers currently connected
+	 */
+	public int getWorkers()
+	{
+		return workers.get();
+	}
+
+	/**
+	 * @return the number of evaluations finished by workers
+	 */
+	public long getEvaluations()
+	{
+		return evaluations.sum();
+	}
+
+	/**
+	 * @return the number of submitted evaluations answered from the cache
+	 */
+	public long getCacheHits()
+	{
+		return cacheHits.sum();
+	}
+
+	/**
+	 * @return the number of evaluations queued again after losing a worker
+	 */
+	public long getRequeued()
+	{
+		return requeued.sum();
+	}
+
+	/**
+	 * @return the number of evaluations waiting for a worker
+	 */
+	public int getQueued()
+	{
+		return jobs.size();
+	}
+
+	/**
+	 * Disconnects all workers and fails evaluations not finished
+	 */
+	@Override
+	public void close()
+	{
+		closed = true;
+		closeQuietly(serverSocket);
+		synchronized (connections) {
+			for (Socket socket : connections) {
+				closeQuietly(socket);
+			}
+			connections.clear();
+		}
+		Job job;
+		while ((job = jobs.poll()) != null) {
+			fail(job, new IOException("Coordinator closed"));
+		}
+	}
+
+	private static void closeQuietly(Closeable closeable)
+	{
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// nothing to do on close
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EvaluationCoordinator port: " + getPort() + " workers: " + getWorkers() +
+				" evaluations: " + getEvaluations() + " cacheHits: " + getCacheHits() + " requeued: " + getRequeued();
+	}
+
+	/**
+	 * Identifies an evaluation by the genes of the chromosom and the run
+	 */
+	private static class ChromosomKey
+	{
+		private final float[] chromosom;
+
+		private final int run;
+
+		private final int hash;
+
+		ChromosomKey(float[] chromosom, int run)
+		{
+			this.chromosom = chromosom;
+			this.run = run;
+			hash = 31 * Arrays.hashCode(chromosom) + run;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof ChromosomKey)) {
+				return false;
+			}
+			ChromosomKey other = (ChromosomKey) obj;
+			return hash == other.hash && run == other.run && Arrays.equals(chromosom, other.chromosom);
+		}
+	}
+
+	/**
+	 * An evaluation waiting for or running on a worker
+	 */
+	private static class Job
+	{
+		private final ChromosomKey key;
+
+		private final CompletableFuture<Double> result;
+
+		/** the number of workers lost while running this evaluation */
+		private int attempts;
+
+		Job(ChromosomKey key, CompletableFuture<Double> result)
+		{
+			this.key = key;
+			this.result = result;
+		}
+	}
+}
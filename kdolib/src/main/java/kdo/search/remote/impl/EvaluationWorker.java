@@ -0,0 +1,190 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.remote.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import kdo.search.remote.IRemoteUtility;
+
+/**
+ * Worker process side of remote evaluation. Connects to an
+ * {@link EvaluationCoordinator}, evaluates the chromosoms it receives with its
+ * utility function and sends heartbeats while evaluating.
+ * @author kdorer
+ */
+public class EvaluationWorker implements Runnable, Closeable
+{
+	/** default time in ms between two heartbeats */
+	public static final long DEFAULT_HEARTBEAT_INTERVAL = 1000;
+
+	private final String host;
+
+	private final int port;
+
+	private final IRemoteUtility utility;
+
+	private final long heartbeatInterval;
+
+	private final ScheduledExecutorService heartbeat;
+
+	private volatile Socket socket;
+
+	private volatile boolean closed;
+
+	/** the number of chromosoms evaluated */
+	private volatile int evaluations;
+
+	/**
+	 * @param host the host of the coordinator
+	 * @param port the port of the coordinator
+	 * @param utility the utility function to run for each chromosom
+	 */
+	public EvaluationWorker(String host, int port, IRemoteUtility utility)
+	{
+		this(host, port, utility, DEFAULT_HEARTBEAT_INTERVAL);
+	}
+
+	/**
+	 * @param host the host of the coordinator
+	 * @param port the port of the coordinator
+	 * @param utility the utility function to run for each chromosom
+	 * @param heartbeatInterval time in ms between two heartbeats, has to be
+	 *        less than the heartbeat timeout of the coordinator
+	 */
+	public EvaluationWorker(String host, int port, IRemoteUtility utility, long heartbeatInterval)
+	{
+		if (heartbeatInterval < 1) {
+			throw new IllegalArgumentException("Invalid heartbeat interval [1..]: " + heartbeatInterval);
+		}
+		this.host = host;
+		this.port = port;
+		this.utility = utility;
+		this.heartbeatInterval = heartbeatInterval;
+		heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "worker-heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Runs the worker in a background thread
+	 * @return the thread running the worker
+	 */
+	public Thread start()
+	{
+		Thread thread = new Thread(this, "evaluation-worker");
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Evaluates chromosoms until the connection to the coordinator is closed
+	 */
+	@Override
+	public void run()
+	{
+		try (Socket connection = new Socket(host, port)) {
+			socket = connection;
+			if (closed) {
+				return;
+			}
+			connection.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+
+			while (!closed) {
+				byte type = in.readByte();
+				long id = in.readLong();
+				if (type != RemoteProtocol.EVALUATE) {
+					throw new IOException("Unknown message type: " + type);
+				}
+				int run = in.readInt();
+				float[] chromosom = RemoteProtocol.readChromosom(in);
+				evaluate(out, id, run, chromosom);
+			}
+
+		} catch (EOFException e) {
+			// coordinator closed the connection
+		} catch (IOException e) {
+			if (!closed) {
+				System.out.println("Lost coordinator " + host + ":" + port + ": " + e);
+			}
+		} finally {
+			heartbeat.shutdownNow();
+		}
+	}
+
+	private void evaluate(DataOutputStream out, long id, int run, float[] chromosom) throws IOException
+	{
+		ScheduledFuture<?> beat = heartbeat.scheduleAtFixedRate(() -> {
+			synchronized (out) {
+				try {
+					RemoteProtocol.writeHeartbeat(out, id);
+				} catch (IOException e) {
+					// detected by the evaluation loop
+				}
+			}
+		}, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+
+		double result = 0;
+		Exception failure = null;
+		try {
+			result = utility.calculateUtility(chromosom, run);
+		} catch (Exception e) {
+			failure = e;
+		} finally {
+			beat.cancel(false);
+		}
+
+		evaluations++;
+		synchronized (out) {
+			if (failure == null) {
+				RemoteProtocol.writeResult(out, id, result);
+			} else {
+				RemoteProtocol.writeFailed(out, id, failure.toString());
+			}
+		}
+	}
+
+	/**
+	 * @return the number of chromosoms evaluated
+	 */
+	public int getEvaluations()
+	{
+		return evaluations;
+	}
+
+	/**
+	 * Disconnects from the coordinator. An evaluation running is queued again
+	 * by the coordinator.
+	 */
+	@Override
+	public void close()
+	{
+		closed = true;
+		Socket connection = socket;
+		if (connection != null) {
+			try {
+				connection.close();
+			} catch (IOException e) {
+				// nothing to do on close
+			}
+		}
+		heartbeat.shutdownNow();
+	}
+}
@@ -0,0 +1,87 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.remote.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The messages exchanged between coordinator and workers. Each message starts
+ * with its type followed by the id of the evaluation it refers to.
+ * <ul>
+ * <li>EVALUATE: run, number of genes, genes (coordinator to worker)</li>
+ * <li>HEARTBEAT: sent by the worker while evaluating</li>
+ * <li>RESULT: utility (worker to coordinator)</li>
+ * <li>FAILED: error message (worker to coordinator)</li>
+ * </ul>
+ * @author kdorer
+ */
+final class RemoteProtocol
+{
+	static final byte EVALUATE = 1;
+
+	static final byte HEARTBEAT = 2;
+
+	static final byte RESULT = 3;
+
+	static final byte FAILED = 4;
+
+	/** the maximal number of genes accepted, to detect corrupt messages */
+	private static final int MAX_GENES = 1 << 20;
+
+	private RemoteProtocol()
+	{
+	}
+
+	static void writeEvaluate(DataOutputStream out, long id, int run, float[] chromosom) throws IOException
+	{
+		out.writeByte(EVALUATE);
+		out.writeLong(id);
+		out.writeInt(run);
+		out.writeInt(chromosom.length);
+		for (float gene : chromosom) {
+			out.writeFloat(gene);
+		}
+		out.flush();
+	}
+
+	static float[] readChromosom(DataInputStream in) throws IOException
+	{
+		int length = in.readInt();
+		if (length < 0 || length > MAX_GENES) {
+			throw new IOException("Invalid number of genes: " + length);
+		}
+		float[] chromosom = new float[length];
+		for (int i = 0; i < length; i++) {
+			chromosom[i] = in.readFloat();
+		}
+		return chromosom;
+	}
+
+	static void writeHeartbeat(DataOutputStream out, long id) throws IOException
+	{
+		out.writeByte(HEARTBEAT);
+		out.writeLong(id);
+		out.flush();
+	}
+
+	static void writeResult(DataOutputStream out, long id, double utility) throws IOException
+	{
+		out.writeByte(RESULT);
+		out.writeLong(id);
+		out.writeDouble(utility);
+		out.flush();
+	}
+
+	static void writeFailed(DataOutputStream out, long id, String message) throws IOException
+	{
+		out.writeByte(FAILED);
+		out.writeLong(id);
+		out.writeUTF(message == null ? "" : message);
+		out.flush();
+	}
+}
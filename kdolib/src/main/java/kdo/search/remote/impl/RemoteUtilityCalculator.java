@@ -0,0 +1,63 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.remote.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import kdo.domain.IUtilityCalculator;
+import kdo.search.remote.IRemoteEvaluator;
+
+/**
+ * Utility calculator running each utility measurement of a chromosom on a
+ * remote worker. Domains return it from getUtilityCalculator(), so that the
+ * average out strategies distribute their runs to the workers.
+ * @author kdorer
+ */
+public class RemoteUtilityCalculator implements IUtilityCalculator
+{
+	private final IRemoteEvaluator evaluator;
+
+	private final float[] chromosom;
+
+	/**
+	 * @param evaluator the evaluator sending the chromosom to workers
+	 * @param chromosom the values to evaluate
+	 */
+	public RemoteUtilityCalculator(IRemoteEvaluator evaluator, float[] chromosom)
+	{
+		this.evaluator = evaluator;
+		this.chromosom = chromosom;
+	}
+
+	@Override
+	public double singleRunUtility(int avgOutRunID, int avgOutRuns, int repeatCount)
+	{
+		// repeated measurements must not be answered from the cache
+		int run = repeatCount * avgOutRuns + avgOutRunID;
+		try {
+			return evaluator.submit(chromosom, run).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for remote evaluation", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Remote evaluation failed", e.getCause());
+		}
+	}
+
+	@Override
+	public Map<String, Double> getProperties()
+	{
+		return new HashMap<>();
+	}
+
+	@Override
+	public void printParams()
+	{
+		System.out.println("remote chromosom: " + Arrays.toString(chromosom));
+	}
+}
@@ -173,6 +173,18 @@ public abstract class LocalSearchBase extends RandomStrategy implements ILocalSe
 		return currentState;
 	}
 
+	/**
+	 * @return the time (as System.currentTimeMillis()) at which the maximal
+	 *         runtime is used up, Long.MAX_VALUE if there is no limit
+	 */
+	protected long getDeadline()
+	{
+		if (maximalRuntime >= Long.MAX_VALUE - searchStarttime) {
+			return Long.MAX_VALUE;
+		}
+		return searchStarttime + maximalRuntime;
+	}
+
 	/**
 	 * @return the remaining runtime in seconds
 	 */
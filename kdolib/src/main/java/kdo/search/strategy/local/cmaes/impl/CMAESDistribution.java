@@ -0,0 +1,370 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.strategy.local.cmaes.impl;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import kdo.util.IRandomSource;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+
+/**
+ * The search distribution of CMA-ES with an ask and tell interface. Ask
+ * samples a complete generation, so that the caller can evaluate it in
+ * parallel, tell updates mean, step size and covariance from the costs of the
+ * generation. Costs are minimized. All state is serializable, so that an
+ * optimization can be resumed from a checkpoint.
+ * @author kdorer
+ */
+public class CMAESDistribution implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** the number of search dimensions */
+	private final int n;
+
+	/** the number of samples per generation */
+	private final int lambda;
+
+	/** the number of samples used to update the distribution */
+	private final int mu;
+
+	/** the recombination weights of the mu best samples */
+	private final double[] weights;
+
+	/** the variance effective selection mass */
+	private final double mueff;
+
+	/** learning rate of the evolution path of the covariance */
+	private final double cc;
+
+	/** learning rate of the evolution path of the step size */
+	private final double cs;
+
+	/** learning rate of the rank one update */
+	private final double c1;
+
+	/** learning rate of the rank mu update */
+	private final double cmu;
+
+	/** damping of the step size update */
+	private final double damps;
+
+	/** expected length of a standard normal distributed vector */
+	private final double chiN;
+
+	private final double[] mean;
+
+	private double sigma;
+
+	/** the covariance matrix */
+	private final double[][] c;
+
+	/** the eigenvectors of the covariance matrix as columns */
+	private double[][] b;
+
+	/** the square roots of the eigenvalues of the covariance matrix */
+	private double[] d;
+
+	/** the evolution path of the covariance */
+	private final double[] pc;
+
+	/** the evolution path of the step size */
+	private final double[] ps;
+
+	/** the number of generations told so far */
+	private int generation;
+
+	/** the number of evaluations told so far */
+	private long evaluations;
+
+	/** the evaluations at the last eigen decomposition */
+	private long eigenEvaluations;
+
+	/** the best cost of recent generations */
+	private final double[] bestCostHistory;
+
+	/** the cost range of the last generation */
+	private double lastCostRange;
+
+	/**
+	 * @param mean the initial mean of the distribution
+	 * @param sigma the initial step size
+	 * @param lambda the number of samples per generation, 0 for the default
+	 *        population size
+	 */
+	public CMAESDistribution(double[] mean, double sigma, int lambda)
+	{
+		n = mean.length;
+		this.lambda = lambda > 0 ? lambda : getDefaultPopulationSize(n);
+		if (this.lambda < 2) {
+			throw new IllegalArgumentException("Invalid population size [2..]: " + this.lambda);
+		}
+		mu = this.lambda / 2;
+
+		weights = new double[mu];
+		double sum = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+			sum += weights[i];
+		}
+		double sumSquares = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] /= sum;
+			sumSquares += weights[i] * weights[i];
+		}
+		mueff = 1 / sumSquares;
+
+		cc = (4 + mueff / n) / (n + 4 + 2 * mueff / n);
+		cs = (mueff + 2) / (n + mueff + 5);
+		c1 = 2 / ((n + 1.3) * (n + 1.3) + mueff);
+		cmu = Math.min(1 - c1, 2 * (mueff - 2 + 1 / mueff) / ((n + 2) * (n + 2) + mueff));
+		damps = 1 + 2 * Math.max(0, Math.sqrt((mueff - 1) / (n + 1)) - 1) + cs;
+		chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21 * n * n));
+
+		this.mean = mean.clone();
+		this.sigma = sigma;
+		c = new double[n][n];
+		b = new double[n][n];
+		d = new double[n];
+		for (int i = 0; i < n; i++) {
+			c[i][i] = 1;
+			b[i][i] = 1;
+			d[i] = 1;
+		}
+		pc = new double[n];
+		ps = new double[n];
+		bestCostHistory = new double[10 + (int) Math.ceil(30.0 * n / this.lambda)];
+		lastCostRange = Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @param dimensions the number of search dimensions
+	 * @return the default number of samples per generation
+	 */
+	public static int getDefaultPopulationSize(int dimensions)
+	{
+		return 4 + (int) (3 * Math.log(dimensions));
+	}
+
+	/**
+	 * Samples a new generation.
+	 * @param rand source for the normal distributed random numbers
+	 * @return lambda samples of the current distribution
+	 */
+	public double[][] ask(IRandomSource rand)
+	{
+		double[][] result = new double[lambda][n];
+		double[] scaled = new double[n];
+		for (int k = 0; k < lambda; k++) {
+			for (int j = 0; j < n; j++) {
+				scaled[j] = d[j] * rand.nextGaussian();
+			}
+			for (int i = 0; i < n; i++) {
+				double y = 0;
+				for (int j = 0; j < n; j++) {
+					y += b[i][j] * scaled[j];
+				}
+				result[k][i] = mean[i] + sigma * y;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Updates the distribution from an evaluated generation.
+	 * @param points the samples of the generation, possibly repaired to lie
+	 *        within the bounds of the search space
+	 * @param costs the cost of each sample, lower is better
+	 */
+	public void tell(double[][] points, double[] costs)
+	{
+		if (points.length != lambda || costs.length != lambda) {
+			throw new IllegalArgumentException("Expected " + lambda + " samples but got " + points.length);
+		}
+		Integer[] order = new Integer[lambda];
+		for (int k = 0; k < lambda; k++) {
+			order[k] = k;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(index -> costs[index]));
+
+		double[] oldMean = mean.clone();
+		double[][] steps = new double[mu][n];
+		for (int i = 0; i < n; i++) {
+			mean[i] = 0;
+			for (int k = 0; k < mu; k++) {
+				mean[i] += weights[k] * points[order[k]][i];
+			}
+		}
+		for (int k = 0; k < mu; k++) {
+			for (int i = 0; i < n; i++) {
+				steps[k][i] = (points[order[k]][i] - oldMean[i]) / sigma;
+			}
+		}
+		double[] meanStep = new double[n];
+		for (int i = 0; i < n; i++) {
+			meanStep[i] = (mean[i] - oldMean[i]) / sigma;
+		}
+
+		// step size evolution path uses C^(-1/2) * meanStep
+		double[] whitened = multiplyInverseSqrt(meanStep);
+		double psFactor = Math.sqrt(cs * (2 - cs) * mueff);
+		double psNorm = 0;
+		for (int i = 0; i < n; i++) {
+			ps[i] = (1 - cs) * ps[i] + psFactor * whitened[i];
+			psNorm += ps[i] * ps[i];
+		}
+		psNorm = Math.sqrt(psNorm);
+
+		evaluations += lambda;
+		generation++;
+		double hsigThreshold = (1.4 + 2.0 / (n + 1)) * chiN;
+		boolean hsig = psNorm / Math.sqrt(1 - Math.pow(1 - cs, 2.0 * generation)) < hsigThreshold;
+
+		double pcFactor = hsig ? Math.sqrt(cc * (2 - cc) * mueff) : 0;
+		for (int i = 0; i < n; i++) {
+			pc[i] = (1 - cc) * pc[i] + pcFactor * meanStep[i];
+		}
+
+		double oldFactor = 1 - c1 - cmu + (hsig ? 0 : c1 * cc * (2 - cc));
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				double rankMu = 0;
+				for (int k = 0; k < mu; k++) {
+					rankMu += weights[k] * steps[k][i] * steps[k][j];
+				}
+				double value = oldFactor * c[i][j] + c1 * pc[i] * pc[j] + cmu * rankMu;
+				c[i][j] = value;
+				c[j][i] = value;
+			}
+		}
+
+		sigma *= Math.exp(Math.min(1, (cs / damps) * (psNorm / chiN - 1)));
+
+		if (evaluations - eigenEvaluations > lambda / (c1 + cmu) / n / 10) {
+			updateEigenDecomposition();
+		}
+
+		bestCostHistory[(generation - 1) % bestCostHistory.length] = costs[order[0]];
+		lastCostRange = costs[order[lambda - 1]] - costs[order[0]];
+	}
+
+	/**
+	 * @param vector the vector to multiply
+	 * @return C^(-1/2) * vector = B * D^-1 * B^T * vector
+	 */
+	private double[] multiplyInverseSqrt(double[] vector)
+	{
+		double[] projected = new double[n];
+		for (int j = 0; j < n; j++) {
+			double sum = 0;
+			for (int i = 0; i < n; i++) {
+				sum += b[i][j] * vector[i];
+			}
+			projected[j] = sum / d[j];
+		}
+		double[] result = new double[n];
+		for (int i = 0; i < n; i++) {
+			double sum = 0;
+			for (int j = 0; j < n; j++) {
+				sum += b[i][j] * projected[j];
+			}
+			result[i] = sum;
+		}
+		return result;
+	}
+
+	private void updateEigenDecomposition()
+	{
+		eigenEvaluations = evaluations;
+		RealMatrix matrix = new Array2DRowRealMatrix(c);
+		EigenDecomposition decomposition = new EigenDecomposition(matrix);
+		double[] eigenValues = decomposition.getRealEigenvalues();
+		RealMatrix eigenVectors = decomposition.getV();
+		for (int j = 0; j < n; j++) {
+			d[j] = Math.sqrt(Math.max(eigenValues[j], 1e-20));
+			for (int i = 0; i < n; i++) {
+				b[i][j] = eigenVectors.getEntry(i, j);
+			}
+		}
+	}
+
+	/**
+	 * Checks the criteria for a converged or degenerated distribution after
+	 * which a run should be stopped or restarted.
+	 * @return true if continuing with this distribution is not useful
+	 */
+	public boolean shouldStop()
+	{
+		double maxStd = 0;
+		for (int i = 0; i < n; i++) {
+			maxStd = Math.max(maxStd, Math.sqrt(c[i][i]));
+		}
+		if (sigma * maxStd < 1e-12 || Double.isNaN(sigma)) {
+			return true;
+		}
+
+		double maxD = 0;
+		double minD = Double.MAX_VALUE;
+		for (double value : d) {
+			maxD = Math.max(maxD, value);
+			minD = Math.min(minD, value);
+		}
+		if (maxD > 1e7 * minD) {
+			return true;
+		}
+
+		if (generation >= bestCostHistory.length && lastCostRange < 1e-12) {
+			double maxCost = -Double.MAX_VALUE;
+			double minCost = Double.MAX_VALUE;
+			for (double cost : bestCostHistory) {
+				maxCost = Math.max(maxCost, cost);
+				minCost = Math.min(minCost, cost);
+			}
+			return maxCost - minCost < 1e-12;
+		}
+		return false;
+	}
+
+	public int getDimension()
+	{
+		return n;
+	}
+
+	public int getPopulationSize()
+	{
+		return lambda;
+	}
+
+	public double[] getMean()
+	{
+		return mean.clone();
+	}
+
+	public double getSigma()
+	{
+		return sigma;
+	}
+
+	public int getGeneration()
+	{
+		return generation;
+	}
+
+	public long getEvaluations()
+	{
+		return evaluations;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CMAESDistribution [generation=" + generation + ", lambda=" + lambda + ", sigma=" + sigma +
+				", evaluations=" + evaluations + "]";
+	}
+}
@@ -0,0 +1,480 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.strategy.local.cmaes.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import kdo.domain.IOptimizationProblem;
+import kdo.domain.IOptimizationState;
+import kdo.domain.IProblemState;
+import kdo.search.IEvaluationService;
+import kdo.search.impl.EvaluationService;
+import kdo.search.strategy.ILocalSearchStrategy;
+import kdo.search.strategy.base.RandomStrategy;
+import kdo.util.IRandomSource;
+import kdo.util.learningParameter.ILearningParameterList;
+import org.apache.commons.math3.random.Well19937c;
+
+/**
+ * CMA-ES that samples a complete generation and evaluates it in parallel on an
+ * evaluation service. Supports IPOP and BIPOP restarts and writes a checkpoint
+ * after each generation from which an interrupted search is resumed.
+ * <p>
+ * The search runs in coordinates normalized to the bounds of the problem's
+ * learning parameters, so the initial step size is sigmaSpread for each
+ * dimension. Samples outside the bounds are moved onto the bounds before they
+ * are evaluated.
+ * @author kdorer
+ */
+public class ParallelCMAES extends RandomStrategy implements ILocalSearchStrategy
+{
+	/** the restart strategies after a run converged */
+	public enum RestartStrategy {
+		/** stop after the first run */
+		NONE,
+		/** restart with doubled population size */
+		IPOP,
+		/** alternate between doubled population size and small local runs */
+		BIPOP
+	}
+
+	/** the population size of the first run, 0 for the default */
+	private final int populationSize;
+
+	/** the maximal number of generations of each run */
+	private final int maxGenerations;
+
+	/** the utility at which to stop searching */
+	private final double stopFitness;
+
+	/** the initial step size relative to the range of each parameter */
+	private final double sigmaSpread;
+
+	private final RestartStrategy restartStrategy;
+
+	/** the maximal number of restarts */
+	private final int maxRestarts;
+
+	/** the maximal runtime in ms of a call to search */
+	private long maxRuntime;
+
+	/** the service evaluating each generation */
+	private IEvaluationService service;
+
+	/** the maximal number of evaluations running at the same time, 0 for no limit */
+	private int maxConcurrent;
+
+	/** the file to write checkpoints to, null for no checkpoints */
+	private File checkpointFile;
+
+	public static ParallelCMAES getInstance(int populationSize, int generations, double stopFitness,
+			double sigmaSpread, RestartStrategy restartStrategy, int maxRestarts)
+	{
+		IRandomSource rand = new RandomSourceAdapter(new Well19937c());
+		return new ParallelCMAES(rand, populationSize, generations, stopFitness, sigmaSpread, restartStrategy,
+				maxRestarts);
+	}
+
+	/**
+	 * @param rand source for pseudo random numbers
+	 * @param populationSize the population size of the first run, 0 for the
+	 *        default
+	 * @param maxGenerations the maximal number of generations of each run
+	 * @param stopFitness the utility at which to stop searching
+	 * @param sigmaSpread the initial step size relative to the range of each
+	 *        parameter
+	 * @param restartStrategy the strategy to restart after a run converged
+	 * @param maxRestarts the maximal number of restarts
+	 */
+	public ParallelCMAES(IRandomSource rand, int populationSize, int maxGenerations, double stopFitness,
+			double sigmaSpread, RestartStrategy restartStrategy, int maxRestarts)
+	{
+		super("CMA-ES parallel", rand);
+		this.populationSize = populationSize;
+		this.maxGenerations = maxGenerations;
+		this.stopFitness = stopFitness;
+		this.sigmaSpread = sigmaSpread;
+		this.restartStrategy = restartStrategy;
+		this.maxRestarts = maxRestarts;
+		maxRuntime = -1;
+		service = EvaluationService.getShared();
+		maxConcurrent = 0;
+	}
+
+	/**
+	 * @param service the service evaluating each generation
+	 * @param maxConcurrent the maximal number of evaluations running at the
+	 *        same time, 0 for the parallelism of the service
+	 */
+	public void setEvaluationService(IEvaluationService service, int maxConcurrent)
+	{
+		this.service = service;
+		this.maxConcurrent = maxConcurrent;
+	}
+
+	/**
+	 * @param maxRuntime the maximal runtime in ms of a call to search, -1 if no
+	 *        time restriction
+	 */
+	public void setMaxRuntime(long maxRuntime)
+	{
+		this.maxRuntime = maxRuntime;
+	}
+
+	/**
+	 * @param checkpointFile the file to write the search state to after each
+	 *        generation, null for no checkpoints. If the file exists, search
+	 *        resumes from it.
+	 */
+	public void setCheckpointFile(File checkpointFile)
+	{
+		this.checkpointFile = checkpointFile;
+	}
+
+	/**
+	 * @return the maximal runtime in ms of a call to search, -1 if no time
+	 *         restriction
+	 */
+	public long getMaxRuntime()
+	{
+		return maxRuntime;
+	}
+
+	/**
+	 * @return the file to write checkpoints to, null for no checkpoints
+	 */
+	public File getCheckpointFile()
+	{
+		return checkpointFile;
+	}
+
+	/**
+	 * @return the strategy to restart after a run converged
+	 */
+	public RestartStrategy getRestartStrategy()
+	{
+		return restartStrategy;
+	}
+
+	@Override
+	public IProblemState search(IProblemState initialState)
+	{
+		long deadline = IEvaluationService.NO_DEADLINE;
+		if (maxRuntime > 0) {
+			deadline = System.currentTimeMillis() + maxRuntime;
+		}
+
+		IOptimizationState initial = (IOptimizationState) initialState;
+		IOptimizationProblem problem = (IOptimizationProblem) initialState.getProblem();
+		float[] initialChromosom = initial.getState();
+		Bounds bounds = getBounds(problem, initialChromosom);
+
+		SearchState search = loadCheckpoint(initialChromosom.length);
+		if (search == null) {
+			search = new SearchState(bounds.normalize(initialChromosom));
+		}
+
+		IOptimizationState best = initial;
+		if (search.bestPoint != null) {
+			best = problem.createState(bounds.denormalize(search.bestPoint));
+			best.setUtility((float) search.bestUtility);
+		}
+
+		while (true) {
+			if (search.distribution == null) {
+				startRun(search, bounds);
+			}
+			CMAESDistribution distribution = search.distribution;
+
+			boolean runFinished = false;
+			while (!runFinished) {
+				double[][] points = distribution.ask(rand);
+				List<Evaluation> evaluations = new ArrayList<>(points.length);
+				for (double[] point : points) {
+					bounds.repair(point);
+					evaluations.add(new Evaluation(problem.createState(bounds.denormalize(point))));
+				}
+				if (!service.evaluateAll(evaluations, maxConcurrent, deadline)) {
+					// runtime is over, keep the checkpoint to continue later
+					return best;
+				}
+
+				double[] costs = new double[points.length];
+				for (int i = 0; i < points.length; i++) {
+					double utility = evaluations.get(i).utility;
+					if (Double.isNaN(utility)) {
+						// failed evaluations are ranked last
+						costs[i] = Double.POSITIVE_INFINITY;
+						continue;
+					}
+					costs[i] = problem.isMaximize() ? -utility : utility;
+					if (search.bestPoint == null || isBetter(problem, utility, search.bestUtility)) {
+						search.bestPoint = points[i].clone();
+						search.bestUtility = utility;
+						best = evaluations.get(i).state;
+						best.setUtility((float) utility);
+					}
+				}
+				distribution.tell(points, costs);
+				search.evaluations += points.length;
+				if (search.largeRegime) {
+					search.largeBudget += points.length;
+				} else {
+					search.smallBudget += points.length;
+				}
+				writeCheckpoint(search);
+
+				if (search.bestPoint != null && !isBetter(problem, stopFitness, search.bestUtility)) {
+					// reached the utility we were looking for
+					deleteCheckpoint();
+					return best;
+				}
+				runFinished = distribution.getGeneration() >= maxGenerations || distribution.shouldStop();
+			}
+
+			if (restartStrategy == RestartStrategy.NONE || search.restarts >= maxRestarts) {
+				deleteCheckpoint();
+				return best;
+			}
+			search.restarts++;
+			search.distribution = null;
+		}
+	}
+
+	/**
+	 * Creates the distribution of the next run depending on the restart
+	 * strategy.
+	 */
+	private void startRun(SearchState search, Bounds bounds)
+	{
+		int n = search.initialPoint.length;
+		int defaultPopulation = populationSize > 0 ? populationSize : CMAESDistribution.getDefaultPopulationSize(n);
+		if (search.restarts == 0) {
+			search.largeRegime = true;
+			search.distribution = new CMAESDistribution(search.initialPoint, sigmaSpread, defaultPopulation);
+			return;
+		}
+
+		double[] start = bounds.isBounded() ? randomPoint(n) : search.initialPoint;
+		if (restartStrategy == RestartStrategy.BIPOP && search.smallBudget < search.largeBudget) {
+			// small local run around a random point
+			double u = rand.nextDouble();
+			double largePopulation = defaultPopulation * Math.pow(2, search.largeRuns);
+			int lambda = (int) (defaultPopulation * Math.pow(0.5 * largePopulation / defaultPopulation, u * u));
+			search.largeRegime = false;
+			search.distribution =
+					new CMAESDistribution(start, sigmaSpread * Math.pow(10, -2 * u), Math.max(lambda, 2));
+			return;
+		}
+
+		search.largeRuns++;
+		search.largeRegime = true;
+		int lambda = (int) (defaultPopulation * Math.pow(2, search.largeRuns));
+		search.distribution = new CMAESDistribution(start, sigmaSpread, lambda);
+	}
+
+	private double[] randomPoint(int n)
+	{
+		double[] result = new double[n];
+		for (int i = 0; i < n; i++) {
+			result[i] = rand.nextDouble();
+		}
+		return result;
+	}
+
+	private static boolean isBetter(IOptimizationProblem problem, double utility, double other)
+	{
+		return problem.isMaximize() ? utility > other : utility < other;
+	}
+
+	private Bounds getBounds(IOptimizationProblem problem, float[] initialChromosom)
+	{
+		ILearningParameterList params = problem.createParameters(initialChromosom);
+		if (params != null) {
+			return new Bounds(params.getMinValues(), params.getMaxValues());
+		}
+		return new Bounds(problem.getMinValues(), problem.getMaxValues());
+	}
+
+	private SearchState loadCheckpoint(int dimensions)
+	{
+		if (checkpointFile == null || !checkpointFile.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(checkpointFile))) {
+			SearchState result = (SearchState) in.readObject();
+			if (result.initialPoint.length != dimensions) {
+				System.err.println("Ignoring checkpoint with different dimensions: " + checkpointFile);
+				return null;
+			}
+			return result;
+		} catch (IOException | ClassNotFoundException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	private void writeCheckpoint(SearchState search)
+	{
+		if (checkpointFile == null) {
+			return;
+		}
+		// write to a temporary file first to never leave a partial checkpoint
+		File temp = new File(checkpointFile.getPath() + ".tmp");
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(temp))) {
+			out.writeObject(search);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return;
+		}
+		try {
+			Files.move(temp.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void deleteCheckpoint()
+	{
+		if (checkpointFile != null && checkpointFile.exists() && !checkpointFile.delete()) {
+			System.err.println("Could not delete checkpoint: " + checkpointFile);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ParallelCMAES [populationSize=" + populationSize + ", maxGenerations=" + maxGenerations +
+				", sigmaSpread=" + sigmaSpread + ", restartStrategy=" + restartStrategy +
+				", maxRestarts=" + maxRestarts + "]";
+	}
+
+	/**
+	 * Everything needed to resume a search
+	 */
+	private static class SearchState implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		/** the normalized initial point of the search */
+		final double[] initialPoint;
+
+		/** the distribution of the current run, null if a new run has to start */
+		CMAESDistribution distribution;
+
+		int restarts;
+
+		/** the number of runs with increased population size */
+		int largeRuns;
+
+		/** true if the current run has a large population */
+		boolean largeRegime;
+
+		/** evaluations used by runs with large population */
+		long largeBudget;
+
+		/** evaluations used by small local runs */
+		long smallBudget;
+
+		long evaluations;
+
+		/** the normalized best point found so far */
+		double[] bestPoint;
+
+		double bestUtility;
+
+		SearchState(double[] initialPoint)
+		{
+			this.initialPoint = initialPoint;
+		}
+	}
+
+	/**
+	 * Maps between chromosoms and coordinates normalized to the bounds
+	 */
+	private static class Bounds
+	{
+		private final float[] min;
+
+		private final float[] max;
+
+		Bounds(float[] min, float[] max)
+		{
+			this.min = min;
+			this.max = max;
+		}
+
+		boolean isBounded()
+		{
+			return min != null && max != null;
+		}
+
+		double[] normalize(float[] chromosom)
+		{
+			double[] result = new double[chromosom.length];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = isBounded() ? (chromosom[i] - min[i]) / range(i) : chromosom[i];
+			}
+			return result;
+		}
+
+		float[] denormalize(double[] point)
+		{
+			float[] result = new float[point.length];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = (float) (isBounded() ? min[i] + point[i] * range(i) : point[i]);
+			}
+			return result;
+		}
+
+		void repair(double[] point)
+		{
+			if (!isBounded()) {
+				return;
+			}
+			for (int i = 0; i < point.length; i++) {
+				point[i] = Math.max(0, Math.min(1, point[i]));
+			}
+		}
+
+		private double range(int i)
+		{
+			double range = max[i] - min[i];
+			return range > 0 ? range : 1;
+		}
+	}
+
+	/**
+	 * Calculates the utility of one sample
+	 */
+	private static class Evaluation implements Runnable
+	{
+		final IOptimizationState state;
+
+		double utility;
+
+		Evaluation(IOptimizationState state)
+		{
+			this.state = state;
+			utility = Double.NaN;
+		}
+
+		@Override
+		public void run()
+		{
+			utility = state.calculateFitness();
+		}
+	}
+}
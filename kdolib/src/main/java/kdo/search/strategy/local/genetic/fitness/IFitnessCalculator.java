@@ -14,4 +14,17 @@ import kdo.domain.IOptimizationState;
  */
 public interface IFitnessCalculator {
 	double calculateFitness(List<List<IOptimizationState>> genderStates);
+
+	/**
+	 * Calculates the fitness, evaluations not finished at the deadline may be
+	 * cancelled. The default implementation ignores the deadline.
+	 * @param genderStates the states to evaluate
+	 * @param deadline the time (as System.currentTimeMillis()) to stop
+	 *        evaluating
+	 * @return the average utility of the states
+	 */
+	default double calculateFitness(List<List<IOptimizationState>> genderStates, long deadline)
+	{
+		return calculateFitness(genderStates);
+	}
 }
@@ -7,11 +7,10 @@ package kdo.search.strategy.local.genetic.fitness;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import kdo.domain.IOptimizationState;
 import kdo.domain.IProblemState;
+import kdo.search.IEvaluationService;
+import kdo.search.impl.EvaluationService;
 
 /**
  * @author kdorer
@@ -19,49 +18,56 @@ import kdo.domain.IProblemState;
  */
 public class ParallelFitnessCalculator implements IFitnessCalculator
 {
-	/** the size of the thread pool */
+	/** the service running the evaluations */
+	private final IEvaluationService service;
+
+	/** the maximal number of evaluations running at the same time */
 	private int threadPoolSize;
 
 	public ParallelFitnessCalculator(int threadPoolSize)
 	{
+		this(EvaluationService.getShared(threadPoolSize), threadPoolSize);
+	}
+
+	/**
+	 * @param service the service running the evaluations
+	 * @param threadPoolSize the maximal number of evaluations running at the
+	 *        same time, 0 for the parallelism of the service
+	 */
+	public ParallelFitnessCalculator(IEvaluationService service, int threadPoolSize)
+	{
+		this.service = service;
 		this.threadPoolSize = threadPoolSize;
 	}
 
 	@Override
 	public double calculateFitness(List<List<IOptimizationState>> genderStates)
 	{
-		try {
-			ExecutorService pool = Executors.newFixedThreadPool(threadPoolSize);
-
-			List<Handler> handler = new ArrayList<>();
-			for (List<IOptimizationState> net : genderStates) {
-				for (IOptimizationState currentState : net) {
-					handler.add(new Handler(currentState));
-				}
-			}
+		return calculateFitness(genderStates, IEvaluationService.NO_DEADLINE);
+	}
 
-			for (Handler currentHandler : handler) {
-				pool.execute(currentHandler);
+	@Override
+	public double calculateFitness(List<List<IOptimizationState>> genderStates, long deadline)
+	{
+		List<Handler> handler = new ArrayList<>();
+		for (List<IOptimizationState> net : genderStates) {
+			for (IOptimizationState currentState : net) {
+				handler.add(new Handler(currentState));
 			}
+		}
 
-			pool.shutdown();
-			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		service.evaluateAll(handler, threadPoolSize, deadline);
 
-			// calculate average
-			double sum = 0;
-			int n = 0;
-			for (List<IOptimizationState> net : genderStates) {
-				for (IOptimizationState currentState : net) {
-					sum += currentState.getUtility();
-					n++;
-				}
+		// calculate average
+		double sum = 0;
+		int n = 0;
+		for (List<IOptimizationState> net : genderStates) {
+			for (IOptimizationState currentState : net) {
+				sum += currentState.getUtility();
+				n++;
 			}
-			return sum / n;
-
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-			return -1.002;
 		}
+		return sum / n;
 	}
 
 	/**
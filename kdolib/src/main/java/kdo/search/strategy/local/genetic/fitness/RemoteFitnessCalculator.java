@@ -0,0 +1,96 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.strategy.local.genetic.fitness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import kdo.domain.IOptimizationState;
+import kdo.search.IEvaluationService;
+import kdo.search.remote.IRemoteEvaluator;
+
+/**
+ * Calculates the fitness of states on remote workers. The state values are
+ * sent as chromosom, the utility received is set to the state. States whose
+ * evaluation failed or did not finish until the deadline keep their utility.
+ * @author kdorer
+ */
+public class RemoteFitnessCalculator implements IFitnessCalculator
+{
+	/** the evaluator sending the states to workers */
+	private final IRemoteEvaluator evaluator;
+
+	public RemoteFitnessCalculator(IRemoteEvaluator evaluator)
+	{
+		this.evaluator = evaluator;
+	}
+
+	@Override
+	public double calculateFitness(List<List<IOptimizationState>> genderStates)
+	{
+		return calculateFitness(genderStates, IEvaluationService.NO_DEADLINE);
+	}
+
+	@Override
+	public double calculateFitness(List<List<IOptimizationState>> genderStates, long deadline)
+	{
+		List<IOptimizationState> states = new ArrayList<>();
+		List<Future<Double>> results = new ArrayList<>();
+		for (List<IOptimizationState> net : genderStates) {
+			for (IOptimizationState currentState : net) {
+				states.add(currentState);
+				results.add(evaluator.submit(currentState.getState(), 0));
+			}
+		}
+
+		for (int i = 0; i < states.size(); i++) {
+			try {
+				Double utility = results.get(i).get(getRemainingMillis(deadline), TimeUnit.MILLISECONDS);
+				states.get(i).setUtility(utility.floatValue());
+			} catch (ExecutionException e) {
+				System.out.println("Remote evaluation failed: " + e.getCause());
+			} catch (CancellationException e) {
+				// keep the utility
+			} catch (TimeoutException e) {
+				cancel(results.subList(i, results.size()));
+				break;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				cancel(results.subList(i, results.size()));
+				break;
+			}
+		}
+
+		// calculate average
+		double sum = 0;
+		for (IOptimizationState currentState : states) {
+			sum += currentState.getUtility();
+		}
+		return sum / states.size();
+	}
+
+	/**
+	 * Cancels evaluations not sent to a worker yet
+	 */
+	private static void cancel(List<Future<Double>> results)
+	{
+		for (Future<Double> result : results) {
+			result.cancel(false);
+		}
+	}
+
+	private static long getRemainingMillis(long deadline)
+	{
+		if (deadline == IEvaluationService.NO_DEADLINE) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, deadline - System.currentTimeMillis());
+	}
+}
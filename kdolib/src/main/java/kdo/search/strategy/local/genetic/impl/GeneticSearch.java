@@ -81,7 +81,7 @@ public class GeneticSearch extends RandomStrategy implements ISearch, IObserver<
 			createNewPopulation();
 			restart = false;
 		}
-		return population.breed(parameters.getGenerations(), parameters.getMaxRuntime());
+		return breed(parameters.getGenerations());
 	}
 
 	/**
@@ -94,11 +94,20 @@ public class GeneticSearch extends RandomStrategy implements ISearch, IObserver<
 			createNewPopulation();
 			restart = false;
 		}
-		IOptimizationState breed = population.breed(1, parameters.getMaxRuntime());
+		IOptimizationState breed = breed(1);
 		restart = false;
 		return breed;
 	}
 
+	private IOptimizationState breed(int generations)
+	{
+		if (parameters.isSteadyState()) {
+			return population.breedSteadyState(generations, parameters.getMaxRuntime(),
+					parameters.getEvaluationService(), Math.max(1, parameters.getFitnessCalculationThreadpoolSize()));
+		}
+		return population.breed(generations, parameters.getMaxRuntime());
+	}
+
 	/**
 	 * Call to interrupt the search for better solutions. Kept for downward
 	 * compatibility.
@@ -56,6 +56,9 @@ public class GeneticSearchParameter extends OptimizationSearchParameter
 
 	private String reproductionStrategy;
 
+	/** true to breed asynchronously creating a new individuum per finished evaluation */
+	private boolean steadyState;
+
 	public GeneticSearchParameter(IRandomSource random)
 	{
 		super(random);
@@ -226,6 +229,21 @@ public class GeneticSearchParameter extends OptimizationSearchParameter
 		this.eliteSelectionRatio = eliteSelectionRatio;
 	}
 
+	public boolean isSteadyState()
+	{
+		return steadyState;
+	}
+
+	/**
+	 * @param steadyState true to breed asynchronously, so that each finished
+	 *        evaluation immediately creates a new individuum instead of waiting
+	 *        for the whole generation
+	 */
+	public void setSteadyState(boolean steadyState)
+	{
+		this.steadyState = steadyState;
+	}
+
 	/**
 	 * @param strategyString the strategy for individuum selection
 	 * @param params parameters to use, null if existing parameters should be
@@ -295,6 +313,7 @@ public class GeneticSearchParameter extends OptimizationSearchParameter
 				", individuumMutationProbability=" + individuumMutationProbability +
 				", geneMutationProbability=" + geneMutationProbability +
 				", eliteSelectionRatio=" + eliteSelectionRatio + ", selectionStrategy=" + selectionStrategy +
-				", mutationStrategy=" + mutationStrategy + ", reproductionStrategy=" + reproductionStrategy + "]";
+				", mutationStrategy=" + mutationStrategy + ", reproductionStrategy=" + reproductionStrategy +
+				", steadyState=" + steadyState + "]";
 	}
 }
\ No newline at end of file
@@ -5,9 +5,13 @@
 
 package kdo.search.strategy.local.genetic.impl;
 
+import kdo.search.IEvaluationService;
+import kdo.search.impl.EvaluationService;
 import kdo.search.impl.SearchParameters;
+import kdo.search.remote.IRemoteEvaluator;
 import kdo.search.strategy.local.genetic.fitness.IFitnessCalculator;
 import kdo.search.strategy.local.genetic.fitness.ParallelFitnessCalculator;
+import kdo.search.strategy.local.genetic.fitness.RemoteFitnessCalculator;
 import kdo.search.strategy.local.genetic.fitness.SerialFitnessCalculator;
 import kdo.util.IRandomSource;
 
@@ -27,6 +31,12 @@ public class OptimizationSearchParameter extends SearchParameters
 
 	private int utilityCalculationThreadpoolSize;
 
+	/** the service running parallel utility calculations, null for the shared one */
+	private IEvaluationService evaluationService;
+
+	/** the evaluator running utility calculations on worker processes, null to calculate locally */
+	private IRemoteEvaluator remoteEvaluator;
+
 	public OptimizationSearchParameter(IRandomSource random)
 	{
 		super(random, "40");
@@ -86,6 +96,40 @@ public class OptimizationSearchParameter extends SearchParameters
 		utilityCalculationThreadpoolSize = size;
 	}
 
+	/**
+	 * @return the service running parallel utility calculations
+	 */
+	public IEvaluationService getEvaluationService()
+	{
+		if (evaluationService == null) {
+			return EvaluationService.getShared(utilityCalculationThreadpoolSize);
+		}
+		return evaluationService;
+	}
+
+	/**
+	 * @param evaluationService the service running parallel utility
+	 *        calculations, null for the shared one
+	 */
+	public void setEvaluationService(IEvaluationService evaluationService)
+	{
+		this.evaluationService = evaluationService;
+	}
+
+	public IRemoteEvaluator getRemoteEvaluator()
+	{
+		return remoteEvaluator;
+	}
+
+	/**
+	 * @param remoteEvaluator the evaluator running utility calculations on
+	 *        worker processes, null to calculate locally
+	 */
+	public void setRemoteEvaluator(IRemoteEvaluator remoteEvaluator)
+	{
+		this.remoteEvaluator = remoteEvaluator;
+	}
+
 	/**
 	 * @return the groups
 	 */
@@ -107,8 +151,11 @@ public class OptimizationSearchParameter extends SearchParameters
 
 	public IFitnessCalculator createFitnessCalculationStrategy()
 	{
+		if (remoteEvaluator != null) {
+			return new RemoteFitnessCalculator(remoteEvaluator);
+		}
 		if (utilityCalculationThreadpoolSize > 1) {
-			return new ParallelFitnessCalculator(utilityCalculationThreadpoolSize);
+			return new ParallelFitnessCalculator(getEvaluationService(), utilityCalculationThreadpoolSize);
 		}
 		return new SerialFitnessCalculator();
 	}
@@ -54,6 +54,9 @@ public abstract class OptimizationStateGroup implements IOptimizationStateGroup
 	/** fitness calculation strategy */
 	private IFitnessCalculator fitnessCalculator;
 
+	/** the time (as System.currentTimeMillis()) at which breeding has to stop */
+	private long deadline = Long.MAX_VALUE;
+
 	/**
 	 * true if the utilities of states has been calculated during iteration,
 	 * false if the stateGroup has just been created
@@ -133,6 +136,7 @@ public abstract class OptimizationStateGroup implements IOptimizationStateGroup
 	public IOptimizationState breed(int iterations, long maxRuntime)
 	{
 		long start = System.currentTimeMillis();
+		deadline = maxRuntime < Long.MAX_VALUE - start ? start + maxRuntime : Long.MAX_VALUE;
 		IOptimizationState bestState = null;
 		runtime = 0;
 		int generationsStart = iteration;
@@ -159,6 +163,7 @@ public abstract class OptimizationStateGroup implements IOptimizationStateGroup
 			runtime = System.currentTimeMillis() - start;
 		}
 		interrupted = false;
+		deadline = Long.MAX_VALUE;
 		if (bestState == null) {
 			// no breeding possible
 			return null;
@@ -171,7 +176,7 @@ public abstract class OptimizationStateGroup implements IOptimizationStateGroup
 
 	public double calculateFitness()
 	{
-		return fitnessCalculator.calculateFitness(states);
+		return fitnessCalculator.calculateFitness(states, deadline);
 	}
 
 	//	private void printStates(List<List<IOptimizationState>> theStates)
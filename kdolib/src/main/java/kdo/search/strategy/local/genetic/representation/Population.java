@@ -9,10 +9,15 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import kdo.domain.IGeneticProblem;
 import kdo.domain.IIndividuum;
 import kdo.domain.IOptimizationProblem;
 import kdo.domain.IOptimizationState;
+import kdo.search.IEvaluationService;
 import kdo.search.strategy.local.genetic.IMutation;
 import kdo.search.strategy.local.genetic.IOptimizationStateGroup;
 import kdo.search.strategy.local.genetic.IPopulation;
@@ -45,6 +50,12 @@ public class Population extends OptimizationStateGroup implements IPopulation, I
 	/** the number of parents a new individuum has */
 	private final int parentsPerIndividuum;
 
+	/** the number of evaluations of the last steady state breeding */
+	private long evaluations;
+
+	/** the evaluations per second of the last steady state breeding */
+	private double evaluationsPerSecond;
+
 	/**
 	 * @param domain the domain on which the population is breeded
 	 * @param numberOfGenders the number of genders into which the population is
@@ -149,6 +160,168 @@ public class Population extends OptimizationStateGroup implements IPopulation, I
 		return true;
 	}
 
+	/**
+	 * Breeds the population asynchronously. Each finished evaluation
+	 * immediately creates a new individuum by selection, crossover and
+	 * mutation, so evaluations of varying duration do not wait for the slowest
+	 * individuum of a generation. An evaluated individuum replaces the worst
+	 * of its gender if it is better. The evaluations a generational breeding
+	 * would do in one generation count as one generation.
+	 * @param generations the number of generations to run
+	 * @param maxRuntime the maximal time to breed in ms
+	 * @param service the service running the evaluations
+	 * @param maxConcurrent the number of evaluations running at the same time
+	 * @return the best state in the final population
+	 */
+	public IOptimizationState breedSteadyState(
+			int generations, long maxRuntime, IEvaluationService service, int maxConcurrent)
+	{
+		long start = System.currentTimeMillis();
+		IOptimizationState bestState = null;
+		runtime = 0;
+		evaluations = 0;
+		evaluationsPerSecond = 0;
+		int generationsStart = iteration;
+		avgUtility = calculateFitness();
+		sortIndividuums();
+		utilitiesCalculated = true;
+		runtime = System.currentTimeMillis() - start;
+
+		int genders = states.size();
+		int perGeneration = Math.max(1, numberOfStates - oldToNewGenerationCount * genders);
+		long maxEvaluations = (long) generations * perGeneration;
+		long submitted = 0;
+		BlockingQueue<Evaluation> finished = new LinkedBlockingQueue<>();
+		List<Evaluation> running = new ArrayList<>();
+		bestState = findBestState(bestState);
+		long steadyStateStart = System.nanoTime();
+
+		while (!canStop(generationsStart + generations, maxRuntime)) {
+			while (running.size() < maxConcurrent && submitted < maxEvaluations) {
+				int gender = (int) (submitted % genders);
+				running.add(submitEvaluation(service, finished, createChild(gender, (int) submitted), gender));
+				submitted++;
+			}
+
+			Evaluation evaluation;
+			try {
+				evaluation = finished.poll(Math.min(100, Math.max(1, maxRuntime - runtime)), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			runtime = System.currentTimeMillis() - start;
+			if (evaluation == null) {
+				continue;
+			}
+			running.remove(evaluation);
+			evaluations++;
+			if (!evaluation.failed) {
+				replaceWorst(evaluation.gender, evaluation.state);
+			}
+
+			if (evaluations % perGeneration == 0) {
+				age();
+				iteration++;
+				avgUtility = calculateAverageUtility();
+				calculateAverageDiversity(states);
+				bestState = findBestState(bestState);
+				if (expensiveUtilityCalculation) {
+					System.out.println("generation: " + iteration + " average: " + avgUtility +
+									   " best: " + bestState.getUtility() + " runtime: " + runtime);
+				}
+			}
+		}
+
+		for (Evaluation evaluation : running) {
+			evaluation.future.cancel(true);
+		}
+		runtime = System.currentTimeMillis() - start;
+		evaluationsPerSecond = evaluations * 1e9 / Math.max(1, System.nanoTime() - steadyStateStart);
+		System.out.println("steady state evaluations: " + evaluations + " runtime: " + runtime +
+						   " evaluations/s: " + evaluationsPerSecond);
+		interrupted = false;
+		bestState = findBestState(bestState);
+		if (observer != null) {
+			observer.update(this);
+		}
+		return bestState;
+	}
+
+	/**
+	 * Creates a new individuum from parents selected from the current
+	 * population
+	 * @param gender the gender of the new individuum
+	 * @param generated the number of individuums created so far
+	 * @return the new (mutated) individuum
+	 */
+	@SuppressWarnings("unchecked")
+	private IOptimizationState createChild(int gender, int generated)
+	{
+		int genders = states.size();
+		List<IIndividuum> indiList = (List<IIndividuum>) (List<?>) states.get(gender);
+		selectionStrategy.onBeforeSelection(indiList);
+
+		IIndividuum[] parents = new IIndividuum[parentsPerIndividuum];
+		for (int parentgender = 0; parentgender < parentsPerIndividuum; parentgender++) {
+			List<IIndividuum> otherGender = (List<IIndividuum>) (List<?>) states.get((gender + parentgender) % genders);
+			parents[parentgender] =
+					selectionStrategy.selectIndividuum(this, otherGender, generated, parents, parentgender);
+		}
+		IOptimizationState child = reproductionStrategy.crossOver(parents);
+		mutationStrategy.mutate(Collections.singletonList((IIndividuum) child));
+		return child;
+	}
+
+	private Evaluation submitEvaluation(
+			IEvaluationService service, BlockingQueue<Evaluation> finished, IOptimizationState state, int gender)
+	{
+		Evaluation evaluation = new Evaluation(state, gender);
+		evaluation.future = service.submit(() -> {
+			try {
+				state.calculateUtility();
+			} catch (RuntimeException e) {
+				evaluation.failed = true;
+				throw e;
+			} finally {
+				finished.add(evaluation);
+			}
+			return null;
+		});
+		return evaluation;
+	}
+
+	/**
+	 * Replaces the worst individuum of the passed gender if the passed
+	 * individuum is better. The list of the gender stays sorted.
+	 */
+	private void replaceWorst(int gender, IOptimizationState state)
+	{
+		List<IOptimizationState> indiList = states.get(gender);
+		if (stateComparator.compare(state, indiList.get(0)) <= 0) {
+			return;
+		}
+		indiList.remove(0);
+		int index = Collections.binarySearch(indiList, state, stateComparator);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		indiList.add(index, state);
+	}
+
+	private double calculateAverageUtility()
+	{
+		double sum = 0;
+		int n = 0;
+		for (List<IOptimizationState> indiList : states) {
+			for (IOptimizationState state : indiList) {
+				sum += state.getUtility();
+				n++;
+			}
+		}
+		return sum / n;
+	}
+
 	/**
 	 * Adds one to the age of each individuum
 	 */
@@ -457,6 +630,22 @@ public class Population extends OptimizationStateGroup implements IPopulation, I
 		return parentsPerIndividuum;
 	}
 
+	/**
+	 * @return the number of evaluations of the last steady state breeding
+	 */
+	public long getEvaluations()
+	{
+		return evaluations;
+	}
+
+	/**
+	 * @return the evaluations per second of the last steady state breeding
+	 */
+	public double getEvaluationsPerSecond()
+	{
+		return evaluationsPerSecond;
+	}
+
 	/**
 	 * @return the utilitiesCalculated
 	 */
@@ -465,4 +654,24 @@ public class Population extends OptimizationStateGroup implements IPopulation, I
 	{
 		return utilitiesCalculated;
 	}
+
+	/**
+	 * An individuum submitted for evaluation in steady state breeding
+	 */
+	private static class Evaluation
+	{
+		private final IOptimizationState state;
+
+		private final int gender;
+
+		private Future<?> future;
+
+		private volatile boolean failed;
+
+		Evaluation(IOptimizationState state, int gender)
+		{
+			this.state = state;
+			this.gender = gender;
+		}
+	}
 }
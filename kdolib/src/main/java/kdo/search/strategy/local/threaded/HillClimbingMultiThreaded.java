@@ -5,26 +5,33 @@
 
 package kdo.search.strategy.local.threaded;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 import kdo.domain.IOperator;
 import kdo.domain.IProblem;
 import kdo.domain.IProblemState;
+import kdo.search.IEvaluationService;
+import kdo.search.impl.EvaluationService;
 import kdo.search.strategy.local.HillClimbing;
 
 public class HillClimbingMultiThreaded extends HillClimbing
 {
-	/** the thread pool to run the neighborhood exploration */
-	private ExecutorService pool;
+	/** the service to run the neighborhood exploration */
+	private final IEvaluationService service;
 
-	/** the size of the thread pool */
+	/** the maximal number of neighbors evaluated at the same time */
 	private int threadPoolSize;
 
 	public HillClimbingMultiThreaded(long maxRuntime, long maxCycles, int threadPoolSize)
+	{
+		this(maxRuntime, maxCycles, EvaluationService.getShared(threadPoolSize), threadPoolSize);
+	}
+
+	public HillClimbingMultiThreaded(long maxRuntime, long maxCycles, IEvaluationService service, int threadPoolSize)
 	{
 		super("HillClimbing_MultiThreaded", maxRuntime, maxCycles);
+		this.service = service;
 		this.threadPoolSize = threadPoolSize;
 	}
 
@@ -32,17 +39,11 @@ public class HillClimbingMultiThreaded extends HillClimbing
 	protected Iterator<IOperator> exploreNeighborhood(IProblem problem, IProblemState currentState)
 	{
 		Iterator<IOperator> operatorIterator = neighborhoodIterator(currentState);
-		try {
-			pool = Executors.newFixedThreadPool(threadPoolSize);
-			while (operatorIterator.hasNext()) {
-				pool.execute(new Handler(currentState, operatorIterator.next()));
-			}
-			pool.shutdown();
-			pool.awaitTermination(getRemainingRuntime(), TimeUnit.SECONDS);
-
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+		List<Handler> handlers = new ArrayList<>();
+		while (operatorIterator.hasNext()) {
+			handlers.add(new Handler(currentState, operatorIterator.next()));
 		}
+		service.evaluateAll(handlers, threadPoolSize, getDeadline());
 		return operatorIterator;
 	}
 
@@ -4,13 +4,14 @@
  */
 package kdo.search.strategy.local.threaded;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 import kdo.domain.IOperator;
 import kdo.domain.IProblem;
 import kdo.domain.IProblemState;
+import kdo.search.IEvaluationService;
+import kdo.search.impl.EvaluationService;
 import kdo.search.strategy.local.TabuSearch;
 
 /**
@@ -23,10 +24,10 @@ public class TabuSearchMultiThreaded extends TabuSearch
 	/** used to synchronize threads on */
 	private final Object synchroObject;
 
-	/** the thread pool to run the neighborhood exploration */
-	private ExecutorService pool;
+	/** the service to run the neighborhood exploration */
+	private final IEvaluationService service;
 
-	/** the size of the threadpool */
+	/** the maximal number of neighbors evaluated at the same time */
 	private int threadPoolSize;
 
 	/**
@@ -35,13 +36,32 @@ public class TabuSearchMultiThreaded extends TabuSearch
 	 * @param maxIterations the maximal number of iterations done before stopping
 	 * @param maxRuntime the maximal runtime the search strategy may use for a
 	 *        single call to search, -1 if no time restriction
-	 * @param threadPoolSize the size of the thread pool to run with
+	 * @param threadPoolSize the maximal number of neighbors evaluated at the
+	 *        same time
 	 */
 	public TabuSearchMultiThreaded(int shortTermTabuSize, long maxIterations, long maxRuntime, int threadPoolSize)
+	{
+		this(shortTermTabuSize, maxIterations, maxRuntime, EvaluationService.getShared(threadPoolSize),
+				threadPoolSize);
+	}
+
+	/**
+	 * Constructor setting the size of the tabu list
+	 * @param shortTermTabuSize the size of the short term tabu list
+	 * @param maxIterations the maximal number of iterations done before stopping
+	 * @param maxRuntime the maximal runtime the search strategy may use for a
+	 *        single call to search, -1 if no time restriction
+	 * @param service the service to evaluate neighbors with
+	 * @param threadPoolSize the maximal number of neighbors evaluated at the
+	 *        same time
+	 */
+	public TabuSearchMultiThreaded(
+			int shortTermTabuSize, long maxIterations, long maxRuntime, IEvaluationService service, int threadPoolSize)
 	{
 		super("Tabu Search (parallel). shortTermTabuSize: " + shortTermTabuSize + " maxIterations: " + maxIterations +
 						" threads: " + threadPoolSize,
 				shortTermTabuSize, maxIterations, maxRuntime);
+		this.service = service;
 		this.threadPoolSize = threadPoolSize;
 		synchroObject = new Object();
 	}
@@ -49,18 +69,12 @@ public class TabuSearchMultiThreaded extends TabuSearch
 	@Override
 	protected void exploreNeighborhood(IProblem problem, IProblemState currentState)
 	{
-		try {
-			pool = Executors.newFixedThreadPool(threadPoolSize);
-			Iterator<IOperator> operatorIterator = neighborhoodIterator(currentState);
-			while (operatorIterator.hasNext()) {
-				pool.execute(new Handler(currentState, operatorIterator.next()));
-			}
-			pool.shutdown();
-			pool.awaitTermination(getRemainingRuntime(), TimeUnit.SECONDS);
-
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+		List<Handler> handlers = new ArrayList<>();
+		Iterator<IOperator> operatorIterator = neighborhoodIterator(currentState);
+		while (operatorIterator.hasNext()) {
+			handlers.add(new Handler(currentState, operatorIterator.next()));
 		}
+		service.evaluateAll(handlers, threadPoolSize, getDeadline());
 	}
 
 	/**
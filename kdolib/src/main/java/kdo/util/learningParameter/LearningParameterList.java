@@ -10,6 +10,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import kdo.util.parameter.IParameterList;
 import kdo.util.parameter.Parameter;
+import kdo.util.parameter.ParameterList;
 
 /**
  * Base class for sets of parameters used to modify Behaviors
@@ -23,6 +24,12 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 
 	private Map<String, ParameterDecorator> parameters;
 
+	/** the parameters subject to learning in chromosom order */
+	private ParameterDecorator[] learnedParams;
+
+	/** the slot of each learned parameter if the decoratee is a parameter list, null otherwise */
+	private int[] learnedSlots;
+
 	public LearningParameterList(IParameterList decoratee, Map<String, LearningParameter> learnInfo)
 	{
 		this.decoratee = decoratee;
@@ -36,6 +43,21 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 			}
 			parameters.put(key, new ParameterDecorator(params.get(key), range));
 		}
+
+		learnedParams = new ParameterDecorator[getNoOfLearnedParams(parameters)];
+		int j = 0;
+		for (ParameterDecorator param : parameters.values()) {
+			if (param.shouldBeLearned()) {
+				learnedParams[j++] = param;
+			}
+		}
+		if (decoratee instanceof ParameterList) {
+			ParameterList list = (ParameterList) decoratee;
+			learnedSlots = new int[learnedParams.length];
+			for (int i = 0; i < learnedParams.length; i++) {
+				learnedSlots[i] = list.getSlot(learnedParams[i].getName());
+			}
+		}
 	}
 
 	/**
@@ -44,14 +66,9 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 	@Override
 	public float[] toChromosom()
 	{
-		int learnedParams = getNoOfLearnedParams();
-		float[] result = new float[learnedParams];
-		int j = 0;
-		for (ParameterDecorator param : parameters.values()) {
-			if (param.shouldBeLearned()) {
-				result[j] = param.getValue();
-				j++;
-			}
+		float[] result = new float[learnedParams.length];
+		for (int i = 0; i < learnedParams.length; i++) {
+			result[i] = learnedParams[i].getValue();
 		}
 		return result;
 	}
@@ -59,14 +76,9 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 	@Override
 	public float[] getStepSizes()
 	{
-		int learnedParams = getNoOfLearnedParams();
-		float[] result = new float[learnedParams];
-		int j = 0;
-		for (ParameterDecorator param : parameters.values()) {
-			if (param.shouldBeLearned()) {
-				result[j] = param.getStepSize();
-				j++;
-			}
+		float[] result = new float[learnedParams.length];
+		for (int i = 0; i < learnedParams.length; i++) {
+			result[i] = learnedParams[i].getStepSize();
 		}
 		return result;
 	}
@@ -74,14 +86,9 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 	@Override
 	public float[] getMinValues()
 	{
-		int learnedParams = getNoOfLearnedParams();
-		float[] result = new float[learnedParams];
-		int j = 0;
-		for (ParameterDecorator param : parameters.values()) {
-			if (param.shouldBeLearned()) {
-				result[j] = param.getMinValue();
-				j++;
-			}
+		float[] result = new float[learnedParams.length];
+		for (int i = 0; i < learnedParams.length; i++) {
+			result[i] = learnedParams[i].getMinValue();
 		}
 		return result;
 	}
@@ -89,14 +96,9 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 	@Override
 	public float[] getMaxValues()
 	{
-		int learnedParams = getNoOfLearnedParams();
-		float[] result = new float[learnedParams];
-		int j = 0;
-		for (ParameterDecorator param : parameters.values()) {
-			if (param.shouldBeLearned()) {
-				result[j] = param.getMaxValue();
-				j++;
-			}
+		float[] result = new float[learnedParams.length];
+		for (int i = 0; i < learnedParams.length; i++) {
+			result[i] = learnedParams[i].getMaxValue();
 		}
 		return result;
 	}
@@ -105,6 +107,11 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 	 * @return the number of parameters that are subject to learning
 	 */
 	public int getNoOfLearnedParams()
+	{
+		return learnedParams.length;
+	}
+
+	private static int getNoOfLearnedParams(Map<String, ParameterDecorator> parameters)
 	{
 		int result = 0;
 		for (ParameterDecorator param : parameters.values()) {
@@ -124,13 +131,16 @@ public class LearningParameterList implements Serializable, ILearningParameterLi
 	@Override
 	public void fromChromosom(float[] chromosom)
 	{
-		ParameterDecorator[] params = parameters.values().toArray(new ParameterDecorator[0]);
-		int j = 0;
-		for (int i = 0; i < chromosom.length; i++, j++) {
-			while (!params[j].shouldBeLearned()) {
-				j++;
+		if (learnedSlots != null) {
+			// write directly into the values of the decorated list
+			float[] values = ((ParameterList) decoratee).getValues();
+			for (int i = 0; i < chromosom.length; i++) {
+				values[learnedSlots[i]] = chromosom[i];
 			}
-			params[j].setValue(chromosom[i]);
+			return;
+		}
+		for (int i = 0; i < chromosom.length; i++) {
+			learnedParams[i].setValue(chromosom[i]);
 		}
 	}
 
@@ -5,6 +5,11 @@
 
 package kdo.util.parameter;
 
+/**
+ * Parameter list containing at least the constants of an enum. Since these are
+ * added first, the slot of each constant is its ordinal.
+ * @author kdorer
+ */
 @SuppressWarnings("serial")
 public class EnumParameterList<T extends Enum<T>> extends ParameterList
 {
@@ -12,7 +17,7 @@ public class EnumParameterList<T extends Enum<T>> extends ParameterList
 	{
 		super();
 		for (T constant : enumType.getEnumConstants()) {
-			put(constant, 0);
+			put(constant.name(), 0);
 		}
 		setValues();
 	}
@@ -23,11 +28,11 @@ public class EnumParameterList<T extends Enum<T>> extends ParameterList
 
 	final public float get(T param)
 	{
-		return get(param.name());
+		return get(param.ordinal());
 	}
 
 	public void put(T param, float value)
 	{
-		put(param.name(), value);
+		set(param.ordinal(), value);
 	}
 }
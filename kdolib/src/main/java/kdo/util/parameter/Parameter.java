@@ -11,16 +11,34 @@ public class Parameter
 
 	private float value;
 
+	/** the list keeping the value of this parameter, null if kept here */
+	private final ParameterList list;
+
+	/** the slot of this parameter in the list */
+	private final int slot;
+
 	public Parameter(String name)
 	{
 		this.name = name;
 		this.value = 0;
+		this.list = null;
+		this.slot = -1;
+	}
+
+	/**
+	 * Creates a parameter that is a view on a slot of the values of a list
+	 */
+	Parameter(String name, ParameterList list, int slot)
+	{
+		this.name = name;
+		this.list = list;
+		this.slot = slot;
 	}
 
 	@Override
 	public String toString()
 	{
-		return name + " = " + value;
+		return name + " = " + getValue();
 	}
 
 	public String getName()
@@ -30,11 +48,18 @@ public class Parameter
 
 	public float getValue()
 	{
+		if (list != null) {
+			return list.get(slot);
+		}
 		return value;
 	}
 
 	public void setValue(float value)
 	{
-		this.value = value;
+		if (list != null) {
+			list.set(slot, value);
+		} else {
+			this.value = value;
+		}
 	}
 }
@@ -0,0 +1,99 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.util.parameter;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns each parameter name an integer slot in the order the names are
+ * added. Names are resolved to slots once so that values can be kept and
+ * accessed in a float array.
+ * @author Klaus Dorer
+ */
+@SuppressWarnings("serial")
+public class ParameterLayout implements Serializable
+{
+	/** the slot of each name */
+	private final Map<String, Integer> slots;
+
+	/** the name of each slot */
+	private final List<String> names;
+
+	public ParameterLayout()
+	{
+		slots = new HashMap<>();
+		names = new ArrayList<>();
+	}
+
+	/**
+	 * @param name the name of the parameter
+	 * @return the slot of the parameter, -1 if it is not part of this layout
+	 */
+	public int getSlot(String name)
+	{
+		Integer slot = slots.get(name);
+		return slot == null ? -1 : slot;
+	}
+
+	/**
+	 * @param names the names of the parameters
+	 * @return the slots of the parameters, -1 for names not part of this layout
+	 */
+	public int[] getSlots(String... names)
+	{
+		int[] result = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			result[i] = getSlot(names[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the passed name if it is not yet part of this layout.
+	 * @param name the name of the parameter
+	 * @return the slot of the parameter
+	 */
+	public int add(String name)
+	{
+		Integer slot = slots.get(name);
+		if (slot != null) {
+			return slot;
+		}
+		slots.put(name, names.size());
+		names.add(name);
+		return names.size() - 1;
+	}
+
+	/**
+	 * @param slot the slot of the parameter
+	 * @return the name of the parameter in the passed slot
+	 */
+	public String getName(int slot)
+	{
+		return names.get(slot);
+	}
+
+	/**
+	 * @return the names of all parameters in slot order
+	 */
+	public List<String> getNames()
+	{
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * @return the number of slots
+	 */
+	public int size()
+	{
+		return names.size();
+	}
+}
@@ -6,12 +6,15 @@
 package kdo.util.parameter;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * Base class for sets of parameters used to modify Behaviors
+ * Base class for sets of parameters used to modify Behaviors. The values are
+ * kept in a float array in the slots of a {@link ParameterLayout}, so that
+ * subclasses can resolve names once and access values by slot.
  * @author Klaus Dorer
  */
 @SuppressWarnings("serial")
@@ -20,9 +23,17 @@ public class ParameterList implements Serializable, IParameterList
 	/** parameters used by the underlying behavior */
 	protected Map<String, Parameter> parameters;
 
+	/** the slot of each parameter in the values array */
+	private final ParameterLayout layout;
+
+	/** the values of the parameters in the slots of the layout */
+	private float[] values;
+
 	public ParameterList()
 	{
 		parameters = new LinkedHashMap<>();
+		layout = new ParameterLayout();
+		values = new float[16];
 	}
 
 	@Override
@@ -33,18 +44,76 @@ public class ParameterList implements Serializable, IParameterList
 
 	final public float get(String key)
 	{
-		if (!parameters.containsKey(key)) {
+		int slot = layout.getSlot(key);
+		if (slot < 0) {
 			return 0;
 		}
-		return parameters.get(key).getValue();
+		return values[slot];
 	}
 
 	final public void put(String key, float value)
 	{
-		if (!parameters.containsKey(key)) {
-			parameters.put(key, new Parameter(key));
+		int slot = layout.getSlot(key);
+		if (slot < 0) {
+			slot = layout.add(key);
+			if (slot >= values.length) {
+				values = Arrays.copyOf(values, Math.max(slot + 1, values.length * 2));
+			}
+			parameters.put(key, new Parameter(key, this, slot));
+		}
+		values[slot] = value;
+	}
+
+	/**
+	 * @return the layout assigning each parameter its slot
+	 */
+	public ParameterLayout getLayout()
+	{
+		return layout;
+	}
+
+	/**
+	 * @param key the name of the parameter
+	 * @return the slot of the parameter, -1 if there is no such parameter
+	 */
+	public int getSlot(String key)
+	{
+		return layout.getSlot(key);
+	}
+
+	/**
+	 * @param slot the slot of the parameter as returned by {@link #getSlot(String)}
+	 * @return the value of the parameter, 0 for slot -1
+	 */
+	final public float get(int slot)
+	{
+		if (slot < 0) {
+			return 0;
+		}
+		return values[slot];
+	}
+
+	/**
+	 * @param slot the slot of the parameter as returned by {@link #getSlot(String)}
+	 * @param value the new value of the parameter
+	 */
+	final public void set(int slot, float value)
+	{
+		values[slot] = value;
+	}
+
+	/**
+	 * Provides the values of all parameters in slot order without copying, e.g.
+	 * to be used as chromosome by learning. Changes to the array change the
+	 * parameters. The array is replaced if parameters are added later.
+	 * @return the values of all parameters in the slots of the layout
+	 */
+	public float[] getValues()
+	{
+		if (values.length != layout.size()) {
+			values = Arrays.copyOf(values, layout.size());
 		}
-		parameters.get(key).setValue(value);
+		return values;
 	}
 
 	@Override
@@ -0,0 +1,62 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import kdo.search.impl.SearchParameters;
+import kdo.search.strategy.local.cmaes.impl.ParallelCMAES;
+import kdo.search.strategy.local.cmaes.impl.ParallelCMAES.RestartStrategy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link LearningConfigurationHelper} class
+ */
+public class LearningConfigurationHelperTest
+{
+	@Test
+	public void testParallelCMAESParameters()
+	{
+		SearchParameters params = new SearchParameters(null, "parallelcmaes");
+		params.setMaxRuntime(1234);
+		params.setStrategyParameter("RestartStrategy", 2);
+		params.setStrategyTextParameter("Checkpoint", "cmaes.checkpoint");
+
+		ParallelCMAES testee = (ParallelCMAES) LearningConfigurationHelper.getLocalSearchStrategy(params, 4);
+
+		assertEquals(1234, testee.getMaxRuntime());
+		assertEquals(new File("cmaes.checkpoint"), testee.getCheckpointFile());
+		assertEquals(RestartStrategy.BIPOP, testee.getRestartStrategy());
+	}
+
+	@Test
+	public void testParallelCMAESWithoutCheckpoint()
+	{
+		SearchParameters params = new SearchParameters(null, "parallelcmaes");
+
+		ParallelCMAES testee = (ParallelCMAES) LearningConfigurationHelper.getLocalSearchStrategy(params, 4);
+
+		assertNull(testee.getCheckpointFile());
+		assertEquals(RestartStrategy.NONE, testee.getRestartStrategy());
+	}
+
+	@Test
+	public void testParallelCMAESInvalidRestartStrategy()
+	{
+		SearchParameters params = new SearchParameters(null, "parallelcmaes");
+		params.setStrategyParameter("RestartStrategy", 3);
+
+		assertThrows(
+				IllegalArgumentException.class, () -> LearningConfigurationHelper.getLocalSearchStrategy(params, 4));
+
+		params.setStrategyParameter("RestartStrategy", -1);
+		assertThrows(
+				IllegalArgumentException.class, () -> LearningConfigurationHelper.getLocalSearchStrategy(params, 4));
+	}
+}
@@ -0,0 +1,208 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import kdo.search.EvaluationStatistics;
+import kdo.search.IEvaluationService;
+import kdo.search.impl.EvaluationService.Backend;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link EvaluationService} class
+ */
+public class EvaluationServiceTest
+{
+	@Test
+	public void testAllBackendsRunAllEvaluations() throws Exception
+	{
+		for (Backend backend : Backend.values()) {
+			EvaluationService testee = new EvaluationService(backend, 3);
+			AtomicInteger counter = new AtomicInteger();
+			List<Runnable> evaluations = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				evaluations.add(counter::incrementAndGet);
+			}
+
+			assertTrue(testee.evaluateAll(evaluations, 0, IEvaluationService.NO_DEADLINE));
+			assertEquals(50, counter.get(), backend.name());
+			// the service can be reused for further calls
+			assertTrue(testee.evaluateAll(evaluations, 2, IEvaluationService.NO_DEADLINE));
+			assertEquals(100, counter.get(), backend.name());
+			assertEquals(7, (int) testee.submit(() -> 7).get());
+
+			EvaluationStatistics statistics = testee.getStatistics();
+			assertEquals(101, statistics.getEvaluations(), backend.name());
+			assertEquals(0, statistics.getCancelled());
+			testee.shutdown();
+		}
+	}
+
+	@Test
+	public void testConcurrencyIsLimited()
+	{
+		for (Backend backend : Backend.values()) {
+			EvaluationService testee = new EvaluationService(backend, 4);
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			List<Runnable> evaluations = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				evaluations.add(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					sleep(5);
+					running.decrementAndGet();
+				});
+			}
+
+			assertTrue(testee.evaluateAll(evaluations, 2, IEvaluationService.NO_DEADLINE));
+			assertTrue(maxRunning.get() <= 2, backend + " running: " + maxRunning.get());
+
+			maxRunning.set(0);
+			assertTrue(testee.evaluateAll(evaluations, 0, IEvaluationService.NO_DEADLINE));
+			assertTrue(maxRunning.get() <= 4, backend + " running: " + maxRunning.get());
+			testee.shutdown();
+		}
+	}
+
+	@Test
+	public void testEvaluationsAreCancelledAtDeadline()
+	{
+		for (Backend backend : Backend.values()) {
+			EvaluationService testee = new EvaluationService(backend, 2);
+			AtomicInteger finished = new AtomicInteger();
+			List<Runnable> evaluations = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				evaluations.add(() -> {
+					try {
+						Thread.sleep(200);
+						finished.incrementAndGet();
+					} catch (InterruptedException e) {
+						// cancelled
+					}
+				});
+			}
+
+			long start = System.currentTimeMillis();
+			assertFalse(testee.evaluateAll(evaluations, 0, start + 50), backend.name());
+			assertTrue(System.currentTimeMillis() - start < 1000, backend.name());
+			assertEquals(10, testee.getStatistics().getCancelled(), testee.toString());
+
+			// running evaluations have been interrupted and do not finish later
+			sleep(400);
+			assertEquals(0, finished.get(), backend.name());
+			assertEquals(0, testee.getStatistics().getEvaluations(), backend.name());
+
+			// the interrupt does not leak into later evaluations
+			AtomicInteger interrupted = new AtomicInteger();
+			List<Runnable> later = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				later.add(() -> {
+					if (Thread.currentThread().isInterrupted()) {
+						interrupted.incrementAndGet();
+					}
+				});
+			}
+			assertTrue(testee.evaluateAll(later, 0, IEvaluationService.NO_DEADLINE), backend.name());
+			assertEquals(0, interrupted.get(), backend.name());
+			testee.shutdown();
+		}
+	}
+
+	@Test
+	public void testSubmittedEvaluationIsInterruptedOnCancel() throws Exception
+	{
+		for (Backend backend : Backend.values()) {
+			EvaluationService testee = new EvaluationService(backend, 2);
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch interrupted = new CountDownLatch(1);
+			Future<Integer> result = testee.submit(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(10000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return 1;
+			});
+
+			assertTrue(started.await(5, TimeUnit.SECONDS), backend.name());
+			assertTrue(result.cancel(true), backend.name());
+			assertTrue(interrupted.await(5, TimeUnit.SECONDS), backend.name());
+			testee.shutdown();
+		}
+	}
+
+	@Test
+	public void testThreadPerTaskParallelismCanGrow()
+	{
+		EvaluationService testee = new EvaluationService(Backend.THREAD_PER_TASK, 2);
+		testee.increaseParallelism(6);
+		assertEquals(6, testee.getParallelism());
+		testee.increaseParallelism(3);
+		assertEquals(6, testee.getParallelism());
+
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		List<Runnable> evaluations = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			evaluations.add(() -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(100);
+				running.decrementAndGet();
+			});
+		}
+		assertTrue(testee.evaluateAll(evaluations, 0, IEvaluationService.NO_DEADLINE));
+		assertTrue(maxRunning.get() > 2, "running: " + maxRunning.get());
+
+		// other backends keep their number of threads
+		EvaluationService fixed = new EvaluationService(Backend.FIXED_THREADS, 2);
+		fixed.increaseParallelism(6);
+		assertEquals(2, fixed.getParallelism());
+		testee.shutdown();
+		fixed.shutdown();
+	}
+
+	@Test
+	public void testFailingEvaluationDoesNotStopOthers()
+	{
+		EvaluationService testee = new EvaluationService(Backend.FORK_JOIN, 2);
+		AtomicInteger counter = new AtomicInteger();
+		List<Runnable> evaluations = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			final int index = i;
+			evaluations.add(() -> {
+				if (index == 3) {
+					throw new IllegalStateException("test failure");
+				}
+				counter.incrementAndGet();
+			});
+		}
+
+		assertTrue(testee.evaluateAll(evaluations, 0, IEvaluationService.NO_DEADLINE));
+		assertEquals(9, counter.get());
+		assertEquals(1, testee.getStatistics().getFailed());
+		assertEquals(9, testee.getStatistics().getEvaluations());
+		testee.shutdown();
+	}
+
+	private static void sleep(long millis)
+	{
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.remote.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import kdo.domain.IOptimizationState;
+import kdo.search.remote.IRemoteUtility;
+import kdo.search.strategy.local.genetic.fitness.RemoteFitnessCalculator;
+import kdo.util.learningParameter.ILearningParameterList;
+import kdo.util.learningParameter.LearningParameterMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for remote evaluation with {@link EvaluationCoordinator} and local
+ * stand-in {@link EvaluationWorker}s running a synthetic utility.
+ */
+public class EvaluationCoordinatorTest
+{
+	/** synthetic utility: negative squared distance to the origin */
+	private static final IRemoteUtility SPHERE = (chromosom, run) -> {
+		double sum = 0;
+		for (float gene : chromosom) {
+			sum += gene * gene;
+		}
+		return -sum;
+	};
+
+	private EvaluationCoordinator testee;
+
+	private final List<EvaluationWorker> workers = new ArrayList<>();
+
+	@AfterEach
+	public void tearDown()
+	{
+		for (EvaluationWorker worker : workers) {
+			worker.close();
+		}
+		if (testee != null) {
+			testee.close();
+		}
+	}
+
+	@Test
+	public void testEvaluateOnWorkersAndCache() throws Exception
+	{
+		testee = new EvaluationCoordinator(0, 2000, 3);
+		startWorker(SPHERE, 100);
+		startWorker(SPHERE, 100);
+
+		List<Future<Double>> results = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			results.add(testee.submit(new float[] {i, 1, 2}, 0));
+		}
+		for (int i = 0; i < 10; i++) {
+			assertEquals(-(i * i + 5), results.get(i).get(5, TimeUnit.SECONDS), 0.0001);
+		}
+		assertEquals(10, testee.getEvaluations());
+
+		assertEquals(-14, testee.calculateUtility(new float[] {3, 1, 2}, 0), 0.0001);
+		assertEquals(10, testee.getEvaluations());
+		assertEquals(1, testee.getCacheHits());
+
+		// another run of the same chromosom is evaluated again
+		assertEquals(-14, testee.calculateUtility(new float[] {3, 1, 2}, 1), 0.0001);
+		assertEquals(11, testee.getEvaluations());
+	}
+
+	@Test
+	public void testRequeueOnWorkerDeath() throws Exception
+	{
+		testee = new EvaluationCoordinator(0, 2000, 3);
+		CountDownLatch started = new CountDownLatch(1);
+		EvaluationWorker dying = startWorker((chromosom, run) -> {
+			started.countDown();
+			Thread.sleep(10000);
+			return 0;
+		}, 100);
+
+		Future<Double> result = testee.submit(new float[] {1, 2}, 0);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		startWorker(SPHERE, 100);
+		dying.close();
+
+		assertEquals(-5, result.get(5, TimeUnit.SECONDS), 0.0001);
+		assertEquals(1, testee.getRequeued());
+	}
+
+	@Test
+	public void testHeartbeatsKeepSlowEvaluationAlive() throws Exception
+	{
+		testee = new EvaluationCoordinator(0, 200, 1);
+		startWorker((chromosom, run) -> {
+			Thread.sleep(600);
+			return SPHERE.calculateUtility(chromosom, run);
+		}, 20);
+
+		assertEquals(-1, testee.submit(new float[] {1}, 0).get(5, TimeUnit.SECONDS), 0.0001);
+		assertEquals(0, testee.getRequeued());
+	}
+
+	@Test
+	public void testMissingHeartbeatsFailEvaluation() throws Exception
+	{
+		testee = new EvaluationCoordinator(0, 200, 1);
+		startWorker((chromosom, run) -> {
+			Thread.sleep(2000);
+			return 0;
+		}, 10000);
+
+		Future<Double> result = testee.submit(new float[] {1}, 0);
+		assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+
+		// failed results are not cached
+		startWorker(SPHERE, 100);
+		assertEquals(-1, testee.submit(new float[] {1}, 0).get(5, TimeUnit.SECONDS), 0.0001);
+	}
+
+	@Test
+	public void testUtilityExceptionFailsEvaluation() throws Exception
+	{
+		testee = new EvaluationCoordinator(0, 2000, 3);
+		startWorker((chromosom, run) -> {
+			throw new IllegalArgumentException("no simulator");
+		}, 100);
+
+		ExecutionException exception = assertThrows(
+				ExecutionException.class, () -> testee.submit(new float[] {1}, 0).get(5, TimeUnit.SECONDS));
+		assertTrue(exception.getCause().getMessage().contains("no simulator"));
+		assertEquals(0, testee.getRequeued());
+	}
+
+	@Test
+	public void testRemoteFitnessCalculator() throws Exception
+	{
+		testee = new EvaluationCoordinator(0, 2000, 3);
+		startWorker(SPHERE, 100);
+		startWorker(SPHERE, 100);
+
+		List<IOptimizationState> states = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			IOptimizationState state = mock(IOptimizationState.class);
+			when(state.getState()).thenReturn(new float[] {i});
+			when(state.getUtility()).thenReturn((float) -(i * i));
+			states.add(state);
+		}
+
+		double average = new RemoteFitnessCalculator(testee).calculateFitness(Collections.singletonList(states));
+
+		assertEquals(-7.5, average, 0.0001);
+		for (int i = 1; i <= 4; i++) {
+			verify(states.get(i - 1)).setUtility(-(i * i));
+		}
+	}
+
+	@Test
+	public void testLearningParameterUtility() throws Exception
+	{
+		float[][] received = new float[1][];
+		LearningParameterMap parameters = mock(LearningParameterMap.class);
+		ILearningParameterList list = mock(ILearningParameterList.class);
+		when(parameters.getParameter()).thenReturn(list);
+		doAnswer(invocation -> received[0] = invocation.getArgument(0)).when(list).fromChromosom(any());
+
+		IRemoteUtility utility = IRemoteUtility.ofLearningParameters(parameters, map -> received[0][0] * 2);
+
+		assertEquals(6, utility.calculateUtility(new float[] {3}, 0), 0.0001);
+		assertEquals("[3.0]", Arrays.toString(received[0]));
+	}
+
+	private EvaluationWorker startWorker(IRemoteUtility utility, long heartbeatInterval)
+	{
+		EvaluationWorker worker = new EvaluationWorker("localhost", testee.getPort(), utility, heartbeatInterval);
+		workers.add(worker);
+		worker.start();
+		return worker;
+	}
+}
@@ -0,0 +1,190 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.strategy.local.cmaes.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import kdo.domain.IOptimizationProblem;
+import kdo.domain.IOptimizationState;
+import kdo.search.impl.EvaluationService;
+import kdo.search.impl.EvaluationService.Backend;
+import kdo.search.strategy.local.cmaes.impl.ParallelCMAES.RestartStrategy;
+import kdo.util.RandomSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for the {@link ParallelCMAES} and {@link CMAESDistribution} classes
+ */
+public class ParallelCMAESTest
+{
+	private static final int DIMENSIONS = 4;
+
+	private IOptimizationProblem problem;
+
+	private AtomicInteger evaluations;
+
+	private Set<String> evaluationThreads;
+
+	/** the time in ms each evaluation takes */
+	private volatile long evaluationDelay;
+
+	@BeforeEach
+	public void setUp()
+	{
+		evaluations = new AtomicInteger();
+		evaluationDelay = 0;
+		evaluationThreads = ConcurrentHashMap.newKeySet();
+		problem = mock(IOptimizationProblem.class);
+		when(problem.isMaximize()).thenReturn(true);
+		when(problem.getMinValues()).thenReturn(filled(-5));
+		when(problem.getMaxValues()).thenReturn(filled(5));
+		when(problem.createState(any())).thenAnswer(invocation -> createState(invocation.getArgument(0)));
+	}
+
+	@Test
+	public void testDistributionMinimizesSphere()
+	{
+		RandomSource rand = new RandomSource(4711);
+		CMAESDistribution testee = new CMAESDistribution(new double[] {3, -2, 1, 4, -3}, 1, 0);
+		assertEquals(8, testee.getPopulationSize());
+
+		while (testee.getGeneration() < 1000 && !testee.shouldStop()) {
+			double[][] points = testee.ask(rand);
+			double[] costs = new double[points.length];
+			for (int i = 0; i < points.length; i++) {
+				for (double value : points[i]) {
+					costs[i] += value * value;
+				}
+			}
+			testee.tell(points, costs);
+		}
+
+		for (double value : testee.getMean()) {
+			assertEquals(0, value, 1e-5);
+		}
+	}
+
+	@Test
+	public void testSearchFindsOptimumWithParallelEvaluation()
+	{
+		EvaluationService service = new EvaluationService(Backend.FIXED_THREADS, 4);
+		ParallelCMAES testee =
+				new ParallelCMAES(new RandomSource(42), 12, 200, -1e-8, 0.3, RestartStrategy.NONE, 0);
+		testee.setEvaluationService(service, 0);
+
+		IOptimizationState result = (IOptimizationState) testee.search(createState(filled(4)));
+
+		assertTrue(result.getUtility() > -1e-4, "utility: " + result.getUtility());
+		for (float value : result.getState()) {
+			assertEquals(1, value, 0.01);
+		}
+		assertTrue(evaluationThreads.size() > 1, "threads: " + evaluationThreads);
+		assertEquals(evaluations.get(), service.getStatistics().getEvaluations());
+		service.shutdown();
+	}
+
+	@Test
+	public void testRestartsIncreasePopulation()
+	{
+		for (RestartStrategy strategy : new RestartStrategy[] {RestartStrategy.IPOP, RestartStrategy.BIPOP}) {
+			evaluations.set(0);
+			ParallelCMAES testee = new ParallelCMAES(new RandomSource(3), 6, 5, 1, 0.3, strategy, 3);
+			testee.search(createState(filled(4)));
+			// 4 runs of 5 generations with at least population size 6
+			assertTrue(evaluations.get() > 4 * 5 * 6, strategy + " evaluations: " + evaluations.get());
+		}
+	}
+
+	@Test
+	public void testResumeFromCheckpoint(@TempDir File directory)
+	{
+		EvaluationService service = new EvaluationService(Backend.FIXED_THREADS, 4);
+		File checkpoint = new File(directory, "cmaes.ser");
+		ParallelCMAES testee = new ParallelCMAES(new RandomSource(7), 8, 60, 1, 0.3, RestartStrategy.NONE, 0);
+		testee.setEvaluationService(service, 0);
+		testee.setCheckpointFile(checkpoint);
+		// interrupt the first search by its runtime, 60 generations take at least 600ms
+		testee.setMaxRuntime(300);
+		evaluationDelay = 5;
+		testee.search(createState(filled(4)));
+		assertTrue(checkpoint.exists());
+		int interruptedEvaluations = evaluations.get();
+		assertTrue(interruptedEvaluations < 60 * 8, "evaluations: " + interruptedEvaluations);
+
+		evaluationDelay = 0;
+		testee.setMaxRuntime(-1);
+		IOptimizationState result = (IOptimizationState) testee.search(createState(filled(4)));
+		assertFalse(checkpoint.exists());
+		assertTrue(result.getUtility() > -0.1, "utility: " + result.getUtility());
+		// the resumed search only runs the remaining generations
+		int resumedEvaluations = evaluations.get() - interruptedEvaluations;
+		assertTrue(resumedEvaluations < 60 * 8 - 8, "evaluations: " + resumedEvaluations);
+		service.shutdown();
+	}
+
+	/**
+	 * @return a state with a utility of minus the squared distance to 1
+	 */
+	private IOptimizationState createState(float[] chromosom)
+	{
+		IOptimizationState state = mock(IOptimizationState.class);
+		float[] utility = new float[1];
+		when(state.getState()).thenReturn(chromosom);
+		when(state.getProblem()).thenReturn(problem);
+		when(state.getUtility()).thenAnswer(invocation -> utility[0]);
+		doAnswer(invocation -> {
+			utility[0] = invocation.getArgument(0);
+			return null;
+		})
+				.when(state)
+				.setUtility(any(Float.class));
+		when(state.calculateFitness()).thenAnswer(invocation -> {
+			sleep(evaluationDelay);
+			if (Thread.currentThread().isInterrupted()) {
+				// cancelled evaluation
+				return 0f;
+			}
+			evaluations.incrementAndGet();
+			evaluationThreads.add(Thread.currentThread().getName());
+			float sum = 0;
+			for (float value : chromosom) {
+				sum += (value - 1) * (value - 1);
+			}
+			utility[0] = -sum;
+			return -sum;
+		});
+		return state;
+	}
+
+	private static float[] filled(float value)
+	{
+		float[] result = new float[DIMENSIONS];
+		Arrays.fill(result, value);
+		return result;
+	}
+
+	private static void sleep(long millis)
+	{
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.search.strategy.local.genetic.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import kdo.domain.IOptimizationState;
+import kdo.domain.IProblemState;
+import kdo.domain.approximation.model.FunctionProblem;
+import kdo.search.IEvaluationService;
+import kdo.search.impl.EvaluationService;
+import kdo.search.impl.EvaluationService.Backend;
+import kdo.search.strategy.local.genetic.representation.Population;
+import kdo.util.RandomSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the steady state mode of {@link GeneticSearch}
+ */
+public class GeneticSearchTest
+{
+	private IEvaluationService service;
+
+	private GeneticSearchParameter parameters;
+
+	@BeforeEach
+	public void setUp()
+	{
+		service = new EvaluationService(Backend.FIXED_THREADS, 4);
+		RandomSource rand = new RandomSource(4711);
+		parameters = new GeneticSearchParameter(rand);
+		parameters.setDomain(FunctionProblem.getInstance(rand));
+		parameters.setPopulationSize(20);
+		parameters.setGenders(2);
+		parameters.setOldToNew(0.1f);
+		parameters.setGenerations(5);
+		parameters.setEvaluationService(service);
+		parameters.setFitnessCalculationThreadpoolSize(4);
+		parameters.setSteadyState(true);
+	}
+
+	@AfterEach
+	public void tearDown()
+	{
+		service.shutdown();
+	}
+
+	@Test
+	public void testSteadyStateCountsGenerationsByEvaluations()
+	{
+		GeneticSearch testee = new GeneticSearch(parameters);
+		Population population = (Population) testee.getPopulation();
+		IOptimizationState initialBest = population.getBestIndividuum();
+
+		IProblemState result = testee.start();
+
+		assertNotNull(result);
+		// one individuum per gender is taken over in a generation
+		assertEquals(5 * 18, population.getEvaluations());
+		assertEquals(5, testee.getCurrentGeneration());
+		assertEquals(20, population.getAllIndividuums().size());
+		assertTrue(population.getEvaluationsPerSecond() > 0);
+		assertTrue(result.getUtility() >= initialBest.getUtility());
+	}
+
+	@Test
+	public void testSteadyStateWithOtherStrategies()
+	{
+		parameters.setSelectionStrategy(GeneticSearchParameter.MONTE_CARLO_SELECTION);
+		parameters.setMutationStrategy(GeneticSearchParameter.RANDOM_MUTATION);
+		parameters.setIndividuumMutationProbability(0.5f);
+		parameters.setReproductionStrategy(GeneticSearchParameter.MULTI_CROSSOVER_RECOMBINATION);
+		GeneticSearch testee = new GeneticSearch(parameters);
+
+		assertNotNull(testee.step());
+		assertEquals(1, testee.getCurrentGeneration());
+		assertNotNull(testee.step());
+		assertEquals(2, testee.getCurrentGeneration());
+		assertEquals(18, ((Population) testee.getPopulation()).getEvaluations());
+	}
+}
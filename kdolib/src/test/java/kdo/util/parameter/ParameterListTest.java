@@ -0,0 +1,119 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package kdo.util.parameter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import kdo.util.learningParameter.LearningParameter;
+import kdo.util.learningParameter.LearningParameterList;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link ParameterList} and {@link EnumParameterList} classes
+ */
+public class ParameterListTest
+{
+	private enum Param { A, B, C }
+
+	@SuppressWarnings("serial")
+	private static class TestParameters extends EnumParameterList<Param>
+	{
+		TestParameters()
+		{
+			super(Param.class);
+		}
+
+		@Override
+		protected void setValues()
+		{
+			put(Param.A, 1);
+			put(Param.B, 2);
+			put(Param.C, 3);
+		}
+	}
+
+	@Test
+	public void testEnumSlotsAreOrdinals()
+	{
+		TestParameters testee = new TestParameters();
+		for (Param param : Param.values()) {
+			assertEquals(param.ordinal(), testee.getSlot(param.name()));
+			assertEquals(param.ordinal() + 1, testee.get(param), 0.0001);
+			assertEquals(param.ordinal() + 1, testee.get(param.name()), 0.0001);
+		}
+	}
+
+	@Test
+	public void testStringAndSlotAccessShareValues()
+	{
+		ParameterList testee = new ParameterList();
+		for (int i = 0; i < 40; i++) {
+			testee.put("p" + i, i);
+		}
+		assertEquals(0, testee.get("unknown"), 0.0001);
+		assertEquals(-1, testee.getSlot("unknown"));
+		assertEquals(0, testee.get(-1), 0.0001);
+
+		int slot = testee.getSlot("p33");
+		assertEquals(33, slot);
+		testee.set(slot, 5);
+		assertEquals(5, testee.get("p33"), 0.0001);
+		assertEquals(5, testee.getParameters().get("p33").getValue(), 0.0001);
+
+		testee.getParameters().get("p7").setValue(-1);
+		assertEquals(-1, testee.get(7), 0.0001);
+		assertEquals("p7", testee.getLayout().getName(7));
+	}
+
+	@Test
+	public void testValuesAreNotCopied()
+	{
+		TestParameters testee = new TestParameters();
+		float[] values = testee.getValues();
+		assertArrayEquals(new float[] {1, 2, 3}, values, 0.0001f);
+
+		values[1] = 7;
+		assertEquals(7, testee.get(Param.B), 0.0001);
+		testee.put(Param.C, 8);
+		assertEquals(8, values[2], 0.0001);
+	}
+
+	@Test
+	public void testPutAfterGetValuesOfEmptyList()
+	{
+		ParameterList testee = new ParameterList();
+		assertEquals(0, testee.getValues().length);
+
+		testee.put("a", 1);
+		testee.put("b", 2);
+		assertEquals(1, testee.get("a"), 0.0001);
+		assertArrayEquals(new float[] {1, 2}, testee.getValues(), 0.0001f);
+	}
+
+	@Test
+	public void testLearningChromosom()
+	{
+		TestParameters testee = new TestParameters();
+		Map<String, LearningParameter> learnInfo = new HashMap<>();
+		learnInfo.put(Param.A.name(), new LearningParameter(true, 0.1f, -10, 10));
+		learnInfo.put(Param.B.name(), new LearningParameter(false, 0.1f, -10, 10));
+		learnInfo.put(Param.C.name(), new LearningParameter(true, 0.2f, -10, 10));
+		LearningParameterList learning = new LearningParameterList(testee, learnInfo);
+
+		assertEquals(2, learning.getNoOfLearnedParams());
+		assertArrayEquals(new float[] {1, 3}, learning.toChromosom(), 0.0001f);
+		assertArrayEquals(new float[] {0.1f, 0.2f}, learning.getStepSizes(), 0.0001f);
+
+		learning.fromChromosom(new float[] {4, 5});
+		assertEquals(4, testee.get(Param.A), 0.0001);
+		assertEquals(2, testee.get(Param.B), 0.0001);
+		assertEquals(5, testee.get(Param.C), 0.0001);
+		assertEquals(5, learning.get(Param.C.name()), 0.0001);
+	}
+}
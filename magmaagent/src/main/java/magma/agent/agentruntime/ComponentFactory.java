@@ -39,6 +39,7 @@ import magma.agent.decision.behavior.basic.SayPositions;
 import magma.agent.decision.behavior.basic.StopInstantly;
 import magma.agent.decision.behavior.supportPoint.FunctionBehavior;
 import magma.agent.decision.behavior.supportPoint.FunctionBehaviorParameters;
+import magma.agent.decision.behavior.supportPoint.JointTrajectoryTable;
 import magma.agent.decision.decisionmaker.impl.GoalieDecisionMaker;
 import magma.agent.decision.decisionmaker.impl.SoccerGoalieDecisionMaker;
 import magma.agent.model.agentmeta.IRoboCupAgentMetaModel;
@@ -53,7 +54,9 @@ import magma.agent.model.thoughtmodel.strategy.IRoleManager;
 import magma.agent.model.thoughtmodel.strategy.impl.RoleManager;
 import magma.agent.model.thoughtmodel.strategy.impl.strategies.StrategyConfigurationHelper;
 import magma.agent.model.worldmeta.IRoboCupWorldMetaModel;
+import magma.agent.model.worldmeta.ISayCodec;
 import magma.agent.model.worldmeta.RCServerConfigurationHelper;
+import magma.agent.model.worldmeta.impl.BitPackedSayCodec;
 import magma.agent.model.worldmodel.IRoboCupWorldModel;
 import magma.agent.model.worldmodel.impl.RoboCupWorldModel;
 import magma.util.roboviz.RoboVizDraw;
@@ -115,7 +118,17 @@ public abstract class ComponentFactory implements IBehaviorConstants
 	public IRoboCupWorldModel createWorldModel(
 			IRoboCupAgentModel agentModel, IRoboCupWorldMetaModel worldMetaModel, String teamName, int playerNumber)
 	{
-		return new RoboCupWorldModel(agentModel, createLocalizer(agentModel), worldMetaModel, teamName, playerNumber);
+		return new RoboCupWorldModel(
+				agentModel, createLocalizer(agentModel), worldMetaModel, teamName, playerNumber, createSayCodec());
+	}
+
+	/**
+	 * @return the codec for say messages, all players of a team have to use the
+	 *         same codec
+	 */
+	public ISayCodec createSayCodec()
+	{
+		return new BitPackedSayCodec();
 	}
 
 	public IRoboCupThoughtModel createThoughtModel(
@@ -193,6 +206,18 @@ public abstract class ComponentFactory implements IBehaviorConstants
 	 */
 	protected abstract String getBehaviorFilesBasePath();
 
+	/**
+	 * The joint functions of function behaviors can be sampled into tables at
+	 * startup which are cached next to the behavior files.
+	 *
+	 * @return the number of samples per cycle, 0 to evaluate the joint functions
+	 *         in each cycle
+	 */
+	protected int getFunctionBehaviorSubSteps()
+	{
+		return JointTrajectoryTable.DEFAULT_SUB_STEPS;
+	}
+
 	/**
 	 * Create all specific behavior objects.
 	 *
@@ -230,6 +255,19 @@ public abstract class ComponentFactory implements IBehaviorConstants
 			return;
 		}
 
+		int subSteps = getFunctionBehaviorSubSteps();
+		if (subSteps > 0) {
+			JointTrajectoryTable table = JointTrajectoryTable.loadShared(filePath, subSteps);
+			String name = table.getName();
+			if (table.getMirror()) {
+				behaviors.put(new FunctionBehavior(name + "Right", thoughtModel, table, filePath, false));
+				behaviors.put(new FunctionBehavior(name + "Left", thoughtModel, table, filePath, true));
+			} else {
+				behaviors.put(new FunctionBehavior(name, thoughtModel, table, filePath, false));
+			}
+			return;
+		}
+
 		FunctionBehaviorParameters parameters = FunctionBehaviorParameters.readBehaviorFile(filePath);
 		String name = parameters.getName();
 		if (parameters.getMirror()) {
@@ -26,6 +26,7 @@ import magma.agent.model.thoughtmodel.IKickPositionProfiler;
 import magma.agent.model.thoughtmodel.IRoboCupThoughtModel;
 import magma.agent.model.thoughtmodel.strategy.IRoleManager;
 import magma.agent.model.worldmeta.IRoboCupWorldMetaModel;
+import magma.agent.model.worldmeta.ISayCodec;
 import magma.agent.model.worldmodel.IRoboCupWorldModel;
 import magma.util.roboviz.RoboVizDraw;
 
@@ -81,6 +82,12 @@ public class ComponentFactoryDecorator extends ComponentFactory
 		return decoratee.createWorldModel(agentModel, metaModel, teamName, playerNumber);
 	}
 
+	@Override
+	public ISayCodec createSayCodec()
+	{
+		return decoratee.createSayCodec();
+	}
+
 	@Override
 	public IRoboCupThoughtModel createThoughtModel(
 			IAgentModel agentModel, IRoboCupWorldModel worldModel, RoboVizDraw roboVizDraw)
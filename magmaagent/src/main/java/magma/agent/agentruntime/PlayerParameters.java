@@ -5,6 +5,7 @@
 
 package magma.agent.agentruntime;
 
+import hso.autonomy.agent.communication.channel.IChannelManager.DispatchMode;
 import magma.agent.IMagmaConstants;
 import magma.agent.UglyConstants;
 import magma.agent.communication.channel.impl.ChannelParameters;
@@ -191,4 +192,48 @@ public class PlayerParameters
 	{
 		return thinClient;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @param streamingParser true if perceptions should be decoded without
+	 *        building a symbol tree
+	 */
+	public void setStreamingParser(boolean streamingParser)
+	{
+		channelParams.setStreamingParser(streamingParser);
+	}
+
+	/**
+	 * @param pooledPerceptors true if perceptor objects should be reused across
+	 *        cycles
+	 */
+	public void setPooledPerceptors(boolean pooledPerceptors)
+	{
+		channelParams.setPooledPerceptors(pooledPerceptors);
+	}
+
+	/**
+	 * @param nioConnection true if the server connection should use a socket
+	 *        channel with direct buffers
+	 */
+	public void setNIOConnection(boolean nioConnection)
+	{
+		channelParams.setNIOConnection(nioConnection);
+	}
+
+	/**
+	 * @param dispatchMode how received perceptions are passed to the agent
+	 */
+	public void setDispatchMode(DispatchMode dispatchMode)
+	{
+		channelParams.setDispatchMode(dispatchMode);
+	}
+
+	/**
+	 * @param coalesceCycles true if perceptions that are pending because the
+	 *        agent fell behind should be merged into a single cycle
+	 */
+	public void setCoalesceCycles(boolean coalesceCycles)
+	{
+		channelParams.setCoalesceCycles(coalesceCycles);
+	}
+}
@@ -115,6 +115,9 @@ public class RoboCupAgentRuntime extends AgentRuntime
 		if (perceptionLogger != null) {
 			perceptionLogger.stop();
 		}
+		if (channelManager.getDroppedCycles() > 0) {
+			System.out.println("Cycles merged into later cycles: " + channelManager.getDroppedCycles());
+		}
 	}
 
 	public IRoboCupWorldMetaModel getWorldMetaModel()
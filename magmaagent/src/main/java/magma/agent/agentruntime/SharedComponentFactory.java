@@ -0,0 +1,68 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.agentruntime;
+
+import java.util.Map;
+import java.util.Set;
+import kdo.util.parameter.ParameterMap;
+
+/**
+ * Decorator for agents running in the same process. Parameter maps are created
+ * once per robot type and shared by all agents of that type. Properties are
+ * loaded only by the first agent of a robot type, since they are kept in a
+ * static property manager anyway. The robot type is the name of the agent meta
+ * model, since decorating factories like the thin client factory are the same
+ * class for all robot types.
+ * The shared parameter maps must not be changed by the agents.
+ * Read-only data loaded from files, like the sampled function behaviors and
+ * the path walk benchmark, is cached per process by the classes loading it,
+ * since it is loaded deep inside the components an agent creates.
+ *
+ * @author kdorer
+ */
+public class SharedComponentFactory extends ComponentFactoryDecorator
+{
+	/** the parameter maps by robot type, owned by the host of the agents */
+	private final Map<String, ParameterMap> sharedParameters;
+
+	/** the robot types for which properties have been loaded */
+	private final Set<String> loadedProperties;
+
+	/**
+	 * @param decoratee the factory creating the components of one agent
+	 * @param sharedParameters the parameter maps shared by all agents, has to be thread safe
+	 * @param loadedProperties the robot types with loaded properties, has to be thread safe
+	 */
+	public SharedComponentFactory(
+			ComponentFactory decoratee, Map<String, ParameterMap> sharedParameters, Set<String> loadedProperties)
+	{
+		super(decoratee);
+		this.sharedParameters = sharedParameters;
+		this.loadedProperties = loadedProperties;
+	}
+
+	@Override
+	public ParameterMap createParameters()
+	{
+		return sharedParameters.computeIfAbsent(getRobotType(), type -> decoratee.createParameters());
+	}
+
+	@Override
+	public void loadProperties(int playerNumber)
+	{
+		if (loadedProperties.add(getRobotType())) {
+			decoratee.loadProperties(playerNumber);
+		}
+	}
+
+	/**
+	 * @return the name of the robot model the decorated factory creates agents for
+	 */
+	private String getRobotType()
+	{
+		return decoratee.getAgentMetaModel().getName();
+	}
+}
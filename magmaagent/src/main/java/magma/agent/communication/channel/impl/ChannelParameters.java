@@ -5,6 +5,8 @@
 
 package magma.agent.communication.channel.impl;
 
+import hso.autonomy.agent.communication.channel.IChannelManager.DispatchMode;
+
 public class ChannelParameters
 {
 	private final String teamname;
@@ -19,6 +21,21 @@ public class ChannelParameters
 
 	private boolean logPerception;
 
+	/** true if perceptions are decoded without building a symbol tree */
+	private boolean streamingParser;
+
+	/** true if perceptor maps and perceptors are reused across cycles */
+	private boolean pooledPerceptors;
+
+	/** true if the server connection uses a socket channel with direct buffers */
+	private boolean nioConnection;
+
+	/** how received perceptions are passed to the agent */
+	private DispatchMode dispatchMode;
+
+	/** true if pending perceptions are merged into one cycle */
+	private boolean coalesceCycles;
+
 	public ChannelParameters(String teamname, byte teamID, int playerNumber, String host, int port)
 	{
 		this.teamname = teamname;
@@ -27,6 +44,7 @@ public class ChannelParameters
 		this.host = host;
 		this.port = port;
 		this.logPerception = false;
+		this.dispatchMode = DispatchMode.QUEUE;
 	}
 
 	public ChannelParameters(
@@ -94,4 +112,54 @@ public class ChannelParameters
 	{
 		return logPerception;
 	}
-}
\ No newline at end of file
+
+	public boolean useStreamingParser()
+	{
+		return streamingParser;
+	}
+
+	public void setStreamingParser(boolean streamingParser)
+	{
+		this.streamingParser = streamingParser;
+	}
+
+	public boolean usePooledPerceptors()
+	{
+		return pooledPerceptors;
+	}
+
+	public void setPooledPerceptors(boolean pooledPerceptors)
+	{
+		this.pooledPerceptors = pooledPerceptors;
+	}
+
+	public boolean useNIOConnection()
+	{
+		return nioConnection;
+	}
+
+	public void setNIOConnection(boolean nioConnection)
+	{
+		this.nioConnection = nioConnection;
+	}
+
+	public DispatchMode getDispatchMode()
+	{
+		return dispatchMode;
+	}
+
+	public void setDispatchMode(DispatchMode dispatchMode)
+	{
+		this.dispatchMode = dispatchMode;
+	}
+
+	public boolean shouldCoalesceCycles()
+	{
+		return coalesceCycles;
+	}
+
+	public void setCoalesceCycles(boolean coalesceCycles)
+	{
+		this.coalesceCycles = coalesceCycles;
+	}
+}
@@ -8,12 +8,17 @@ package magma.agent.communication.channel.impl;
 import hso.autonomy.agent.communication.channel.IChannelManager;
 import hso.autonomy.agent.communication.channel.IChannelState.ConnectionState;
 import hso.autonomy.agent.communication.channel.impl.InputOutputChannel;
+import hso.autonomy.agent.communication.perception.IMessageParser;
+import hso.autonomy.agent.communication.perception.impl.PerceptorMapPool;
 import hso.autonomy.util.connection.ConnectionException;
+import hso.autonomy.util.connection.IServerConnection;
+import hso.autonomy.util.connection.impl.NIOServerConnection;
 import hso.autonomy.util.connection.impl.ServerConnection;
 import java.util.List;
 import magma.agent.communication.action.impl.ServerMessageEncoder;
 import magma.agent.communication.channel.IRoboCupChannel;
 import magma.agent.communication.perception.impl.ServerMessageParser;
+import magma.agent.communication.perception.impl.StreamingServerMessageParser;
 
 /**
  *
@@ -29,12 +34,47 @@ public class SimsparkChannel extends InputOutputChannel implements IRoboCupChann
 
 	public SimsparkChannel(IChannelManager manager, ChannelParameters info)
 	{
-		super(manager, new ServerConnection(info.getHost(), info.getPort()), new ServerMessageParser(),
+		this(manager, info, info.useStreamingParser());
+	}
+
+	/**
+	 * @param streamingParser true to decode perceptions directly into perceptors
+	 *        with the {@link StreamingServerMessageParser}, false to parse them
+	 *        into a symbol tree first
+	 */
+	public SimsparkChannel(IChannelManager manager, ChannelParameters info, boolean streamingParser)
+	{
+		super(manager, createConnection(info), createParser(streamingParser, info.usePooledPerceptors()),
 				new ServerMessageEncoder());
+		if (connection instanceof NIOServerConnection) {
+			// pass received messages as buffer views instead of copies
+			((NIOServerConnection) connection).setReceiver(this);
+		}
 
 		initMessage = "(init (unum " + info.getPlayerNumber() + ")(teamname " + info.getTeamname() + "))";
 	}
 
+	private static IServerConnection createConnection(ChannelParameters info)
+	{
+		if (info.useNIOConnection()) {
+			return new NIOServerConnection(info.getHost(), info.getPort());
+		}
+		return new ServerConnection(info.getHost(), info.getPort());
+	}
+
+	/**
+	 * @param streamingParser true to decode perceptions without symbol tree
+	 * @param pooledPerceptors true to reuse perceptor maps and perceptors across
+	 *        cycles, only supported by the streaming parser
+	 */
+	private static IMessageParser createParser(boolean streamingParser, boolean pooledPerceptors)
+	{
+		if (!streamingParser) {
+			return new ServerMessageParser(true);
+		}
+		return new StreamingServerMessageParser(pooledPerceptors ? new PerceptorMapPool() : null);
+	}
+
 	@Override
 	public void init(List<String> initParams)
 	{
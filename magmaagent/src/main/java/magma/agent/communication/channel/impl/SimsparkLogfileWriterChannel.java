@@ -8,6 +8,7 @@ package magma.agent.communication.channel.impl;
 import hso.autonomy.agent.communication.channel.IChannelManager;
 import hso.autonomy.util.connection.ConnectionException;
 import java.io.File;
+import java.nio.ByteBuffer;
 import magma.util.file.LogfileWriter;
 
 /**
@@ -57,6 +58,21 @@ public class SimsparkLogfileWriterChannel extends SimsparkChannel
 		super.onEachMessage(message);
 	}
 
+	/**
+	 * Messages of a NIO connection are received as buffer and do not pass the
+	 * byte array method
+	 */
+	@Override
+	protected void onEachMessage(ByteBuffer message) throws ConnectionException
+	{
+		if (logPercept != null) {
+			int start = message.position();
+			logPercept.write(new String(toBytes(message, start)));
+			message.position(start);
+		}
+		super.onEachMessage(message);
+	}
+
 	@Override
 	protected void sendMessage(byte[] message)
 	{
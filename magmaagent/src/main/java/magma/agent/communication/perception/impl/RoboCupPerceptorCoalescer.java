@@ -0,0 +1,40 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.communication.perception.impl;
+
+import hso.autonomy.agent.communication.perception.IPerceptor;
+import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import hso.autonomy.agent.communication.perception.impl.PerceptorCoalescer;
+import java.util.Objects;
+import magma.agent.communication.perception.IGameStatePerceptor;
+import magma.agent.communication.perception.IHearPerceptor;
+
+/**
+ * Merges the perceptions of simspark cycles. Hear messages are never lost and
+ * cycles with different play modes are not merged, so that each play mode
+ * change is processed.
+ *
+ * @author kdorer
+ */
+public class RoboCupPerceptorCoalescer extends PerceptorCoalescer
+{
+	@Override
+	public boolean canMerge(IPerceptorMap older, IPerceptorMap newer)
+	{
+		IGameStatePerceptor olderState = older.get(IGameStatePerceptor.NAME, IGameStatePerceptor.class);
+		IGameStatePerceptor newerState = newer.get(IGameStatePerceptor.NAME, IGameStatePerceptor.class);
+		if (olderState == null || newerState == null) {
+			return true;
+		}
+		return Objects.equals(olderState.getPlaymode(), newerState.getPlaymode());
+	}
+
+	@Override
+	protected boolean isEvent(IPerceptor perceptor)
+	{
+		return perceptor instanceof IHearPerceptor;
+	}
+}
@@ -19,6 +19,7 @@ import hso.autonomy.agent.communication.perception.impl.TimePerceptor;
 import hso.autonomy.agent.communication.perception.impl.TouchPerceptor;
 import hso.autonomy.agent.communication.perception.impl.VisibleObjectPerceptor;
 import hso.autonomy.util.symboltreeparser.IllegalSymbolInputException;
+import hso.autonomy.util.symboltreeparser.NumberParser;
 import hso.autonomy.util.symboltreeparser.SymbolNode;
 import hso.autonomy.util.symboltreeparser.SymbolTreeParser;
 import java.io.UnsupportedEncodingException;
@@ -38,9 +39,25 @@ public class ServerMessageParser implements IMessageParser
 {
 	private final SymbolTreeParser treeParser;
 
+	/**
+	 * true if the symbol tree is created directly from the received bytes
+	 * instead of decoding the message to a string first
+	 */
+	private final boolean parseBytes;
+
 	public ServerMessageParser()
+	{
+		this(false);
+	}
+
+	/**
+	 * @param parseBytes true to tokenize the received bytes in a single pass
+	 *        without decoding and copying the message into strings first
+	 */
+	public ServerMessageParser(boolean parseBytes)
 	{
 		treeParser = new SymbolTreeParser();
+		this.parseBytes = parseBytes;
 	}
 
 	/**
@@ -58,8 +75,12 @@ public class ServerMessageParser implements IMessageParser
 
 		// Generate the symbol tree
 		try {
-			String msg = new String(message, 0, message.length, "UTF-8");
-			root = treeParser.parse(msg);
+			if (parseBytes) {
+				root = treeParser.parse(message);
+			} else {
+				String msg = new String(message, 0, message.length, "UTF-8");
+				root = treeParser.parse(msg);
+			}
 
 		} catch (IllegalSymbolInputException e) {
 			throw new PerceptorConversionException("Parsing error: " + e.getMessage());
@@ -88,6 +109,9 @@ public class ServerMessageParser implements IMessageParser
 	private float parseFloat(Object value)
 	{
 		try {
+			if (parseBytes) {
+				return NumberParser.parseFloat((String) value);
+			}
 			return Float.parseFloat((String) value);
 		} catch (NumberFormatException e) {
 			return 0;
@@ -101,7 +125,7 @@ public class ServerMessageParser implements IMessageParser
 	 * @throws PerceptorConversionException If the input string contains illegal
 	 *         data which cannot be converted
 	 */
-	private void parseNode(SymbolNode node, Map<String, IPerceptor> map) throws PerceptorConversionException
+	void parseNode(SymbolNode node, Map<String, IPerceptor> map) throws PerceptorConversionException
 	{
 		/* Check message type */
 		Object child = node.children.get(0);
@@ -0,0 +1,801 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.communication.perception.impl;
+
+import hso.autonomy.agent.communication.perception.IMessageParser;
+import hso.autonomy.agent.communication.perception.IPerceptor;
+import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import hso.autonomy.agent.communication.perception.PerceptorConversionException;
+import hso.autonomy.agent.communication.perception.impl.AccelerometerPerceptor;
+import hso.autonomy.agent.communication.perception.impl.ForceResistancePerceptor;
+import hso.autonomy.agent.communication.perception.impl.GyroPerceptor;
+import hso.autonomy.agent.communication.perception.impl.HingeJointPerceptor;
+import hso.autonomy.agent.communication.perception.impl.LinePerceptor;
+import hso.autonomy.agent.communication.perception.impl.PerceptorMap;
+import hso.autonomy.agent.communication.perception.impl.PerceptorMapPool;
+import hso.autonomy.agent.communication.perception.impl.PooledPerceptorMap;
+import hso.autonomy.agent.communication.perception.impl.TimePerceptor;
+import hso.autonomy.agent.communication.perception.impl.VisibleObjectPerceptor;
+import hso.autonomy.util.symboltreeparser.NumberParser;
+import hso.autonomy.util.symboltreeparser.SymbolCache;
+import hso.autonomy.util.symboltreeparser.SymbolNode;
+import hso.autonomy.util.symboltreeparser.SymbolTreeParser;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import magma.agent.IMagmaConstants;
+import magma.common.spark.TeamColor;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * Parses incoming server messages directly from the received bytes into
+ * perceptors without building a symbol tree first. The messages sent every
+ * cycle (HJ, GYR, ACC, FRP, See, hear, GS and time) are decoded by following
+ * the simspark grammar. Any node that does not strictly follow this grammar
+ * (including unknown or rarely sent nodes) is handed to the
+ * {@link ServerMessageParser}, so the resulting perceptor map is identical to
+ * the one of the {@link ServerMessageParser}. Not thread safe.
+ *
+ * If created with a {@link PerceptorMapPool}, the maps as well as the joint,
+ * gyro, accelerometer, force resistance and landmark perceptors are reused
+ * once the maps are released.
+ *
+ * @author kdorer
+ */
+public class StreamingServerMessageParser implements IMessageParser
+{
+	/** the parser for nodes that are not covered by the streaming grammar */
+	private final ServerMessageParser fallbackParser;
+
+	/** the pool of reused perceptor maps, null if maps are not reused */
+	private final PerceptorMapPool pool;
+
+	private final SymbolTreeParser treeParser;
+
+	/** cache for names, playmodes and other recurring symbols */
+	private final SymbolCache symbols;
+
+	/** the names of gyro perceptors by sensor name */
+	private final Map<String, String> gyroNames;
+
+	/** the names of accelerometer perceptors by sensor name */
+	private final Map<String, String> accelerometerNames;
+
+	/** the names of visible players by team name, indexed by player number */
+	private final Map<String, String[]> playerNames;
+
+	/** the names of visible lines indexed by line number */
+	private final List<String> lineNames;
+
+	/** the message that is currently parsed */
+	private byte[] buffer;
+
+	/** the current read position in the buffer */
+	private int pos;
+
+	/** the end of the message in the buffer */
+	private int end;
+
+	/** the index range of the last read symbol */
+	private int symbolStart;
+
+	private int symbolEnd;
+
+	/** the three values of the last read vector */
+	private final float[] vector;
+
+	/** reused copy of messages received in buffers without accessible array */
+	private byte[] copy;
+
+	public StreamingServerMessageParser()
+	{
+		this(null);
+	}
+
+	/**
+	 * @param pool the pool of reused perceptor maps, null to create new maps
+	 *        and perceptors for each message
+	 */
+	public StreamingServerMessageParser(PerceptorMapPool pool)
+	{
+		this.pool = pool;
+		fallbackParser = new ServerMessageParser(true);
+		treeParser = new SymbolTreeParser();
+		symbols = new SymbolCache(512);
+		gyroNames = new HashMap<>();
+		accelerometerNames = new HashMap<>();
+		playerNames = new HashMap<>();
+		lineNames = new ArrayList<>();
+		vector = new float[3];
+		copy = new byte[0];
+	}
+
+	@Override
+	public IPerceptorMap parseMessage(byte[] message) throws PerceptorConversionException
+	{
+		return parseMessage(message, 0, message.length);
+	}
+
+	/**
+	 * Parses the message without copying it if the buffer is backed by an
+	 * array. Otherwise the message is copied to a reused array.
+	 */
+	@Override
+	public IPerceptorMap parseMessage(ByteBuffer message) throws PerceptorConversionException
+	{
+		int length = message.remaining();
+		if (message.hasArray()) {
+			int offset = message.arrayOffset() + message.position();
+			message.position(message.limit());
+			return parseMessage(message.array(), offset, length);
+		}
+
+		if (copy.length < length) {
+			copy = new byte[Math.max(length, 2 * copy.length)];
+		}
+		message.get(copy, 0, length);
+		return parseMessage(copy, 0, length);
+	}
+
+	private IPerceptorMap parseMessage(byte[] message, int offset, int length) throws PerceptorConversionException
+	{
+		if (length == 0 || message[offset] != '(' || message[offset + length - 1] != ')') {
+			// let the tree parser report the error
+			return fallbackParser.parseMessage(Arrays.copyOfRange(message, offset, offset + length));
+		}
+
+		buffer = message;
+		pos = offset;
+		end = offset + length;
+		IPerceptorMap map = pool != null ? pool.acquire() : new PerceptorMap();
+
+		while (pos < end) {
+			switch (buffer[pos]) {
+			case '(':
+				int start = pos;
+				if (!parseNode(map)) {
+					int nodeEnd = findNodeEnd(start);
+					if (nodeEnd < 0) {
+						// unbalanced braces, let the tree parser report the error
+						map.release();
+						return fallbackParser.parseMessage(Arrays.copyOfRange(message, offset, end));
+					}
+					try {
+						SymbolNode root = treeParser.parse(buffer, start, nodeEnd - start);
+						fallbackParser.parseNode((SymbolNode) root.children.get(0), map);
+					} catch (PerceptorConversionException | RuntimeException e) {
+						map.release();
+						throw e;
+					}
+					pos = nodeEnd;
+				}
+				break;
+
+			case ')':
+				// unbalanced braces, let the tree parser report the error
+				map.release();
+				return fallbackParser.parseMessage(Arrays.copyOfRange(message, offset, end));
+
+			default:
+				// top-level leaves are not specified and therefore not parsed
+				pos++;
+			}
+		}
+
+		buffer = null;
+		return map;
+	}
+
+	/**
+	 * Parses the node starting at the current position into perceptors.
+	 *
+	 * @return true if the node was parsed and the position is behind its closing
+	 *         brace, false if the node does not follow the streaming grammar
+	 */
+	private boolean parseNode(IPerceptorMap map)
+	{
+		pos++;
+		if (!readSymbol()) {
+			return false;
+		}
+
+		switch (symbolLength()) {
+		case 2:
+			if (symbolEquals("HJ")) {
+				return parseHingeJoint(map);
+			}
+			if (symbolEquals("GS")) {
+				return parseGameState(map);
+			}
+			break;
+		case 3:
+			if (symbolEquals("GYR")) {
+				return parseGyro(map);
+			}
+			if (symbolEquals("ACC")) {
+				return parseAccelerometer(map);
+			}
+			if (symbolEquals("FRP")) {
+				return parseForceResistance(map);
+			}
+			if (symbolEquals("See")) {
+				return parseVision(map);
+			}
+			break;
+		case 4:
+			if (symbolEquals("time")) {
+				return parseTime(map);
+			}
+			if (symbolEquals("hear")) {
+				return parseHear(map);
+			}
+			break;
+		}
+		return false;
+	}
+
+	/**
+	 * (HJ (n &lt;name&gt;) (ax &lt;angle&gt;))
+	 */
+	private boolean parseHingeJoint(IPerceptorMap map)
+	{
+		String name = readName();
+		if (name == null || !readValue("ax") || !consume(')')) {
+			return false;
+		}
+
+		HingeJointPerceptor perceptor = getRecyclable(map, name, HingeJointPerceptor.class);
+		if (perceptor != null) {
+			perceptor.setAxis(floatValue());
+		} else {
+			perceptor = new HingeJointPerceptor(name, floatValue());
+		}
+		putRecyclable(map, perceptor);
+		return true;
+	}
+
+	/**
+	 * (GYR (n &lt;name&gt;) (rt &lt;x&gt; &lt;y&gt; &lt;z&gt;))
+	 */
+	private boolean parseGyro(IPerceptorMap map)
+	{
+		String name = readName();
+		if (name == null || !readVector("rt") || !consume(')')) {
+			return false;
+		}
+
+		String perceptorName = gyroNames.get(name);
+		if (perceptorName == null) {
+			perceptorName = name + "Gyro";
+			gyroNames.put(name, perceptorName);
+		}
+		GyroPerceptor perceptor = getRecyclable(map, perceptorName, GyroPerceptor.class);
+		if (perceptor != null) {
+			perceptor.setGyro(vector[0], vector[1], vector[2]);
+		} else {
+			perceptor = new GyroPerceptor(perceptorName, vector[0], vector[1], vector[2]);
+		}
+		putRecyclable(map, perceptor);
+		return true;
+	}
+
+	/**
+	 * (ACC (n &lt;name&gt;) (a &lt;x&gt; &lt;y&gt; &lt;z&gt;))
+	 */
+	private boolean parseAccelerometer(IPerceptorMap map)
+	{
+		String name = readName();
+		if (name == null || !readVector("a") || !consume(')')) {
+			return false;
+		}
+
+		String perceptorName = accelerometerNames.get(name);
+		if (perceptorName == null) {
+			perceptorName = name + "Accel";
+			accelerometerNames.put(name, perceptorName);
+		}
+		AccelerometerPerceptor perceptor = getRecyclable(map, perceptorName, AccelerometerPerceptor.class);
+		if (perceptor != null) {
+			perceptor.setAcceleration(vector[0], vector[1], vector[2]);
+		} else {
+			perceptor = new AccelerometerPerceptor(perceptorName, vector[0], vector[1], vector[2]);
+		}
+		putRecyclable(map, perceptor);
+		return true;
+	}
+
+	/**
+	 * (FRP (n &lt;name&gt;) (c &lt;x&gt; &lt;y&gt; &lt;z&gt;) (f &lt;x&gt;
+	 * &lt;y&gt; &lt;z&gt;))
+	 */
+	private boolean parseForceResistance(IPerceptorMap map)
+	{
+		String name = readName();
+		if (name == null || !readVector("c")) {
+			return false;
+		}
+		float ox = vector[0];
+		float oy = vector[1];
+		float oz = vector[2];
+		if (!readVector("f") || !consume(')')) {
+			return false;
+		}
+
+		ForceResistancePerceptor perceptor = getRecyclable(map, name, ForceResistancePerceptor.class);
+		if (perceptor != null) {
+			perceptor.setForce(ox, oy, oz, vector[0], vector[1], vector[2]);
+		} else {
+			perceptor = new ForceResistancePerceptor(name, ox, oy, oz, vector[0], vector[1], vector[2]);
+		}
+		putRecyclable(map, perceptor);
+		return true;
+	}
+
+	/**
+	 * (time (now &lt;time&gt;))
+	 */
+	private boolean parseTime(IPerceptorMap map)
+	{
+		if (!readValue("now") || symbolEquals("now") || !consume(')')) {
+			return false;
+		}
+
+		TimePerceptor perceptor = new TimePerceptor(floatValue());
+		map.put(perceptor.getName(), perceptor);
+		return true;
+	}
+
+	/**
+	 * (GS (t &lt;time&gt;) (pm &lt;playmode&gt;) ...)
+	 */
+	private boolean parseGameState(IPerceptorMap map)
+	{
+		float time = 0.0f;
+		String playmode = "", team = "";
+		int unum = 0;
+		int scoreLeft = 0, scoreRight = 0;
+
+		while (!consume(')')) {
+			if (!consume('(') || !readSymbol()) {
+				return false;
+			}
+
+			String key = symbol();
+			if (!readSymbol()) {
+				return false;
+			}
+
+			try {
+				switch (key) {
+				case "t":
+					time = floatValue();
+					break;
+				case "pm":
+					playmode = symbol();
+					break;
+				case "unum":
+					unum = intValue();
+					break;
+				case "team":
+					team = symbol();
+					break;
+				case "sl":
+					scoreLeft = intValue();
+					break;
+				case "sr":
+					scoreRight = intValue();
+					break;
+				default:
+					return false;
+				}
+			} catch (NumberFormatException e) {
+				return false;
+			}
+
+			if (!consume(')')) {
+				return false;
+			}
+		}
+
+		// we do not have sufficient information for team color, so team color
+		// information is missing in Simspark!
+		GameStatePerceptor perceptor =
+				new GameStatePerceptor(time, playmode, team, TeamColor.UNKNOWN, unum, scoreLeft, scoreRight);
+		map.put(perceptor.getName(), perceptor);
+		return true;
+	}
+
+	/**
+	 * (hear &lt;team&gt; &lt;time&gt; &lt;target&gt; &lt;message&gt;)
+	 */
+	private boolean parseHear(IPerceptorMap map)
+	{
+		if (!readSymbol()) {
+			return false;
+		}
+		String team = symbol();
+		if (!readSymbol()) {
+			return false;
+		}
+		float time = floatValue();
+		if (!readSymbol()) {
+			return false;
+		}
+		String target = symbol();
+
+		// the message parts are joined by single spaces
+		String message = null;
+		StringBuilder builder = null;
+		while (!consume(')')) {
+			if (!readSymbol()) {
+				return false;
+			}
+			String part = new String(buffer, symbolStart, symbolLength(), StandardCharsets.UTF_8);
+			if (message == null) {
+				message = part;
+			} else {
+				if (builder == null) {
+					builder = new StringBuilder(message);
+				}
+				builder.append(' ').append(part);
+			}
+		}
+		if (builder != null) {
+			message = builder.toString();
+		} else if (message == null) {
+			message = "";
+		}
+
+		HearPerceptor perceptor = new HearPerceptor(time, team, target, message);
+		map.put(perceptor.getName(), perceptor);
+		return true;
+	}
+
+	/**
+	 * (See (&lt;name&gt; (pol ...)) (L (pol ...) (pol ...)) (P ...) ...)
+	 */
+	private boolean parseVision(IPerceptorMap map)
+	{
+		int lineID = 0;
+		while (!consume(')')) {
+			if (!consume('(')) {
+				// leaves are not parsed
+				if (!readSymbol()) {
+					return false;
+				}
+				continue;
+			}
+
+			if (!readSymbol()) {
+				return false;
+			}
+
+			if (symbolEquals("P")) {
+				if (!parsePlayer(map)) {
+					return false;
+				}
+
+			} else if (symbolEquals("L")) {
+				if (!readVector("pol")) {
+					return false;
+				}
+				Vector3D pol1 = toPolar();
+				if (!readVector("pol") || !consume(')')) {
+					return false;
+				}
+				String name = getLineName(lineID++);
+				map.put(name, new LinePerceptor("FieldLine", pol1, toPolar(), true, name));
+
+			} else {
+				String name = symbol();
+				if (!readVector("pol") || !consume(')')) {
+					return false;
+				}
+				VisibleObjectPerceptor perceptor = getRecyclable(map, name, VisibleObjectPerceptor.class);
+				if (perceptor != null) {
+					perceptor.setPosition(toPolar());
+				} else {
+					String type = name.startsWith("G") ? "Goalpost" : "Flag";
+					perceptor = new VisibleObjectPerceptor(type, toPolar(), true, 1.0, name);
+				}
+				putRecyclable(map, perceptor);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * (P (team &lt;name&gt;) (id &lt;id&gt;) (&lt;bodyPart&gt; (pol ...)) ...)
+	 */
+	private boolean parsePlayer(IPerceptorMap map)
+	{
+		String teamName = IMagmaConstants.UNKNOWN_PLAYER_TEAMNAME;
+		int id = IMagmaConstants.UNKNOWN_PLAYER_NUMBER;
+		Vector3D pol = Vector3D.ZERO;
+		String bodyPartIdentifier = "";
+		Map<String, Vector3D> bodyPartMap = new HashMap<>();
+
+		while (!consume(')')) {
+			if (!consume('(') || !readSymbol()) {
+				return false;
+			}
+
+			if (symbolEquals("team")) {
+				if (!readSymbol()) {
+					return false;
+				}
+				teamName = symbol();
+
+			} else if (symbolEquals("id")) {
+				if (!readSymbol()) {
+					return false;
+				}
+				try {
+					id = intValue();
+				} catch (NumberFormatException e) {
+					return false;
+				}
+
+			} else if (symbolEquals("pol")) {
+				// a position without body part belongs to the previous body part
+				if (!readValues()) {
+					return false;
+				}
+				pol = toPolar();
+				bodyPartMap.put(bodyPartIdentifier, pol);
+				continue;
+
+			} else {
+				// in case of seeing parts of opponent, we have to look into them
+				bodyPartIdentifier = symbol();
+				if (!readVector("pol")) {
+					return false;
+				}
+				pol = toPolar();
+				bodyPartMap.put(bodyPartIdentifier, pol);
+			}
+
+			if (!consume(')')) {
+				return false;
+			}
+		}
+
+		String name;
+		if (id == IMagmaConstants.UNKNOWN_PLAYER_NUMBER) {
+			name = "P" + teamName + pol.toString();
+		} else {
+			name = getPlayerName(teamName, id);
+		}
+		PlayerPos perceptor = new PlayerPos("Player", pol, id, teamName, bodyPartMap, true, name);
+		// we ignore visible players that have a position 0 since they are usually exploded players
+		if (perceptor.getPosition().getNorm() > 0.00001) {
+			map.put(name, perceptor);
+		}
+		return true;
+	}
+
+	/**
+	 * @return the perceptor instance of the specified class that can be reused,
+	 *         null if there is none or maps are not pooled
+	 */
+	private <T extends IPerceptor> T getRecyclable(IPerceptorMap map, String name, Class<T> clazz)
+	{
+		if (map instanceof PooledPerceptorMap) {
+			return ((PooledPerceptorMap) map).getRecyclable(name, clazz);
+		}
+		return null;
+	}
+
+	/**
+	 * Puts the perceptor into the map and keeps it for reuse if maps are pooled
+	 */
+	private void putRecyclable(IPerceptorMap map, IPerceptor perceptor)
+	{
+		if (map instanceof PooledPerceptorMap) {
+			((PooledPerceptorMap) map).putRecyclable(perceptor);
+		} else {
+			map.put(perceptor);
+		}
+	}
+
+	private String getPlayerName(String teamName, int id)
+	{
+		String[] names = playerNames.get(teamName);
+		if (names == null) {
+			names = new String[IMagmaConstants.NUMBER_OF_PLAYERS_PER_TEAM + 1];
+			playerNames.put(teamName, names);
+		}
+		if (id < 0 || id >= names.length) {
+			return "P" + teamName + id;
+		}
+		if (names[id] == null) {
+			names[id] = "P" + teamName + id;
+		}
+		return names[id];
+	}
+
+	private String getLineName(int lineID)
+	{
+		while (lineNames.size() <= lineID) {
+			lineNames.add("L" + lineNames.size());
+		}
+		return lineNames.get(lineID);
+	}
+
+	/**
+	 * Reads a name sub-node: (n &lt;name&gt;)
+	 *
+	 * @return the name or null if the input does not match
+	 */
+	private String readName()
+	{
+		if (!readValue("n")) {
+			return null;
+		}
+		return symbol();
+	}
+
+	/**
+	 * Reads a sub-node with a single value: (&lt;key&gt; &lt;value&gt;). The
+	 * value is the current symbol afterwards.
+	 *
+	 * @return true if the input matched
+	 */
+	private boolean readValue(String key)
+	{
+		return consume('(') && readSymbol() && symbolEquals(key) && readSymbol() && consume(')');
+	}
+
+	/**
+	 * Reads a sub-node with three values into {@link #vector}: (&lt;key&gt;
+	 * &lt;x&gt; &lt;y&gt; &lt;z&gt;)
+	 *
+	 * @return true if the input matched
+	 */
+	private boolean readVector(String key)
+	{
+		if (!consume('(') || !readSymbol() || !symbolEquals(key)) {
+			return false;
+		}
+		return readValues();
+	}
+
+	/**
+	 * Reads the three values and closing brace of a vector sub-node into
+	 * {@link #vector}
+	 *
+	 * @return true if the input matched
+	 */
+	private boolean readValues()
+	{
+		for (int i = 0; i < vector.length; i++) {
+			if (!readSymbol()) {
+				return false;
+			}
+			vector[i] = floatValue();
+		}
+		return consume(')');
+	}
+
+	/**
+	 * @return the polar coordinates of {@link #vector} like ServerMessageParser
+	 *         creates them
+	 */
+	private Vector3D toPolar()
+	{
+		return new Vector3D(vector[0], new Vector3D(Math.toRadians(vector[1]), Math.toRadians(vector[2])));
+	}
+
+	/**
+	 * Skips spaces and consumes the passed character if it is next.
+	 *
+	 * @return true if the character was consumed
+	 */
+	private boolean consume(char c)
+	{
+		while (pos < end && buffer[pos] == ' ') {
+			pos++;
+		}
+		if (pos < end && buffer[pos] == c) {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Skips spaces and reads the next symbol into the index range
+	 * {@link #symbolStart} to {@link #symbolEnd}.
+	 *
+	 * @return true if a non empty symbol was read
+	 */
+	private boolean readSymbol()
+	{
+		while (pos < end && buffer[pos] == ' ') {
+			pos++;
+		}
+		symbolStart = pos;
+		while (pos < end) {
+			byte c = buffer[pos];
+			if (c == ' ' || c == '(' || c == ')') {
+				break;
+			}
+			pos++;
+		}
+		symbolEnd = pos;
+		return symbolEnd > symbolStart;
+	}
+
+	private int symbolLength()
+	{
+		return symbolEnd - symbolStart;
+	}
+
+	private boolean symbolEquals(String value)
+	{
+		if (value.length() != symbolLength()) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (buffer[symbolStart + i] != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String symbol()
+	{
+		return symbols.get(buffer, symbolStart, symbolEnd);
+	}
+
+	/**
+	 * @return the current symbol as float, 0 if it can not be parsed
+	 */
+	private float floatValue()
+	{
+		try {
+			return NumberParser.parseFloat(buffer, symbolStart, symbolEnd);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private int intValue() throws NumberFormatException
+	{
+		return NumberParser.parseInt(buffer, symbolStart, symbolEnd);
+	}
+
+	/**
+	 * @return the index behind the brace closing the node that starts at the
+	 *         passed index, -1 if there is none
+	 */
+	private int findNodeEnd(int start)
+	{
+		int level = 0;
+		for (int i = start; i < end; i++) {
+			if (buffer[i] == '(') {
+				level++;
+			} else if (buffer[i] == ')') {
+				level--;
+				if (level == 0) {
+					return i + 1;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String getErrorString(byte[] message)
+	{
+		return new String(message);
+	}
+}
@@ -11,6 +11,7 @@ import magma.agent.IMagmaConstants;
 import magma.agent.decision.behavior.IBehaviorConstants;
 import magma.agent.model.thoughtmodel.IRoboCupThoughtModel;
 import magma.agent.model.worldmeta.impl.SayMessage;
+import magma.agent.model.worldmodel.IBall;
 import magma.agent.model.worldmodel.IRoboCupWorldModel;
 
 /**
@@ -46,7 +47,16 @@ public class SayPositions extends RoboCupBehavior
 
 		SayMessage message = new SayMessage();
 		message.setTeammateID(ourID);
+		message.setTime(worldModel.getGlobalTime());
 		message.setTeammatePosition(worldModel.getThisPlayer().getPosition());
+		message.setTeammateHorizontalAngle(worldModel.getThisPlayer().getHorizontalAngle());
+
+		// communicate the ball only if we have seen it ourselves
+		IBall ball = worldModel.getBall();
+		if (ball.getAge(worldModel.getGlobalTime()) < 0.1 && ball.getInformationSource() == InformationSource.VISION) {
+			message.setBallPosition(ball.getPosition());
+			message.setBallSpeed(ball.getSpeed());
+		}
 
 		// communicate opponent position (same id)
 		IVisibleObject opponent = worldModel.getVisiblePlayer(ourID, false);
@@ -57,6 +67,6 @@ public class SayPositions extends RoboCupBehavior
 			message.setOpponentPosition(null);
 		}
 
-		getAgentModel().sayMessage(message.encode());
+		getAgentModel().sayMessage(worldModel.getSayCodec().encode(message));
 	}
 }
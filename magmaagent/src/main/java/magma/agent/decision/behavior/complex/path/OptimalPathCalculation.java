@@ -161,7 +161,7 @@ public class OptimalPathCalculation
 		this.footTargetPose = this.bodyTargetPose = targetPose;
 		this.speedThere = speedThere.getX();
 		this.calculatedPaths = new ArrayList<>();
-		this.benchmarkItems = new PathParameterWalkBenchmark();
+		this.benchmarkItems = PathParameterWalkBenchmark.getShared();
 		this.supportFoot = supportFoot;
 		this.optimalPath = new Path();
 		recalculateFootAndTarget();
@@ -28,6 +28,9 @@ public class FunctionBehavior extends Behavior
 	/** motor manager for each motor involved in the behavior */
 	protected transient final Map<String, MotorManager> motorManagers;
 
+	/** the sampled joint functions, null if the functions are evaluated directly */
+	protected transient JointTrajectoryTable table;
+
 	/** the number of values after which the motor function repeats */
 	protected float period;
 
@@ -51,6 +54,21 @@ public class FunctionBehavior extends Behavior
 		period = params.getPeriod();
 	}
 
+	/**
+	 * Creates a behavior that plays back the passed sampled joint functions
+	 */
+	public FunctionBehavior(
+			String name, IThoughtModel thoughtModel, JointTrajectoryTable table, String filePath, boolean isMirrored)
+	{
+		super(name, thoughtModel);
+		this.currentStep = 0.0f;
+		this.motorManagers = new HashMap<>();
+		this.filePath = filePath;
+		this.isMirrored = isMirrored;
+		this.table = isMirrored ? table.getMirroredVersion() : table;
+		period = table.getPeriod();
+	}
+
 	/**
 	 * Extract motor managers from behavior parameters
 	 */
@@ -95,6 +113,10 @@ public class FunctionBehavior extends Behavior
 	{
 		super.perform();
 
+		if (table != null) {
+			performTable();
+		}
+
 		// loop through all joints affected
 		for (MotorManager manager : motorManagers.values()) {
 			IHingeJoint hingeJoint = manager.getHingeJoint();
@@ -111,6 +133,17 @@ public class FunctionBehavior extends Behavior
 		}
 	}
 
+	private void performTable()
+	{
+		for (int joint = 0; joint < table.getJointCount(); joint++) {
+			IHingeJoint hingeJoint = getAgentModel().getWriteableHJ(table.getJointName(joint));
+			if (hingeJoint != null) {
+				hingeJoint.setFutureValues(table.getAngle(joint, currentStep), table.getSpeed(joint, currentStep),
+						table.getAcceleration(joint, currentStep));
+			}
+		}
+	}
+
 	/**
 	 * Retrieve the absolute path to the movement data file
 	 *
@@ -138,7 +171,12 @@ public class FunctionBehavior extends Behavior
 			e.printStackTrace();
 			return;
 		}
-		extractMotorManagers(parameters);
+		if (table != null) {
+			JointTrajectoryTable newTable = JointTrajectoryTable.bake(parameters, table.getSubSteps());
+			table = isMirrored ? newTable.getMirroredVersion() : newTable;
+		} else {
+			extractMotorManagers(parameters);
+		}
 		period = parameters.getPeriod();
 	}
 }
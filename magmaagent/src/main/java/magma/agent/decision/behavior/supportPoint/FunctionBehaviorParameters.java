@@ -150,14 +150,38 @@ public class FunctionBehaviorParameters implements Serializable
 	{
 		String newName = replacement + oldName.substring(1, oldName.length());
 		IFunction newFunction = oldFunction;
-		if ((oldName.contains("Roll") || oldName.contains("Yaw")) && !oldName.contains("ArmRoll")) {
-			// roll support points have to be negated in y values
-			// exception for arm roll which is misnamed and is a pitch joint!
+		if (isMirroredInY(oldName)) {
 			newFunction.mirrorYFunction();
 		}
 		newJoints.put(newName, newFunction);
 	}
 
+	/**
+	 * @param jointName the name of a joint
+	 * @return the name of the joint on the other side, the passed name for
+	 *         joints without side
+	 */
+	public static String getMirroredJointName(String jointName)
+	{
+		if (jointName.startsWith("R")) {
+			return "L" + jointName.substring(1);
+		} else if (jointName.startsWith("L")) {
+			return "R" + jointName.substring(1);
+		}
+		return jointName;
+	}
+
+	/**
+	 * @param jointName the name of a joint with side
+	 * @return true if the angles of the joint have to be negated when mirroring
+	 */
+	public static boolean isMirroredInY(String jointName)
+	{
+		// roll support points have to be negated in y values
+		// exception for arm roll which is misnamed and is a pitch joint!
+		return (jointName.contains("Roll") || jointName.contains("Yaw")) && !jointName.contains("ArmRoll");
+	}
+
 	/**
 	 * Create a new {@link FunctionBehaviorParameters} instance from the given
 	 * behavior file.
@@ -0,0 +1,496 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.decision.behavior.supportPoint;
+
+import hso.autonomy.util.function.IFunction;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * The joint functions of a function behavior sampled at a fixed number of sub
+ * steps per cycle. Playing back a behavior then only needs an array access
+ * (and a linear interpolation for steps between samples). Tables are cached in
+ * a binary file next to the behavior file, so reading the behavior at startup
+ * does not need to parse the functions.
+ *
+ * @author Klaus Dorer
+ */
+public class JointTrajectoryTable
+{
+	/** the extension of the binary cache files */
+	public static final String CACHE_EXTENSION = ".mfbt";
+
+	/** samples at each cycle which is exact for playback at full cycles */
+	public static final int DEFAULT_SUB_STEPS = 1;
+
+	private static final int MAGIC = 0x4D464254;
+
+	private static final int VERSION = 1;
+
+	/** the maximal number of joints accepted when reading a table */
+	private static final int MAX_JOINTS = 256;
+
+	/** the maximal number of samples per cycle accepted when reading a table */
+	private static final int MAX_SUB_STEPS = 1000;
+
+	/** the maximal number of samples of a joint accepted when reading a table */
+	private static final int MAX_STEPS = 1 << 20;
+
+	/** the tables loaded by file and sub steps, shared by all agents of a process */
+	private static final Map<String, JointTrajectoryTable> SHARED = new ConcurrentHashMap<>();
+
+	/** the name of the behavior */
+	private final String name;
+
+	/** the number of cycles the behavior takes */
+	private final float period;
+
+	/** whether a mirrored version of this behavior should be created */
+	private final boolean mirror;
+
+	/** the number of samples per cycle */
+	private final int subSteps;
+
+	/** the checksum of the behavior file this table was sampled from */
+	private final long sourceChecksum;
+
+	private final String[] jointNames;
+
+	/** the angle of each joint at each sample (in degrees) */
+	private final float[][] angles;
+
+	/** the first derivative of each joint at each sample */
+	private final float[][] speeds;
+
+	/** the second derivative of each joint at each sample */
+	private final float[][] accelerations;
+
+	/** the mirrored version of this table, created when first needed */
+	private volatile JointTrajectoryTable mirroredVersion;
+
+	private JointTrajectoryTable(String name, float period, boolean mirror, int subSteps, long sourceChecksum,
+			String[] jointNames, float[][] angles, float[][] speeds, float[][] accelerations)
+	{
+		this.name = name;
+		this.period = period;
+		this.mirror = mirror;
+		this.subSteps = subSteps;
+		this.sourceChecksum = sourceChecksum;
+		this.jointNames = jointNames;
+		this.angles = angles;
+		this.speeds = speeds;
+		this.accelerations = accelerations;
+	}
+
+	/**
+	 * Samples all joint functions of the passed behavior
+	 * @param parameters the behavior to sample
+	 * @param subSteps the number of samples per cycle
+	 * @return the sampled table
+	 */
+	public static JointTrajectoryTable bake(FunctionBehaviorParameters parameters, int subSteps)
+	{
+		return bake(parameters, subSteps, 0);
+	}
+
+	private static JointTrajectoryTable bake(FunctionBehaviorParameters parameters, int subSteps, long checksum)
+	{
+		Map<String, IFunction> joints = parameters.getJoints();
+		List<String> names = new ArrayList<>(joints.keySet());
+		Collections.sort(names);
+
+		int stepCount = (int) Math.ceil(parameters.getPeriod() * subSteps) + 1;
+		float[][] angles = new float[names.size()][stepCount];
+		float[][] speeds = new float[names.size()][stepCount];
+		float[][] accelerations = new float[names.size()][stepCount];
+		for (int joint = 0; joint < names.size(); joint++) {
+			IFunction function = joints.get(names.get(joint));
+			for (int step = 0; step < stepCount; step++) {
+				double x = step / (double) subSteps;
+				angles[joint][step] = (float) function.value(x);
+				speeds[joint][step] = (float) function.derivative(x);
+				accelerations[joint][step] = (float) function.derivative2(x);
+			}
+		}
+
+		return new JointTrajectoryTable(parameters.getName(), parameters.getPeriod(), parameters.getMirror(), subSteps,
+				checksum, names.toArray(new String[0]), angles, speeds, accelerations);
+	}
+
+	/**
+	 * Reads the table of the passed behavior file from its cache file. If there
+	 * is no valid cache file, the behavior file is read, sampled and the cache
+	 * file is written if the behavior file is a file in the file system.
+	 * @param filePath the path of the behavior file, either in the classpath or
+	 *        in the file system
+	 * @param subSteps the number of samples per cycle
+	 * @return the sampled table
+	 */
+	public static JointTrajectoryTable load(String filePath, int subSteps) throws IOException
+	{
+		byte[] source = readSource(filePath);
+		CRC32 crc = new CRC32();
+		crc.update(source);
+		long checksum = crc.getValue();
+
+		File cacheFile = getCacheFile(filePath);
+		if (cacheFile != null && cacheFile.isFile()) {
+			try (InputStream in = new BufferedInputStream(new FileInputStream(cacheFile))) {
+				JointTrajectoryTable result = read(in);
+				if (result.sourceChecksum == checksum && result.subSteps == subSteps) {
+					return result;
+				}
+			} catch (IOException e) {
+				System.err.println("Ignoring invalid behavior cache: " + cacheFile + " " + e.getMessage());
+			}
+		}
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(source)));
+		FunctionBehaviorParameters parameters = FunctionBehaviorParameters.readBehaviorFile(in, new File(filePath));
+		if (parameters == null) {
+			throw new IOException("Not a behavior file: " + filePath);
+		}
+		JointTrajectoryTable result = bake(parameters, subSteps, checksum);
+
+		if (cacheFile != null) {
+			writeCache(cacheFile, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the passed table to a temporary file first and moves it to the
+	 * cache file, since agents started at the same time read and write the same
+	 * cache files and must never see a partial file.
+	 */
+	private static void writeCache(File cacheFile, JointTrajectoryTable table)
+	{
+		File temp = null;
+		try {
+			temp = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getAbsoluteFile().getParentFile());
+			try (FileOutputStream out = new FileOutputStream(temp)) {
+				table.write(out);
+			}
+			try {
+				Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			System.err.println("Could not write behavior cache: " + cacheFile + " " + e.getMessage());
+			if (temp != null && temp.exists() && !temp.delete()) {
+				System.err.println("Could not delete temporary behavior cache: " + temp);
+			}
+		}
+	}
+
+	/**
+	 * Loads the table of the passed behavior file only once per process, since
+	 * agents running in the same process would otherwise read and sample the
+	 * same behavior files. Tables are never changed, so they can be shared.
+	 * Reloading a behavior bakes a new table for the reloading agent only.
+	 * @param filePath the path of the behavior file, either in the classpath or
+	 *        in the file system
+	 * @param subSteps the number of samples per cycle
+	 * @return the sampled table shared by all agents of this process
+	 */
+	public static JointTrajectoryTable loadShared(String filePath, int subSteps) throws IOException
+	{
+		String key = filePath + ":" + subSteps;
+		JointTrajectoryTable result = SHARED.get(key);
+		if (result == null) {
+			result = load(filePath, subSteps);
+			JointTrajectoryTable loaded = SHARED.putIfAbsent(key, result);
+			if (loaded != null) {
+				// loaded by another agent at the same time
+				result = loaded;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return a table with left and right joints exchanged, the same for each
+	 *         call
+	 */
+	public JointTrajectoryTable getMirroredVersion()
+	{
+		JointTrajectoryTable result = mirroredVersion;
+		if (result == null) {
+			result = createMirroredVersion();
+			mirroredVersion = result;
+		}
+		return result;
+	}
+
+	private JointTrajectoryTable createMirroredVersion()
+	{
+		String[] newNames = new String[jointNames.length];
+		float[][] newAngles = new float[jointNames.length][];
+		float[][] newSpeeds = new float[jointNames.length][];
+		float[][] newAccelerations = new float[jointNames.length][];
+		for (int joint = 0; joint < jointNames.length; joint++) {
+			String oldName = jointNames[joint];
+			newNames[joint] = FunctionBehaviorParameters.getMirroredJointName(oldName);
+			// joints without side are not mirrored
+			boolean hasSide = !newNames[joint].equals(oldName);
+			float sign = hasSide && FunctionBehaviorParameters.isMirroredInY(oldName) ? -1 : 1;
+			newAngles[joint] = scale(angles[joint], sign);
+			newSpeeds[joint] = scale(speeds[joint], sign);
+			newAccelerations[joint] = scale(accelerations[joint], sign);
+		}
+		return new JointTrajectoryTable(
+				name, period, false, subSteps, sourceChecksum, newNames, newAngles, newSpeeds, newAccelerations);
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public float getPeriod()
+	{
+		return period;
+	}
+
+	public boolean getMirror()
+	{
+		return mirror;
+	}
+
+	public int getSubSteps()
+	{
+		return subSteps;
+	}
+
+	public int getJointCount()
+	{
+		return jointNames.length;
+	}
+
+	public String getJointName(int joint)
+	{
+		return jointNames[joint];
+	}
+
+	/**
+	 * @param joint the index of the joint
+	 * @param step the cycle of the behavior, may be between cycles
+	 * @return the joint angle (in degrees) at the passed step
+	 */
+	public float getAngle(int joint, float step)
+	{
+		return sample(angles[joint], step);
+	}
+
+	/**
+	 * @param joint the index of the joint
+	 * @param step the cycle of the behavior, may be between cycles
+	 * @return the first derivative of the joint angle at the passed step
+	 */
+	public float getSpeed(int joint, float step)
+	{
+		return sample(speeds[joint], step);
+	}
+
+	/**
+	 * @param joint the index of the joint
+	 * @param step the cycle of the behavior, may be between cycles
+	 * @return the second derivative of the joint angle at the passed step
+	 */
+	public float getAcceleration(int joint, float step)
+	{
+		return sample(accelerations[joint], step);
+	}
+
+	private float sample(float[] values, float step)
+	{
+		float x = step * subSteps;
+		if (x <= 0) {
+			return values[0];
+		}
+		int index = (int) x;
+		if (index >= values.length - 1) {
+			return values[values.length - 1];
+		}
+		float delta = x - index;
+		if (delta == 0) {
+			return values[index];
+		}
+		return values[index] + delta * (values[index + 1] - values[index]);
+	}
+
+	/**
+	 * Writes this table in binary form
+	 * @param out the stream to write to, is not closed
+	 */
+	public void write(OutputStream out) throws IOException
+	{
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeLong(sourceChecksum);
+		data.writeUTF(name);
+		data.writeFloat(period);
+		data.writeBoolean(mirror);
+		data.writeInt(subSteps);
+		data.writeInt(jointNames.length);
+		data.writeInt(jointNames.length == 0 ? 0 : angles[0].length);
+		for (int joint = 0; joint < jointNames.length; joint++) {
+			data.writeUTF(jointNames[joint]);
+			writeValues(data, angles[joint]);
+			writeValues(data, speeds[joint]);
+			writeValues(data, accelerations[joint]);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Reads a table written by {@link #write(OutputStream)}
+	 * @param in the stream to read from, is not closed
+	 * @return the table read
+	 */
+	public static JointTrajectoryTable read(InputStream in) throws IOException
+	{
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not a behavior table");
+		}
+		int version = data.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported behavior table version: " + version);
+		}
+		long checksum = data.readLong();
+		String name = data.readUTF();
+		float period = data.readFloat();
+		boolean mirror = data.readBoolean();
+		int subSteps = data.readInt();
+		int jointCount = data.readInt();
+		int stepCount = data.readInt();
+		// check the header before allocating, a broken header must not cause huge allocations
+		if (subSteps < 1 || subSteps > MAX_SUB_STEPS) {
+			throw new IOException("Invalid number of sub steps: " + subSteps);
+		}
+		if (jointCount < 0 || jointCount > MAX_JOINTS) {
+			throw new IOException("Invalid number of joints: " + jointCount);
+		}
+		int expectedSteps = jointCount == 0 ? 0 : (int) Math.ceil(period * subSteps) + 1;
+		if (stepCount < 0 || stepCount > MAX_STEPS || stepCount != expectedSteps) {
+			throw new IOException("Invalid number of steps: " + stepCount);
+		}
+
+		String[] jointNames = new String[jointCount];
+		float[][] angles = new float[jointCount][stepCount];
+		float[][] speeds = new float[jointCount][stepCount];
+		float[][] accelerations = new float[jointCount][stepCount];
+		for (int joint = 0; joint < jointCount; joint++) {
+			jointNames[joint] = data.readUTF();
+			readValues(data, angles[joint]);
+			readValues(data, speeds[joint]);
+			readValues(data, accelerations[joint]);
+		}
+		return new JointTrajectoryTable(
+				name, period, mirror, subSteps, checksum, jointNames, angles, speeds, accelerations);
+	}
+
+	private static void writeValues(DataOutputStream data, float[] values) throws IOException
+	{
+		for (float value : values) {
+			data.writeFloat(value);
+		}
+	}
+
+	private static void readValues(DataInputStream data, float[] values) throws IOException
+	{
+		for (int i = 0; i < values.length; i++) {
+			values[i] = data.readFloat();
+		}
+	}
+
+	private static float[] scale(float[] values, float factor)
+	{
+		float[] result = new float[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i] * factor;
+		}
+		return result;
+	}
+
+	/**
+	 * Reads the behavior file from the classpath or the file system
+	 */
+	private static byte[] readSource(String filePath) throws IOException
+	{
+		InputStream is = JointTrajectoryTable.class.getClassLoader().getResourceAsStream(filePath);
+		if (is == null) {
+			is = new FileInputStream(filePath);
+		}
+		try (InputStream in = is) {
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int length;
+			while ((length = in.read(buffer)) > 0) {
+				result.write(buffer, 0, length);
+			}
+			return result.toByteArray();
+		}
+	}
+
+	/**
+	 * @return the cache file next to the behavior file, null if the behavior
+	 *         file is not in the file system (e.g. in a jar)
+	 */
+	static File getCacheFile(String filePath)
+	{
+		File file = null;
+		URL url = JointTrajectoryTable.class.getClassLoader().getResource(filePath);
+		if (url != null) {
+			if (!"file".equals(url.getProtocol())) {
+				return null;
+			}
+			try {
+				file = new File(url.toURI());
+			} catch (URISyntaxException e) {
+				return null;
+			}
+		} else {
+			file = new File(filePath);
+		}
+		if (!file.isFile()) {
+			return null;
+		}
+
+		String fileName = file.getName();
+		if (fileName.endsWith(FunctionBehaviorParameters.EXTENSION)) {
+			fileName = fileName.substring(0, fileName.length() - FunctionBehaviorParameters.EXTENSION.length());
+		}
+		return new File(file.getParentFile(), fileName + CACHE_EXTENSION);
+	}
+}
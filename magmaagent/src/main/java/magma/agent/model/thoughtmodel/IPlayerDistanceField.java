@@ -0,0 +1,30 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.thoughtmodel;
+
+/**
+ * Distances from positions on the field to the nearest known players of both
+ * teams in the current cycle.
+ *
+ * @author kdorer
+ */
+public interface IPlayerDistanceField {
+	/**
+	 * @param x the global x coordinate
+	 * @param y the global y coordinate
+	 * @return the distance in the xy plane to the nearest own player including
+	 *         this player, Double.MAX_VALUE if there is none
+	 */
+	double getDistanceToNearestTeammate(double x, double y);
+
+	/**
+	 * @param x the global x coordinate
+	 * @param y the global y coordinate
+	 * @return the distance in the xy plane to the nearest opponent,
+	 *         Double.MAX_VALUE if there is none
+	 */
+	double getDistanceToNearestOpponent(double x, double y);
+}
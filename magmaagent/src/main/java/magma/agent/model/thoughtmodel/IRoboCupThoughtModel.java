@@ -56,6 +56,11 @@ public interface IRoboCupThoughtModel extends IThoughtModel {
 
 	SortedSet<KickPositionEstimation> getKickOptions();
 
+	/**
+	 * @return the distances to the nearest players of both teams in this cycle
+	 */
+	IPlayerDistanceField getPlayerDistanceField();
+
 	Vector3D getDesiredKickPosition();
 
 	Vector3D getKickOffTargetPosition();
@@ -8,11 +8,8 @@ package magma.agent.model.thoughtmodel.impl;
 import hso.autonomy.agent.model.worldmodel.IMoveableObject;
 import hso.autonomy.agent.model.worldmodel.IVisibleObject;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import magma.agent.IMagmaConstants;
 import magma.agent.model.worldmodel.IPlayer;
 import magma.agent.model.worldmodel.IRoboCupWorldModel;
@@ -20,391 +17,348 @@ import magma.agent.model.worldmodel.IThisPlayer;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
 /**
- * Calculates indexical functional objects (Agre and Chapman) using filters and
- * comparators
+ * Calculates indexical functional objects (Agre and Chapman). Once per cycle
+ * the distances of all players to the ball, to the own goal and to this player
+ * are calculated into primitive arrays. All lists are derived from these arrays
+ * by filtering on precalculated player flags and sorting indices. The result
+ * lists are kept and refilled in each cycle.
  * @author Klaus Dorer
  */
 public class IFOCalculator
 {
-	/** order criteria is distance to ball */
-	private final Comparator<IPlayer> distanceToBallComparator;
+	/** players not seen for longer than this (in s) are ignored */
+	private static final float MAX_AGE = 4.0f;
 
-	/** order criteria is distance to own goal */
-	private final Comparator<IPlayer> distanceToOwnGoalComparator;
+	/** flag for players seen recently */
+	private static final int RECENT = 1;
 
-	/** order criteria is distance to this player */
-	private final Comparator<IVisibleObject> distanceToMeComparator;
+	/** flag for players of the own team */
+	private static final int OWN_TEAM = 2;
 
-	/** accepts only teammates and not the goalie (+base checks) */
-	private final Predicate<IPlayer> teammateNotGoalieFilter;
+	/** flag for this player */
+	private static final int THIS_PLAYER = 4;
 
-	/** accepts only teammates (+base checks) */
-	private final Predicate<IPlayer> teammateFilter;
+	/** flag for goalies */
+	private static final int GOALIE = 8;
 
-	/** accepts only opponents (+base checks) */
-	private final Predicate<IPlayer> opponentFilter;
+	/** accepts recently seen teammates without this player and the goalie */
+	private static final int TEAMMATE_NOT_GOALIE_MASK = RECENT | OWN_TEAM | THIS_PLAYER | GOALIE;
 
-	private final Predicate<IPlayer> ownPlayersFilter;
+	private static final int TEAMMATE_NOT_GOALIE = RECENT | OWN_TEAM;
 
-	/** checking that player is not this player */
-	private final Predicate<IPlayer> notThisPlayerFilter;
+	/** accepts recently seen teammates without this player */
+	private static final int TEAMMATE_MASK = RECENT | OWN_TEAM | THIS_PLAYER;
+
+	private static final int TEAMMATE = RECENT | OWN_TEAM;
+
+	/** accepts recently seen own players including this player */
+	private static final int OWN_PLAYER_MASK = RECENT | OWN_TEAM;
+
+	private static final int OWN_PLAYER = RECENT | OWN_TEAM;
+
+	/** accepts recently seen opponents */
+	private static final int OPPONENT_MASK = RECENT | OWN_TEAM;
+
+	private static final int OPPONENT = RECENT;
+
+	/** accepts recently seen players other than this player */
+	private static final int NOT_THIS_PLAYER_MASK = RECENT | THIS_PLAYER;
+
+	private static final int NOT_THIS_PLAYER = RECENT;
+
+	private final IRoboCupWorldModel worldModel;
 
 	/** list of the four goal posts for collision avoidance */
 	private final List<IVisibleObject> goalPosts;
 
+	/** the visible players of this cycle followed by this player */
+	private IPlayer[] players = new IPlayer[0];
+
+	/** the number of visible players in this cycle */
+	private int visibleCount;
+
+	/** the filter flags of each player */
+	private int[] flags = new int[0];
+
+	/** the distance of each player to the ball including lying penalty */
+	private double[] distanceToBall = new double[0];
+
+	/** the distance of each player to the own goal including lying penalty */
+	private double[] distanceToOwnGoal = new double[0];
+
+	/** the distance of each player to this player */
+	private double[] distanceToMe = new double[0];
+
+	/** the obstacles of this cycle */
+	private IVisibleObject[] obstacleCandidates = new IVisibleObject[0];
+
+	/** the distance of each obstacle to this player */
+	private double[] obstacleDistanceToMe = new double[0];
+
+	/** the indices of the elements to sort */
+	private int[] indices = new int[0];
+
+	private final List<IPlayer> teammatesAtBall = new ArrayList<>();
+
+	private final List<IPlayer> teammatesAtBallWithGoalie = new ArrayList<>();
+
+	private final List<IPlayer> ownPlayersAtOwnGoal = new ArrayList<>();
+
+	private final List<IPlayer> opponentsAtBall = new ArrayList<>();
+
+	private final List<IPlayer> playersAtBall = new ArrayList<>();
+
+	private final List<IPlayer> playersAtMe = new ArrayList<>();
+
+	private final List<IPlayer> teammatesAtMe = new ArrayList<>();
+
+	private final List<IPlayer> opponentsAtMe = new ArrayList<>();
+
+	private final List<IVisibleObject> obstacles = new ArrayList<>();
+
 	/**
 	 * Single instance created once at startup
 	 */
 	public IFOCalculator(IRoboCupWorldModel worldModel)
 	{
-		distanceToBallComparator =
-				new DistanceToPositionComparator(worldModel, () -> worldModel.getBall().getPosition());
-		distanceToOwnGoalComparator = new DistanceToPositionComparator(worldModel, worldModel::getOwnGoalPosition);
-		distanceToMeComparator = new DistanceToMeComparator(worldModel);
-		teammateNotGoalieFilter = new TeammateFilter(worldModel, new NotGoalieFilter(worldModel));
-		ownPlayersFilter = new OwnPlayersFilter(worldModel);
-		teammateFilter = new TeammateFilter(worldModel);
-		opponentFilter = new OpponentFilter(worldModel);
-		notThisPlayerFilter = new NotThisPlayerFilter(worldModel);
+		this.worldModel = worldModel;
 		goalPosts = worldModel.getGoalPostObstacles();
 	}
 
 	/**
-	 * @param sourceList the list containing the players to sort
-	 * @return a filtered list sorted ascending by the distance of the own team's
-	 *         players not including goalie to the ball
+	 * Recalculates all lists. Has to be called once per cycle.
+	 * @param visiblePlayers the players currently known, not including this
+	 *        player
 	 */
-	public List<IPlayer> getTeammatesAtBall(List<IPlayer> sourceList)
+	public void update(List<IPlayer> visiblePlayers)
 	{
-		return getFilteredAndSortedList(sourceList, teammateNotGoalieFilter, distanceToBallComparator);
-	}
+		IThisPlayer thisPlayer = worldModel.getThisPlayer();
+		IMoveableObject ball = worldModel.getBall();
+		Vector3D ballPosition = ball.getPosition();
+		Vector3D ownGoalPosition = worldModel.getOwnGoalPosition();
+		float globalTime = worldModel.getGlobalTime();
+		int thisPlayerID = thisPlayer.getID();
+
+		visibleCount = visiblePlayers.size();
+		int count = visibleCount + 1;
+		ensureCapacity(count, visibleCount + goalPosts.size() + 1);
+		for (int i = 0; i < visibleCount; i++) {
+			players[i] = visiblePlayers.get(i);
+		}
+		players[visibleCount] = thisPlayer;
 
-	public List<IPlayer> getOwnPlayersAtOwnGoal(List<IPlayer> sourceList)
-	{
-		return getFilteredAndSortedList(sourceList, ownPlayersFilter, distanceToOwnGoalComparator);
-	}
+		for (int i = 0; i < count; i++) {
+			IPlayer player = players[i];
+			if (player == null) {
+				flags[i] = 0;
+				continue;
+			}
+			flags[i] = getFlags(player, globalTime, thisPlayerID);
+			double lyingPenalty = player.isLying() ? IMagmaConstants.DISTANCE_PENALTY_LYING : 0;
+			distanceToBall[i] = player.getDistanceToXY(ballPosition) + lyingPenalty;
+			distanceToOwnGoal[i] = player.getDistanceToXY(ownGoalPosition) + lyingPenalty;
+			distanceToMe[i] = thisPlayer.getDistanceToXY(player.getPosition());
+		}
 
-	public List<IPlayer> getTeammatesAtBallWithGoalie(List<IPlayer> sourceList)
-	{
-		return getFilteredAndSortedList(sourceList, teammateFilter, distanceToBallComparator);
+		fill(teammatesAtBall, visibleCount, TEAMMATE_NOT_GOALIE_MASK, TEAMMATE_NOT_GOALIE, distanceToBall);
+		fill(teammatesAtBallWithGoalie, visibleCount, TEAMMATE_MASK, TEAMMATE, distanceToBall);
+		fill(ownPlayersAtOwnGoal, count, OWN_PLAYER_MASK, OWN_PLAYER, distanceToOwnGoal);
+		fill(opponentsAtBall, visibleCount, OPPONENT_MASK, OPPONENT, distanceToBall);
+		fill(playersAtBall, visibleCount, NOT_THIS_PLAYER_MASK, NOT_THIS_PLAYER, distanceToBall);
+		fill(playersAtMe, visibleCount, NOT_THIS_PLAYER_MASK, NOT_THIS_PLAYER, distanceToMe);
+		fill(teammatesAtMe, visibleCount, TEAMMATE_MASK, TEAMMATE, distanceToMe);
+		fill(opponentsAtMe, visibleCount, OPPONENT_MASK, OPPONENT, distanceToMe);
+		fillObstacles(thisPlayer, ball);
 	}
 
 	/**
-	 * @param sourceList the list containing the players to sort
-	 * @return a filtered list sorted ascending by the distance of the opponent
-	 *         team's players to the ball
+	 * @return the own team's players not including goalie sorted ascending by
+	 *         the distance to the ball
 	 */
-	public List<IPlayer> getOpponentsAtBall(List<IPlayer> sourceList)
+	public List<IPlayer> getTeammatesAtBall()
 	{
-		return getFilteredAndSortedList(sourceList, opponentFilter, distanceToBallComparator);
+		return Collections.unmodifiableList(teammatesAtBall);
 	}
 
 	/**
-	 * Filter all players currently near the ball out of the given list
-	 *
-	 * @param sourceList Source player list
-	 * @return Filtered list
+	 * @return the own team's players including this player sorted ascending by
+	 *         the distance to the own goal
 	 */
-	public List<IPlayer> getPlayersAtBall(List<IPlayer> sourceList)
+	public List<IPlayer> getOwnPlayersAtOwnGoal()
 	{
-		return getFilteredAndSortedList(sourceList, notThisPlayerFilter, distanceToBallComparator);
+		return Collections.unmodifiableList(ownPlayersAtOwnGoal);
 	}
 
 	/**
-	 * @param sourceList the list containing the players to sort
-	 * @return a filtered list sorted ascending by the distance of the own team's
-	 *         players including goalie to me
+	 * @return the own team's players including goalie sorted ascending by the
+	 *         distance to the ball
 	 */
-	public List<IPlayer> getPlayersAtMe(List<IPlayer> sourceList)
+	public List<IPlayer> getTeammatesAtBallWithGoalie()
 	{
-		return getFilteredAndSortedList(sourceList, notThisPlayerFilter, distanceToMeComparator);
+		return Collections.unmodifiableList(teammatesAtBallWithGoalie);
 	}
 
 	/**
-	 * @param sourceList the list containing the players to sort
-	 * @return a filtered list sorted ascending by the distance of the own team's
-	 *         players including goalie to me
+	 * @return the opponent team's players sorted ascending by the distance to
+	 *         the ball
 	 */
-	public List<IPlayer> getTeammatesAtMe(List<IPlayer> sourceList)
+	public List<IPlayer> getOpponentsAtBall()
 	{
-		return getFilteredAndSortedList(sourceList, teammateFilter, distanceToMeComparator);
+		return Collections.unmodifiableList(opponentsAtBall);
 	}
 
 	/**
-	 * @param sourceList the list containing the players to sort
-	 * @return a filtered list sorted ascending by the distance of the other
-	 *         team's players including goalie to me
+	 * @return all players except this player sorted ascending by the distance
+	 *         to the ball
 	 */
-	public List<IPlayer> getOpponentsAtMe(List<IPlayer> sourceList)
+	public List<IPlayer> getPlayersAtBall()
 	{
-		return getFilteredAndSortedList(sourceList, opponentFilter, distanceToMeComparator);
+		return Collections.unmodifiableList(playersAtBall);
 	}
 
 	/**
-	 * Retrieve a list of obstacles
-	 *
-	 * @param sourceList the list containing the players to sort
-	 * @param ball Reference to ball object
-	 * @return a filtered list sorted ascending by the distance of the other
-	 *         team's players including goalie to me
+	 * @return all players except this player sorted ascending by the distance
+	 *         to me
 	 */
-	public List<IVisibleObject> getObstacles(List<IPlayer> sourceList, IMoveableObject ball)
+	public List<IPlayer> getPlayersAtMe()
 	{
-		List<IPlayer> result = filter(sourceList, notThisPlayerFilter);
-		List<IVisibleObject> obstacles = new ArrayList<>(result);
-
-		obstacles.addAll(goalPosts);
-		if (!ball.isMoving()) {
-			// ball is only obstacle if not moving
-			obstacles.add(ball);
-		}
-		obstacles.sort(distanceToMeComparator);
-		return obstacles;
+		return Collections.unmodifiableList(playersAtMe);
 	}
 
 	/**
-	 * Returns a new list containing only the elements of the source list that
-	 * were accepted by the filter and are sorted using the passed comparator.
-	 * Filter or comparator may be null, but it does not make sense to pass both
-	 * as null since the list will then be unchanged.
-	 * @param sourceList the list with the data to filter and sort
-	 * @param filter the filter to use for each element of the source list, null
-	 *        if no filter should be used
-	 * @param comparator for sorting, null if order should not be changed
-	 * @return the filtered and sorted list
+	 * @return the own team's players including goalie sorted ascending by the
+	 *         distance to me
 	 */
-	public List<IPlayer> getFilteredAndSortedList(
-			List<IPlayer> sourceList, Predicate<IPlayer> filter, Comparator<? super IPlayer> comparator)
+	public List<IPlayer> getTeammatesAtMe()
 	{
-		List<IPlayer> result = filter(sourceList, filter);
-		if (comparator != null) {
-			result.sort(comparator);
-		}
-		return result;
+		return Collections.unmodifiableList(teammatesAtMe);
 	}
 
 	/**
-	 * @param sourceList the list of players to filter
-	 * @param filter the filter to use
-	 * @return a new list that only contains the elements of the passed list that
-	 *         passed the filter
+	 * @return the other team's players including goalie sorted ascending by the
+	 *         distance to me
 	 */
-	private List<IPlayer> filter(List<IPlayer> sourceList, Predicate<IPlayer> filter)
+	public List<IPlayer> getOpponentsAtMe()
 	{
-		List<IPlayer> result = new ArrayList<>(sourceList.size());
-		result.addAll(sourceList.stream()
-							  .filter(player -> filter == null || filter.test(player))
-							  .collect(Collectors.toList()));
-		return result;
+		return Collections.unmodifiableList(opponentsAtMe);
 	}
 
-	private class BaseFilter implements Predicate<IPlayer>
+	/**
+	 * @return all players except this player, the goal posts and the ball if it
+	 *         is not moving sorted ascending by the distance to me
+	 */
+	public List<IVisibleObject> getObstacles()
 	{
-		/** link to the world model */
-		protected final IRoboCupWorldModel worldModel;
-
-		/** decorated filter, null if none is decorated */
-		protected final Predicate<IPlayer> decoratedFilter;
-
-		public BaseFilter(IRoboCupWorldModel worldModel)
-		{
-			this.worldModel = worldModel;
-			this.decoratedFilter = null;
-		}
-
-		public BaseFilter(IRoboCupWorldModel worldModel, Predicate<IPlayer> decoratee)
-		{
-			this.worldModel = worldModel;
-			this.decoratedFilter = decoratee;
-		}
-
-		/**
-		 * @param player the player to check
-		 * @return true if the player is accepted by the filter, false if rejected
-		 */
-		@Override
-		public boolean test(IPlayer player)
-		{
-			if (decoratedFilter != null) {
-				boolean result = decoratedFilter.test(player);
-				if (!result) {
-					return false;
-				}
-			}
-
-			if (player == null || player.getAge(worldModel.getGlobalTime()) > 4.0) {
-				// only take into account recently seen players
-				return false;
-			}
-
-			return localAccept(player);
-		}
-
-		/**
-		 * Overwrite this method in subclasses to add filter criteria
-		 * @param player the player to check for acceptance
-		 * @return true if the player should remain in the list
-		 */
-		protected boolean localAccept(IPlayer player)
-		{
-			return true;
-		}
+		return Collections.unmodifiableList(obstacles);
 	}
 
-	private class NotThisPlayerFilter extends BaseFilter
+	private int getFlags(IPlayer player, float globalTime, int thisPlayerID)
 	{
-		public NotThisPlayerFilter(IRoboCupWorldModel worldModel)
-		{
-			super(worldModel);
+		int result = 0;
+		if (player.getAge(globalTime) <= MAX_AGE) {
+			result |= RECENT;
 		}
-
-		public NotThisPlayerFilter(IRoboCupWorldModel worldModel, Predicate<IPlayer> decoratee)
-		{
-			super(worldModel, decoratee);
-		}
-
-		@Override
-		public boolean localAccept(IPlayer player)
-		{
-			return !(player == null || (player.isOwnTeam() && player.getID() == worldModel.getThisPlayer().getID()));
-		}
-	}
-
-	private class OwnPlayersFilter extends BaseFilter
-	{
-		public OwnPlayersFilter(IRoboCupWorldModel worldModel)
-		{
-			super(worldModel);
+		if (player.isOwnTeam()) {
+			result |= OWN_TEAM;
+			if (player.getID() == thisPlayerID) {
+				result |= THIS_PLAYER;
+			}
 		}
-
-		@Override
-		public boolean localAccept(IPlayer player)
-		{
-			return super.localAccept(player) && !(player == null || !player.isOwnTeam());
+		if (player.isGoalie()) {
+			result |= GOALIE;
 		}
+		return result;
 	}
 
 	/**
-	 * Accepts only players of own team
+	 * Refills the passed list with the accepted players sorted by the passed
+	 * distances
+	 * @param result the list to refill
+	 * @param count the number of players to consider
+	 * @param mask the flags to check
+	 * @param accepted the value the masked flags need to have to accept a player
+	 * @param distances the sort criteria of each player
 	 */
-	private class TeammateFilter extends NotThisPlayerFilter
+	private void fill(List<IPlayer> result, int count, int mask, int accepted, double[] distances)
 	{
-		public TeammateFilter(IRoboCupWorldModel worldModel)
-		{
-			super(worldModel);
-		}
-
-		public TeammateFilter(IRoboCupWorldModel worldModel, Predicate<IPlayer> decoratee)
-		{
-			super(worldModel, decoratee);
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			if ((flags[i] & mask) == accepted) {
+				indices[size++] = i;
+			}
 		}
+		sortIndices(indices, size, distances);
 
-		@Override
-		public boolean localAccept(IPlayer player)
-		{
-			return super.localAccept(player) && !(player == null || !player.isOwnTeam());
+		result.clear();
+		for (int i = 0; i < size; i++) {
+			result.add(players[indices[i]]);
 		}
 	}
 
-	/**
-	 * Accepts only players of other team
-	 */
-	private class OpponentFilter extends BaseFilter
+	private void fillObstacles(IThisPlayer thisPlayer, IMoveableObject ball)
 	{
-		public OpponentFilter(IRoboCupWorldModel worldModel)
-		{
-			super(worldModel);
-		}
-
-		public OpponentFilter(IRoboCupWorldModel worldModel, Predicate<IPlayer> decoratee)
-		{
-			super(worldModel, decoratee);
-		}
-
-		@Override
-		public boolean localAccept(IPlayer player)
-		{
-			return !(player == null || player.isOwnTeam());
+		int size = 0;
+		for (int i = 0; i < visibleCount; i++) {
+			if ((flags[i] & NOT_THIS_PLAYER_MASK) == NOT_THIS_PLAYER) {
+				obstacleCandidates[size] = players[i];
+				obstacleDistanceToMe[size++] = distanceToMe[i];
+			}
 		}
-	}
-
-	/**
-	 * Accepts only players that are not goalies
-	 */
-	private class NotGoalieFilter extends NotThisPlayerFilter
-	{
-		public NotGoalieFilter(IRoboCupWorldModel worldModel)
-		{
-			super(worldModel);
+		for (IVisibleObject goalPost : goalPosts) {
+			obstacleCandidates[size] = goalPost;
+			obstacleDistanceToMe[size++] = thisPlayer.getDistanceToXY(goalPost.getPosition());
 		}
-
-		public NotGoalieFilter(IRoboCupWorldModel worldModel, Predicate<IPlayer> decoratee)
-		{
-			super(worldModel, decoratee);
+		if (!ball.isMoving()) {
+			// ball is only obstacle if not moving
+			obstacleCandidates[size] = ball;
+			obstacleDistanceToMe[size++] = thisPlayer.getDistanceToXY(ball.getPosition());
 		}
 
-		@Override
-		public boolean localAccept(IPlayer player)
-		{
-			return super.localAccept(player) && !player.isGoalie();
+		for (int i = 0; i < size; i++) {
+			indices[i] = i;
 		}
-	}
-
-	private abstract class IFOComparator<T> implements Comparator<T>
-	{
-		protected final IRoboCupWorldModel worldModel;
+		sortIndices(indices, size, obstacleDistanceToMe);
 
-		public IFOComparator(IRoboCupWorldModel worldModel)
-		{
-			this.worldModel = worldModel;
+		obstacles.clear();
+		for (int i = 0; i < size; i++) {
+			obstacles.add(obstacleCandidates[indices[i]]);
 		}
 	}
 
-	private class DistanceToPositionComparator extends IFOComparator<IPlayer>
+	/**
+	 * Stable insertion sort of indices by their keys. Insertion sort is the
+	 * fastest for the few players we have.
+	 * @param indices the indices to sort
+	 * @param size the number of indices to sort
+	 * @param keys the sort criteria for each index
+	 */
+	static void sortIndices(int[] indices, int size, double[] keys)
 	{
-		private final Supplier<Vector3D> positionSupplier;
-
-		public DistanceToPositionComparator(IRoboCupWorldModel worldModel, Supplier<Vector3D> positionSupplier)
-		{
-			super(worldModel);
-			this.positionSupplier = positionSupplier;
-		}
-
-		@Override
-		public int compare(IPlayer player1, IPlayer player2)
-		{
-			Vector3D position = positionSupplier.get();
-			double distance1 = player1.getDistanceToXY(position);
-			if (player1.isLying()) {
-				distance1 += IMagmaConstants.DISTANCE_PENALTY_LYING;
+		for (int i = 1; i < size; i++) {
+			int index = indices[i];
+			double key = keys[index];
+			int j = i - 1;
+			while (j >= 0 && Double.compare(keys[indices[j]], key) > 0) {
+				indices[j + 1] = indices[j];
+				j--;
 			}
-			double distance2 = player2.getDistanceToXY(position);
-			if (player2.isLying()) {
-				distance2 += IMagmaConstants.DISTANCE_PENALTY_LYING;
-			}
-
-			return Double.compare(distance1, distance2);
+			indices[j + 1] = index;
 		}
 	}
 
-	/**
-	 * Criteria is the distance to this player
-	 */
-	private class DistanceToMeComparator extends IFOComparator<IVisibleObject>
+	private void ensureCapacity(int playerCount, int obstacleCount)
 	{
-		public DistanceToMeComparator(IRoboCupWorldModel worldModel)
-		{
-			super(worldModel);
+		if (players.length < playerCount) {
+			players = new IPlayer[playerCount];
+			flags = new int[playerCount];
+			distanceToBall = new double[playerCount];
+			distanceToOwnGoal = new double[playerCount];
+			distanceToMe = new double[playerCount];
 		}
-
-		@Override
-		public int compare(IVisibleObject player1, IVisibleObject player2)
-		{
-			IThisPlayer thisPlayer = worldModel.getThisPlayer();
-			double distance1 = thisPlayer.getDistanceToXY(player1.getPosition());
-			double distance2 = thisPlayer.getDistanceToXY(player2.getPosition());
-
-			return Double.compare(distance1, distance2);
+		if (obstacleCandidates.length < obstacleCount) {
+			obstacleCandidates = new IVisibleObject[obstacleCount];
+			obstacleDistanceToMe = new double[obstacleCount];
+			indices = new int[obstacleCount];
 		}
 	}
 }
@@ -6,19 +6,15 @@
 package magma.agent.model.thoughtmodel.impl;
 
 import hso.autonomy.agent.model.worldmodel.IMoveableObject;
-import hso.autonomy.util.geometry.Angle;
 import hso.autonomy.util.geometry.Area2D;
 import hso.autonomy.util.geometry.Geometry;
 import hso.autonomy.util.geometry.VectorUtils;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import magma.agent.model.thoughtmodel.IPlayerDistanceField;
 import magma.agent.model.thoughtmodel.IRoboCupThoughtModel;
 import magma.agent.model.thoughtmodel.KickPositionEstimation;
-import magma.agent.model.worldmodel.IPlayer;
 import magma.agent.model.worldmodel.IRCSoccerField;
-import magma.agent.model.worldmodel.IRoboCupWorldModel;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 
@@ -29,6 +25,9 @@ public class KickPositionProfiler extends KickPositionProfilerBase
 {
 	public static final float DEFAULT_AREA_BORDER = 2;
 
+	/** the default number of best positions kept by an estimation */
+	public static final int DEFAULT_MAX_POSITIONS = 10;
+
 	protected Area2D.Float playableArea;
 
 	protected final float maxEvaluationDistance;
@@ -37,6 +36,21 @@ public class KickPositionProfiler extends KickPositionProfilerBase
 
 	protected boolean goalKick;
 
+	/** the angle between evaluated kick directions in degrees */
+	protected double angleStep;
+
+	/** the distance between evaluated positions along a kick direction */
+	protected float distanceStep;
+
+	/** the utilities of the best positions of an estimation, best first */
+	private final float[] candidateUtilities;
+
+	/** the best positions of an estimation, best first */
+	private final Vector3D[] candidatePositions;
+
+	/** the number of valid candidates */
+	private int candidateCount;
+
 	public KickPositionProfiler(IRoboCupThoughtModel thoughtModel)
 	{
 		this(thoughtModel, 16, DEFAULT_AREA_BORDER, 0.5);
@@ -44,6 +58,15 @@ public class KickPositionProfiler extends KickPositionProfilerBase
 
 	public KickPositionProfiler(IRoboCupThoughtModel thoughtModel, float maxEvaluationDistance,
 			float kickableAreaBorder, double opponentBlockDistance)
+	{
+		this(thoughtModel, maxEvaluationDistance, kickableAreaBorder, opponentBlockDistance, DEFAULT_MAX_POSITIONS);
+	}
+
+	/**
+	 * @param maxPositions the number of best positions to keep of an estimation
+	 */
+	public KickPositionProfiler(IRoboCupThoughtModel thoughtModel, float maxEvaluationDistance,
+			float kickableAreaBorder, double opponentBlockDistance, int maxPositions)
 	{
 		super(thoughtModel);
 		IRCSoccerField soccerPitch = worldModel.getMap();
@@ -53,6 +76,10 @@ public class KickPositionProfiler extends KickPositionProfilerBase
 							   .applyBorder(kickableAreaBorder);
 		this.maxEvaluationDistance = maxEvaluationDistance;
 		this.opponentBlockDistance = opponentBlockDistance;
+		angleStep = 5;
+		distanceStep = 1;
+		candidateUtilities = new float[maxPositions];
+		candidatePositions = new Vector3D[maxPositions];
 	}
 
 	public void setPlayableArea(Area2D.Float playableArea)
@@ -60,6 +87,17 @@ public class KickPositionProfiler extends KickPositionProfilerBase
 		this.playableArea = playableArea;
 	}
 
+	/**
+	 * @param angleStep the angle between evaluated kick directions in degrees
+	 * @param distanceStep the distance between evaluated positions along a kick
+	 *        direction
+	 */
+	public void setEvaluationGrid(double angleStep, float distanceStep)
+	{
+		this.angleStep = angleStep;
+		this.distanceStep = distanceStep;
+	}
+
 	@Override
 	public SortedSet<KickPositionEstimation> evaluatePositions()
 	{
@@ -76,44 +114,39 @@ public class KickPositionProfiler extends KickPositionProfilerBase
 
 	protected SortedSet<KickPositionEstimation> doEstimate()
 	{
-		SortedSet<KickPositionEstimation> result = new TreeSet<>();
 		goalKick = false;
+		candidateCount = 0;
 
-		IRoboCupWorldModel worldModel = thoughtModel.getWorldModel();
+		IPlayerDistanceField distanceField = thoughtModel.getPlayerDistanceField();
 		Vector3D ballPosition = worldModel.getBall().getPosition();
 		Vector2D ballPosition2D = VectorUtils.to2D(ballPosition);
 
-		final int angleStep = 5;
 		final float initialDistance = 1;
 		final float maxDistance = getMaxEvaluationDistance();
-		final float distanceStep = 1;
 
-		for (int angle = -90; angle < 90; angle += angleStep) {
-			if (initialDistance > maxDistance) {
-				continue;
-			}
-
-			final Vector3D directionVector = new Vector3D(Angle.deg(angle).radians(), 0);
+		for (double angle = -90; angle < 90 && initialDistance < maxDistance; angle += angleStep) {
+			double directionX = Math.cos(Math.toRadians(angle));
+			double directionY = Math.sin(Math.toRadians(angle));
 
 			for (float distance = initialDistance; distance < maxDistance; distance += distanceStep) {
-				Vector3D position = ballPosition.add(directionVector.scalarMultiply(distance));
+				double x = ballPosition.getX() + directionX * distance;
+				double y = ballPosition.getY() + directionY * distance;
 
-				double minDistanceToOpponent = calculateDistanceToNearestPlayer(position, false);
+				double minDistanceToOpponent = distanceField.getDistanceToNearestOpponent(x, y);
 				if (minDistanceToOpponent < opponentBlockDistance) {
 					// the point should not be added nor further points on the ray
 					break;
 				}
 
-				double minDistanceToOwnPlayer = calculateDistanceToNearestPlayer(position, true);
+				double minDistanceToOwnPlayer = distanceField.getDistanceToNearestTeammate(x, y);
 				if (minDistanceToOpponent < minDistanceToOwnPlayer) {
 					// the point should not be added
 					continue;
 				}
 
-				if (!playableArea.contains(position)) {
-					Vector2D intersection =
-							worldModel.goalLineIntersection(ballPosition2D, VectorUtils.to2D(position), 0.1);
-					if (intersection == null || ballPosition.getX() > position.getX()) {
+				if (!playableArea.contains((float) x, (float) y)) {
+					Vector2D intersection = worldModel.goalLineIntersection(ballPosition2D, new Vector2D(x, y), 0.1);
+					if (intersection == null || ballPosition.getX() > x) {
 						// we left the playable area
 						if (!playableArea.contains(ballPosition)) {
 							continue;
@@ -124,29 +157,45 @@ public class KickPositionProfiler extends KickPositionProfilerBase
 					}
 				}
 
+				Vector3D position = new Vector3D(x, y, ballPosition.getZ());
 				float utility = estimateUtility(position, minDistanceToOwnPlayer, minDistanceToOpponent);
-				KickPositionEstimation estimate = new KickPositionEstimation(position, utility);
-				result.add(estimate);
+				addCandidate(position, utility);
 			}
 		}
 
+		SortedSet<KickPositionEstimation> result = new TreeSet<>();
+		for (int i = 0; i < candidateCount; i++) {
+			result.add(new KickPositionEstimation(candidatePositions[i], candidateUtilities[i]));
+		}
 		return result;
 	}
 
-	private double calculateDistanceToNearestPlayer(Vector3D position, boolean ownTeam)
+	/**
+	 * Keeps the candidate if it is among the best evaluated so far. Like in a
+	 * sorted set of estimations only the first candidate of equal utility is
+	 * kept.
+	 */
+	private void addCandidate(Vector3D position, float utility)
 	{
-		double minDistance = Double.MAX_VALUE;
-		List<IPlayer> allPlayers = new ArrayList<>(worldModel.getVisiblePlayers());
-		allPlayers.add(worldModel.getThisPlayer());
-		for (IPlayer player : allPlayers) {
-			if (player.isOwnTeam() == ownTeam) {
-				double distance = player.getDistanceToXY(position);
-				if (distance < minDistance) {
-					minDistance = distance;
-				}
+		int slot = candidateCount;
+		while (slot > 0 && candidateUtilities[slot - 1] <= utility) {
+			if (candidateUtilities[slot - 1] == utility) {
+				return;
 			}
+			slot--;
+		}
+		if (slot >= candidateUtilities.length) {
+			return;
+		}
+
+		int last = Math.min(candidateCount, candidateUtilities.length - 1);
+		System.arraycopy(candidateUtilities, slot, candidateUtilities, slot + 1, last - slot);
+		System.arraycopy(candidatePositions, slot, candidatePositions, slot + 1, last - slot);
+		candidateUtilities[slot] = utility;
+		candidatePositions[slot] = position;
+		if (candidateCount < candidateUtilities.length) {
+			candidateCount++;
 		}
-		return minDistance;
 	}
 
 	protected float getMaxEvaluationDistance()
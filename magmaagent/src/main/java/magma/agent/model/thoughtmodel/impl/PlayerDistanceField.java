@@ -0,0 +1,194 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.thoughtmodel.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import magma.agent.model.thoughtmodel.IPlayerDistanceField;
+import magma.agent.model.worldmodel.IPlayer;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * Raster of the distances to the nearest teammate and opponent. The player
+ * positions are copied once per cycle. The distances at the nodes of the raster
+ * are calculated on first request in a cycle and then reused by all further
+ * requests, so evaluating many positions, e.g. by several kick behaviors, costs
+ * little more than evaluating a few. Distances between nodes are interpolated
+ * bilinearly. Close to a player they are overestimated by up to about
+ * 0.7 times the resolution. Positions outside the raster are calculated exactly.
+ *
+ * @author kdorer
+ */
+public class PlayerDistanceField implements IPlayerDistanceField
+{
+	/** the default distance of the nodes of the raster in m */
+	public static final double DEFAULT_RESOLUTION = 0.2;
+
+	private final double minX;
+
+	private final double minY;
+
+	private final double resolution;
+
+	private final int columns;
+
+	private final int rows;
+
+	/** distance to the nearest teammate per node */
+	private final float[] teammateDistances;
+
+	/** distance to the nearest opponent per node */
+	private final float[] opponentDistances;
+
+	/** the cycle in which the distances of each node were calculated */
+	private final int[] nodeCycles;
+
+	/** the current cycle, nodes of older cycles have to be recalculated */
+	private int cycle;
+
+	private double[] teammateX;
+
+	private double[] teammateY;
+
+	private int teammateCount;
+
+	private double[] opponentX;
+
+	private double[] opponentY;
+
+	private int opponentCount;
+
+	/**
+	 * @param halfLength half of the length of the covered area in x direction
+	 *        centered at the origin
+	 * @param halfWidth half of the width of the covered area in y direction
+	 *        centered at the origin
+	 * @param resolution the distance of the raster nodes
+	 */
+	public PlayerDistanceField(double halfLength, double halfWidth, double resolution)
+	{
+		this.minX = -halfLength;
+		this.minY = -halfWidth;
+		this.resolution = resolution;
+		columns = (int) Math.ceil(2 * halfLength / resolution) + 1;
+		rows = (int) Math.ceil(2 * halfWidth / resolution) + 1;
+		teammateDistances = new float[columns * rows];
+		opponentDistances = new float[columns * rows];
+		nodeCycles = new int[columns * rows];
+		cycle = 1;
+		teammateX = new double[16];
+		teammateY = new double[16];
+		opponentX = new double[16];
+		opponentY = new double[16];
+	}
+
+	/**
+	 * Takes over the player positions of a new cycle
+	 *
+	 * @param visiblePlayers the players known in this cycle
+	 * @param thisPlayer this player, counted as teammate
+	 */
+	public void update(List<? extends IPlayer> visiblePlayers, IPlayer thisPlayer)
+	{
+		cycle++;
+		teammateCount = 0;
+		opponentCount = 0;
+		for (int i = 0; i < visiblePlayers.size(); i++) {
+			addPlayer(visiblePlayers.get(i));
+		}
+		if (thisPlayer != null) {
+			addPlayer(thisPlayer);
+		}
+	}
+
+	private void addPlayer(IPlayer player)
+	{
+		Vector3D position = player.getPosition();
+		if (player.isOwnTeam()) {
+			if (teammateCount == teammateX.length) {
+				teammateX = Arrays.copyOf(teammateX, 2 * teammateCount);
+				teammateY = Arrays.copyOf(teammateY, 2 * teammateCount);
+			}
+			teammateX[teammateCount] = position.getX();
+			teammateY[teammateCount] = position.getY();
+			teammateCount++;
+		} else {
+			if (opponentCount == opponentX.length) {
+				opponentX = Arrays.copyOf(opponentX, 2 * opponentCount);
+				opponentY = Arrays.copyOf(opponentY, 2 * opponentCount);
+			}
+			opponentX[opponentCount] = position.getX();
+			opponentY[opponentCount] = position.getY();
+			opponentCount++;
+		}
+	}
+
+	@Override
+	public double getDistanceToNearestTeammate(double x, double y)
+	{
+		return sample(x, y, true);
+	}
+
+	@Override
+	public double getDistanceToNearestOpponent(double x, double y)
+	{
+		return sample(x, y, false);
+	}
+
+	private double sample(double x, double y, boolean ownTeam)
+	{
+		if ((ownTeam ? teammateCount : opponentCount) == 0) {
+			return Double.MAX_VALUE;
+		}
+
+		double gridX = (x - minX) / resolution;
+		double gridY = (y - minY) / resolution;
+		int column = (int) Math.floor(gridX);
+		int row = (int) Math.floor(gridY);
+		if (column < 0 || row < 0 || column >= columns - 1 || row >= rows - 1) {
+			return ownTeam ? nearestDistance(x, y, teammateX, teammateY, teammateCount)
+						   : nearestDistance(x, y, opponentX, opponentY, opponentCount);
+		}
+
+		float[] distances = ownTeam ? teammateDistances : opponentDistances;
+		int node = row * columns + column;
+		double d00 = nodeDistance(distances, node);
+		double d10 = nodeDistance(distances, node + 1);
+		double d01 = nodeDistance(distances, node + columns);
+		double d11 = nodeDistance(distances, node + columns + 1);
+		double fx = gridX - column;
+		double fy = gridY - row;
+		double d0 = d00 + (d10 - d00) * fx;
+		double d1 = d01 + (d11 - d01) * fx;
+		return d0 + (d1 - d0) * fy;
+	}
+
+	private double nodeDistance(float[] distances, int node)
+	{
+		if (nodeCycles[node] != cycle) {
+			double x = minX + (node % columns) * resolution;
+			double y = minY + (node / columns) * resolution;
+			teammateDistances[node] = (float) nearestDistance(x, y, teammateX, teammateY, teammateCount);
+			opponentDistances[node] = (float) nearestDistance(x, y, opponentX, opponentY, opponentCount);
+			nodeCycles[node] = cycle;
+		}
+		return distances[node];
+	}
+
+	private static double nearestDistance(double x, double y, double[] playerX, double[] playerY, int count)
+	{
+		double minDistanceSq = Double.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			double dx = playerX[i] - x;
+			double dy = playerY[i] - y;
+			double distanceSq = dx * dx + dy * dy;
+			if (distanceSq < minDistanceSq) {
+				minDistanceSq = distanceSq;
+			}
+		}
+		return count > 0 ? Math.sqrt(minDistanceSq) : Double.MAX_VALUE;
+	}
+}
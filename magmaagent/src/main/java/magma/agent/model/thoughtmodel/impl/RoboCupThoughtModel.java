@@ -8,7 +8,6 @@ package magma.agent.model.thoughtmodel.impl;
 import hso.autonomy.agent.communication.action.IAction;
 import hso.autonomy.agent.communication.perception.IPerception;
 import hso.autonomy.agent.model.agentmodel.IAgentModel;
-import hso.autonomy.agent.model.thoughtmodel.ITruthValue;
 import hso.autonomy.agent.model.thoughtmodel.impl.ThoughtModel;
 import hso.autonomy.agent.model.worldmodel.IMoveableObject;
 import hso.autonomy.agent.model.worldmodel.IVisibleObject;
@@ -16,14 +15,13 @@ import hso.autonomy.util.geometry.Angle;
 import hso.autonomy.util.geometry.Pose2D;
 import hso.autonomy.util.logging.PropertyMap;
 import hso.autonomy.util.misc.FuzzyCompare;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.SortedSet;
 import magma.agent.IHumanoidJoints;
 import magma.agent.model.agentmodel.IRoboCupAgentModel;
 import magma.agent.model.thoughtmodel.IKickPositionProfiler;
+import magma.agent.model.thoughtmodel.IPlayerDistanceField;
 import magma.agent.model.thoughtmodel.IRoboCupThoughtModel;
 import magma.agent.model.thoughtmodel.KickPositionEstimation;
 import magma.agent.model.thoughtmodel.strategy.IRole;
@@ -48,6 +46,9 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 	/** Maximum time we believe we know where the ball is. In seconds */
 	private static final float LAST_SEEN_THRESHOLD = 3.0f;
 
+	/** how far the player distance field reaches beyond the field lines */
+	private static final float PLAYER_DISTANCE_FIELD_BORDER = 3.0f;
+
 	/** the indexical functional object calculator. */
 	private transient IFOCalculator ifoCalculator;
 
@@ -57,6 +58,12 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 	/** list of all team-mates sorted by the distance to the ball. */
 	private List<IPlayer> teamMateAtBallList;
 
+	/** list of all team-mates without goalie sorted by the distance to the ball. */
+	private List<IPlayer> teamMateNotGoalieAtBallList;
+
+	/** list of all team-mates including goalie sorted by the distance to the ball. */
+	private List<IPlayer> teamMateWithGoalieAtBallList;
+
 	/** list of all own players sorted by the distance to the goal. */
 	private List<IPlayer> ownPlayersAtOwnGoalList;
 
@@ -72,6 +79,14 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 	/** list of all opponents sorted by the distance to me. */
 	private List<IPlayer> opponentsAtMeList;
 
+	/** the own player closest to the ball, null if not yet calculated in this cycle */
+	private transient IPlayer closestOwnPlayerAtBall;
+
+	private transient DistanceToBallComparator distanceToBallComparator;
+
+	/** distances to the nearest players, updated each cycle */
+	private transient PlayerDistanceField playerDistanceField;
+
 	protected transient IKickPositionProfiler kickPositionProfiler;
 
 	protected transient OpponentProfiler opponentProfiler;
@@ -96,20 +111,25 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 		this.properties = new PropertyMap();
 
 		ifoCalculator = new IFOCalculator(worldModel);
+		distanceToBallComparator = new DistanceToBallComparator(worldModel);
 		kickPositionProfiler = null;
+		playerDistanceField = new PlayerDistanceField(worldModel.fieldHalfLength() + PLAYER_DISTANCE_FIELD_BORDER,
+				worldModel.fieldHalfWidth() + PLAYER_DISTANCE_FIELD_BORDER, PlayerDistanceField.DEFAULT_RESOLUTION);
 		opponentProfiler = new OpponentProfiler();
 
 		roleManager = null;
 		role = null;
 
-		// functional Object list
-		obstacles = new ArrayList<>(0);
-		teamMateAtBallList = new ArrayList<>(0);
-		ownPlayersAtOwnGoalList = new ArrayList<>(0);
-		opponentsAtBallList = new ArrayList<>(0);
-		playersAtBallList = new ArrayList<>(0);
-		playersAtMeList = new ArrayList<>(0);
-		opponentsAtMeList = new ArrayList<>(0);
+		// functional Object lists, their content is updated each cycle
+		obstacles = ifoCalculator.getObstacles();
+		teamMateNotGoalieAtBallList = ifoCalculator.getTeammatesAtBall();
+		teamMateWithGoalieAtBallList = ifoCalculator.getTeammatesAtBallWithGoalie();
+		teamMateAtBallList = teamMateNotGoalieAtBallList;
+		ownPlayersAtOwnGoalList = ifoCalculator.getOwnPlayersAtOwnGoal();
+		opponentsAtBallList = ifoCalculator.getOpponentsAtBall();
+		playersAtBallList = ifoCalculator.getPlayersAtBall();
+		playersAtMeList = ifoCalculator.getPlayersAtMe();
+		opponentsAtMeList = ifoCalculator.getOpponentsAtMe();
 	}
 
 	@Override
@@ -139,6 +159,7 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 	@Override
 	public boolean update(IPerception perception)
 	{
+		closestOwnPlayerAtBall = null;
 		if (properties != null) {
 			properties.update();
 		}
@@ -151,10 +172,7 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 			// Trigger world model to process vision information
 			result = getWorldModel().update(perception) || result;
 
-			// update all truth values with state
-			for (ITruthValue value : truthValues.values()) {
-				value.update(this);
-			}
+			updateTruthValues();
 		}
 
 		updatePlayerThatActivatedPassMode();
@@ -217,19 +235,14 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 	{
 		IRoboCupWorldModel worldModel = getWorldModel();
 		List<IPlayer> visiblePlayers = worldModel.getVisiblePlayers();
+		ifoCalculator.update(visiblePlayers);
 		if (worldModel.isBallInCriticalArea()) {
-			teamMateAtBallList = ifoCalculator.getTeammatesAtBallWithGoalie(visiblePlayers);
+			teamMateAtBallList = teamMateWithGoalieAtBallList;
 		} else {
-			teamMateAtBallList = ifoCalculator.getTeammatesAtBall(visiblePlayers);
+			teamMateAtBallList = teamMateNotGoalieAtBallList;
 		}
-		List<IPlayer> allPlayers = new ArrayList<>(visiblePlayers);
-		allPlayers.add(worldModel.getThisPlayer());
-		ownPlayersAtOwnGoalList = ifoCalculator.getOwnPlayersAtOwnGoal(allPlayers);
-		opponentsAtBallList = ifoCalculator.getOpponentsAtBall(visiblePlayers);
-		playersAtBallList = ifoCalculator.getPlayersAtBall(visiblePlayers);
-		playersAtMeList = ifoCalculator.getPlayersAtMe(visiblePlayers);
-		opponentsAtMeList = ifoCalculator.getOpponentsAtMe(playersAtMeList);
-		obstacles = ifoCalculator.getObstacles(visiblePlayers, worldModel.getBall());
+		closestOwnPlayerAtBall = null;
+		playerDistanceField.update(visiblePlayers, worldModel.getThisPlayer());
 	}
 
 	// --------------------------------------------------
@@ -291,12 +304,36 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 	@Override
 	public IPlayer getClosestOwnPlayerAtBall()
 	{
-		List<IPlayer> playersAtBall = getTeammatesAtBall();
-		List<IPlayer> newSort = new ArrayList<>(playersAtBall);
-		// we add ourselves to have the same calculation for all
-		newSort.add(getWorldModel().getThisPlayer());
+		if (closestOwnPlayerAtBall == null) {
+			closestOwnPlayerAtBall = calculateClosestOwnPlayerAtBall();
+		}
+		return closestOwnPlayerAtBall;
+	}
+
+	private IPlayer calculateClosestOwnPlayerAtBall()
+	{
+		IRoboCupWorldModel worldModel = getWorldModel();
+		IMoveableObject ball = worldModel.getBall();
+		Vector3D ballPosition = ball.isMoving() ? ball.getFuturePosition(150) : ball.getPosition();
+		Vector3D otherGoalPosition = worldModel.getOtherGoalPosition();
+
+		IPlayer result = null;
+		double minDistance = Double.POSITIVE_INFINITY;
+		for (IPlayer player : getTeammatesAtBall()) {
+			double distance = distanceToBallComparator.getDistance(player, ballPosition, otherGoalPosition);
+			if (result == null || Double.compare(distance, minDistance) < 0) {
+				result = player;
+				minDistance = distance;
+			}
+		}
 
-		return Collections.min(newSort, new DistanceToBallComparator(getWorldModel()));
+		// we add ourselves to have the same calculation for all
+		IThisPlayer thisPlayer = worldModel.getThisPlayer();
+		double distance = distanceToBallComparator.getDistance(thisPlayer, ballPosition, otherGoalPosition);
+		if (result == null || Double.compare(distance, minDistance) < 0) {
+			result = thisPlayer;
+		}
+		return result;
 	}
 
 	@Override
@@ -415,6 +452,12 @@ public class RoboCupThoughtModel extends ThoughtModel implements IRoboCupThought
 		return kickPositionProfiler.getEvaluatedPositions();
 	}
 
+	@Override
+	public IPlayerDistanceField getPlayerDistanceField()
+	{
+		return playerDistanceField;
+	}
+
 	@Override
 	public void setKickPositionProfiler(IKickPositionProfiler kickPositionProfiler)
 	{
@@ -0,0 +1,26 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.thoughtmodel.strategy;
+
+/**
+ * Assigns players to roles based on a matrix of costs, e.g. the distances of
+ * the players to the target positions of the roles.
+ *
+ * @author kdorer
+ */
+public interface IRoleAssignmentSolver {
+	/**
+	 * Assigns each player to a different role. If there are more players than
+	 * roles, some players remain without role.
+	 *
+	 * @param costs the cost of player i taking role j at index i * roleCount + j
+	 * @param playerCount the number of players
+	 * @param roleCount the number of roles
+	 * @param assignment receives the index of the role of each player, -1 for
+	 *        players without role
+	 */
+	void solve(double[] costs, int playerCount, int roleCount, int[] assignment);
+}
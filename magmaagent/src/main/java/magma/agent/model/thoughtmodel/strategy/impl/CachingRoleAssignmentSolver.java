@@ -0,0 +1,85 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.thoughtmodel.strategy.impl;
+
+import java.util.Arrays;
+import magma.agent.model.thoughtmodel.strategy.IRoleAssignmentSolver;
+
+/**
+ * Reuses the last assignment of the decorated solver as long as no cost has
+ * changed by more than a threshold since that assignment was calculated. This
+ * keeps roles stable against noise in the player positions and saves solving
+ * in most cycles.
+ *
+ * @author kdorer
+ */
+public class CachingRoleAssignmentSolver implements IRoleAssignmentSolver
+{
+	private final IRoleAssignmentSolver decoratee;
+
+	/** the maximal change of a single cost for which the assignment is reused */
+	private final double threshold;
+
+	/** the costs the cached assignment was calculated for */
+	private double[] cachedCosts = new double[0];
+
+	private int[] cachedAssignment = new int[0];
+
+	private int cachedPlayerCount = -1;
+
+	private int cachedRoleCount = -1;
+
+	public CachingRoleAssignmentSolver(IRoleAssignmentSolver decoratee, double threshold)
+	{
+		this.decoratee = decoratee;
+		this.threshold = threshold;
+	}
+
+	@Override
+	public void solve(double[] costs, int playerCount, int roleCount, int[] assignment)
+	{
+		if (!isCacheValid(costs, playerCount, roleCount)) {
+			decoratee.solve(costs, playerCount, roleCount, assignment);
+
+			int size = playerCount * roleCount;
+			if (cachedCosts.length < size) {
+				cachedCosts = new double[size];
+			}
+			if (cachedAssignment.length < playerCount) {
+				cachedAssignment = new int[playerCount];
+			}
+			System.arraycopy(costs, 0, cachedCosts, 0, size);
+			System.arraycopy(assignment, 0, cachedAssignment, 0, playerCount);
+			cachedPlayerCount = playerCount;
+			cachedRoleCount = roleCount;
+			return;
+		}
+
+		System.arraycopy(cachedAssignment, 0, assignment, 0, playerCount);
+	}
+
+	/**
+	 * Forces recalculation on the next call
+	 */
+	public void invalidate()
+	{
+		cachedPlayerCount = -1;
+		Arrays.fill(cachedAssignment, -1);
+	}
+
+	private boolean isCacheValid(double[] costs, int playerCount, int roleCount)
+	{
+		if (playerCount != cachedPlayerCount || roleCount != cachedRoleCount) {
+			return false;
+		}
+		for (int i = 0; i < playerCount * roleCount; i++) {
+			if (Math.abs(costs[i] - cachedCosts[i]) > threshold) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
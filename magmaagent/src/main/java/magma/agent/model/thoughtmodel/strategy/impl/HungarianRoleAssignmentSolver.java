@@ -0,0 +1,253 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.thoughtmodel.strategy.impl;
+
+import java.util.Arrays;
+import magma.agent.model.thoughtmodel.strategy.IRoleAssignmentSolver;
+
+/**
+ * Optimal role assignment by the Hungarian method in O(n^2 m) for n players
+ * and m roles. All working arrays are kept between calls, so solving does not
+ * allocate memory once the arrays have grown to the problem size.
+ *
+ * @author kdorer
+ */
+public class HungarianRoleAssignmentSolver implements IRoleAssignmentSolver
+{
+	/** what the assignment minimizes */
+	public enum Objective {
+		/** the sum of the costs of all players */
+		TOTAL_COST,
+
+		/** the highest cost of a single player, ties are broken by the total cost */
+		MAX_COST
+	}
+
+	private final Objective objective;
+
+	/** the costs with rows not longer than columns, 1 based */
+	private double[] matrix = new double[0];
+
+	private double[] rowPotential = new double[0];
+
+	private double[] columnPotential = new double[0];
+
+	private double[] minSlack = new double[0];
+
+	/** the row assigned to each column, 0 if none */
+	private int[] columnRow = new int[0];
+
+	/** the previous column on the augmenting path */
+	private int[] way = new int[0];
+
+	private boolean[] used = new boolean[0];
+
+	/** the sorted costs to search the bottleneck */
+	private double[] sortedCosts = new double[0];
+
+	public HungarianRoleAssignmentSolver()
+	{
+		this(Objective.TOTAL_COST);
+	}
+
+	public HungarianRoleAssignmentSolver(Objective objective)
+	{
+		this.objective = objective;
+	}
+
+	@Override
+	public void solve(double[] costs, int playerCount, int roleCount, int[] assignment)
+	{
+		Arrays.fill(assignment, 0, playerCount, -1);
+		if (playerCount == 0 || roleCount == 0) {
+			return;
+		}
+
+		// the Hungarian method needs at most as many rows as columns
+		boolean transposed = playerCount > roleCount;
+		int rows = transposed ? roleCount : playerCount;
+		int columns = transposed ? playerCount : roleCount;
+		ensureCapacity(rows, columns);
+		for (int player = 0; player < playerCount; player++) {
+			for (int role = 0; role < roleCount; role++) {
+				double cost = costs[player * roleCount + role];
+				if (transposed) {
+					matrix[(role + 1) * (columns + 1) + player + 1] = cost;
+				} else {
+					matrix[(player + 1) * (columns + 1) + role + 1] = cost;
+				}
+			}
+		}
+
+		if (objective == Objective.MAX_COST) {
+			excludeAboveBottleneck(rows, columns);
+		}
+
+		solveMatrix(rows, columns);
+
+		for (int column = 1; column <= columns; column++) {
+			int row = columnRow[column];
+			if (row == 0) {
+				continue;
+			}
+			if (transposed) {
+				assignment[column - 1] = row - 1;
+			} else {
+				assignment[row - 1] = column - 1;
+			}
+		}
+	}
+
+	/**
+	 * Finds the minimal assignment of all rows by the Hungarian method with
+	 * potentials
+	 */
+	private void solveMatrix(int rows, int columns)
+	{
+		int width = columns + 1;
+		Arrays.fill(rowPotential, 0, rows + 1, 0);
+		Arrays.fill(columnPotential, 0, width, 0);
+		Arrays.fill(columnRow, 0, width, 0);
+
+		for (int row = 1; row <= rows; row++) {
+			columnRow[0] = row;
+			int column0 = 0;
+			Arrays.fill(minSlack, 0, width, Double.POSITIVE_INFINITY);
+			Arrays.fill(used, 0, width, false);
+			do {
+				used[column0] = true;
+				int row0 = columnRow[column0];
+				double delta = Double.POSITIVE_INFINITY;
+				int column1 = 0;
+				for (int column = 1; column <= columns; column++) {
+					if (!used[column]) {
+						double slack = matrix[row0 * width + column] - rowPotential[row0] - columnPotential[column];
+						if (slack < minSlack[column]) {
+							minSlack[column] = slack;
+							way[column] = column0;
+						}
+						if (minSlack[column] < delta) {
+							delta = minSlack[column];
+							column1 = column;
+						}
+					}
+				}
+				for (int column = 0; column <= columns; column++) {
+					if (used[column]) {
+						rowPotential[columnRow[column]] += delta;
+						columnPotential[column] -= delta;
+					} else {
+						minSlack[column] -= delta;
+					}
+				}
+				column0 = column1;
+			} while (columnRow[column0] != 0);
+
+			// flip the augmenting path
+			do {
+				int column1 = way[column0];
+				columnRow[column0] = columnRow[column1];
+				column0 = column1;
+			} while (column0 != 0);
+		}
+	}
+
+	/**
+	 * Searches the smallest cost for which all rows can be assigned using only
+	 * costs not above it and makes all higher costs prohibitive
+	 */
+	private void excludeAboveBottleneck(int rows, int columns)
+	{
+		int width = columns + 1;
+		int count = 0;
+		double total = 0;
+		for (int row = 1; row <= rows; row++) {
+			for (int column = 1; column <= columns; column++) {
+				double cost = matrix[row * width + column];
+				sortedCosts[count++] = cost;
+				total += Math.abs(cost);
+			}
+		}
+		Arrays.sort(sortedCosts, 0, count);
+
+		// binary search on the sorted costs, the highest always allows a full assignment
+		int low = 0;
+		int high = count - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (isAssignable(rows, columns, sortedCosts[middle])) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+
+		double bottleneck = sortedCosts[low];
+		double prohibitive = total + 1;
+		for (int row = 1; row <= rows; row++) {
+			for (int column = 1; column <= columns; column++) {
+				if (matrix[row * width + column] > bottleneck) {
+					matrix[row * width + column] = prohibitive;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true if all rows can be assigned using only costs not above the
+	 *         limit
+	 */
+	private boolean isAssignable(int rows, int columns, double limit)
+	{
+		Arrays.fill(columnRow, 0, columns + 1, 0);
+		for (int row = 1; row <= rows; row++) {
+			Arrays.fill(used, 0, columns + 1, false);
+			if (!augment(row, columns, limit)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Searches an augmenting path from the passed row (Kuhn's algorithm)
+	 */
+	private boolean augment(int row, int columns, double limit)
+	{
+		int width = columns + 1;
+		for (int column = 1; column <= columns; column++) {
+			if (!used[column] && matrix[row * width + column] <= limit) {
+				used[column] = true;
+				if (columnRow[column] == 0 || augment(columnRow[column], columns, limit)) {
+					columnRow[column] = row;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void ensureCapacity(int rows, int columns)
+	{
+		int width = columns + 1;
+		if (matrix.length < (rows + 1) * width) {
+			matrix = new double[(rows + 1) * width];
+		}
+		if (sortedCosts.length < rows * columns) {
+			sortedCosts = new double[rows * columns];
+		}
+		if (rowPotential.length < rows + 1) {
+			rowPotential = new double[rows + 1];
+		}
+		if (columnPotential.length < width) {
+			columnPotential = new double[width];
+			minSlack = new double[width];
+			columnRow = new int[width];
+			way = new int[width];
+			used = new boolean[width];
+		}
+	}
+}
@@ -8,10 +8,10 @@ package magma.agent.model.thoughtmodel.strategy.impl;
 import hso.autonomy.agent.model.worldmodel.IWorldModel;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 import magma.agent.model.thoughtmodel.strategy.IRole;
+import magma.agent.model.thoughtmodel.strategy.IRoleAssignmentSolver;
 import magma.agent.model.thoughtmodel.strategy.IRoleManager;
 import magma.agent.model.thoughtmodel.strategy.ITeamStrategy;
 import magma.agent.model.thoughtmodel.strategy.impl.roles.DummyRole;
@@ -28,20 +28,45 @@ import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
  */
 public class RoleManager implements IRoleManager
 {
+	/** the change of a player's distance to a role position in m that triggers a new assignment */
+	public static final double DEFAULT_REASSIGNMENT_THRESHOLD = 0.3;
+
+	private static final Comparator<IPlayer> PLAYER_ID_COMPARATOR = Comparator.comparingInt(IPlayer::getID);
+
 	private final RolePriorityComparator comparator = new RolePriorityComparator();
 
 	private ITeamStrategy strategy;
 
 	private final IRoboCupWorldModel worldModel;
 
+	private final IRoleAssignmentSolver solver;
+
+	/** the distances of the players (rows) to the role positions (columns) */
+	private double[] costs;
+
+	/** the index of the role of each player */
+	private int[] assignment;
+
 	/**
 	 * This unit cares about the different roles and how they work together or
 	 * with each other. Calculation of priorities.
 	 */
 	public RoleManager(IWorldModel worldModel, ITeamStrategy strategy)
+	{
+		this(worldModel, strategy,
+				new CachingRoleAssignmentSolver(new HungarianRoleAssignmentSolver(), DEFAULT_REASSIGNMENT_THRESHOLD));
+	}
+
+	/**
+	 * @param solver the solver that assigns the roles to the players
+	 */
+	public RoleManager(IWorldModel worldModel, ITeamStrategy strategy, IRoleAssignmentSolver solver)
 	{
 		this.worldModel = (IRoboCupWorldModel) worldModel;
 		this.strategy = strategy;
+		this.solver = solver;
+		costs = new double[0];
+		assignment = new int[0];
 	}
 
 	@Override
@@ -55,11 +80,10 @@ public class RoleManager implements IRoleManager
 
 		// TODO: implement dynamic strategy changes based on ball position
 
-		HashMap<IPlayer, IRole> roleAssignments = assignRoles(getAssignablePlayers(closestPlayer), getAvailableRoles());
-		IRole result = roleAssignments.get(thisPlayer);
+		IRole result = assignRoles(getAssignablePlayers(closestPlayer), getAvailableRoles());
 		if (result == null) {
-			System.err.println("Unexpected null role: " + roleAssignments + " this player: " + thisPlayer.getID() +
-							   " - " + thisPlayer.getTeamname());
+			System.err.println("Unexpected null role, this player: " + thisPlayer.getID() + " - " +
+							   thisPlayer.getTeamname());
 			return DummyRole.INSTANCE;
 		}
 		return result;
@@ -88,6 +112,8 @@ public class RoleManager implements IRoleManager
 		if (!remainingPlayers.contains(worldModel.getThisPlayer())) {
 			remainingPlayers.add(worldModel.getThisPlayer());
 		}
+		// same order in all agents for a stable assignment
+		remainingPlayers.sort(PLAYER_ID_COMPARATOR);
 		return remainingPlayers;
 	}
 
@@ -99,27 +125,35 @@ public class RoleManager implements IRoleManager
 		return availableRoles;
 	}
 
-	private HashMap<IPlayer, IRole> assignRoles(List<IPlayer> assignablePlayers, List<IRole> availableRoles)
+	/**
+	 * Assigns the roles of highest priority to the players such that the
+	 * solver's objective on the distances to the role positions is optimal
+	 *
+	 * @return the role of this player, null if it got none
+	 */
+	private IRole assignRoles(List<IPlayer> assignablePlayers, List<IRole> availableRoles)
 	{
-		HashMap<IPlayer, IRole> roleAssignments = new HashMap<>();
-		while (assignablePlayers.size() > 0) {
-			IPlayer closestPlayer = null;
-			double closestDistance = 0;
-			IRole currentRole = availableRoles.get(0);
-			Vector2D position = currentRole.getIndependentTargetPose().getPosition();
-			for (IPlayer remainingPlayer : assignablePlayers) {
-				double currentDistance = remainingPlayer.getDistanceToXY(position);
-				if (closestPlayer == null || currentDistance < closestDistance) {
-					closestPlayer = remainingPlayer;
-					closestDistance = currentDistance;
-				}
-			}
+		int playerCount = assignablePlayers.size();
+		int roleCount = Math.min(playerCount, availableRoles.size());
+		if (costs.length < playerCount * roleCount) {
+			costs = new double[playerCount * roleCount];
+		}
+		if (assignment.length < playerCount) {
+			assignment = new int[playerCount];
+		}
 
-			roleAssignments.put(closestPlayer, currentRole);
-			assignablePlayers.remove(closestPlayer);
-			availableRoles.remove(0);
+		for (int role = 0; role < roleCount; role++) {
+			Vector2D position = availableRoles.get(role).getIndependentTargetPose().getPosition();
+			for (int player = 0; player < playerCount; player++) {
+				costs[player * roleCount + role] = assignablePlayers.get(player).getDistanceToXY(position);
+			}
 		}
-		return roleAssignments;
+
+		solver.solve(costs, playerCount, roleCount, assignment);
+
+		int thisPlayerIndex = assignablePlayers.indexOf(worldModel.getThisPlayer());
+		int role = assignment[thisPlayerIndex];
+		return role >= 0 ? availableRoles.get(role) : null;
 	}
 
 	private class RolePriorityComparator implements Comparator<IRole>
@@ -0,0 +1,32 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.worldmeta;
+
+import magma.agent.model.worldmeta.impl.SayMessage;
+
+/**
+ * Converts say messages to and from the strings transmitted by the say
+ * effector. All players of a team have to use the same codec.
+ *
+ * @author kdorer
+ */
+public interface ISayCodec {
+	/** the maximum number of characters the server transmits per message */
+	int MAX_MESSAGE_LENGTH = 20;
+
+	/**
+	 * @param message the message to encode
+	 * @return the string to say, at most {@link #MAX_MESSAGE_LENGTH} characters
+	 */
+	String encode(SayMessage message);
+
+	/**
+	 * @param message the string heard
+	 * @return the decoded message, null if the string is not a message of this
+	 *         codec
+	 */
+	SayMessage decode(String message);
+}
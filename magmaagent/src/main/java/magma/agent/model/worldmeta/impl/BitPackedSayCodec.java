@@ -0,0 +1,279 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.worldmeta.impl;
+
+import hso.autonomy.util.geometry.Angle;
+import java.math.BigInteger;
+import java.util.Arrays;
+import magma.agent.model.worldmeta.ISayCodec;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * Packs the quantized fields of a say message into a bit string and transmits
+ * it as a number in the base of all characters the server allows in say
+ * messages. Besides the sender id this transmits the time slot, the pose of
+ * the sender, the ball position and speed and the opponent position. A
+ * checksum rejects strings that are not messages of this codec.
+ *
+ * @author kdorer
+ */
+public class BitPackedSayCodec implements ISayCodec
+{
+	/**
+	 * The fields of a message in the order of transmission with their number
+	 * of bits and resolution.
+	 */
+	private enum Field {
+		SENDER(4, 1),
+		TIME_SLOT(8, 1),
+		OWN_POSE_KNOWN(1, 1),
+		OWN_X(12, 0.01),
+		OWN_Y(12, 0.01),
+		OWN_ANGLE_KNOWN(1, 1),
+		OWN_HORIZONTAL_ANGLE(8, 360.0 / 256),
+		BALL_KNOWN(1, 1),
+		BALL_X(12, 0.01),
+		BALL_Y(12, 0.01),
+		BALL_SPEED_X(9, 0.001),
+		BALL_SPEED_Y(9, 0.001),
+		OPPONENT_KNOWN(1, 1),
+		OPPONENT_X(10, 0.05),
+		OPPONENT_Y(10, 0.05),
+		CHECKSUM(7, 1);
+
+		final int bits;
+
+		final double resolution;
+
+		Field(int bits, double resolution)
+		{
+			this.bits = bits;
+			this.resolution = resolution;
+		}
+
+		/**
+		 * @param value the value to quantize, symmetric around 0
+		 * @return the quantized value, limited to the range of this field
+		 */
+		long quantize(double value)
+		{
+			long offset = 1L << (bits - 1);
+			long quantized = Math.round(value / resolution) + offset;
+			return Math.max(0, Math.min(quantized, (1L << bits) - 1));
+		}
+
+		/**
+		 * @param value the value to quantize, periodic with the range of this
+		 *        field
+		 * @return the quantized value wrapped into the range of this field
+		 */
+		long quantizeCyclic(double value)
+		{
+			long offset = 1L << (bits - 1);
+			return (Math.round(value / resolution) + offset) & ((1L << bits) - 1);
+		}
+
+		double dequantize(long quantized)
+		{
+			return (quantized - (1L << (bits - 1))) * resolution;
+		}
+	}
+
+	private static final Field[] FIELDS = Field.values();
+
+	/** the characters allowed in say messages: printable ASCII except space and brackets */
+	private static final char[] ALPHABET;
+
+	/** the index of each ASCII character in the alphabet, -1 if not allowed */
+	private static final int[] ALPHABET_INDEX = new int[128];
+
+	private static final BigInteger BASE;
+
+	/** the checksum is the payload modulo this prime */
+	private static final BigInteger CHECKSUM_PRIME = BigInteger.valueOf(127);
+
+	/** the number of bits of a message */
+	private static final int MESSAGE_BITS;
+
+	/** the number of characters of a message */
+	private static final int MESSAGE_LENGTH;
+
+	static {
+		StringBuilder alphabet = new StringBuilder();
+		for (char c = '!'; c <= '~'; c++) {
+			if (c != '(' && c != ')') {
+				alphabet.append(c);
+			}
+		}
+		ALPHABET = alphabet.toString().toCharArray();
+		Arrays.fill(ALPHABET_INDEX, -1);
+		for (int i = 0; i < ALPHABET.length; i++) {
+			ALPHABET_INDEX[ALPHABET[i]] = i;
+		}
+		BASE = BigInteger.valueOf(ALPHABET.length);
+
+		int bits = 0;
+		for (Field field : FIELDS) {
+			bits += field.bits;
+		}
+		MESSAGE_BITS = bits;
+		MESSAGE_LENGTH = charactersNeeded(bits);
+	}
+
+	@Override
+	public String encode(SayMessage message)
+	{
+		long[] values = new long[FIELDS.length];
+		values[Field.SENDER.ordinal()] = message.getTeammateID();
+		values[Field.TIME_SLOT.ordinal()] = Math.max(message.getTimeSlot(), 0);
+
+		Vector3D ownPosition = message.getTeammatePosition();
+		if (ownPosition != null) {
+			values[Field.OWN_POSE_KNOWN.ordinal()] = 1;
+			values[Field.OWN_X.ordinal()] = Field.OWN_X.quantize(ownPosition.getX());
+			values[Field.OWN_Y.ordinal()] = Field.OWN_Y.quantize(ownPosition.getY());
+		}
+		Angle angle = message.getTeammateHorizontalAngle();
+		if (angle != null) {
+			values[Field.OWN_ANGLE_KNOWN.ordinal()] = 1;
+			values[Field.OWN_HORIZONTAL_ANGLE.ordinal()] = Field.OWN_HORIZONTAL_ANGLE.quantizeCyclic(angle.degrees());
+		}
+
+		Vector3D ballPosition = message.getBallPosition();
+		if (ballPosition != null) {
+			values[Field.BALL_KNOWN.ordinal()] = 1;
+			values[Field.BALL_X.ordinal()] = Field.BALL_X.quantize(ballPosition.getX());
+			values[Field.BALL_Y.ordinal()] = Field.BALL_Y.quantize(ballPosition.getY());
+			Vector3D ballSpeed = message.getBallSpeed() != null ? message.getBallSpeed() : Vector3D.ZERO;
+			values[Field.BALL_SPEED_X.ordinal()] = Field.BALL_SPEED_X.quantize(ballSpeed.getX());
+			values[Field.BALL_SPEED_Y.ordinal()] = Field.BALL_SPEED_Y.quantize(ballSpeed.getY());
+		}
+
+		Vector3D opponentPosition = message.getOpponentPosition();
+		if (opponentPosition != null) {
+			values[Field.OPPONENT_KNOWN.ordinal()] = 1;
+			values[Field.OPPONENT_X.ordinal()] = Field.OPPONENT_X.quantize(opponentPosition.getX());
+			values[Field.OPPONENT_Y.ordinal()] = Field.OPPONENT_Y.quantize(opponentPosition.getY());
+		}
+
+		BigInteger payload = BigInteger.ZERO;
+		for (int i = 0; i < FIELDS.length - 1; i++) {
+			payload = payload.shiftLeft(FIELDS[i].bits).or(BigInteger.valueOf(values[i]));
+		}
+		BigInteger packed = payload.shiftLeft(Field.CHECKSUM.bits).or(payload.mod(CHECKSUM_PRIME));
+
+		char[] result = new char[MESSAGE_LENGTH];
+		for (int i = result.length - 1; i >= 0; i--) {
+			BigInteger[] quotientAndRemainder = packed.divideAndRemainder(BASE);
+			result[i] = ALPHABET[quotientAndRemainder[1].intValue()];
+			packed = quotientAndRemainder[0];
+		}
+		return new String(result);
+	}
+
+	@Override
+	public SayMessage decode(String message)
+	{
+		if (message == null || message.length() != MESSAGE_LENGTH) {
+			return null;
+		}
+
+		BigInteger packed = BigInteger.ZERO;
+		for (int i = 0; i < MESSAGE_LENGTH; i++) {
+			char c = message.charAt(i);
+			int digit = c < ALPHABET_INDEX.length ? ALPHABET_INDEX[c] : -1;
+			if (digit < 0) {
+				return null;
+			}
+			packed = packed.multiply(BASE).add(BigInteger.valueOf(digit));
+		}
+		if (packed.bitLength() > MESSAGE_BITS) {
+			return null;
+		}
+
+		long checksum = packed.longValue() & ((1L << Field.CHECKSUM.bits) - 1);
+		BigInteger payload = packed.shiftRight(Field.CHECKSUM.bits);
+		if (payload.mod(CHECKSUM_PRIME).longValue() != checksum) {
+			return null;
+		}
+
+		long[] values = new long[FIELDS.length];
+		for (int i = FIELDS.length - 2; i >= 0; i--) {
+			values[i] = payload.longValue() & ((1L << FIELDS[i].bits) - 1);
+			payload = payload.shiftRight(FIELDS[i].bits);
+		}
+
+		SayMessage result = new SayMessage();
+		result.setTeammateID((int) values[Field.SENDER.ordinal()]);
+		result.setTimeSlot((int) values[Field.TIME_SLOT.ordinal()]);
+		if (values[Field.OWN_POSE_KNOWN.ordinal()] != 0) {
+			result.setTeammatePosition(toPosition(values, Field.OWN_X, Field.OWN_Y));
+		}
+		if (values[Field.OWN_ANGLE_KNOWN.ordinal()] != 0) {
+			long angle = values[Field.OWN_HORIZONTAL_ANGLE.ordinal()];
+			result.setTeammateHorizontalAngle(Angle.deg(Field.OWN_HORIZONTAL_ANGLE.dequantize(angle)));
+		}
+		if (values[Field.BALL_KNOWN.ordinal()] != 0) {
+			result.setBallPosition(toPosition(values, Field.BALL_X, Field.BALL_Y));
+			result.setBallSpeed(toPosition(values, Field.BALL_SPEED_X, Field.BALL_SPEED_Y));
+		}
+		if (values[Field.OPPONENT_KNOWN.ordinal()] != 0) {
+			result.setOpponentPosition(toPosition(values, Field.OPPONENT_X, Field.OPPONENT_Y));
+		}
+		return result;
+	}
+
+	private static Vector3D toPosition(long[] values, Field x, Field y)
+	{
+		return new Vector3D(x.dequantize(values[x.ordinal()]), y.dequantize(values[y.ordinal()]), 0);
+	}
+
+	/**
+	 * @param bits the number of bits to transmit
+	 * @return the number of alphabet characters needed to transmit the bits
+	 */
+	private static int charactersNeeded(int bits)
+	{
+		BigInteger values = BigInteger.ONE.shiftLeft(bits);
+		int length = 0;
+		BigInteger capacity = BigInteger.ONE;
+		while (capacity.compareTo(values) < 0) {
+			capacity = capacity.multiply(BASE);
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * @return the number of characters of each message
+	 */
+	public int getMessageLength()
+	{
+		return MESSAGE_LENGTH;
+	}
+
+	/**
+	 * @return a description of the fields transmitted and how much of the
+	 *         capacity of a say message they use
+	 */
+	public String getCapacityReport()
+	{
+		StringBuilder result = new StringBuilder();
+		for (Field field : FIELDS) {
+			result.append(String.format("%-20s %2d bits", field, field.bits));
+			if (field.bits > 1 && field.resolution != 1) {
+				double range = field.resolution * (1L << (field.bits - 1));
+				result.append(String.format(", resolution %.4f, range +-%.2f", field.resolution, range));
+			}
+			result.append('\n');
+		}
+		double bitsPerCharacter = Math.log(ALPHABET.length) / Math.log(2);
+		result.append(String.format("%d bits in %d of %d characters (%d characters, %.2f bits each)", MESSAGE_BITS,
+				MESSAGE_LENGTH, MAX_MESSAGE_LENGTH, ALPHABET.length, bitsPerCharacter));
+		result.append(String.format(", capacity %d bits", (int) (MAX_MESSAGE_LENGTH * bitsPerCharacter)));
+		return result.toString();
+	}
+}
@@ -0,0 +1,84 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.worldmeta.impl;
+
+import kdo.util.misc.ValueUtil;
+import magma.agent.model.worldmeta.ISayCodec;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * The original say message format. Transmits the sender id, its position and
+ * the position of the opponent with the same number as decimal digits with a
+ * precision of 0.1m.
+ *
+ * @author kdorer
+ */
+public class DecimalSayCodec implements ISayCodec
+{
+	/** the value transmitted for unknown positions */
+	private static final int UNKNOWN = 999;
+
+	@Override
+	public String encode(SayMessage message)
+	{
+		Vector3D teammatePosition = message.getTeammatePosition();
+		Vector3D opponentPosition = message.getOpponentPosition();
+		return String.format("%02d%+04d%+04d%+04d%+04d", message.getTeammateID(), toDecimeter(teammatePosition, 0),
+				toDecimeter(teammatePosition, 1), toDecimeter(opponentPosition, 0), toDecimeter(opponentPosition, 1));
+	}
+
+	@Override
+	public SayMessage decode(String message)
+	{
+		if (message == null || message.length() < 18) {
+			return null;
+		}
+
+		SayMessage result = new SayMessage();
+		try {
+			result.setTeammateID(Integer.parseInt(message.substring(0, 2)));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		// a position that can not be parsed is unknown, the rest of the message is still used
+		result.setTeammatePosition(parsePosition(message, 2));
+		result.setOpponentPosition(parsePosition(message, 10));
+		return result;
+	}
+
+	/**
+	 * @param message the say message
+	 * @param start the index of the x coordinate of the position
+	 * @return the position starting at the passed index, null if unknown or
+	 *         not parsable
+	 */
+	private static Vector3D parsePosition(String message, int start)
+	{
+		try {
+			return toPosition(Integer.parseInt(message.substring(start, start + 4)),
+					Integer.parseInt(message.substring(start + 4, start + 8)));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static int toDecimeter(Vector3D position, int coordinate)
+	{
+		if (position == null) {
+			return UNKNOWN;
+		}
+		double value = coordinate == 0 ? position.getX() : position.getY();
+		return ValueUtil.limitValue((int) (value * 10.0), -UNKNOWN, UNKNOWN);
+	}
+
+	private static Vector3D toPosition(int x, int y)
+	{
+		if (x == UNKNOWN || y == UNKNOWN) {
+			return null;
+		}
+		return new Vector3D(x / 10.0, y / 10.0, 0.0);
+	}
+}
@@ -5,104 +5,147 @@
 
 package magma.agent.model.worldmeta.impl;
 
+import hso.autonomy.util.geometry.Angle;
 import kdo.util.misc.ValueUtil;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
+/**
+ * The information a player communicates to its teammates. How much of it is
+ * transmitted and with which precision depends on the
+ * {@link magma.agent.model.worldmeta.ISayCodec} used.
+ */
 public class SayMessage
 {
+	/** number of distinguishable time slots, older messages wrap around */
+	public static final int TIME_SLOTS = 256;
+
+	/** the duration of a time slot (s) */
+	private static final float TIME_SLOT_DURATION = 0.02f;
+
+	/** the assumed time between saying and hearing a message without time slot (s) */
+	private static final float DEFAULT_DELAY = 0.04f;
+
 	private int teammateID;
 
-	private int teammatePositionX;
+	/** global position of the sending player, null if not known */
+	private Vector3D teammatePosition;
+
+	/** global horizontal angle of the sending player, null if not known */
+	private Angle teammateHorizontalAngle;
+
+	/** global position of the opponent with the sender's number, null if not known */
+	private Vector3D opponentPosition;
 
-	private int teammatePositionY;
+	/** global position of the ball, null if not known */
+	private Vector3D ballPosition;
 
-	private int opponentPositionX;
+	/** global speed of the ball (m/cycle), null if not known */
+	private Vector3D ballSpeed;
 
-	private int opponentPositionY;
+	/** the time slot in which the message was said, -1 if not known */
+	private int timeSlot = -1;
 
-	public SayMessage()
+	public int getTeammateID()
 	{
+		return teammateID;
 	}
 
-	public SayMessage(String message)
+	public void setTeammateID(int teammateID)
 	{
-		decode(message);
+		this.teammateID = ValueUtil.limitValue(teammateID, 1, 11);
 	}
 
-	public String encode()
+	public Vector3D getTeammatePosition()
 	{
-		return String.format("%02d%+04d%+04d%+04d%+04d", teammateID, teammatePositionX, teammatePositionY,
-				opponentPositionX, opponentPositionY);
+		return teammatePosition;
 	}
 
-	private void decode(String message)
+	public void setTeammatePosition(Vector3D teammatePosition)
 	{
-		this.teammateID = Integer.valueOf(message.substring(0, 2));
+		this.teammatePosition = teammatePosition;
+	}
 
-		try {
-			this.teammatePositionX = Integer.valueOf(message.substring(2, 6));
-			this.teammatePositionY = Integer.valueOf(message.substring(6, 10));
-		} catch (NumberFormatException e) {
-			this.teammatePositionX = 999;
-			this.teammatePositionY = 999;
-		}
+	public Angle getTeammateHorizontalAngle()
+	{
+		return teammateHorizontalAngle;
+	}
 
-		try {
-			this.opponentPositionX = Integer.valueOf(message.substring(10, 14));
-			this.opponentPositionY = Integer.valueOf(message.substring(14, 18));
-		} catch (NumberFormatException e) {
-			this.opponentPositionX = 999;
-			this.opponentPositionX = 999;
-		}
+	public void setTeammateHorizontalAngle(Angle teammateHorizontalAngle)
+	{
+		this.teammateHorizontalAngle = teammateHorizontalAngle;
 	}
 
-	public int getTeammateID()
+	public Vector3D getOpponentPosition()
 	{
-		return this.teammateID;
+		return opponentPosition;
 	}
 
-	public void setTeammateID(int teammateID)
+	public void setOpponentPosition(Vector3D opponentPosition)
 	{
-		this.teammateID = ValueUtil.limitValue(teammateID, 1, 11);
+		this.opponentPosition = opponentPosition;
 	}
 
-	public Vector3D getTeammatePosition()
+	public Vector3D getBallPosition()
 	{
-		if (teammatePositionX != 999 && teammatePositionY != 999) {
-			return new Vector3D(teammatePositionX / 10.0, teammatePositionY / 10.0, 0.0);
-		} else {
-			return null;
-		}
+		return ballPosition;
 	}
 
-	public void setTeammatePosition(Vector3D teammatePosition)
+	public void setBallPosition(Vector3D ballPosition)
 	{
-		if (teammatePosition != null) {
-			this.teammatePositionX = ValueUtil.limitValue((int) (teammatePosition.getX() * 10.0), -999, 999);
-			this.teammatePositionY = ValueUtil.limitValue((int) (teammatePosition.getY() * 10.0), -999, 999);
-		} else {
-			this.teammatePositionX = 999;
-			this.teammatePositionY = 999;
-		}
+		this.ballPosition = ballPosition;
 	}
 
-	public Vector3D getOpponentPosition()
+	public Vector3D getBallSpeed()
 	{
-		if (opponentPositionX != 999 && opponentPositionY != 999) {
-			return new Vector3D(opponentPositionX / 10.0, opponentPositionY / 10.0, 0.0);
-		} else {
-			return null;
-		}
+		return ballSpeed;
 	}
 
-	public void setOpponentPosition(Vector3D opponentPosition)
+	public void setBallSpeed(Vector3D ballSpeed)
+	{
+		this.ballSpeed = ballSpeed;
+	}
+
+	/**
+	 * @return the time slot in which the message was said, -1 if not known
+	 */
+	public int getTimeSlot()
+	{
+		return timeSlot;
+	}
+
+	/**
+	 * @param timeSlot the time slot (0 to {@link #TIME_SLOTS} - 1), -1 if not
+	 *        known
+	 */
+	public void setTimeSlot(int timeSlot)
+	{
+		this.timeSlot = timeSlot < 0 ? -1 : timeSlot % TIME_SLOTS;
+	}
+
+	/**
+	 * @param time the global time at which the message is said
+	 */
+	public void setTime(float time)
 	{
-		if (opponentPosition != null) {
-			this.opponentPositionX = ValueUtil.limitValue((int) (opponentPosition.getX() * 10.0), -999, 999);
-			this.opponentPositionY = ValueUtil.limitValue((int) (opponentPosition.getY() * 10.0), -999, 999);
-		} else {
-			this.opponentPositionX = 999;
-			this.opponentPositionX = 999;
+		setTimeSlot(toTimeSlot(time));
+	}
+
+	/**
+	 * @param now the current global time
+	 * @return the global time at which the message was said, estimated if the
+	 *         time slot is not known
+	 */
+	public float getTime(float now)
+	{
+		if (timeSlot < 0) {
+			return now - DEFAULT_DELAY;
 		}
+		int age = (toTimeSlot(now) - timeSlot + TIME_SLOTS) % TIME_SLOTS;
+		return now - age * TIME_SLOT_DURATION;
+	}
+
+	private static int toTimeSlot(float time)
+	{
+		return Math.round(Math.max(time, 0) / TIME_SLOT_DURATION) % TIME_SLOTS;
 	}
 }
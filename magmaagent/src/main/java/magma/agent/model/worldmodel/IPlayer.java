@@ -95,9 +95,16 @@ public interface IPlayer extends IMoveableObject {
 	float getTimeForBackStep(Vector3D position, Angle directionAtTarget);
 
 	/**
-	 * @return the map of bodyParts
+	 * @return the global positions of the body parts seen in the last update
 	 */
-	Map<String, Vector3D> getBodyParts();
+	Map<PlayerBodyPart, Vector3D> getBodyParts();
+
+	/**
+	 * @param part the body part of interest
+	 * @return the global position of the passed body part, null if not seen in
+	 *         the last update
+	 */
+	Vector3D getBodyPart(PlayerBodyPart part);
 
 	/**
 	 * @return whether the player lies on the ground
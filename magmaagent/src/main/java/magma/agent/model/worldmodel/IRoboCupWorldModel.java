@@ -8,6 +8,7 @@ package magma.agent.model.worldmodel;
 import hso.autonomy.agent.model.worldmodel.IVisibleObject;
 import hso.autonomy.agent.model.worldmodel.IWorldModel;
 import java.util.List;
+import magma.agent.model.worldmeta.ISayCodec;
 import magma.common.spark.PlayMode;
 import magma.common.spark.PlaySide;
 import magma.common.spark.TeamColor;
@@ -126,6 +127,11 @@ public interface IRoboCupWorldModel extends IWorldModel {
 	 */
 	IPlayer getVisiblePlayer(int id, boolean ownTeam);
 
+	/**
+	 * @return the codec used for say messages within the team
+	 */
+	ISayCodec getSayCodec();
+
 	/**
 	 * Checks whether the ball is dangerously close to the own goal. If this is
 	 * the case, the goalie runs to the ball.
@@ -0,0 +1,61 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.worldmodel;
+
+/**
+ * The body parts of other players that are reported by vision.
+ *
+ * @author kdorer
+ */
+public enum PlayerBodyPart {
+	HEAD("head"),
+
+	LEFT_LOWER_ARM("llowerarm"),
+
+	RIGHT_LOWER_ARM("rlowerarm"),
+
+	LEFT_FOOT("lfoot"),
+
+	RIGHT_FOOT("rfoot");
+
+	/** the name of the body part in the server protocol */
+	private final String name;
+
+	PlayerBodyPart(String name)
+	{
+		this.name = name;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * @param name the name of the body part in the server protocol
+	 * @return the body part with the passed name, null if there is none
+	 */
+	public static PlayerBodyPart fromName(String name)
+	{
+		if (name == null) {
+			return null;
+		}
+		switch (name) {
+		case "head":
+			return HEAD;
+		case "llowerarm":
+			return LEFT_LOWER_ARM;
+		case "rlowerarm":
+			return RIGHT_LOWER_ARM;
+		case "lfoot":
+			return LEFT_FOOT;
+		case "rfoot":
+			return RIGHT_FOOT;
+		default:
+			return null;
+		}
+	}
+}
@@ -11,11 +11,13 @@ import hso.autonomy.util.geometry.Geometry;
 import hso.autonomy.util.geometry.positionFilter.IPositionFilter;
 import hso.autonomy.util.geometry.positionFilter.PositionFilter;
 import hso.autonomy.util.properties.PropertyManager;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
 import magma.agent.IMagmaConstants;
 import magma.agent.model.worldmodel.IPlayer;
+import magma.agent.model.worldmodel.PlayerBodyPart;
 import magma.common.humanoid.HLPenalty;
 import magma.common.humanoid.HLRole;
 import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
@@ -65,8 +67,11 @@ public class Player extends MovableObject implements IPlayer
 	/** time of last horizontal angle measurement */
 	private float lastOrientationMeasurement;
 
-	/** list of body parts */
-	protected final HashMap<String, Vector3D> bodyParts;
+	/** global positions of the body parts seen in the last update */
+	protected final EnumMap<PlayerBodyPart, Vector3D> bodyParts;
+
+	/** unmodifiable view of the body parts */
+	private final transient Map<PlayerBodyPart, Vector3D> bodyPartsView;
 
 	/** a filter for the x-axis in orientation determination */
 	private transient IPositionFilter xAxisFilter;
@@ -101,7 +106,8 @@ public class Player extends MovableObject implements IPlayer
 		this.ownTeam = ownTeam;
 		this.isLying = false;
 		this.lyingTimestamp = 0.0f;
-		this.bodyParts = new HashMap<>();
+		this.bodyParts = new EnumMap<>(PlayerBodyPart.class);
+		this.bodyPartsView = Collections.unmodifiableMap(bodyParts);
 		globalOrientation = Rotation.IDENTITY;
 		lastOrientationMeasurement = 0.0f;
 
@@ -358,34 +364,58 @@ public class Player extends MovableObject implements IPlayer
 		isLying = newIsLying;
 	}
 
-	/**
-	 * Get position of bodyPart
-	 */
-	public Vector3D getBodyPart(String name)
+	@Override
+	public Vector3D getBodyPart(PlayerBodyPart part)
 	{
-		return bodyParts.get(name);
+		return bodyParts.get(part);
 	}
 
 	@Override
-	public Map<String, Vector3D> getBodyParts()
+	public Map<PlayerBodyPart, Vector3D> getBodyParts()
 	{
-		return bodyParts;
+		return bodyPartsView;
 	}
 
 	/**
 	 * Set visible body parts
 	 *
-	 * @param allBodyParts List of visible body parts
+	 * @param allBodyParts List of visible body parts by protocol name, parts
+	 *        with unknown names are ignored
 	 */
 	public void setBodyParts(Map<String, Vector3D> allBodyParts)
 	{
 		bodyParts.clear();
 
 		if (allBodyParts != null) {
-			bodyParts.putAll(allBodyParts);
+			for (Map.Entry<String, Vector3D> entry : allBodyParts.entrySet()) {
+				setBodyPart(PlayerBodyPart.fromName(entry.getKey()), entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Sets the position of a single visible body part. Used together with
+	 * {@link #clearBodyParts()} and {@link #update(Vector3D, Vector3D, Vector3D, float)}
+	 * to update a player without creating a body part map.
+	 *
+	 * @param part the body part, ignored if null
+	 * @param globalPosition the global position of the body part
+	 */
+	public void setBodyPart(PlayerBodyPart part, Vector3D globalPosition)
+	{
+		if (part != null) {
+			bodyParts.put(part, globalPosition);
 		}
 	}
 
+	/**
+	 * Removes all visible body parts
+	 */
+	public void clearBodyParts()
+	{
+		bodyParts.clear();
+	}
+
 	private void determineOrientation()
 	{
 		if (bodyParts.size() < 5) {
@@ -400,44 +430,28 @@ public class Player extends MovableObject implements IPlayer
 			yAxisFilter.reset();
 		}
 
-		String leftPart;
-		String rightPart;
-		Vector3D pos1;
-		Vector3D pos2;
-		Vector3D headPos = bodyParts.get("head");
-
-		Vector3D headFoot1 = null;
-		Vector3D headFoot2 = null;
-
+		Vector3D headPos = bodyParts.get(PlayerBodyPart.HEAD);
 		if (headPos == null) {
 			return;
 		}
 
-		Vector3D xAxis = null;
+		// sum of the vectors from right to left body parts
 		Vector3D yAxis = null;
+		Vector3D leftArm = bodyParts.get(PlayerBodyPart.LEFT_LOWER_ARM);
+		Vector3D rightArm = bodyParts.get(PlayerBodyPart.RIGHT_LOWER_ARM);
+		if (leftArm != null && rightArm != null) {
+			yAxis = leftArm.subtract(rightArm);
+		}
 
-		for (String part : bodyParts.keySet()) {
-			if (part.startsWith("l")) {
-				leftPart = part;
-				pos1 = bodyParts.get(leftPart);
-				rightPart = "r" + leftPart.substring(1);
-				pos2 = bodyParts.get(rightPart);
-
-				// If there is a second position, we found a left and corresponding
-				// right body part, so calculate x-axis to it
-				if (pos2 != null) {
-					if (yAxis == null) {
-						yAxis = pos1.subtract(pos2);
-					} else {
-						yAxis = yAxis.add(pos1.subtract(pos2));
-					}
-
-					if (part.contains("foot")) {
-						headFoot1 = headPos.subtract(pos1);
-						headFoot2 = headPos.subtract(pos2);
-					}
-				}
-			}
+		Vector3D headFoot1 = null;
+		Vector3D headFoot2 = null;
+		Vector3D leftFoot = bodyParts.get(PlayerBodyPart.LEFT_FOOT);
+		Vector3D rightFoot = bodyParts.get(PlayerBodyPart.RIGHT_FOOT);
+		if (leftFoot != null && rightFoot != null) {
+			Vector3D feet = leftFoot.subtract(rightFoot);
+			yAxis = yAxis == null ? feet : yAxis.add(feet);
+			headFoot1 = headPos.subtract(leftFoot);
+			headFoot2 = headPos.subtract(rightFoot);
 		}
 
 		// If we were not able to match left and right body parts, or we are not
@@ -447,7 +461,7 @@ public class Player extends MovableObject implements IPlayer
 			return;
 		}
 
-		xAxis = Vector3D.crossProduct(headFoot2, headFoot1);
+		Vector3D xAxis = Vector3D.crossProduct(headFoot2, headFoot1);
 		if (xAxis.getNorm() < 0.01 || yAxis.getNorm() < 0.01) {
 			// avoid that normalize may fail
 			return;
@@ -479,22 +493,25 @@ public class Player extends MovableObject implements IPlayer
 	public void updateFromAudio(Vector3D localPosition, Vector3D globalPosition, float time)
 	{
 		super.updateFromAudio(localPosition, globalPosition, time);
-		setBodyParts(null);
+		clearBodyParts();
 		updateLying(time);
 	}
 
 	@Override
 	public void updateFromVision(Vector3D seenPosition, Vector3D localPosition, Vector3D globalPosition, float time)
 	{
-		update(seenPosition, localPosition, globalPosition, null, time);
+		clearBodyParts();
+		update(seenPosition, localPosition, globalPosition, time);
 	}
 
-	public void update(Vector3D seenPosition, Vector3D localPosition, Vector3D globalPosition,
-			Map<String, Vector3D> bodyParts, float time)
+	/**
+	 * Updates the position of this player from vision. The body parts have to
+	 * be set before using {@link #setBodyPart(PlayerBodyPart, Vector3D)}.
+	 */
+	public void update(Vector3D seenPosition, Vector3D localPosition, Vector3D globalPosition, float time)
 	{
-		// Update position and body part map
+		// Update position
 		super.updateFromVision(seenPosition, localPosition, globalPosition, time);
-		setBodyParts(bodyParts);
 
 		// Determine new orientation
 		determineOrientation();
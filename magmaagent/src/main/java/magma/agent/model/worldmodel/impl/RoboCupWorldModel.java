@@ -49,6 +49,8 @@ import magma.agent.model.agentmodel.IRoboCupAgentModel;
 import magma.agent.model.worldmeta.ILineFeatureConfiguration;
 import magma.agent.model.worldmeta.IPointFeatureConfiguration;
 import magma.agent.model.worldmeta.IRoboCupWorldMetaModel;
+import magma.agent.model.worldmeta.ISayCodec;
+import magma.agent.model.worldmeta.impl.BitPackedSayCodec;
 import magma.agent.model.worldmeta.impl.RCServerMetaModelV62;
 import magma.agent.model.worldmeta.impl.SayMessage;
 import magma.agent.model.worldmodel.GameState;
@@ -56,6 +58,7 @@ import magma.agent.model.worldmodel.IBall;
 import magma.agent.model.worldmodel.IPlayer;
 import magma.agent.model.worldmodel.IRoboCupWorldModel;
 import magma.agent.model.worldmodel.IThisPlayer;
+import magma.agent.model.worldmodel.PlayerBodyPart;
 import magma.common.spark.PlayMode;
 import magma.common.spark.PlaySide;
 import magma.common.spark.TeamColor;
@@ -88,11 +91,26 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 	/** The difference of the ball radius from 2018 to the currently used size */
 	protected float ballRadiusDifference;
 
+	/** the body parts reported by vision */
+	private static final PlayerBodyPart[] BODY_PARTS = PlayerBodyPart.values();
+
+	/** index of the own team in {@link #knownPlayers} */
+	private static final int OWN_TEAM = 0;
+
+	/** index of the opponent team in {@link #knownPlayers} */
+	private static final int OPPONENT_TEAM = 1;
+
 	/**
-	 * A map of all known players over time. As unique key, the team name
-	 * appended by the player number is used.
+	 * All players known over time indexed by team (own team, opponent team) and
+	 * player number. Index 0 of each team is not used.
 	 */
-	protected Map<String, IPlayer> knownPlayers;
+	protected Player[][] knownPlayers;
+
+	/** true if the corresponding known player is contained in visiblePlayers */
+	private boolean[][] knownPlayerVisible;
+
+	/** the players with incomplete vision information seen in the last cycle */
+	private List<Player> temporaryPlayers;
 
 	/** the list of all visible players */
 	protected List<IPlayer> visiblePlayers;
@@ -146,8 +164,11 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 
 	private PenaltyState penaltyState = PenaltyState.NONE;
 
+	/** converts say messages of teammates */
+	protected transient ISayCodec sayCodec;
+
 	/**
-	 * Constructor
+	 * Constructor using the {@link BitPackedSayCodec}
 	 *
 	 * @param agentModel Reference to the agent model object
 	 * @param localizer the module that calculates the agent's global position
@@ -157,9 +178,26 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 	 */
 	public RoboCupWorldModel(IRoboCupAgentModel agentModel, IFeatureLocalizer localizer,
 			IRoboCupWorldMetaModel worldMetaModel, String teamname, int playerNumber)
+	{
+		this(agentModel, localizer, worldMetaModel, teamname, playerNumber, new BitPackedSayCodec());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param agentModel Reference to the agent model object
+	 * @param localizer the module that calculates the agent's global position
+	 * @param worldMetaModel the meta model of the rc server
+	 * @param teamname Team name
+	 * @param playerNumber Player number
+	 * @param sayCodec the codec for messages of teammates
+	 */
+	public RoboCupWorldModel(IRoboCupAgentModel agentModel, IFeatureLocalizer localizer,
+			IRoboCupWorldMetaModel worldMetaModel, String teamname, int playerNumber, ISayCodec sayCodec)
 	{
 		super(agentModel, localizer);
 		this.worldMetaModel = worldMetaModel;
+		this.sayCodec = sayCodec;
 		this.serverVersion = worldMetaModel.getVersion();
 
 		// create objects
@@ -207,7 +245,9 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 
 		// players
 		int numberOfPlayersPerTeam = IMagmaConstants.NUMBER_OF_PLAYERS_PER_TEAM;
-		knownPlayers = new HashMap<>(numberOfPlayersPerTeam * 2);
+		knownPlayers = new Player[2][numberOfPlayersPerTeam + 1];
+		knownPlayerVisible = new boolean[2][numberOfPlayersPerTeam + 1];
+		temporaryPlayers = new ArrayList<>(numberOfPlayersPerTeam * 2);
 		visiblePlayers = new ArrayList<>(numberOfPlayersPerTeam * 2);
 	}
 
@@ -334,20 +374,41 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 				break;
 			}
 
-			SayMessage message = new SayMessage(hear.getMessage());
+			SayMessage message = sayCodec.decode(hear.getMessage());
+			if (message == null) {
+				// not a message we understand
+				continue;
+			}
+			float time = message.getTime(globalTime);
 			Vector3D teammatePosition = message.getTeammatePosition();
 			Vector3D opponentPosition = message.getOpponentPosition();
+			Vector3D ballPosition = message.getBallPosition();
 
 			if (teammatePosition != null) {
-				updatePlayerFromHear(message.getTeammateID(), true, teammatePosition);
+				updatePlayerFromHear(message.getTeammateID(), true, teammatePosition,
+						message.getTeammateHorizontalAngle(), time);
 			}
 			if (opponentPosition != null) {
-				updatePlayerFromHear(message.getTeammateID(), false, opponentPosition);
+				updatePlayerFromHear(message.getTeammateID(), false, opponentPosition, null, time);
+			}
+			if (ballPosition != null) {
+				Vector3D ballSpeed = message.getBallSpeed() != null ? message.getBallSpeed() : Vector3D.ZERO;
+				updateBallFromHear(ballPosition, ballSpeed, time);
 			}
 		}
 	}
 
 	public void updateBallFromHear(Vector3D ballPos, Vector3D ballSpeed)
+	{
+		updateBallFromHear(ballPos, ballSpeed, globalTime - 0.04f);
+	}
+
+	/**
+	 * @param ballPos the heard global ball position
+	 * @param ballSpeed the heard global ball speed (m/cycle)
+	 * @param time the global time the information refers to
+	 */
+	public void updateBallFromHear(Vector3D ballPos, Vector3D ballSpeed, float time)
 	{
 		if (ball.getAge(globalTime) < TIME_TO_TRUST_HEAR && ball.getInformationSource() == InformationSource.VISION) {
 			// We have recently seen the ball so no update
@@ -355,7 +416,7 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 		}
 
 		Vector3D localPos = thisPlayer.calculateLocalPosition(ballPos);
-		ball.updateFromAudio(localPos, ballPos, ballSpeed, globalTime - 0.04f);
+		ball.updateFromAudio(localPos, ballPos, ballSpeed, time);
 	}
 
 	/**
@@ -365,24 +426,29 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 	 * @param playerID the id of the player
 	 * @param ownTeam true if the player to update is of the own team
 	 * @param playerPos the new global position
+	 * @param horizontalAngle the new global horizontal angle, null if not known
+	 * @param time the global time the information refers to
 	 */
-	private void updatePlayerFromHear(int playerID, boolean ownTeam, Vector3D playerPos)
+	private void updatePlayerFromHear(
+			int playerID, boolean ownTeam, Vector3D playerPos, Angle horizontalAngle, float time)
 	{
 		String teamName = getTeamname(ownTeam);
-		if (teamName == null) {
+		if (teamName == null || !isKnownPlayerID(playerID)) {
 			// As long we don't know the other team's name, we aren't able to
 			// create proper player instances
 			return;
 		}
 
-		Player player = (Player) knownPlayers.get(teamName + playerID);
+		int team = ownTeam ? OWN_TEAM : OPPONENT_TEAM;
+		Player player = knownPlayers[team][playerID];
 		if (player == null) {
 			// We hear from a player that we have never seen before
 			player = new Player(playerID, teamName, ownTeam, getAgentModel().getCycleTime());
-			knownPlayers.put(teamName + playerID, player);
-			if (!visiblePlayers.contains(player)) {
-				visiblePlayers.add(player);
-			}
+			knownPlayers[team][playerID] = player;
+		}
+		if (!knownPlayerVisible[team][playerID]) {
+			knownPlayerVisible[team][playerID] = true;
+			visiblePlayers.add(player);
 		}
 
 		if (player.getAge(globalTime) < TIME_TO_TRUST_HEAR &&
@@ -393,7 +459,10 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 
 		// Update player information
 		Vector3D localPos = thisPlayer.calculateLocalPosition(playerPos);
-		player.updateFromAudio(localPos, playerPos, globalTime - 0.04f);
+		player.updateFromAudio(localPos, playerPos, time);
+		if (horizontalAngle != null) {
+			player.setGlobalOrientation(Geometry.createZRotation(horizontalAngle.radians()));
+		}
 	}
 
 	/**
@@ -603,8 +672,11 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 			return;
 		}
 
-		// Clear visible players
-		visiblePlayers.clear();
+		// Players with incomplete information are only visible for one cycle
+		if (!temporaryPlayers.isEmpty()) {
+			visiblePlayers.removeAll(temporaryPlayers);
+			temporaryPlayers.clear();
+		}
 
 		// Process player visions
 		List<IPlayerPos> playersVision = perception.getVisiblePlayers();
@@ -612,7 +684,8 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 		boolean isOwnTeam;
 		IRoboCupAgentModel agentModel = getAgentModel();
 
-		for (IPlayerPos playerVision : playersVision) {
+		for (int i = 0; i < playersVision.size(); i++) {
+			IPlayerPos playerVision = playersVision.get(i);
 			isOwnTeam = thisPlayer.getTeamname().equals(playerVision.getTeamname());
 
 			// Don't process myself as a teammate
@@ -624,24 +697,25 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 			// Fetch a player instance
 			if (playerVision.getTeamname() == null ||
 					IMagmaConstants.UNKNOWN_PLAYER_TEAMNAME.equals(playerVision.getTeamname()) ||
-					playerVision.getId() == IMagmaConstants.UNKNOWN_PLAYER_NUMBER) {
+					!isKnownPlayerID(playerVision.getId())) {
 				// If the player vision information is not complete, create just a
 				// temporary player instance to hold the perceived information and
 				// add it to the visiblePlayers array
 				// TODO: Instead of simply adding an additional player by default,
-				// one can perform some kind of lookup in the known players map and
+				// one can perform some kind of lookup in the known players and
 				// try to match the player to an previously known player near by
 				currentPlayer = new Player(
 						playerVision.getId(), playerVision.getTeamname(), isOwnTeam, agentModel.getCycleTime());
-				visiblePlayers.add(currentPlayer);
+				temporaryPlayers.add(currentPlayer);
 			} else {
 				// If the player vision information is complete, fetch or create a
 				// permanent instance for him
-				currentPlayer = (Player) knownPlayers.get(playerVision.getTeamname() + playerVision.getId());
+				int team = isOwnTeam ? OWN_TEAM : OPPONENT_TEAM;
+				currentPlayer = knownPlayers[team][playerVision.getId()];
 				if (currentPlayer == null) {
 					currentPlayer = new Player(
 							playerVision.getId(), playerVision.getTeamname(), isOwnTeam, agentModel.getCycleTime());
-					knownPlayers.put(currentPlayer.getTeamname() + currentPlayer.getID(), currentPlayer);
+					knownPlayers[team][playerVision.getId()] = currentPlayer;
 
 					// Remember the name of the other team once we see the first
 					// other player
@@ -655,18 +729,41 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 			updatePlayer(currentPlayer, playerVision);
 		}
 
-		// Extract all recently seen players from known players map and mark the
-		// others as not visible
-		for (IPlayer player : knownPlayers.values()) {
-			if (player.getAge(globalTime) < REMEMBRANCE_TIME) {
-				// TODO: check if the player is in the visible cone and should have
-				// been seen therefore
-
-				visiblePlayers.add(player);
-			} else {
-				player.setVisible(false);
+		// Add recently seen known players to the visible players and remove and
+		// mark the others as not visible
+		for (int team = 0; team < knownPlayers.length; team++) {
+			for (int id = 1; id < knownPlayers[team].length; id++) {
+				Player player = knownPlayers[team][id];
+				if (player == null) {
+					continue;
+				}
+				if (player.getAge(globalTime) < REMEMBRANCE_TIME) {
+					// TODO: check if the player is in the visible cone and should have
+					// been seen therefore
+					if (!knownPlayerVisible[team][id]) {
+						knownPlayerVisible[team][id] = true;
+						visiblePlayers.add(player);
+					}
+				} else {
+					if (knownPlayerVisible[team][id]) {
+						knownPlayerVisible[team][id] = false;
+						visiblePlayers.remove(player);
+					}
+					player.setVisible(false);
+				}
 			}
 		}
+		visiblePlayers.addAll(temporaryPlayers);
+	}
+
+	/**
+	 * @param id the player number to check
+	 * @return true if players with the passed number are kept in the known
+	 *         players
+	 */
+	private boolean isKnownPlayerID(int id)
+	{
+		return id > 0 && id < knownPlayers[OWN_TEAM].length;
 	}
 
 	/**
@@ -679,27 +776,37 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 	{
 		Vector3D localPos;
 		Vector3D globalPos;
-
-		// Transform body parts of player
-		Map<String, Vector3D> bodyParts = new HashMap<>();
 		Map<String, Vector3D> allBodyParts = playerVision.getAllBodyParts();
-		for (String name : allBodyParts.keySet()) {
-			localPos = toRootVisionSystem(allBodyParts.get(name));
-			globalPos = thisPlayer.calculateGlobalPosition(localPos);
 
-			bodyParts.put(name, globalPos);
+		if (player == thisPlayer) {
+			// Transform body parts of this player, keeping the vision names
+			Map<String, Vector3D> bodyParts = new HashMap<>();
+			for (Map.Entry<String, Vector3D> entry : allBodyParts.entrySet()) {
+				localPos = toRootVisionSystem(entry.getValue());
+				bodyParts.put(entry.getKey(), thisPlayer.calculateGlobalPosition(localPos));
+			}
+			thisPlayer.setBodyPartsVision(bodyParts, allBodyParts);
+			return;
 		}
 
-		if (!thisPlayer.equals(player)) {
-			// Transform player positions
-			localPos = toRootVisionSystem(playerVision.getPosition());
-			globalPos = thisPlayer.calculateGlobalPosition(localPos);
-
-			// Update positions and body parts of player
-			player.update(playerVision.getPosition(), localPos, globalPos, bodyParts, globalTime);
-		} else {
-			thisPlayer.setBodyPartsVision(bodyParts, allBodyParts);
+		// Transform body parts of player
+		player.clearBodyParts();
+		if (allBodyParts != null) {
+			for (PlayerBodyPart part : BODY_PARTS) {
+				Vector3D seenPos = allBodyParts.get(part.getName());
+				if (seenPos != null) {
+					localPos = toRootVisionSystem(seenPos);
+					player.setBodyPart(part, thisPlayer.calculateGlobalPosition(localPos));
+				}
+			}
 		}
+
+		// Transform player positions
+		localPos = toRootVisionSystem(playerVision.getPosition());
+		globalPos = thisPlayer.calculateGlobalPosition(localPos);
+
+		// Update positions and body parts of player
+		player.update(playerVision.getPosition(), localPos, globalPos, globalTime);
 	}
 
 	/**
@@ -713,7 +820,14 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 		if (id < 1) {
 			return null;
 		}
-		for (IPlayer player : visiblePlayers) {
+		if (isKnownPlayerID(id)) {
+			int team = ownTeam ? OWN_TEAM : OPPONENT_TEAM;
+			if (knownPlayerVisible[team][id]) {
+				return knownPlayers[team][id];
+			}
+		}
+		for (int i = 0; i < temporaryPlayers.size(); i++) {
+			Player player = temporaryPlayers.get(i);
 			if (id == player.getID() && ownTeam == player.isOwnTeam()) {
 				return player;
 			}
@@ -872,14 +986,15 @@ public class RoboCupWorldModel extends WorldModel implements IRoboCupWorldModel
 	}
 
 	@Override
-	public List<IPlayer> getVisiblePlayers()
+	public ISayCodec getSayCodec()
 	{
-		return Collections.unmodifiableList(visiblePlayers);
+		return sayCodec;
 	}
 
-	public void setVisiblePlayers(List<IPlayer> players)
+	@Override
+	public List<IPlayer> getVisiblePlayers()
 	{
-		this.visiblePlayers = players;
+		return Collections.unmodifiableList(visiblePlayers);
 	}
 
 	@Override
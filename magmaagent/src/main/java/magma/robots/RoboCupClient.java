@@ -6,13 +6,16 @@
 package magma.robots;
 
 import hso.autonomy.agent.agentruntime.AgentRuntime;
+import hso.autonomy.agent.communication.channel.IChannelManager.DispatchMode;
 import hso.autonomy.util.commandline.Argument;
 import hso.autonomy.util.commandline.BooleanArgument;
+import hso.autonomy.util.commandline.EnumArgument;
 import hso.autonomy.util.commandline.HelpArgument;
 import hso.autonomy.util.commandline.IntegerArgument;
 import hso.autonomy.util.commandline.StringArgument;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.UnaryOperator;
 import magma.agent.IHumanoidConstants;
 import magma.agent.IMagmaConstants;
 import magma.agent.agentruntime.ComponentFactory;
@@ -39,7 +42,17 @@ public class RoboCupClient
 		client.startClient();
 	}
 
-	private static PlayerParameters parseArgs(String[] args)
+	static PlayerParameters parseArgs(String[] args)
+	{
+		return parseArgs(args, UnaryOperator.identity());
+	}
+
+	/**
+	 * @param args the command line arguments of one agent
+	 * @param factoryDecorator allows to decorate the component factory of the agent
+	 * @return the parameters of the agent
+	 */
+	static PlayerParameters parseArgs(String[] args, UnaryOperator<ComponentFactory> factoryDecorator)
 	{
 		StringArgument teamNameArgument =
 				new StringArgument("teamname", IMagmaConstants.DEFAULT_TEAMNAME, "name of the team");
@@ -77,11 +90,22 @@ public class RoboCupClient
 		IntegerArgument mixedTeamInPort = new IntegerArgument("mtInPort", 54321, 0, "mixed-team listening port");
 		IntegerArgument mixedTeamOutPort = new IntegerArgument("mtOutPort", 12345, 0, "mixed-team sending port");
 		BooleanArgument thinClientArgument = new BooleanArgument("thinClient", "enables the thin client");
+		BooleanArgument streamingParserArgument = new BooleanArgument(
+				"streamingParser", "decode perceptions directly without building a symbol tree");
+		BooleanArgument pooledPerceptorsArgument = new BooleanArgument(
+				"pooledPerceptors", "reuse perceptor objects across cycles (requires --streamingParser)");
+		BooleanArgument nioConnectionArgument =
+				new BooleanArgument("nioConnection", "receive messages with a socket channel into direct buffers");
+		EnumArgument<DispatchMode> dispatchModeArgument = new EnumArgument<>("dispatchMode", DispatchMode.QUEUE,
+				"how perceptions are passed from the receive thread to the agent", DispatchMode.class);
+		BooleanArgument coalesceCyclesArgument = new BooleanArgument(
+				"coalesceCycles", "merge pending perceptions into one cycle if the agent falls behind");
 
 		new HelpArgument(teamNameArgument, teamIDArgument, playerIDArgument, serverArgument, portArgument,
 				serverVersionArgument, decisionMakerArgument, factoryArgument, roboVizDebugArgument,
 				roboVizServerArgument, roboVizPortArgument, reportStatsArgument, gameControllerIPArgument,
-				logPerceptionArgument, mixedTeamIPArgument, mixedTeamInPort, mixedTeamOutPort)
+				logPerceptionArgument, mixedTeamIPArgument, mixedTeamInPort, mixedTeamOutPort, streamingParserArgument,
+				pooledPerceptorsArgument, nioConnectionArgument, dispatchModeArgument, coalesceCyclesArgument)
 				.parse(args);
 
 		String teamName = teamNameArgument.parse(args);
@@ -103,12 +127,24 @@ public class RoboCupClient
 		int mtInPort = mixedTeamInPort.parse(args);
 		int mtOutPort = mixedTeamOutPort.parse(args);
 		boolean thinClient = thinClientArgument.parse(args);
+		boolean streamingParser = streamingParserArgument.parse(args);
+		boolean pooledPerceptors = pooledPerceptorsArgument.parse(args);
+		boolean nioConnection = nioConnectionArgument.parse(args);
+		DispatchMode dispatchMode = dispatchModeArgument.parse(args);
+		boolean coalesceCycles = coalesceCyclesArgument.parse(args);
 		Argument.endParse(args);
 
 		RoboVizParameters roboVizParams = new RoboVizParameters(roboVizDebug, roboVizServer, roboVizPort, playerID);
-		ComponentFactory componentFactory = RobotConfigurationHelper.getComponentFactory(factory, playerID, thinClient);
+		ComponentFactory componentFactory = factoryDecorator.apply(
+				RobotConfigurationHelper.getComponentFactory(factory, playerID, thinClient));
 
-		return new PlayerParameters(teamName, teamID, playerID, server, port, serverVersion, componentFactory,
-				decisionMakerName, roboVizParams, reportStats, thinClient);
+		PlayerParameters params = new PlayerParameters(teamName, teamID, playerID, server, port, serverVersion,
+				componentFactory, decisionMakerName, roboVizParams, reportStats, thinClient);
+		params.setStreamingParser(streamingParser);
+		params.setPooledPerceptors(pooledPerceptors);
+		params.setNIOConnection(nioConnection);
+		params.setDispatchMode(dispatchMode);
+		params.setCoalesceCycles(coalesceCycles);
+		return params;
 	}
 }
@@ -0,0 +1,74 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.robots;
+
+import hso.autonomy.agent.agentruntime.AgentRuntime;
+import hso.autonomy.util.commandline.HelpArgument;
+import hso.autonomy.util.commandline.IntegerArgument;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import kdo.util.parameter.ParameterMap;
+import magma.agent.IMagmaConstants;
+import magma.agent.agentruntime.RoboCupAgentRuntime;
+import magma.agent.agentruntime.SharedComponentFactory;
+
+/**
+ * Starts several agents of a team in one process instead of one process per
+ * agent. Each agent has its own connection and thread, while classes, compiled
+ * code, meta models and parameter maps are shared. All arguments of
+ * {@link RoboCupClient} except the player ID are passed to each agent. Run with
+ * --help for documentation on available arguments.
+ *
+ * @author kdorer
+ */
+public class TeamHost
+{
+	/**
+	 * Instantiates and starts the agents and waits until all of them stopped.
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		IntegerArgument playersArgument = new IntegerArgument("players", IMagmaConstants.NUMBER_OF_PLAYERS_PER_TEAM,
+				1, IMagmaConstants.NUMBER_OF_PLAYERS_PER_TEAM, "number of agents to start");
+		IntegerArgument firstPlayerIDArgument = new IntegerArgument("firstplayerid", 1, 1,
+				IMagmaConstants.NUMBER_OF_PLAYERS_PER_TEAM, "player ID of the first agent, the others are counted up");
+
+		if (Arrays.asList(args).contains("--help")) {
+			new HelpArgument(playersArgument, firstPlayerIDArgument).printHelp();
+			System.out.println("All arguments of RoboCupClient except --playerid:");
+		}
+
+		int players = playersArgument.parse(args);
+		int firstPlayerID = firstPlayerIDArgument.parse(args);
+		int lastPlayerID = Math.min(firstPlayerID + players - 1, IMagmaConstants.NUMBER_OF_PLAYERS_PER_TEAM);
+
+		Map<String, ParameterMap> sharedParameters = new ConcurrentHashMap<>();
+		Set<String> loadedProperties = ConcurrentHashMap.newKeySet();
+
+		// agents are created one after the other, since creation is not thread safe
+		List<Thread> threads = new ArrayList<>();
+		for (int playerID = firstPlayerID; playerID <= lastPlayerID; playerID++) {
+			// the first of duplicate arguments is used, so the player ID is put in front
+			String[] playerArgs = new String[args.length + 1];
+			playerArgs[0] = "--playerid=" + playerID;
+			System.arraycopy(args, 0, playerArgs, 1, args.length);
+			AgentRuntime client = new RoboCupAgentRuntime(RoboCupClient.parseArgs(playerArgs,
+					factory -> new SharedComponentFactory(factory, sharedParameters, loadedProperties)));
+			threads.add(new Thread(client::startClient, "player" + playerID));
+		}
+
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+}
@@ -142,6 +142,21 @@ public class FullSearchMovementParameters extends ParameterList
 
 	private List<Joint> activeJoints;
 
+	/** the slots of the activation flag of each joint */
+	private int[] activeSlots;
+
+	/** the slots of the time of each phase */
+	private int[] timeSlots;
+
+	/** the slots of the angles of each phase and joint */
+	private int[][] angleSlots;
+
+	/** the slots of the speeds of each phase and joint */
+	private int[][] speedSlots;
+
+	/** the number of parameters when the slots were resolved */
+	private int resolvedSize = -1;
+
 	public FullSearchMovementParameters(double[] params)
 	{
 		this(params, Dummy.values());
@@ -234,6 +249,35 @@ public class FullSearchMovementParameters extends ParameterList
 		return String.format("Param.%s.%s(%d)", name, function, phase);
 	}
 
+	/**
+	 * Resolves the names of the general and phase parameters to their slots.
+	 * Repeated if parameters have been added since.
+	 */
+	private void resolveSlots()
+	{
+		if (resolvedSize == getLayout().size()) {
+			return;
+		}
+		Joint[] joints = Joint.values();
+		activeSlots = new int[joints.length];
+		for (Joint joint : joints) {
+			activeSlots[joint.ordinal()] = getSlot(joint.name());
+		}
+
+		int phases = Math.max(0, getPhases());
+		timeSlots = new int[phases];
+		angleSlots = new int[phases][joints.length];
+		speedSlots = new int[phases][joints.length];
+		for (int phase = 0; phase < phases; phase++) {
+			timeSlots[phase] = getSlot(Joint.TIME.time(phase));
+			for (Joint joint : joints) {
+				angleSlots[phase][joint.ordinal()] = getSlot(joint.angle(phase));
+				speedSlots[phase][joint.ordinal()] = getSlot(joint.speed(phase));
+			}
+		}
+		resolvedSize = getLayout().size();
+	}
+
 	public float get(Param param)
 	{
 		return get(param.name());
@@ -246,22 +290,35 @@ public class FullSearchMovementParameters extends ParameterList
 
 	public float time(int phase)
 	{
-		return get(Joint.TIME.name() + phase);
+		resolveSlots();
+		if (phase < 0 || phase >= timeSlots.length) {
+			return get(Joint.TIME.time(phase));
+		}
+		return get(timeSlots[phase]);
 	}
 
 	public boolean isActive(Joint joint)
 	{
-		return get(joint.name()) == 1;
+		resolveSlots();
+		return get(activeSlots[joint.ordinal()]) == 1;
 	}
 
 	public float angle(int phase, Joint param)
 	{
-		return get(param.name() + phase);
+		resolveSlots();
+		if (phase < 0 || phase >= angleSlots.length) {
+			return get(param.angle(phase));
+		}
+		return get(angleSlots[phase][param.ordinal()]);
 	}
 
 	public float speed(int phase, Joint param)
 	{
-		return get(param.name() + "S" + phase);
+		resolveSlots();
+		if (phase < 0 || phase >= speedSlots.length) {
+			return get(param.speed(phase));
+		}
+		return get(speedSlots[phase][param.ordinal()]);
 	}
 
 	public int getPhases()
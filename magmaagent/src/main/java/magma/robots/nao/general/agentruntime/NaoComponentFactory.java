@@ -23,6 +23,7 @@ import magma.agent.agentruntime.ComponentFactory;
 import magma.agent.communication.channel.IRoboCupChannel;
 import magma.agent.communication.channel.impl.ChannelParameters;
 import magma.agent.communication.channel.impl.SimsparkChannel;
+import magma.agent.communication.perception.impl.RoboCupPerceptorCoalescer;
 import magma.agent.decision.behavior.IBaseWalk;
 import magma.agent.decision.behavior.IBehaviorConstants;
 import magma.agent.decision.behavior.IWalkEstimator;
@@ -132,7 +133,10 @@ public class NaoComponentFactory extends ComponentFactory
 	@Override
 	public IChannelManager createChannelManager(ChannelParameters info)
 	{
-		IChannelManager channelManager = new ChannelManager();
+		ChannelManager channelManager = new ChannelManager(info.getDispatchMode());
+		if (info.shouldCoalesceCycles()) {
+			channelManager.setCoalescer(new RoboCupPerceptorCoalescer());
+		}
 		IRoboCupChannel channel = new SimsparkChannel(channelManager, info);
 		List<String> initParams = new ArrayList<>();
 		initParams.add(getAgentMetaModel().getSceneString());
@@ -7,7 +7,7 @@ package magma.robots.nao.model.agentmodel.ik.impl;
 
 import hso.autonomy.agent.model.agentmodel.IBodyPart;
 import hso.autonomy.agent.model.agentmodel.IHingeJoint;
-import hso.autonomy.agent.model.agentmodel.impl.ik.impl.JacobianTransposeAgentIKSolver;
+import hso.autonomy.agent.model.agentmodel.impl.ik.impl.DampedLeastSquaresAgentIKSolver;
 import hso.autonomy.util.geometry.Geometry;
 import magma.robots.nao.INaoConstants;
 import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
@@ -15,7 +15,7 @@ import org.apache.commons.math3.geometry.euclidean.threed.RotationConvention;
 import org.apache.commons.math3.geometry.euclidean.threed.RotationOrder;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
-public class NaoLegCalculator extends JacobianTransposeAgentIKSolver
+public class NaoLegCalculator extends DampedLeastSquaresAgentIKSolver
 {
 	@Override
 	public boolean solve(IBodyPart targetBody, Vector3D targetPosition, Vector3D targetAngles)
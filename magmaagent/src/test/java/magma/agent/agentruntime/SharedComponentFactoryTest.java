@@ -0,0 +1,89 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.agentruntime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import kdo.util.parameter.ParameterMap;
+import magma.agent.model.agentmeta.IRoboCupAgentMetaModel;
+import magma.robots.nao2.model.agentmeta.Nao2AgentMetaModel;
+import magma.robots.naotoe.model.agentmeta.NaoToeAgentMetaModel;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the component factory sharing parameters between agents
+ */
+public class SharedComponentFactoryTest
+{
+	@Test
+	public void testSharedParametersAndProperties()
+	{
+		ComponentFactory decoratee = createFactory(NaoToeAgentMetaModel.NAME);
+		when(decoratee.createParameters()).thenReturn(new ParameterMap(), new ParameterMap());
+
+		Map<String, ParameterMap> sharedParameters = new ConcurrentHashMap<>();
+		Set<String> loadedProperties = ConcurrentHashMap.newKeySet();
+		SharedComponentFactory player1 = new SharedComponentFactory(decoratee, sharedParameters, loadedProperties);
+		SharedComponentFactory player2 = new SharedComponentFactory(decoratee, sharedParameters, loadedProperties);
+
+		player1.loadProperties(1);
+		player2.loadProperties(2);
+		assertSame(player1.createParameters(), player2.createParameters());
+
+		verify(decoratee, times(1)).loadProperties(1);
+		verify(decoratee, times(1)).createParameters();
+	}
+
+	@Test
+	public void testRobotTypesBehindSameFactoryClass()
+	{
+		// like thin client factories decorating the factories of different robots
+		ComponentFactory naoToe = createFactory(NaoToeAgentMetaModel.NAME);
+		ComponentFactory nao2 = createFactory(Nao2AgentMetaModel.NAME);
+		assertEquals(naoToe.getClass(), nao2.getClass());
+		ParameterMap naoToeParameters = new ParameterMap();
+		ParameterMap nao2Parameters = new ParameterMap();
+		when(naoToe.createParameters()).thenReturn(naoToeParameters);
+		when(nao2.createParameters()).thenReturn(nao2Parameters);
+
+		Map<String, ParameterMap> sharedParameters = new ConcurrentHashMap<>();
+		Set<String> loadedProperties = ConcurrentHashMap.newKeySet();
+		SharedComponentFactory player1 = new SharedComponentFactory(naoToe, sharedParameters, loadedProperties);
+		SharedComponentFactory player2 = new SharedComponentFactory(nao2, sharedParameters, loadedProperties);
+		SharedComponentFactory player3 = new SharedComponentFactory(naoToe, sharedParameters, loadedProperties);
+
+		player1.loadProperties(1);
+		player2.loadProperties(2);
+		player3.loadProperties(3);
+		assertSame(naoToeParameters, player1.createParameters());
+		assertSame(nao2Parameters, player2.createParameters());
+		assertSame(naoToeParameters, player3.createParameters());
+		assertNotSame(player1.createParameters(), player2.createParameters());
+
+		verify(naoToe, times(1)).loadProperties(1);
+		verify(nao2, times(1)).loadProperties(2);
+		verify(naoToe, times(1)).createParameters();
+		verify(nao2, times(1)).createParameters();
+	}
+
+	private static ComponentFactory createFactory(String robotName)
+	{
+		IRoboCupAgentMetaModel metaModel = mock(IRoboCupAgentMetaModel.class);
+		when(metaModel.getName()).thenReturn(robotName);
+		ComponentFactory factory = mock(ComponentFactory.class);
+		when(factory.getAgentMetaModel()).thenReturn(metaModel);
+		return factory;
+	}
+}
@@ -0,0 +1,46 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.communication.channel.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import hso.autonomy.agent.communication.channel.IChannelManager;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the channel logging perceptions to a file
+ */
+public class SimsparkLogfileWriterChannelTest
+{
+	@TempDir
+	File tempDir;
+
+	@Test
+	public void testLogBufferAndByteMessages() throws Exception
+	{
+		File perceptionFile = new File(tempDir, "perception.log");
+		ChannelParameters info = new ChannelParameters("magma", (byte) 0, 1, "localhost", 3100);
+		SimsparkLogfileWriterChannel testee =
+				new SimsparkLogfileWriterChannel(mock(IChannelManager.class), info, perceptionFile, null);
+
+		// as passed by a NIO connection
+		ByteBuffer buffer = ByteBuffer.wrap("xx(time (now 1.00))".getBytes(StandardCharsets.US_ASCII));
+		buffer.position(2);
+		testee.onEachMessage(buffer);
+		testee.onEachMessage("(time (now 1.02))".getBytes(StandardCharsets.US_ASCII));
+		testee.stopChannel();
+
+		assertEquals(Arrays.asList("(time (now 1.00))", "(time (now 1.02))"),
+				Files.readAllLines(perceptionFile.toPath(), StandardCharsets.US_ASCII));
+	}
+}
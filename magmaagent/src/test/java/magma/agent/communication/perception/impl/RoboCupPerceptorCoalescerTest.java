@@ -0,0 +1,52 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.communication.perception.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hso.autonomy.agent.communication.perception.IPerceptorMap;
+import hso.autonomy.agent.communication.perception.impl.PerceptorMap;
+import java.util.Arrays;
+import magma.common.spark.TeamColor;
+import org.junit.jupiter.api.Test;
+
+public class RoboCupPerceptorCoalescerTest
+{
+	private final RoboCupPerceptorCoalescer testee = new RoboCupPerceptorCoalescer();
+
+	@Test
+	public void testCanMerge()
+	{
+		IPerceptorMap kickOff1 = new PerceptorMap(gameState(1, "KickOff_Left"));
+		IPerceptorMap kickOff2 = new PerceptorMap(gameState(1.02f, "KickOff_Left"));
+		IPerceptorMap playOn = new PerceptorMap(gameState(1.04f, "PlayOn"));
+
+		assertTrue(testee.canMerge(kickOff1, kickOff2));
+		assertFalse(testee.canMerge(kickOff2, playOn));
+		assertTrue(testee.canMerge(new PerceptorMap(), playOn));
+	}
+
+	@Test
+	public void testMergeKeepsMessages()
+	{
+		HearPerceptor hear = new HearPerceptor(1, "magma", "self", "hello");
+		IPerceptorMap map1 = new PerceptorMap(gameState(1, "PlayOn"), hear);
+		IPerceptorMap map2 = new PerceptorMap(gameState(1.02f, "PlayOn"));
+
+		IPerceptorMap merged = testee.merge(Arrays.asList(map1, map2));
+		assertSame(map2, merged);
+		assertSame(hear, merged.get(hear.getName()));
+		assertEquals(1.02f, merged.get("GS", GameStatePerceptor.class).getTime(), 0.0001);
+	}
+
+	private static GameStatePerceptor gameState(float time, String playmode)
+	{
+		return new GameStatePerceptor(time, playmode, "left", TeamColor.BLUE, 1, 0, 0);
+	}
+}
@@ -7,16 +7,24 @@ package magma.agent.communication.perception.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import hso.autonomy.agent.communication.perception.IPerceptor;
+import hso.autonomy.agent.communication.perception.IPerceptorMap;
 import hso.autonomy.agent.communication.perception.ITimerPerceptor;
 import hso.autonomy.agent.communication.perception.IVisibleObjectPerceptor;
 import hso.autonomy.agent.communication.perception.impl.ForceResistancePerceptor;
 import hso.autonomy.agent.communication.perception.impl.GyroPerceptor;
 import hso.autonomy.agent.communication.perception.impl.HingeJointPerceptor;
+import hso.autonomy.agent.communication.perception.impl.PerceptorMapPool;
 import hso.autonomy.agent.communication.perception.impl.TimePerceptor;
 import hso.autonomy.agent.communication.perception.impl.TouchPerceptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import magma.agent.communication.perception.IGameStatePerceptor;
 import magma.agent.communication.perception.IHearPerceptor;
@@ -31,15 +39,45 @@ public class ServerMessageParserTest
 {
 	private ServerMessageParser testee;
 
+	/** the streaming parser, checked against the testee for every message */
+	private StreamingServerMessageParser streamingParser;
+
 	@BeforeEach
 	public void setUp()
 	{
 		testee = new ServerMessageParser();
+		streamingParser = new StreamingServerMessageParser();
 	}
 
 	private Map<String, IPerceptor> parseMessage(String message) throws Exception
 	{
-		return testee.parseMessage(message.getBytes());
+		Map<String, IPerceptor> result = testee.parseMessage(message.getBytes());
+		assertSamePerceptors(result, streamingParser.parseMessage(message.getBytes()));
+		return result;
+	}
+
+	/**
+	 * Checks that both maps contain perceptors of the same class and with equal
+	 * field values under the same names
+	 */
+	private static void assertSamePerceptors(Map<String, IPerceptor> expected, Map<String, IPerceptor> actual)
+			throws IllegalAccessException
+	{
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<String, IPerceptor> entry : expected.entrySet()) {
+			IPerceptor perceptor = actual.get(entry.getKey());
+			assertEquals(entry.getValue().getClass(), perceptor.getClass(), entry.getKey());
+
+			for (Class<?> clazz = perceptor.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+				for (Field field : clazz.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						assertEquals(field.get(entry.getValue()), field.get(perceptor),
+								entry.getKey() + "." + field.getName());
+					}
+				}
+			}
+		}
 	}
 
 	/**
@@ -412,4 +450,121 @@ public class ServerMessageParserTest
 
 		assertNotNull(list);
 	}
+
+	/**
+	 * Test that parsing directly from bytes results in the same perceptors
+	 *
+	 * @throws Exception In case of fatal error
+	 */
+	@Test
+	public void testParseBytesMode() throws Exception
+	{
+		String msg =
+				"(time (now 136.99))(GS (t 126.47) (pm PlayOn))(GYR (n torso) (rt 12.09 -0.08 -5.45))(HJ (n hj1) (ax -115.78))(See (G1L (pol 9.20 -48.87 13.29)) (P (team magmaOffenburg) (id 2) (rlowerarm (pol 0.25 27.34 -57.54))))(FRP (n rf) (c 0.00 -0.08 -0.01) (f -0.19 2.64 36.08))";
+
+		Map<String, IPerceptor> expected = parseMessage(msg);
+		Map<String, IPerceptor> list = new ServerMessageParser(true).parseMessage(msg.getBytes());
+
+		assertEquals(expected.keySet(), list.keySet());
+		assertEquals(
+				((HingeJointPerceptor) expected.get("hj1")).getAxis(), ((HingeJointPerceptor) list.get("hj1")).getAxis());
+		assertEquals(
+				((GyroPerceptor) expected.get("torsoGyro")).getGyro(), ((GyroPerceptor) list.get("torsoGyro")).getGyro());
+		assertEquals(((IVisibleObjectPerceptor) expected.get("G1L")).getPosition(),
+				((IVisibleObjectPerceptor) list.get("G1L")).getPosition());
+	}
+
+	/**
+	 * Test that the streaming parser handles messages that are not covered by
+	 * its grammar like the {@link ServerMessageParser}
+	 *
+	 * @throws Exception In case of fatal error
+	 */
+	@Test
+	public void testStreamingParserFallback() throws Exception
+	{
+		parseMessage("(HJ (n hj1) (ax -1.02) (rt 1.0))(TCH n bumper val 1)(AgentState (temp 48) (battery 75))");
+		parseMessage("(unknown (n hj1))(time (now nan))(ACC (n torso) (a NaN 1e2 0.5))(GS (t 1.0) (pm PlayOn x))");
+		parseMessage("(See leaf (B (pol 18.34 4.66 -9.90)) (L (pol 1 2 3) (pol 4 5 6)) (L (pol 7 8 9) (pol 1 2 3)))");
+		parseMessage("(See (P (team a) (head (pol 1.1 2 3)) (pol 2.2 3 4)) (P (pol 1.0 -5.0 2.0)) "
+					 + "(P (id 3) (f (x 1)) (pol 1 2 3)))");
+		parseMessage("(hear magma  12.3 self  first second)(hear 1.5 self x)(hear team 0.5 self msg (x))");
+		parseMessage("(GS (t 2.5) (pm KickOff_Left) (team left) (unum 7) (sl 1) (sr 2)) top (GYR(n torso)(rt 1 2 3))");
+	}
+
+	/**
+	 * Test that the streaming parser rejects malformed messages like the
+	 * {@link ServerMessageParser}
+	 */
+	@Test
+	public void testStreamingParserMalformed()
+	{
+		String[] messages = {"", "HJ", "(HJ (n a) (ax 1)", "(HJ (n a) (ax 1)))", "(HJ)", "((HJ))", "(time (now now))",
+				"(GS (t 1) (foo 2))", "(GS (unum x))", "(See (P (id x)))", "(hear a b)", "(GYR (n torso))"};
+
+		for (String message : messages) {
+			Class<? extends Throwable> expected = assertThrows(
+					Exception.class, () -> testee.parseMessage(message.getBytes()), message)
+														  .getClass();
+			assertEquals(expected,
+					assertThrows(Exception.class, () -> streamingParser.parseMessage(message.getBytes()), message)
+							.getClass(),
+					message);
+		}
+	}
+
+	/**
+	 * Test that a pooled streaming parser reuses released maps and perceptors
+	 *
+	 * @throws Exception In case of fatal error
+	 */
+	@Test
+	public void testPooledStreamingParser() throws Exception
+	{
+		PerceptorMapPool pool = new PerceptorMapPool();
+		StreamingServerMessageParser pooledParser = new StreamingServerMessageParser(pool);
+		String msg1 = "(time (now 1.0))(GYR (n torso) (rt 1 2 3))(HJ (n hj1) (ax -1.5))(See (F1L (pol 1 2 3)))"
+					  + "(FRP (n lf) (c 1 2 3) (f 4 5 6))(ACC (n torso) (a 1 2 3))";
+		String msg2 = "(time (now 1.02))(GYR (n torso) (rt 4 5 6))(HJ (n hj1) (ax 2.5))(See (F1L (pol 4 5 6)))"
+					  + "(FRP (n lf) (c 4 5 6) (f 7 8 9))(ACC (n torso) (a 4 5 6))";
+
+		IPerceptorMap map1 = pooledParser.parseMessage(msg1.getBytes());
+		assertSamePerceptors(testee.parseMessage(msg1.getBytes()), map1);
+		IPerceptor joint = map1.get("hj1");
+		map1.release();
+
+		IPerceptorMap map2 = pooledParser.parseMessage(msg2.getBytes());
+		assertSame(map1, map2);
+		assertSame(joint, map2.get("hj1"));
+		assertSamePerceptors(testee.parseMessage(msg2.getBytes()), map2);
+
+		// maps in use are never reused
+		IPerceptorMap map3 = pooledParser.parseMessage(msg1.getBytes());
+		assertNotSame(map2, map3);
+		assertNotSame(joint, map3.get("hj1"));
+		assertSamePerceptors(testee.parseMessage(msg2.getBytes()), map2);
+		assertEquals(2, pool.getSize());
+	}
+
+	/**
+	 * Test that messages in direct and heap buffers are parsed like arrays
+	 *
+	 * @throws Exception In case of fatal error
+	 */
+	@Test
+	public void testStreamingParserByteBuffer() throws Exception
+	{
+		StreamingServerMessageParser streamingParser = new StreamingServerMessageParser();
+		byte[] msg = "(time (now 1.0))(HJ (n hj1) (ax -1.5))(See (F1L (pol 1 2 3)))".getBytes();
+		IPerceptorMap expected = testee.parseMessage(msg);
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(msg.length + 8);
+		direct.putInt(msg.length).put(msg).putInt(0);
+		direct.position(4).limit(4 + msg.length);
+		assertSamePerceptors(expected, streamingParser.parseMessage(direct));
+		assertEquals(direct.limit(), direct.position());
+
+		ByteBuffer heap = ByteBuffer.wrap(("xx" + new String(msg) + "yy").getBytes(), 2, msg.length);
+		assertSamePerceptors(expected, streamingParser.parseMessage(heap.slice()));
+	}
 }
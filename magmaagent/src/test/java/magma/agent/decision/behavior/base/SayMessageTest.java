@@ -8,12 +8,16 @@ package magma.agent.decision.behavior.base;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import magma.agent.model.worldmeta.ISayCodec;
+import magma.agent.model.worldmeta.impl.DecimalSayCodec;
 import magma.agent.model.worldmeta.impl.SayMessage;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.junit.jupiter.api.Test;
 
 public class SayMessageTest
 {
+	private final ISayCodec codec = new DecimalSayCodec();
+
 	@Test
 	public void simple()
 	{
@@ -51,15 +55,30 @@ public class SayMessageTest
 		message.setTeammateID(9);
 		message.setTeammatePosition(null);
 		message.setOpponentPosition(null);
-		String encodedMessage = message.encode();
+		String encodedMessage = codec.encode(message);
 
-		SayMessage decodedMessage = new SayMessage(encodedMessage);
+		SayMessage decodedMessage = codec.decode(encodedMessage);
 
 		assertEquals(9, decodedMessage.getTeammateID());
 		assertNull(decodedMessage.getTeammatePosition());
 		assertNull(decodedMessage.getOpponentPosition());
 	}
 
+	@Test
+	public void unparsablePositions()
+	{
+		SayMessage decodedMessage = codec.decode("07+0x0+020-050-080");
+		assertEquals(7, decodedMessage.getTeammateID());
+		assertNull(decodedMessage.getTeammatePosition());
+		assertEquals(new Vector3D(-5.0, -8.0, 0.0), decodedMessage.getOpponentPosition());
+
+		decodedMessage = codec.decode("07+010+020-050-0?0");
+		assertEquals(new Vector3D(1.0, 2.0, 0.0), decodedMessage.getTeammatePosition());
+		assertNull(decodedMessage.getOpponentPosition());
+
+		assertNull(codec.decode("x7+010+020-050-080"));
+	}
+
 	@Test
 	public void random()
 	{
@@ -78,9 +97,9 @@ public class SayMessageTest
 		message.setTeammateID(ownID);
 		message.setTeammatePosition(ownPos);
 		message.setOpponentPosition(opponentPos);
-		String encodedMessage = message.encode();
+		String encodedMessage = codec.encode(message);
 
-		SayMessage decodedMessage = new SayMessage(encodedMessage);
+		SayMessage decodedMessage = codec.decode(encodedMessage);
 
 		int decOwnID = decodedMessage.getTeammateID();
 		Vector3D decPlayerPos = decodedMessage.getTeammatePosition();
@@ -0,0 +1,167 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.decision.behavior.supportPoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hso.autonomy.util.function.IFunction;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for the {@link JointTrajectoryTable} class
+ */
+public class JointTrajectoryTableTest
+{
+	private static final String BEHAVIOR = "64.0,true,Nao\n"
+										   + "NeckYaw,linear,0.0,(0.0 0.0),(16.0 0.0),(32.0 90.0),(64.0 0.0)\n"
+										   + "LHipRoll,sine,1.0,(0.0 0.0),(18.56 -9.92),(37.11 0.0)\n"
+										   + "LArmRoll,linear,1.0,(0.0 10.0),(64.0 20.0)\n";
+
+	@TempDir
+	Path tempDir;
+
+	private File behaviorFile;
+
+	@BeforeEach
+	public void setUp() throws IOException
+	{
+		behaviorFile = tempDir.resolve("Test" + FunctionBehaviorParameters.EXTENSION).toFile();
+		writeBehavior(BEHAVIOR);
+	}
+
+	@Test
+	public void testBakeMatchesFunctions() throws IOException
+	{
+		FunctionBehaviorParameters parameters = FunctionBehaviorParameters.readBehaviorFile(behaviorFile);
+		JointTrajectoryTable testee = JointTrajectoryTable.bake(parameters, 2);
+
+		assertEquals(3, testee.getJointCount());
+		assertEquals(64, testee.getPeriod(), 0.0001);
+		for (int joint = 0; joint < testee.getJointCount(); joint++) {
+			IFunction function = parameters.getJoints().get(testee.getJointName(joint));
+			for (float step = 0; step <= 64; step += 0.5f) {
+				assertEquals(function.value(step), testee.getAngle(joint, step), 0.0001);
+				assertEquals(function.derivative(step), testee.getSpeed(joint, step), 0.0001);
+				assertEquals(function.derivative2(step), testee.getAcceleration(joint, step), 0.0001);
+			}
+		}
+
+		// between samples the values are interpolated
+		int neckYaw = indexOf(testee, "NeckYaw");
+		assertEquals(4.21875, testee.getAngle(neckYaw, 16.75f), 0.0001);
+		assertEquals(0, testee.getAngle(neckYaw, 100), 0.0001);
+	}
+
+	@Test
+	public void testMirroredVersion() throws IOException
+	{
+		FunctionBehaviorParameters parameters = FunctionBehaviorParameters.readBehaviorFile(behaviorFile);
+		JointTrajectoryTable original = JointTrajectoryTable.bake(parameters, 1);
+		JointTrajectoryTable testee = original.getMirroredVersion();
+		JointTrajectoryTable expected = JointTrajectoryTable.bake(parameters.getMirroredVersion(), 1);
+
+		for (int joint = 0; joint < expected.getJointCount(); joint++) {
+			int index = indexOf(testee, expected.getJointName(joint));
+			for (int step = 0; step <= 64; step++) {
+				assertEquals(expected.getAngle(joint, step), testee.getAngle(index, step), 0.0001);
+				assertEquals(expected.getSpeed(joint, step), testee.getSpeed(index, step), 0.0001);
+			}
+		}
+	}
+
+	@Test
+	public void testLoadUsesCache() throws IOException
+	{
+		JointTrajectoryTable testee = JointTrajectoryTable.load(behaviorFile.getPath(), 1);
+		File cacheFile = new File(tempDir.toFile(), "Test" + JointTrajectoryTable.CACHE_EXTENSION);
+		assertTrue(cacheFile.isFile());
+		assertEquals("Test", testee.getName());
+		assertTrue(testee.getMirror());
+
+		JointTrajectoryTable cached = JointTrajectoryTable.load(behaviorFile.getPath(), 1);
+		assertEquals(testee.getJointCount(), cached.getJointCount());
+		for (int joint = 0; joint < testee.getJointCount(); joint++) {
+			assertEquals(testee.getJointName(joint), cached.getJointName(joint));
+			for (int step = 0; step <= 64; step++) {
+				assertEquals(testee.getAngle(joint, step), cached.getAngle(joint, step), 0);
+				assertEquals(testee.getAcceleration(joint, step), cached.getAcceleration(joint, step), 0);
+			}
+		}
+
+		// a changed behavior file invalidates the cache
+		writeBehavior(BEHAVIOR.replace("(32.0 90.0)", "(32.0 45.0)"));
+		JointTrajectoryTable changed = JointTrajectoryTable.load(behaviorFile.getPath(), 1);
+		assertEquals(45, changed.getAngle(indexOf(changed, "NeckYaw"), 32), 0.0001);
+	}
+
+	@Test
+	public void testLoadSharedReturnsSameTable() throws IOException
+	{
+		JointTrajectoryTable testee = JointTrajectoryTable.loadShared(behaviorFile.getPath(), 1);
+
+		assertSame(testee, JointTrajectoryTable.loadShared(behaviorFile.getPath(), 1));
+		assertSame(testee.getMirroredVersion(), testee.getMirroredVersion());
+		assertNotSame(testee, JointTrajectoryTable.loadShared(behaviorFile.getPath(), 2));
+	}
+
+	@Test
+	public void testBrokenCacheHeaderIsRebuilt() throws IOException
+	{
+		JointTrajectoryTable testee = JointTrajectoryTable.load(behaviorFile.getPath(), 1);
+		File cacheFile = new File(tempDir.toFile(), "Test" + JointTrajectoryTable.CACHE_EXTENSION);
+
+		// the joint count follows magic, version, checksum, name, period, mirror and sub steps
+		int jointCountOffset = 4 + 4 + 8 + 2 + "Test".length() + 4 + 1 + 4;
+		for (int jointCount : new int[] {-1, Integer.MAX_VALUE, testee.getJointCount() + 1}) {
+			try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+				file.seek(jointCountOffset);
+				file.writeInt(jointCount);
+			}
+			try (InputStream in = new FileInputStream(cacheFile)) {
+				assertThrows(IOException.class, () -> JointTrajectoryTable.read(in));
+			}
+
+			JointTrajectoryTable rebuilt = JointTrajectoryTable.load(behaviorFile.getPath(), 1);
+			assertEquals(testee.getJointCount(), rebuilt.getJointCount());
+			try (InputStream in = new FileInputStream(cacheFile)) {
+				assertEquals(testee.getJointCount(), JointTrajectoryTable.read(in).getJointCount());
+			}
+		}
+
+		// no temporary files are left next to the cache
+		assertEquals(2, tempDir.toFile().list().length);
+	}
+
+	private void writeBehavior(String content) throws IOException
+	{
+		try (PrintWriter out = new PrintWriter(behaviorFile)) {
+			out.print(content);
+		}
+	}
+
+	private static int indexOf(JointTrajectoryTable table, String jointName)
+	{
+		for (int joint = 0; joint < table.getJointCount(); joint++) {
+			if (table.getJointName(joint).equals(jointName)) {
+				return joint;
+			}
+		}
+		return -1;
+	}
+}
@@ -6,6 +6,7 @@
 package magma.agent.model.thoughtmodel.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -42,7 +43,7 @@ public class IFOCalculatorTest extends WorldModelBaseTest
 	}
 
 	/**
-	 * Test for {@link IFOCalculator#getTeammatesAtBall(List)}
+	 * Test for {@link IFOCalculator#getTeammatesAtBall()}
 	 */
 	@Test
 	public void getTeammatesAtBall()
@@ -54,14 +55,15 @@ public class IFOCalculatorTest extends WorldModelBaseTest
 		when(playerMock4.getDistanceToXY(ballPosition)).thenReturn(2.0);
 		when(playerMock4.isLying()).thenReturn(false);
 
-		List<IPlayer> result = testee.getTeammatesAtBall(sourceList);
+		testee.update(sourceList);
+		List<IPlayer> result = testee.getTeammatesAtBall();
 		assertEquals(2, result.size());
 		assertEquals(playerMock2, result.get(0));
 		assertEquals(playerMock4, result.get(1));
 	}
 
 	/**
-	 * Test for {@link IFOCalculator#getTeammatesAtBall(List)}
+	 * Test for {@link IFOCalculator#getTeammatesAtBall()}
 	 */
 	@Test
 	public void getTeammatesAtBallLying()
@@ -73,9 +75,52 @@ public class IFOCalculatorTest extends WorldModelBaseTest
 		when(playerMock4.getDistanceToXY(ballPosition)).thenReturn(2.0);
 		when(playerMock4.isLying()).thenReturn(false);
 
-		List<IPlayer> result = testee.getTeammatesAtBall(sourceList);
+		testee.update(sourceList);
+		List<IPlayer> result = testee.getTeammatesAtBall();
 		assertEquals(2, result.size());
 		assertEquals(playerMock4, result.get(0));
 		assertEquals(playerMock2, result.get(1));
 	}
+
+	/**
+	 * Test for {@link IFOCalculator#getOwnPlayersAtOwnGoal()} and
+	 * {@link IFOCalculator#getOpponentsAtMe()}
+	 */
+	@Test
+	public void updateRefillsLists()
+	{
+		Vector3D ownGoalPosition = new Vector3D(-15, 0, 0);
+		when(worldModelMock.getOwnGoalPosition()).thenReturn(ownGoalPosition);
+		when(playerMock1.getDistanceToXY(ownGoalPosition)).thenReturn(1.0);
+		when(playerMock2.getDistanceToXY(ownGoalPosition)).thenReturn(5.0);
+		when(playerMock4.getDistanceToXY(ownGoalPosition)).thenReturn(4.0);
+		when(thisPlayerMock.getDistanceToXY(ownGoalPosition)).thenReturn(3.0);
+		when(thisPlayerMock.isOwnTeam()).thenReturn(true);
+		when(playerMock4.isOwnTeam()).thenReturn(false);
+		sourceList.remove(playerMock3);
+		IPlayer opponentMock = mock(IPlayer.class);
+		when(opponentMock.getID()).thenReturn(3);
+		Vector3D opponentPosition = new Vector3D(1, 1, 0);
+		when(opponentMock.getPosition()).thenReturn(opponentPosition);
+		when(thisPlayerMock.getDistanceToXY(opponentPosition)).thenReturn(1.0);
+		sourceList.add(opponentMock);
+
+		testee.update(sourceList);
+		List<IPlayer> ownPlayers = testee.getOwnPlayersAtOwnGoal();
+		assertEquals(3, ownPlayers.size());
+		assertEquals(playerMock1, ownPlayers.get(0));
+		assertEquals(thisPlayerMock, ownPlayers.get(1));
+		assertEquals(playerMock2, ownPlayers.get(2));
+
+		List<IPlayer> opponents = testee.getOpponentsAtMe();
+		assertEquals(2, opponents.size());
+		assertEquals(playerMock4, opponents.get(0));
+		assertEquals(opponentMock, opponents.get(1));
+
+		// the same list is refilled
+		sourceList.remove(playerMock4);
+		testee.update(sourceList);
+		assertEquals(1, opponents.size());
+		assertEquals(opponentMock, opponents.get(0));
+	}
 }
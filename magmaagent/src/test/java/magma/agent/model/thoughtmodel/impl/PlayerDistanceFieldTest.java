@@ -0,0 +1,91 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.thoughtmodel.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import magma.agent.model.worldmodel.IPlayer;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link PlayerDistanceField} class
+ */
+public class PlayerDistanceFieldTest
+{
+	private PlayerDistanceField testee;
+
+	private List<IPlayer> players;
+
+	@BeforeEach
+	public void setUp()
+	{
+		testee = new PlayerDistanceField(18, 13, PlayerDistanceField.DEFAULT_RESOLUTION);
+		players = new ArrayList<>();
+		players.add(createPlayer(true, 2, 3));
+		players.add(createPlayer(true, -8, 1));
+		players.add(createPlayer(false, 5, -4));
+		players.add(createPlayer(false, 12, 6));
+	}
+
+	@Test
+	public void testDistancesMatchExactDistances()
+	{
+		IPlayer thisPlayer = createPlayer(true, 0, 0);
+		testee.update(players, thisPlayer);
+
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			double x = random.nextDouble() * 40 - 20;
+			double y = random.nextDouble() * 30 - 15;
+			assertEquals(exactDistance(x, y, true, thisPlayer), testee.getDistanceToNearestTeammate(x, y), 0.15);
+			assertEquals(exactDistance(x, y, false, thisPlayer), testee.getDistanceToNearestOpponent(x, y), 0.15);
+		}
+
+		// exactly on a node
+		assertEquals(Math.sqrt(2), testee.getDistanceToNearestOpponent(4, -3), 0.0001);
+	}
+
+	@Test
+	public void testUpdateReplacesPlayers()
+	{
+		testee.update(players, null);
+		assertEquals(5, testee.getDistanceToNearestOpponent(5, 1), 0.0001);
+
+		testee.update(Collections.singletonList(createPlayer(false, 5, 0)), null);
+		assertEquals(1, testee.getDistanceToNearestOpponent(5, 1), 0.0001);
+		assertEquals(Double.MAX_VALUE, testee.getDistanceToNearestTeammate(5, 1), 0.0001);
+	}
+
+	private double exactDistance(double x, double y, boolean ownTeam, IPlayer thisPlayer)
+	{
+		List<IPlayer> all = new ArrayList<>(players);
+		all.add(thisPlayer);
+		double result = Double.MAX_VALUE;
+		for (IPlayer player : all) {
+			if (player.isOwnTeam() == ownTeam) {
+				Vector3D position = player.getPosition();
+				result = Math.min(result, Math.hypot(position.getX() - x, position.getY() - y));
+			}
+		}
+		return result;
+	}
+
+	private static IPlayer createPlayer(boolean ownTeam, double x, double y)
+	{
+		IPlayer player = mock(IPlayer.class);
+		when(player.isOwnTeam()).thenReturn(ownTeam);
+		when(player.getPosition()).thenReturn(new Vector3D(x, y, 0));
+		return player;
+	}
+}
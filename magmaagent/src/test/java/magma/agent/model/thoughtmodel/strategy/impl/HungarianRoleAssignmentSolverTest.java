@@ -0,0 +1,195 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.thoughtmodel.strategy.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Random;
+import magma.agent.model.thoughtmodel.strategy.IRoleAssignmentSolver;
+import magma.agent.model.thoughtmodel.strategy.impl.HungarianRoleAssignmentSolver.Objective;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the role assignment solvers
+ */
+public class HungarianRoleAssignmentSolverTest
+{
+	@Test
+	public void testSolveSimple()
+	{
+		// greedy assignment of role 0 first would give player 0 role 0 and a total of 1 + 10
+		double[] costs = {1, 2, //
+				2, 10};
+		int[] assignment = new int[2];
+		new HungarianRoleAssignmentSolver().solve(costs, 2, 2, assignment);
+		assertArrayEquals(new int[] {1, 0}, assignment);
+	}
+
+	@Test
+	public void testTotalCostIsOptimal()
+	{
+		HungarianRoleAssignmentSolver testee = new HungarianRoleAssignmentSolver();
+		Random random = new Random(7);
+		for (int run = 0; run < 200; run++) {
+			int players = 1 + random.nextInt(6);
+			int roles = 1 + random.nextInt(6);
+			double[] costs = randomCosts(random, players, roles);
+			int[] assignment = new int[players];
+			testee.solve(costs, players, roles, assignment);
+
+			assertValid(assignment, players, roles);
+			assertEquals(bruteForce(costs, players, roles, false), total(costs, roles, assignment), 0.000001);
+		}
+	}
+
+	@Test
+	public void testMaxCostIsOptimal()
+	{
+		HungarianRoleAssignmentSolver testee = new HungarianRoleAssignmentSolver(Objective.MAX_COST);
+		Random random = new Random(11);
+		for (int run = 0; run < 200; run++) {
+			int players = 1 + random.nextInt(6);
+			int roles = 1 + random.nextInt(6);
+			double[] costs = randomCosts(random, players, roles);
+			int[] assignment = new int[players];
+			testee.solve(costs, players, roles, assignment);
+
+			assertValid(assignment, players, roles);
+			assertEquals(bruteForce(costs, players, roles, true), max(costs, roles, assignment), 0.000001);
+		}
+	}
+
+	@Test
+	public void testCachingReusesAssignment()
+	{
+		IRoleAssignmentSolver decoratee = mock(IRoleAssignmentSolver.class);
+		CachingRoleAssignmentSolver testee = new CachingRoleAssignmentSolver(decoratee, 0.3);
+		double[] costs = {1, 2, 2, 10};
+		int[] assignment = new int[2];
+
+		testee.solve(costs, 2, 2, assignment);
+		costs[0] = 1.2;
+		testee.solve(costs, 2, 2, assignment);
+		costs[1] = 2.25;
+		testee.solve(costs, 2, 2, assignment);
+		verify(decoratee, times(1)).solve(any(), anyInt(), anyInt(), any());
+
+		// changes are compared to the costs of the last calculation, not the last call
+		costs[0] = 1.4;
+		testee.solve(costs, 2, 2, assignment);
+		verify(decoratee, times(2)).solve(any(), anyInt(), anyInt(), any());
+
+		testee.solve(costs, 1, 2, assignment);
+		verify(decoratee, times(3)).solve(any(), anyInt(), anyInt(), any());
+	}
+
+	@Test
+	@Disabled("benchmark")
+	public void benchmark()
+	{
+		HungarianRoleAssignmentSolver testee = new HungarianRoleAssignmentSolver();
+		Random random = new Random(3);
+		double[][] problems = new double[1000][];
+		for (int i = 0; i < problems.length; i++) {
+			problems[i] = randomCosts(random, 10, 10);
+		}
+		int[] assignment = new int[10];
+		for (int round = 0; round < 5; round++) {
+			long start = System.nanoTime();
+			for (double[] costs : problems) {
+				testee.solve(costs, 10, 10, assignment);
+			}
+			System.out.println("10x10: " + (System.nanoTime() - start) / problems.length + " ns per solve");
+		}
+	}
+
+	private static double[] randomCosts(Random random, int players, int roles)
+	{
+		double[] costs = new double[players * roles];
+		for (int i = 0; i < costs.length; i++) {
+			// few distinct values to provoke ties
+			costs[i] = random.nextInt(20) * 0.5;
+		}
+		return costs;
+	}
+
+	private static void assertValid(int[] assignment, int players, int roles)
+	{
+		boolean[] taken = new boolean[roles];
+		int assigned = 0;
+		for (int player = 0; player < players; player++) {
+			int role = assignment[player];
+			if (role >= 0) {
+				assertEquals(false, taken[role]);
+				taken[role] = true;
+				assigned++;
+			}
+		}
+		assertEquals(Math.min(players, roles), assigned);
+	}
+
+	private static double total(double[] costs, int roles, int[] assignment)
+	{
+		double result = 0;
+		for (int player = 0; player < assignment.length; player++) {
+			if (assignment[player] >= 0) {
+				result += costs[player * roles + assignment[player]];
+			}
+		}
+		return result;
+	}
+
+	private static double max(double[] costs, int roles, int[] assignment)
+	{
+		double result = 0;
+		for (int player = 0; player < assignment.length; player++) {
+			if (assignment[player] >= 0) {
+				result = Math.max(result, costs[player * roles + assignment[player]]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the optimal cost over all assignments of min(players, roles) pairs
+	 */
+	private static double bruteForce(double[] costs, int players, int roles, boolean maxCost)
+	{
+		return bruteForce(costs, players, roles, maxCost, 0, new boolean[roles], Math.min(players, roles), 0);
+	}
+
+	private static double bruteForce(double[] costs, int players, int roles, boolean maxCost, int player,
+			boolean[] taken, int toAssign, double sofar)
+	{
+		if (toAssign == 0) {
+			return sofar;
+		}
+		if (players - player < toAssign) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		// player stays without role
+		double best = bruteForce(costs, players, roles, maxCost, player + 1, taken, toAssign, sofar);
+		for (int role = 0; role < roles; role++) {
+			if (!taken[role]) {
+				taken[role] = true;
+				double cost = costs[player * roles + role];
+				double next = maxCost ? Math.max(sofar, cost) : sofar + cost;
+				double rest = bruteForce(costs, players, roles, maxCost, player + 1, taken, toAssign - 1, next);
+				best = Math.min(best, rest);
+				taken[role] = false;
+			}
+		}
+		return best;
+	}
+}
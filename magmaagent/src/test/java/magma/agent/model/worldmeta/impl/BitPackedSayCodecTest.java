@@ -0,0 +1,149 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.agent.model.worldmeta.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hso.autonomy.util.geometry.Angle;
+import java.util.Random;
+import magma.agent.model.worldmeta.ISayCodec;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the {@link BitPackedSayCodec} class
+ */
+public class BitPackedSayCodecTest
+{
+	private final BitPackedSayCodec testee = new BitPackedSayCodec();
+
+	@Test
+	public void testRoundTripRandomMessages()
+	{
+		Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			SayMessage message = new SayMessage();
+			message.setTeammateID(1 + random.nextInt(11));
+			message.setTimeSlot(random.nextInt(SayMessage.TIME_SLOTS));
+			message.setTeammatePosition(randomPosition(random, 15, 10));
+			message.setTeammateHorizontalAngle(Angle.deg(random.nextDouble() * 360 - 180));
+			if (random.nextBoolean()) {
+				message.setBallPosition(randomPosition(random, 15, 10));
+				message.setBallSpeed(randomPosition(random, 0.25, 0.25));
+			}
+			if (random.nextBoolean()) {
+				message.setOpponentPosition(randomPosition(random, 15, 10));
+			}
+
+			String encoded = testee.encode(message);
+			assertEquals(testee.getMessageLength(), encoded.length());
+			assertTrue(encoded.length() <= ISayCodec.MAX_MESSAGE_LENGTH);
+			for (char c : encoded.toCharArray()) {
+				assertTrue(c > ' ' && c <= '~' && c != '(' && c != ')', encoded);
+			}
+
+			SayMessage decoded = testee.decode(encoded);
+			assertEquals(message.getTeammateID(), decoded.getTeammateID());
+			assertEquals(message.getTimeSlot(), decoded.getTimeSlot());
+			assertEquals(0, message.getTeammatePosition().distance(decoded.getTeammatePosition()), 0.01);
+			assertEquals(0,
+					message.getTeammateHorizontalAngle().subtract(decoded.getTeammateHorizontalAngle()).degrees(),
+					0.71);
+			assertPosition(message.getBallPosition(), decoded.getBallPosition(), 0.01);
+			assertPosition(message.getBallSpeed(), decoded.getBallSpeed(), 0.001);
+			assertPosition(message.getOpponentPosition(), decoded.getOpponentPosition(), 0.05);
+		}
+	}
+
+	@Test
+	public void testUnknownValues()
+	{
+		SayMessage message = new SayMessage();
+		message.setTeammateID(9);
+
+		SayMessage decoded = testee.decode(testee.encode(message));
+		assertEquals(9, decoded.getTeammateID());
+		assertNull(decoded.getTeammatePosition());
+		assertNull(decoded.getTeammateHorizontalAngle());
+		assertNull(decoded.getBallPosition());
+		assertNull(decoded.getOpponentPosition());
+	}
+
+	@Test
+	public void testValuesOutOfRangeAreLimited()
+	{
+		SayMessage message = new SayMessage();
+		message.setTeammateID(3);
+		message.setTeammatePosition(new Vector3D(100, -100, 0));
+
+		SayMessage decoded = testee.decode(testee.encode(message));
+		assertEquals(20.47, decoded.getTeammatePosition().getX(), 0.001);
+		assertEquals(-20.48, decoded.getTeammatePosition().getY(), 0.001);
+	}
+
+	@Test
+	public void testForeignMessagesAreRejected()
+	{
+		assertNull(testee.decode(null));
+		assertNull(testee.decode(""));
+		assertNull(testee.decode("07+010+020-050-080"));
+		assertNull(testee.decode(new DecimalSayCodec().encode(new SayMessage())));
+
+		SayMessage message = new SayMessage();
+		message.setTeammateID(5);
+		message.setTeammatePosition(new Vector3D(1, 2, 0));
+		char[] encoded = testee.encode(message).toCharArray();
+		encoded[3] = encoded[3] == '!' ? '"' : '!';
+		assertNull(testee.decode(new String(encoded)));
+	}
+
+	@Test
+	public void testMessageTime()
+	{
+		SayMessage message = new SayMessage();
+		message.setTime(123.46f);
+		SayMessage decoded = testee.decode(testee.encode(message));
+		assertEquals(123.46f, decoded.getTime(123.5f), 0.0001);
+
+		// wrap around of time slots
+		message.setTime(5.10f);
+		decoded = testee.decode(testee.encode(message));
+		assertEquals(5.10f, decoded.getTime(5.14f), 0.0001);
+
+		// without time slot the default delay is assumed
+		assertEquals(9.96f, new SayMessage().getTime(10f), 0.0001);
+	}
+
+	@Test
+	public void testCapacityReport()
+	{
+		String report = testee.getCapacityReport();
+		String[] lines = report.split("\n");
+		assertEquals(17, lines.length, report);
+		assertEquals("SENDER                4 bits", lines[0]);
+		assertTrue(lines[3].startsWith("OWN_X                12 bits, resolution "), lines[3]);
+		assertEquals("CHECKSUM              7 bits", lines[15]);
+		assertTrue(lines[16].startsWith("117 bits in 18 of 20 characters (92 characters, "), lines[16]);
+		assertTrue(report.endsWith(", capacity 130 bits"), report);
+	}
+
+	private static Vector3D randomPosition(Random random, double maxX, double maxY)
+	{
+		return new Vector3D((random.nextDouble() * 2 - 1) * maxX, (random.nextDouble() * 2 - 1) * maxY, 0);
+	}
+
+	private static void assertPosition(Vector3D expected, Vector3D actual, double resolution)
+	{
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+		// rounding error per coordinate is at most half the resolution
+		assertEquals(0, expected.distance(actual), resolution * 0.71);
+	}
+}
@@ -123,36 +123,36 @@ public class PlayerTest
 	{
 		// Test the case in which we're lying and no time has passed
 		Map<String, Vector3D> allBodyParts = new HashMap<>();
-		allBodyParts.put("a", new Vector3D(0, 0, 0));
-		allBodyParts.put("b", new Vector3D(0, 0, 0));
-		allBodyParts.put("c", new Vector3D(0, 0, 0));
+		allBodyParts.put("head", new Vector3D(0, 0, 0));
+		allBodyParts.put("lfoot", new Vector3D(0, 0, 0));
+		allBodyParts.put("rfoot", new Vector3D(0, 0, 0));
 		testee.setBodyParts(allBodyParts);
 		testee.updateLying(0);
 		assertTrue(testee.isLying());
 
 		// Test the case in which we're standing and little time has passed
 		allBodyParts = new HashMap<>();
-		allBodyParts.put("a", new Vector3D(0, 0, 0.4));
-		allBodyParts.put("b", new Vector3D(0, 0, 0));
-		allBodyParts.put("c", new Vector3D(0, 0, 0));
+		allBodyParts.put("head", new Vector3D(0, 0, 0.4));
+		allBodyParts.put("lfoot", new Vector3D(0, 0, 0));
+		allBodyParts.put("rfoot", new Vector3D(0, 0, 0));
 		testee.setBodyParts(allBodyParts);
 		testee.updateLying(0.2f);
 		assertTrue(testee.isLying());
 
 		// Test the case in which we're standing and the time has almost passed
 		allBodyParts = new HashMap<>();
-		allBodyParts.put("a", new Vector3D(0, 0, 0.4));
-		allBodyParts.put("b", new Vector3D(0, 0, 0));
-		allBodyParts.put("c", new Vector3D(0, 0, 0));
+		allBodyParts.put("head", new Vector3D(0, 0, 0.4));
+		allBodyParts.put("lfoot", new Vector3D(0, 0, 0));
+		allBodyParts.put("rfoot", new Vector3D(0, 0, 0));
 		testee.setBodyParts(allBodyParts);
 		testee.updateLying(0.4f);
 		assertTrue(testee.isLying());
 
 		// Test the case in which we're standing and the time has passed
 		allBodyParts = new HashMap<>();
-		allBodyParts.put("a", new Vector3D(0, 0, 0.4));
-		allBodyParts.put("b", new Vector3D(0, 0, 0));
-		allBodyParts.put("c", new Vector3D(0, 0, 0));
+		allBodyParts.put("head", new Vector3D(0, 0, 0.4));
+		allBodyParts.put("lfoot", new Vector3D(0, 0, 0));
+		allBodyParts.put("rfoot", new Vector3D(0, 0, 0));
 		testee.setBodyParts(allBodyParts);
 		testee.updateLying(IMagmaConstants.TIME_DELAY_LYING);
 		assertFalse(testee.isLying());
@@ -166,18 +166,18 @@ public class PlayerTest
 	{
 		// Test the case in which we're standing and no time has passed
 		Map<String, Vector3D> allBodyParts = new HashMap<>();
-		allBodyParts.put("a", new Vector3D(0, 0, 0.4));
-		allBodyParts.put("b", new Vector3D(0, 0, 0));
-		allBodyParts.put("c", new Vector3D(0, 0, 0));
+		allBodyParts.put("head", new Vector3D(0, 0, 0.4));
+		allBodyParts.put("lfoot", new Vector3D(0, 0, 0));
+		allBodyParts.put("rfoot", new Vector3D(0, 0, 0));
 		testee.setBodyParts(allBodyParts);
 		testee.updateLying(0);
 		assertFalse(testee.isLying());
 
 		// Test the case in which we're standing and little time has passed
 		allBodyParts = new HashMap<>();
-		allBodyParts.put("a", new Vector3D(0, 0, 0.0));
-		allBodyParts.put("b", new Vector3D(0, 0, 0));
-		allBodyParts.put("c", new Vector3D(0, 0, 0));
+		allBodyParts.put("head", new Vector3D(0, 0, 0.0));
+		allBodyParts.put("lfoot", new Vector3D(0, 0, 0));
+		allBodyParts.put("rfoot", new Vector3D(0, 0, 0));
 		testee.setBodyParts(allBodyParts);
 		testee.updateLying(0.2f);
 		assertTrue(testee.isLying());
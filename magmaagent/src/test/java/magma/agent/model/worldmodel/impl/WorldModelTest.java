@@ -6,7 +6,10 @@
 package magma.agent.model.worldmodel.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -23,6 +26,7 @@ import magma.agent.communication.perception.impl.PlayerPos;
 import magma.agent.model.agentmodel.IRoboCupAgentModel;
 import magma.agent.model.worldmeta.impl.RCServerMetaModelV63;
 import magma.agent.model.worldmodel.IPlayer;
+import magma.agent.model.worldmodel.PlayerBodyPart;
 import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
 import org.apache.commons.math3.geometry.euclidean.threed.RotationConvention;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
@@ -84,6 +88,46 @@ public class WorldModelTest
 		assertEquals(1, testee.getVisiblePlayers().size());
 	}
 
+	@Test
+	public void testUpdatePlayersKnownAndTemporary()
+	{
+		testee.thisPlayer = new ThisPlayer("self", 0, 0.02f, 0.4f);
+		testee.thisPlayer.setPosition(new Vector3D(0.0, 0.0, 0.0));
+
+		HashMap<String, Vector3D> bodyPartMap = new HashMap<>();
+		bodyPartMap.put("head", new Vector3D(2.0, 3.0, 0.5));
+		bodyPartMap.put("lfoot", new Vector3D(2.0, 3.0, 0.0));
+		bodyPartMap.put("unknown", new Vector3D(2.0, 3.0, 0.2));
+		List<IPlayerPos> playersVision = new ArrayList<>();
+		playersVision.add(new PlayerPos("Player", new Vector3D(2.0, 3.0, 0.0), 3, "other", bodyPartMap, true, "P"));
+		playersVision.add(new PlayerPos("Player", new Vector3D(1.0, 1.0, 0.0), 4, "self", null, true, "P"));
+		playersVision.add(new PlayerPos("Player", new Vector3D(4.0, 1.0, 0.0), -1, "", null, true, "P"));
+		when(perceptionMock.containsVision()).thenReturn(true);
+		when(perceptionMock.getVisiblePlayers()).thenReturn(playersVision);
+
+		testee.updatePlayers(perceptionMock);
+		assertEquals(3, testee.getVisiblePlayers().size());
+		IPlayer opponent = testee.getVisiblePlayer(3, false);
+		assertEquals("other", opponent.getTeamname());
+		assertEquals(2, opponent.getBodyParts().size());
+		assertNotNull(opponent.getBodyPart(PlayerBodyPart.HEAD));
+		assertNull(testee.getVisiblePlayer(3, true));
+		assertEquals(4, testee.getVisiblePlayer(4, true).getID());
+
+		// the incomplete player is replaced, the known players are kept
+		playersVision.remove(0);
+		testee.updatePlayers(perceptionMock);
+		assertEquals(3, testee.getVisiblePlayers().size());
+		assertSame(opponent, testee.getVisiblePlayer(3, false));
+
+		// players not seen for a long time are removed
+		((Player) opponent).setLastSeenTime(-100);
+		testee.updatePlayers(perceptionMock);
+		assertEquals(2, testee.getVisiblePlayers().size());
+		assertNull(testee.getVisiblePlayer(3, false));
+		assertFalse(opponent.isVisible());
+	}
+
 	@Test
 	public void testEstimateDepthStraight() throws Exception
 	{
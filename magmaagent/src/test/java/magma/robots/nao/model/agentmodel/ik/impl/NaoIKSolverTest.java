@@ -0,0 +1,170 @@
+/* Copyright 2008 - 2021 Hochschule Offenburg
+ * For a list of authors see README.md
+ * This software of HSOAutonomy is released under GPL-3 License (see gpl.txt).
+ */
+
+package magma.robots.nao.model.agentmodel.ik.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hso.autonomy.agent.model.agentmodel.IBodyModel;
+import hso.autonomy.agent.model.agentmodel.IBodyPart;
+import hso.autonomy.agent.model.agentmodel.IHingeJoint;
+import hso.autonomy.agent.model.agentmodel.impl.AgentModel;
+import hso.autonomy.agent.model.agentmodel.impl.ik.IAgentIKSolver;
+import hso.autonomy.agent.model.agentmodel.impl.ik.impl.DampedLeastSquaresAgentIKSolver;
+import hso.autonomy.agent.model.agentmodel.impl.ik.impl.JacobianTransposeAgentIKSolver;
+import java.util.Random;
+import magma.robots.nao.INaoConstants;
+import magma.robots.nao.model.agentmeta.NaoAgentMetaModel;
+import org.apache.commons.math3.geometry.euclidean.threed.Rotation;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationConvention;
+import org.apache.commons.math3.geometry.euclidean.threed.RotationOrder;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the leg inverse kinematics solvers. Targets are foot poses of
+ * random leg configurations, so they are reachable.
+ *
+ * @author kdorer
+ */
+public class NaoIKSolverTest
+{
+	/** the number of agent cycles to reach a target with limited joint speed */
+	private static final int CYCLES = 40;
+
+	@Test
+	public void testDampedLeastSquaresReachesTarget()
+	{
+		Random random = new Random(42);
+		for (int i = 0; i < 20; i++) {
+			Vector3D[] target = createTarget(random);
+			IBodyPart foot = createFoot();
+
+			solve(new DampedLeastSquaresAgentIKSolver(), foot, target);
+
+			assertEquals(0, target[0].distance(foot.getPosition()), 0.001);
+			assertEquals(0, Rotation.distance(toRotation(target[1]), foot.getOrientation()), Math.toRadians(1));
+		}
+	}
+
+	@Test
+	public void testDampedLeastSquaresDeltaAngles()
+	{
+		Random random = new Random(7);
+		Vector3D[] target = createTarget(random);
+		IBodyPart foot = createFoot();
+		Vector3D position = foot.getPosition();
+
+		double[] deltas = new DampedLeastSquaresAgentIKSolver().calculateDeltaAngles(foot, target[0], target[1]);
+
+		// six leg joints from hip to foot, model is not changed
+		assertEquals(6, deltas.length);
+		assertEquals(position, foot.getPosition());
+		assertTrue(Math.abs(deltas[3]) > 0.1);
+	}
+
+	/**
+	 * Prints accuracy and runtime of the solvers. Not a regular test since
+	 * timing depends on the machine.
+	 */
+	@Test
+	@Disabled
+	public void testBenchmark()
+	{
+		benchmark("JacobianTranspose", new JacobianTransposeAgentIKSolver());
+		benchmark("DampedLeastSquares", new DampedLeastSquaresAgentIKSolver());
+		benchmark("NaoLegCalculator", new NaoLegCalculator());
+	}
+
+	private void benchmark(String name, IAgentIKSolver solver)
+	{
+		Random random = new Random(1);
+		int targets = 200;
+		double positionError = 0;
+		double angleError = 0;
+		long time = 0;
+		for (int run = 0; run < 5; run++) {
+			// the first runs are warm up
+			if (run == 4) {
+				positionError = 0;
+				angleError = 0;
+				time = 0;
+			}
+			for (int i = 0; i < targets; i++) {
+				Vector3D[] target = createTarget(random);
+				IBodyPart foot = createFoot();
+				time += solve(solver, foot, target);
+				positionError += target[0].distance(foot.getPosition());
+				angleError += Rotation.distance(toRotation(target[1]), foot.getOrientation());
+			}
+		}
+		System.out.printf("%-20s ns/solve: %8d position error (mm): %8.3f angle error (deg): %7.3f\n", name,
+				time / (targets * CYCLES), positionError / targets * 1000, Math.toDegrees(angleError / targets));
+	}
+
+	/**
+	 * Solves the target for a number of cycles, since joints move with limited
+	 * speed per cycle
+	 *
+	 * @return the nanoseconds spent in the solver
+	 */
+	private long solve(IAgentIKSolver solver, IBodyPart foot, Vector3D[] target)
+	{
+		long time = 0;
+		for (int cycle = 0; cycle < CYCLES; cycle++) {
+			long start = System.nanoTime();
+			solver.solve(foot, target[0], target[1]);
+			time += System.nanoTime() - start;
+			nextCycle(foot);
+		}
+		return time;
+	}
+
+	/**
+	 * @return foot position and target angles of a random leg configuration
+	 */
+	private Vector3D[] createTarget(Random random)
+	{
+		IBodyPart foot = createFoot();
+		double[] angles = {random.nextDouble() * -40, random.nextDouble() * 20 - 10, random.nextDouble() * 60 - 20,
+				random.nextDouble() * -80, random.nextDouble() * 40 - 20, random.nextDouble() * 20 - 10};
+		for (int cycle = 0; cycle < CYCLES; cycle++) {
+			IBodyPart current = foot;
+			for (int i = 5; i >= 0; i--) {
+				((IHingeJoint) current.getJoint()).performAxisPosition(angles[i]);
+				current = current.getParent();
+			}
+			nextCycle(foot);
+		}
+
+		double[] zxy = foot.getOrientation().getAngles(RotationOrder.ZXY, RotationConvention.VECTOR_OPERATOR);
+		Vector3D targetAngles = new Vector3D(Math.toDegrees(zxy[1]), Math.toDegrees(zxy[2]), Math.toDegrees(zxy[0]));
+		return new Vector3D[] {foot.getPosition(), targetAngles};
+	}
+
+	private static Rotation toRotation(Vector3D angles)
+	{
+		return new Rotation(RotationOrder.ZXY, RotationConvention.VECTOR_OPERATOR, Math.toRadians(angles.getZ()),
+				Math.toRadians(angles.getX()), Math.toRadians(angles.getY()));
+	}
+
+	private static IBodyPart createFoot()
+	{
+		IBodyModel bodyModel = new AgentModel(NaoAgentMetaModel.INSTANCE, null).getFutureBodyModel();
+		return bodyModel.getBodyPart(INaoConstants.LFoot);
+	}
+
+	private static void nextCycle(IBodyPart foot)
+	{
+		IBodyPart current = foot;
+		while (current.getJoint() != null) {
+			IHingeJoint joint = (IHingeJoint) current.getJoint();
+			joint.updateNoPerception();
+			current = current.getParent();
+		}
+	}
+}